@@ -88,6 +88,7 @@ import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.util.DateTimeService;
 import org.mifos.framework.util.helpers.DateUtils;
 import org.mifos.framework.util.helpers.Money;
+import org.mifos.framework.util.helpers.MoneyAccumulator;
 import org.mifos.schedule.ScheduledDateGeneration;
 import org.mifos.schedule.ScheduledEvent;
 import org.mifos.schedule.ScheduledEventFactory;
@@ -434,6 +435,7 @@ public class AccountBO extends AbstractBusinessObject {
 
     public void addAccountActionDate(final AccountActionDateEntity accountAction) {
         accountActionDates.add(accountAction);
+        accountActionDatesChanged();
     }
 
     public void addAccountPayment(final AccountPaymentEntity payment) {
@@ -490,6 +492,7 @@ public class AccountBO extends AbstractBusinessObject {
 
     public final AccountPaymentEntity applyPayment(final PaymentData paymentData) throws AccountException {
         AccountPaymentEntity accountPayment = makePayment(paymentData);
+        accountActionDatesChanged();
         addAccountPayment(accountPayment);
         buildFinancialEntries(accountPayment.getAccountTrxns());
         return accountPayment;
@@ -541,6 +544,7 @@ public class AccountBO extends AbstractBusinessObject {
             final String adjustmentComment) throws AccountException {
         List<AccountTrxnEntity> reversedTrxns = accountPayment.reversalAdjustment(personnel, adjustmentComment);
         updateInstallmentAfterAdjustment(reversedTrxns, personnel);
+        accountActionDatesChanged();
         buildFinancialEntries(new LinkedHashSet<AccountTrxnEntity>(reversedTrxns));
     }
 
@@ -563,6 +567,7 @@ public class AccountBO extends AbstractBusinessObject {
         }
         if (nextInstallment != null) {
             regenerateFutureInstallments(nextInstallment, workingDays, holidays);
+            accountActionDatesChanged();
         }
     }
 
@@ -1187,22 +1192,22 @@ public class AccountBO extends AbstractBusinessObject {
 
 	private Money getTotalAmountInArrearsOn(LocalDate asOf) {
     	List<AccountActionDateEntity> installmentsInArrears = getDetailsOfInstallmentsInArrearsOn(asOf);
-        Money totalAmount = Money.zero(getCurrency());
+        MoneyAccumulator totalAmount = new MoneyAccumulator(getCurrency());
         for (AccountActionDateEntity accountAction : installmentsInArrears) {
-            totalAmount = totalAmount.add(getDueAmount(accountAction));
+            totalAmount.add(getDueAmount(accountAction));
         }
-        return totalAmount;
+        return totalAmount.toMoney();
 	}
 
 	public Money getTotalAmountInArrears() {
         List<AccountActionDateEntity> installmentsInArrears = getDetailsOfInstallmentsInArrears();
-        Money totalAmount = new Money(getCurrency());
+        MoneyAccumulator totalAmount = new MoneyAccumulator(getCurrency());
         if (installmentsInArrears != null && installmentsInArrears.size() > 0) {
             for (AccountActionDateEntity accountAction : installmentsInArrears) {
-                totalAmount = totalAmount.add(getDueAmount(accountAction));
+                totalAmount.add(getDueAmount(accountAction));
             }
         }
-        return totalAmount;
+        return totalAmount.toMoney();
     }
 
     public List<AccountActionDateEntity> getTotalInstallmentsDue() {
@@ -1650,6 +1655,7 @@ public class AccountBO extends AbstractBusinessObject {
                 throw new AccountException(e);
             }
         }
+        accountActionDatesChanged();
     }
 
     /**
@@ -1710,6 +1716,14 @@ public class AccountBO extends AbstractBusinessObject {
 
     protected void resetAccountActionDates() {
         this.accountActionDates.clear();
+        accountActionDatesChanged();
+    }
+
+    /**
+     * Called after the installments or their amounts have changed, for subclasses that keep anything worked out from
+     * them.
+     */
+    protected void accountActionDatesChanged() {
     }
 
     protected void updateInstallmentAfterAdjustment(final List<AccountTrxnEntity> reversedTrxns, PersonnelBO loggedInUser)
@@ -1983,6 +1997,7 @@ public class AccountBO extends AbstractBusinessObject {
             }
             installmentId++;
         }
+        accountActionDatesChanged();
     }
 
     // To be used strictly from test code
@@ -2018,6 +2033,7 @@ public class AccountBO extends AbstractBusinessObject {
         int day = currentDateCalendar.get(Calendar.DAY_OF_MONTH);
         currentDateCalendar = new GregorianCalendar(year, month, day + numberOfDays);
         changeActionDateOfFirstInstallment(currentDateCalendar, getAccountActionDates());
+        accountActionDatesChanged();
     }
     /**
     * Check if account is active savings account
@@ -59,6 +59,7 @@ import org.mifos.dto.screen.FeeDetailsForLoadDto;
 import org.mifos.dto.screen.FeeDetailsForPreviewDto;
 import org.mifos.dto.screen.FeeParameters;
 import org.mifos.framework.exceptions.ApplicationException;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.util.helpers.Money;
 import org.mifos.security.MifosUser;
 import org.mifos.security.util.UserContext;
@@ -163,6 +164,7 @@ public class FeeServiceFacadeWebTier implements FeeServiceFacade {
 
         try {
             this.feeService.update(feeUpdateRequest, userContext);
+            SecondLevelCache.evictFees();
         } catch (ApplicationException e) {
             throw new BusinessRuleException(e.getKey(), e);
         }
@@ -210,6 +212,8 @@ public class FeeServiceFacadeWebTier implements FeeServiceFacade {
 		if  (!feeToRemove.isActive()) { 	
 			try {
 				this.feeService.remove(feeToRemove, isInProducts, isFeeInUsedLoan, remove);
+				SecondLevelCache.evictFees();
+				SecondLevelCache.evictProducts();
 			} catch (MifosRuntimeException e) {
 				throw new MifosRuntimeException(e.getMessage());
 			}
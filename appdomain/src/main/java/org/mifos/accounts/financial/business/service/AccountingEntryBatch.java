@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.financial.business.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.mifos.accounts.financial.business.FinancialTransactionBO;
+import org.mifos.framework.util.helpers.Money;
+
+/**
+ * Collects the accounting entries built during one unit of work so that they can be written with JDBC batch inserts
+ * instead of being cascaded one insert at a time from their {@link org.mifos.accounts.business.AccountTrxnEntity}.
+ * <p>
+ * A batch is bound to the current thread between {@link #begin()} and {@link #end()}. While it is open,
+ * {@link org.mifos.accounts.financial.business.service.activity.BaseFinancialActivity} adds the entries it builds here
+ * rather than to the account transaction. The caller must flush the session, so that the account transactions have
+ * their ids, before calling {@link #write(Connection)} in the same database transaction. Entries of account
+ * transactions that were not saved are not written, as they would not have been cascaded either.
+ */
+public class AccountingEntryBatch {
+
+    private static final String INSERT_FINANCIAL_TRXN = "insert into financial_trxn "
+            + "(account_trxn_id, related_fin_trxn, fin_action_id, glcode_id, action_date, posted_date, posted_by, "
+            + "accounting_updated, notes, debit_credit_flag, posted_amount_currency_id, posted_amount, "
+            + "balance_amount_currency_id, balance_amount) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private static final ThreadLocal<AccountingEntryBatch> currentBatch = new ThreadLocal<AccountingEntryBatch>();
+
+    private final List<FinancialTransactionBO> entries = new ArrayList<FinancialTransactionBO>();
+
+    public static AccountingEntryBatch begin() {
+        if (currentBatch.get() != null) {
+            throw new IllegalStateException("An accounting entry batch is already open on this thread");
+        }
+        AccountingEntryBatch batch = new AccountingEntryBatch();
+        currentBatch.set(batch);
+        return batch;
+    }
+
+    /**
+     * @return the batch open on the current thread, or null
+     */
+    public static AccountingEntryBatch getCurrent() {
+        return currentBatch.get();
+    }
+
+    /**
+     * Unbinds the batch from the current thread. Entries not yet written are discarded.
+     */
+    public static void end() {
+        currentBatch.remove();
+    }
+
+    public void add(FinancialTransactionBO financialTransaction) {
+        entries.add(financialTransaction);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Inserts the collected entries and clears the batch. Does not commit.
+     *
+     * @return the number of entries written
+     */
+    public int write(Connection connection) throws SQLException {
+        int written = 0;
+        PreparedStatement statement = connection.prepareStatement(INSERT_FINANCIAL_TRXN);
+        try {
+            int batched = 0;
+            for (FinancialTransactionBO entry : entries) {
+                Integer accountTrxnId = entry.getAccountTrxn().getAccountTrxnId();
+                if (accountTrxnId == null) {
+                    continue;
+                }
+                statement.setInt(1, accountTrxnId);
+                if (entry.getRelatedFinancialTrxn() == null) {
+                    statement.setNull(2, Types.INTEGER);
+                } else {
+                    statement.setInt(2, entry.getRelatedFinancialTrxn().getTrxnId());
+                }
+                statement.setShort(3, entry.getFinancialAction().getId());
+                statement.setShort(4, entry.getGlcode().getGlcodeId());
+                statement.setTimestamp(5, toTimestamp(entry.getActionDate()));
+                statement.setTimestamp(6, toTimestamp(entry.getPostedDate()));
+                if (entry.getPostedBy() == null) {
+                    statement.setNull(7, Types.SMALLINT);
+                } else {
+                    statement.setShort(7, entry.getPostedBy().getPersonnelId());
+                }
+                statement.setObject(8, entry.getAccountingUpdated(), Types.SMALLINT);
+                statement.setString(9, entry.getNotes());
+                statement.setObject(10, entry.getDebitCreditFlag(), Types.SMALLINT);
+                setMoney(statement, 11, entry.getPostedAmount());
+                setMoney(statement, 13, entry.getBalanceAmount());
+                statement.addBatch();
+                written++;
+                if (++batched == JDBC_BATCH_SIZE) {
+                    statement.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                statement.executeBatch();
+            }
+        } finally {
+            statement.close();
+        }
+        entries.clear();
+        return written;
+    }
+
+    private static Timestamp toTimestamp(Date date) {
+        return date == null ? null : new Timestamp(date.getTime());
+    }
+
+    /**
+     * Binds the amount the way {@link org.mifos.framework.util.helpers.MoneyCompositeUserType} does.
+     */
+    private static void setMoney(PreparedStatement statement, int index, Money amount) throws SQLException {
+        if (amount == null) {
+            statement.setNull(index, Types.SMALLINT);
+            statement.setNull(index + 1, Types.NUMERIC);
+        } else {
+            statement.setShort(index, amount.getCurrency().getCurrencyId());
+            statement.setBigDecimal(index + 1, amount.getAmount());
+        }
+    }
+}
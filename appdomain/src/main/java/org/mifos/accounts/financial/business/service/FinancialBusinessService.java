@@ -21,7 +21,9 @@
 package org.mifos.accounts.financial.business.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.mifos.accounts.business.AccountTrxnEntity;
@@ -57,6 +59,96 @@ import org.mifos.security.util.UserContext;
 
 public class FinancialBusinessService implements BusinessService {
 
+    /**
+     * The financial activity that builds the accounting entries of each account action, looked up once per
+     * transaction instead of testing the action against every type in turn. Actions without an entry produce no
+     * accounting entries.
+     */
+    private static final Map<Short, FinancialActivityFactory> activityFactories = new HashMap<Short, FinancialActivityFactory>();
+
+    static {
+        activityFactories.put(AccountActionTypes.LOAN_REPAYMENT.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new LoanRepaymentFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.SAVINGS_INTEREST_POSTING.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new SavingsInterestPostingFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.SAVINGS_WITHDRAWAL.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new SavingsWithdrawalFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.SAVINGS_DEPOSIT.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new SavingsDepositFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.DISBURSAL.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new LoanDisbursementFinantialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.FEE_REPAYMENT.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new FeeRepaymentFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.CUSTOMER_ACCOUNT_REPAYMENT.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new CustomerAccountRepaymentFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.SAVINGS_ADJUSTMENT.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new SavingsAdjustmentFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.CUSTOMER_ADJUSTMENT.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new CustomerAdjustmentFinancialActivity(accountTrxn);
+            }
+        });
+        FinancialActivityFactory loanAdjustment = new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new LoanAdjustmentFinancialActivity(accountTrxn);
+            }
+        };
+        activityFactories.put(AccountActionTypes.LOAN_ADJUSTMENT.getValue(), loanAdjustment);
+        activityFactories.put(AccountActionTypes.LOAN_REVERSAL.getValue(), loanAdjustment);
+        activityFactories.put(AccountActionTypes.WRITEOFF.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new WriteOffFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.LOAN_RESCHEDULED.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new RescheduleFinancialActivity(accountTrxn);
+            }
+        });
+        activityFactories.put(AccountActionTypes.LOAN_DISBURSAL_AMOUNT_REVERSAL.getValue(), new FinancialActivityFactory() {
+            @Override
+            BaseFinancialActivity create(AccountTrxnEntity accountTrxn) {
+                return new DisbursalAmountReversalFinancialActivity(accountTrxn);
+            }
+        });
+    }
+
     public COABO getGlAccount(String glcode) throws FinancialException {
         return ChartOfAccountsCache.get(glcode);
     }
@@ -76,47 +168,9 @@ public class FinancialBusinessService implements BusinessService {
     }
 
     public void buildAccountingEntries(AccountTrxnEntity accounttrxn) throws FinancialException {
-        BaseFinancialActivity baseFinancialActivity = null;
-        if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.LOAN_REPAYMENT.getValue()) {
-            baseFinancialActivity = new LoanRepaymentFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == (AccountActionTypes.SAVINGS_INTEREST_POSTING.getValue())) {
-            baseFinancialActivity = new SavingsInterestPostingFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == (AccountActionTypes.SAVINGS_WITHDRAWAL
-                .getValue())) {
-            baseFinancialActivity = new SavingsWithdrawalFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.SAVINGS_DEPOSIT
-                .getValue()) {
-            baseFinancialActivity = new SavingsDepositFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.DISBURSAL.getValue()) {
-            baseFinancialActivity = new LoanDisbursementFinantialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.FEE_REPAYMENT
-                .getValue()) {
-            baseFinancialActivity = new FeeRepaymentFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.CUSTOMER_ACCOUNT_REPAYMENT
-                .getValue()) {
-            baseFinancialActivity = new CustomerAccountRepaymentFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.SAVINGS_ADJUSTMENT
-                .getValue()) {
-            baseFinancialActivity = new SavingsAdjustmentFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.CUSTOMER_ADJUSTMENT
-                .getValue()) {
-            baseFinancialActivity = new CustomerAdjustmentFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.LOAN_ADJUSTMENT
-                .getValue()
-                || accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.LOAN_REVERSAL
-                        .getValue()) {
-            baseFinancialActivity = new LoanAdjustmentFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.WRITEOFF.getValue()) {
-            baseFinancialActivity = new WriteOffFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.LOAN_RESCHEDULED
-                .getValue()) {
-            baseFinancialActivity = new RescheduleFinancialActivity(accounttrxn);
-        } else if (accounttrxn.getAccountActionEntity().getId().shortValue() == AccountActionTypes.LOAN_DISBURSAL_AMOUNT_REVERSAL
-                .getValue()) {
-            baseFinancialActivity = new DisbursalAmountReversalFinancialActivity(accounttrxn);
-        }
-        if (baseFinancialActivity != null) {
-            baseFinancialActivity.buildAccountEntries();
+        FinancialActivityFactory factory = activityFactories.get(accounttrxn.getAccountActionEntity().getId());
+        if (factory != null) {
+            factory.create(accounttrxn).buildAccountEntries();
         }
     }
 
@@ -151,4 +205,8 @@ public class FinancialBusinessService implements BusinessService {
             throw new AccountException("errors.unexpected", e);
         }
     }
+
+    private abstract static class FinancialActivityFactory {
+        abstract BaseFinancialActivity create(AccountTrxnEntity accountTrxn);
+    }
 }
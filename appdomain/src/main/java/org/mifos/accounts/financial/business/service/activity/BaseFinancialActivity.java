@@ -26,6 +26,7 @@ import java.util.List;
 import org.mifos.accounts.business.AccountBO;
 import org.mifos.accounts.business.AccountTrxnEntity;
 import org.mifos.accounts.financial.business.FinancialTransactionBO;
+import org.mifos.accounts.financial.business.service.AccountingEntryBatch;
 import org.mifos.accounts.financial.business.service.activity.accountingentry.BaseAccountingEntry;
 import org.mifos.accounts.financial.exceptions.FinancialException;
 import org.mifos.accounts.loan.business.LoanTrxnDetailEntity;
@@ -53,8 +54,13 @@ public abstract class BaseFinancialActivity {
             financialActionEntry.buildAccountEntryForAction(this);
         }
 
+        AccountingEntryBatch batch = AccountingEntryBatch.getCurrent();
         for (FinancialTransactionBO financialTransaction : financialTransactions) {
-            accountTrxn.addFinancialTransaction(financialTransaction);
+            if (batch == null) {
+                accountTrxn.addFinancialTransaction(financialTransaction);
+            } else {
+                batch.add(financialTransaction);
+            }
         }
     }
 
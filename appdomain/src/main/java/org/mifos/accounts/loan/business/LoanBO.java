@@ -186,6 +186,7 @@ import org.mifos.framework.util.DateTimeService;
 import org.mifos.framework.util.helpers.Constants;
 import org.mifos.framework.util.helpers.DateUtils;
 import org.mifos.framework.util.helpers.Money;
+import org.mifos.framework.util.helpers.MoneyAccumulator;
 import org.mifos.framework.util.helpers.MoneyUtils;
 import org.mifos.framework.util.helpers.Transformer;
 import org.mifos.schedule.ScheduledDateGeneration;
@@ -261,6 +262,9 @@ public class LoanBO extends AccountBO implements Loan {
 
     private Set<LoanBO> memberAccounts;
 
+    // totals of the schedule, kept until the schedule changes
+    private LoanScheduleTotals scheduleTotals;
+
     // persistence
     private LoanPrdPersistence loanPrdPersistence;
     private LegacyLoanDao legacyLoanDao = null;
@@ -882,6 +886,7 @@ public class LoanBO extends AccountBO implements Loan {
         } else if (waiveType.equals(WaiveEnum.PENALTY)) {
             waivePenaltyAmountDue();
         }
+        invalidateScheduleTotals();
     }
 
     @Override
@@ -891,85 +896,68 @@ public class LoanBO extends AccountBO implements Loan {
         } else if (waiveType.equals(WaiveEnum.PENALTY)) {
             waivePenaltyAmountOverDue();
         }
+        invalidateScheduleTotals();
     }
 
-    public Money getTotalPrincipalAmount() {
-        Money amount = new Money(getCurrency());
-        List<AccountActionDateEntity> installments = getAllInstallments();
-        for (AccountActionDateEntity accountActionDateEntity : installments) {
-            amount = amount.add(((LoanScheduleEntity) accountActionDateEntity).getPrincipal());
+    /**
+     * The totals of the schedule as of today, worked out once and kept until the schedule changes.
+     */
+    public LoanScheduleTotals getScheduleTotals() {
+        Date currentDate = DateUtils.getCurrentDateWithoutTimeStamp();
+        if (scheduleTotals == null || !scheduleTotals.isAsOf(currentDate)) {
+            scheduleTotals = new LoanScheduleTotals(getCurrency(), getAccountActionDates(), currentDate);
         }
-        return amount;
+        return scheduleTotals;
+    }
+
+    /**
+     * To be called whenever the installments of the schedule change, so the totals are worked out again when next
+     * asked for. Changes made through this loan and {@link AccountBO} invalidate them already.
+     */
+    public void invalidateScheduleTotals() {
+        this.scheduleTotals = null;
+    }
+
+    @Override
+    protected void accountActionDatesChanged() {
+        invalidateScheduleTotals();
+    }
+
+    private LoanScheduleTotals getScheduleTotalsWithLateness() throws PersistenceException {
+        LoanScheduleTotals totals = getScheduleTotals();
+        if (totals.getLatenessDays() == null) {
+            loanPrdPersistence = new LoanPrdPersistence();
+            totals.setLatenessDays(loanPrdPersistence.retrieveLatenessForPrd());
+        }
+        return totals;
+    }
+
+    public Money getTotalPrincipalAmount() {
+        return getScheduleTotals().getTotalPrincipal();
     }
     
     public Money getTotalPrincipalDue() {
-        Money amount = new Money(getCurrency());
-        List<AccountActionDateEntity> installments = getAllInstallments();
-        for (AccountActionDateEntity accountActionDateEntity : installments) {
-            amount = amount.add(((LoanScheduleEntity) accountActionDateEntity).getPrincipalDue());
-        }
-        return amount;
+        return getScheduleTotals().getTotalPrincipalDue();
     }
 
     public Money getTotalPrincipalAmountInArrears() {
-        Money amount = new Money(getCurrency());
-        List<AccountActionDateEntity> actionDateList = getDetailsOfInstallmentsInArrears();
-        for (AccountActionDateEntity accountActionDateEntity : actionDateList) {
-            LoanScheduleEntity loanScheduleEntity = (LoanScheduleEntity) accountActionDateEntity;
-            amount = amount.add(loanScheduleEntity.getPrincipal().subtract(loanScheduleEntity.getPrincipalPaid()));
-        }
-        return amount;
+        return getScheduleTotals().getPrincipalInArrears();
     }
 
     public Money getTotalPrincipalAmountInArrearsAndOutsideLateness() throws PersistenceException {
-        Money amount = new Money(getCurrency());
-        loanPrdPersistence = new LoanPrdPersistence();
-        Date currentDate = DateUtils.getCurrentDateWithoutTimeStamp();
-        List<AccountActionDateEntity> actionDateList = getDetailsOfInstallmentsInArrears();
-        for (AccountActionDateEntity accountActionDateEntity : actionDateList) {
-            if (accountActionDateEntity.isNotPaid()
-                    && currentDate.getTime() - accountActionDateEntity.getActionDate().getTime() > loanPrdPersistence
-                            .retrieveLatenessForPrd().intValue()
-                            * 24 * 60 * 60 * 1000) {
-                amount = amount.add(((LoanScheduleEntity) accountActionDateEntity).getPrincipalDue());
-            }
-        }
-        return amount;
+        return getScheduleTotalsWithLateness().getPrincipalInArrearsOutsideLateness();
     }
 
     public Money getTotalInterestAmountInArrears() {
-        Money amount = new Money(getCurrency());
-        List<AccountActionDateEntity> actionDateList = getDetailsOfInstallmentsInArrears();
-        for (AccountActionDateEntity accountActionDateEntity : actionDateList) {
-            LoanScheduleEntity loanScheduleEntity = (LoanScheduleEntity) accountActionDateEntity;
-            amount = amount.add(loanScheduleEntity.getInterest().subtract(loanScheduleEntity.getInterestPaid()));
-        }
-        return amount;
+        return getScheduleTotals().getInterestInArrears();
     }
     
     public Money getTotalInterestToBePaid() {
-        Money amount = new Money(getCurrency());
-        List<AccountActionDateEntity> actionDateList = getAllInstallments();
-        for (AccountActionDateEntity accountActionDateEntity : actionDateList) {
-            LoanScheduleEntity loanScheduleEntity = (LoanScheduleEntity) accountActionDateEntity;
-            amount = amount.add(loanScheduleEntity.getInterest());
-        }
-        return amount;
+        return getScheduleTotals().getTotalInterest();
     }
 
     public Money getTotalInterestAmountInArrearsAndOutsideLateness() throws PersistenceException {
-        Money amount = new Money(getCurrency());
-        loanPrdPersistence = new LoanPrdPersistence();
-        Date currentDate = DateUtils.getCurrentDateWithoutTimeStamp();
-        List<AccountActionDateEntity> actionDateList = getDetailsOfInstallmentsInArrears();
-        for (AccountActionDateEntity accountActionDateEntity : actionDateList) {
-            if (currentDate.getTime() - accountActionDateEntity.getActionDate().getTime() > loanPrdPersistence
-                    .retrieveLatenessForPrd().intValue()
-                    * 24 * 60 * 60 * 1000) {
-                amount = amount.add(((LoanScheduleEntity) accountActionDateEntity).getInterest());
-            }
-        }
-        return amount;
+        return getScheduleTotalsWithLateness().getInterestInArrearsOutsideLateness();
     }
 
     /**
@@ -1030,7 +1018,7 @@ public class LoanBO extends AccountBO implements Loan {
                 throw new AccountException(e);
             }
         }
-
+        invalidateScheduleTotals();
     }
 
     /**
@@ -1150,6 +1138,7 @@ public class LoanBO extends AccountBO implements Loan {
             	applyRoundingOnInstallments(unroundedLoanSchedules, allExistingLoanSchedules);
             }
         }
+        invalidateScheduleTotals();
     }
 
     private void applyRoundingOnInstallments(List<LoanScheduleEntity> unroundedLoanSchedules, List<LoanScheduleEntity> allExistingLoanSchedules) {
@@ -1325,6 +1314,7 @@ public class LoanBO extends AccountBO implements Loan {
                 throw new AccountException(e);
             }
         }
+        invalidateScheduleTotals();
     }
 
     public void disburseLoan(final AccountPaymentEntity disbursalPayment, Short paymentTypeIdForFees, Integer accountForTransferId)
@@ -1354,21 +1344,21 @@ public class LoanBO extends AccountBO implements Loan {
     }
 
     private Money principleOfFutureInstallments() {
-        Money amount = new Money(getCurrency());
+        MoneyAccumulator amount = new MoneyAccumulator(getCurrency());
         List<AccountActionDateEntity> futureInstallments = getApplicableIdsForFutureInstallments();
         for (AccountActionDateEntity futureInstallment : futureInstallments) {
-            amount = amount.add(((LoanScheduleEntity) futureInstallment).getPrincipalDue());
+            amount.add(((LoanScheduleEntity) futureInstallment).getPrincipalDue());
         }
-        return amount;
+        return amount.toMoney();
     }
 
     private Money nextInstallmentAndArrears() {
-        Money amount = new Money(getCurrency());
+        MoneyAccumulator amount = new MoneyAccumulator(getCurrency());
         List<AccountActionDateEntity> dueInstallments = getApplicableIdsForNextInstallmentAndArrears();
         for (AccountActionDateEntity dueInstallment : dueInstallments) {
-            amount = amount.add(((LoanScheduleEntity) dueInstallment).getTotalDueWithFees());
+            amount.add(((LoanScheduleEntity) dueInstallment).getTotalDueWithFees());
         }
-        return amount;
+        return amount.toMoney();
     }
 
     public void makeEarlyRepayment(AccountPaymentDto paymentDto, final Short personnelId, boolean waiveInterest,
@@ -1448,6 +1438,7 @@ public class LoanBO extends AccountBO implements Loan {
         } catch (PersistenceException e) {
             throw new AccountException(e);
         }
+        invalidateScheduleTotals();
     }
 
     private void makeEarlyRepaymentForNextInstallment(PersonnelBO currentUser, AccountPaymentEntity accountPaymentEntity,
@@ -1495,6 +1486,7 @@ public class LoanBO extends AccountBO implements Loan {
         } catch (PersistenceException e) {
             throw new AccountException(e);
         }
+        invalidateScheduleTotals();
     }
 
     public boolean isLastInstallment(final Short installmentId) {
@@ -1538,6 +1530,7 @@ public class LoanBO extends AccountBO implements Loan {
         } catch (PersistenceException e) {
             throw new AccountException(e);
         }
+        invalidateScheduleTotals();
     }
 
     @Override
@@ -1569,6 +1562,7 @@ public class LoanBO extends AccountBO implements Loan {
         } catch (PersistenceException e) {
             throw new AccountException(e);
         }
+        invalidateScheduleTotals();
     }
 
 
@@ -1936,6 +1930,7 @@ public class LoanBO extends AccountBO implements Loan {
 				paymentAllocation.allocateForPrincipal(overpayment);
 				
 				this.loanSummary.updatePaymentDetails(paymentAllocation);
+				invalidateScheduleTotals();
 			}
 			
 			LoanPaymentTypes loanPaymentType = getLoanPaymentType(paymentData.getTotalAmount());
@@ -1997,6 +1992,7 @@ public class LoanBO extends AccountBO implements Loan {
         AccountPaymentEntity accountPaymentEntity = prePayment(paymentData);
         LoanPaymentTypes loanPaymentType = getLoanPaymentType(paymentData.getTotalAmount());
         ApplicationContextProvider.getBean(LoanBusinessService.class).applyPayment(paymentData, this, accountPaymentEntity);
+        invalidateScheduleTotals();
         postPayment(paymentData, accountPaymentEntity, loanPaymentType);
         if (paymentData.getOverpaymentAmount() != null) {
             AccountOverpaymentEntity overpaymentEntity = new AccountOverpaymentEntity(this, accountPaymentEntity,
@@ -2588,6 +2584,7 @@ public class LoanBO extends AccountBO implements Loan {
         }
         
         penaltiesEntity.setLastAppliedDate(new DateTimeService().getCurrentJavaDateTime());
+        invalidateScheduleTotals();
     }
     
     private void applyMiscCharge(final Short chargeType, final Money charge,
@@ -2722,40 +2719,40 @@ public class LoanBO extends AccountBO implements Loan {
     }
 
     private LoanSummaryEntity buildLoanSummary() {
-        Money interest = new Money(getCurrency());
-        Money fees = new Money(getCurrency());
+        MoneyAccumulator interest = new MoneyAccumulator(getCurrency());
+        MoneyAccumulator fees = new MoneyAccumulator(getCurrency());
         Set<AccountActionDateEntity> actionDates = getAccountActionDates();
         if (actionDates != null && actionDates.size() > 0) {
             for (AccountActionDateEntity accountActionDate : actionDates) {
                 LoanScheduleEntity loanSchedule = (LoanScheduleEntity) accountActionDate;
-                interest = interest.add(loanSchedule.getInterest());
-                fees = fees.add(loanSchedule.getTotalFeesDueWithMiscFee());
+                interest.add(loanSchedule.getInterest());
+                fees.add(loanSchedule.getTotalFeesDueWithMiscFee());
             }
         }
-        fees = fees.add(getDisbursementFeeAmount());
-        return new LoanSummaryEntity(this, loanAmount, interest, fees, rawAmountTotal);
+        fees.add(getDisbursementFeeAmount());
+        return new LoanSummaryEntity(this, loanAmount, interest.toMoney(), fees.toMoney(), rawAmountTotal);
 
     }
 
     public void updateLoanSummary(){
-        Money interest = new Money(getCurrency());
-        Money fees = new Money(getCurrency());
-        Money principal = new Money(getCurrency());
+        MoneyAccumulator interest = new MoneyAccumulator(getCurrency());
+        MoneyAccumulator fees = new MoneyAccumulator(getCurrency());
+        MoneyAccumulator principal = new MoneyAccumulator(getCurrency());
 
         Set<LoanScheduleEntity> loanScheduleEntities = getLoanScheduleEntities();
         if (loanScheduleEntities != null && loanScheduleEntities.size() > 0) {
             for (AccountActionDateEntity accountActionDate : loanScheduleEntities) {
                 LoanScheduleEntity loanSchedule = (LoanScheduleEntity) accountActionDate;
-                principal = principal.add(loanSchedule.getPrincipal());
-                interest = interest.add(loanSchedule.getInterest());
-                fees = fees.add(loanSchedule.getTotalFeesDueWithMiscFee());
+                principal.add(loanSchedule.getPrincipal());
+                interest.add(loanSchedule.getInterest());
+                fees.add(loanSchedule.getTotalFeesDueWithMiscFee());
             }
         }
-        fees = fees.add(getDisbursementFeeAmount());
+        fees.add(getDisbursementFeeAmount());
 
-        loanSummary.setOriginalPrincipal(principal);
-        loanSummary.setOriginalInterest(interest);
-        loanSummary.setOriginalFees(fees);
+        loanSummary.setOriginalPrincipal(principal.toMoney());
+        loanSummary.setOriginalInterest(interest.toMoney());
+        loanSummary.setOriginalFees(fees.toMoney());
     }
 
 
@@ -2911,24 +2908,22 @@ public class LoanBO extends AccountBO implements Loan {
         LoanScheduleEntity loanScheduleEntity = (LoanScheduleEntity) getAccountActionDate((short) 1);
         loanScheduleEntity.setMiscFee(miscFee);
         loanScheduleEntity.setMiscPenalty(miscPenalty);
-        Money interest = new Money(getCurrency());
-        Money fees = new Money(getCurrency());
-        Money penalty = new Money(getCurrency());
-        Money principal = new Money(getCurrency());
+        MoneyAccumulator interest = new MoneyAccumulator(getCurrency());
+        MoneyAccumulator fees = new MoneyAccumulator(getCurrency());
+        MoneyAccumulator penalty = new MoneyAccumulator(getCurrency());
         Set<AccountActionDateEntity> actionDates = getAccountActionDates();
         if (actionDates != null && actionDates.size() > 0) {
             for (AccountActionDateEntity accountActionDate : actionDates) {
                 LoanScheduleEntity loanSchedule = (LoanScheduleEntity) accountActionDate;
-                principal = principal.add(loanSchedule.getPrincipal());
-                interest = interest.add(loanSchedule.getInterest());
-                fees = fees.add(loanSchedule.getTotalFeesDueWithMiscFee());
-                penalty = penalty.add(loanSchedule.getTotalPenalty());
+                interest.add(loanSchedule.getInterest());
+                fees.add(loanSchedule.getTotalFeesDueWithMiscFee());
+                penalty.add(loanSchedule.getTotalPenalty());
             }
         }
-        fees = fees.add(getDisbursementFeeAmount());
-        loanSummary.setOriginalInterest(interest);
-        loanSummary.setOriginalFees(fees);
-        loanSummary.setOriginalPenalty(penalty);
+        fees.add(getDisbursementFeeAmount());
+        loanSummary.setOriginalInterest(interest.toMoney());
+        loanSummary.setOriginalFees(fees.toMoney());
+        loanSummary.setOriginalPenalty(penalty.toMoney());
     }
 
     private AccountPaymentEntity payInterestAtDisbursement(final String receiptNum, final Date transactionDate,
@@ -2994,11 +2989,11 @@ public class LoanBO extends AccountBO implements Loan {
     }
 
     private Money getEarlyClosureAmount() {
-        Money amount = new Money(getCurrency());
+        MoneyAccumulator amount = new MoneyAccumulator(getCurrency());
         for (AccountActionDateEntity accountActionDateEntity : getListOfUnpaidInstallments()) {
-            amount = amount.add(((LoanScheduleEntity) accountActionDateEntity).getPrincipal());
+            amount.add(((LoanScheduleEntity) accountActionDateEntity).getPrincipal());
         }
-        return amount;
+        return amount.toMoney();
     }
 
     @Transactional(readOnly = false)
@@ -3108,10 +3103,7 @@ public class LoanBO extends AccountBO implements Loan {
     }
 
     public Money getTotalRepayableAmount() {
-        Money amount = new Money(getCurrency());
-        for (AccountActionDateEntity accountActionDateEntity : getAccountActionDates()) {
-            amount = amount.add(((LoanScheduleEntity) accountActionDateEntity).getTotalDueWithFees());
-        }
+        Money amount = getScheduleTotals().getTotalDueWithFees();
         
         if(isDecliningBalanceInterestRecalculation()) {
             BigDecimal extraInterest = ApplicationContextProvider.getBean(ScheduleCalculatorAdaptor.class).getExtraInterest(this, DateUtils.getCurrentDateWithoutTimeStamp());
@@ -3490,6 +3482,7 @@ public class LoanBO extends AccountBO implements Loan {
 			loanScheduleEntity.setActionDate(new java.sql.Date(installment
 					.getDueDateValue().getTime()));
 		}
+		invalidateScheduleTotals();
 
 		updateLoanSummary();
 
@@ -3894,6 +3887,7 @@ public class LoanBO extends AccountBO implements Loan {
                 throw new AccountException(e);
             }
         }
+        invalidateScheduleTotals();
     }
     
     private List<Short> getApplicableInstallmentIdsForRemovePenalties() {
@@ -4254,6 +4248,7 @@ public class LoanBO extends AccountBO implements Loan {
         } else {
             applyPeriodicFee(fee, charge, dueInstallments);
         }
+        invalidateScheduleTotals();
     } 
       
     public void applyMifos5763Fix() throws AccountException {
@@ -4273,5 +4268,6 @@ public class LoanBO extends AccountBO implements Loan {
             }
         }
         
+        invalidateScheduleTotals();
     }
 }
\ No newline at end of file
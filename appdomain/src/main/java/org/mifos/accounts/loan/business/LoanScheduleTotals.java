@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.loan.business;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.mifos.accounts.business.AccountActionDateEntity;
+import org.mifos.application.master.business.MifosCurrency;
+import org.mifos.framework.util.helpers.Money;
+import org.mifos.framework.util.helpers.MoneyAccumulator;
+
+/**
+ * The totals of a loan's schedule as of a given day, worked out in a single pass over its installments.
+ * <p>
+ * {@link LoanBO} keeps the totals of its schedule until a payment, adjustment or other change to the schedule
+ * invalidates them, or the day changes, so the many callers of its total getters during one unit of work share one
+ * pass instead of walking the schedule each. The totals that depend on the lateness days of loan products are worked
+ * out from the installments in arrears the first time they are asked for.
+ */
+public class LoanScheduleTotals {
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private final Date asOf;
+
+    private final Money totalPrincipal;
+    private final Money totalPrincipalDue;
+    private final Money totalInterest;
+    private final Money totalDueWithFees;
+    private final Money principalInArrears;
+    private final Money interestInArrears;
+    private final List<LoanScheduleEntity> installmentsInArrears;
+
+    private Short latenessDays;
+    private Money principalInArrearsOutsideLateness;
+    private Money interestInArrearsOutsideLateness;
+
+    /**
+     * @param asOf today, without time; installments due before it and not paid are in arrears
+     */
+    public LoanScheduleTotals(MifosCurrency currency, Collection<AccountActionDateEntity> installments, Date asOf) {
+        this.asOf = asOf;
+        this.installmentsInArrears = new ArrayList<LoanScheduleEntity>();
+
+        MoneyAccumulator principal = new MoneyAccumulator(currency);
+        MoneyAccumulator principalDue = new MoneyAccumulator(currency);
+        MoneyAccumulator interest = new MoneyAccumulator(currency);
+        MoneyAccumulator dueWithFees = new MoneyAccumulator(currency);
+        MoneyAccumulator arrearsPrincipal = new MoneyAccumulator(currency);
+        MoneyAccumulator arrearsInterest = new MoneyAccumulator(currency);
+        if (installments != null) {
+            for (AccountActionDateEntity accountActionDate : installments) {
+                LoanScheduleEntity installment = (LoanScheduleEntity) accountActionDate;
+                principal.add(installment.getPrincipal());
+                principalDue.add(installment.getPrincipalDue());
+                interest.add(installment.getInterest());
+                dueWithFees.add(installment.getTotalDueWithFees());
+                if (installment.getActionDate().compareTo(asOf) < 0 && !installment.isPaid()) {
+                    installmentsInArrears.add(installment);
+                    arrearsPrincipal.add(installment.getPrincipal()).subtract(installment.getPrincipalPaid());
+                    arrearsInterest.add(installment.getInterest()).subtract(installment.getInterestPaid());
+                }
+            }
+        }
+        this.totalPrincipal = principal.toMoney();
+        this.totalPrincipalDue = principalDue.toMoney();
+        this.totalInterest = interest.toMoney();
+        this.totalDueWithFees = dueWithFees.toMoney();
+        this.principalInArrears = arrearsPrincipal.toMoney();
+        this.interestInArrears = arrearsInterest.toMoney();
+    }
+
+    public boolean isAsOf(Date date) {
+        return asOf.equals(date);
+    }
+
+    public Date getAsOf() {
+        return this.asOf;
+    }
+
+    public Money getTotalPrincipal() {
+        return this.totalPrincipal;
+    }
+
+    public Money getTotalPrincipalDue() {
+        return this.totalPrincipalDue;
+    }
+
+    public Money getTotalInterest() {
+        return this.totalInterest;
+    }
+
+    /**
+     * Principal, interest, fees and penalties still due on all installments, without any extra interest.
+     */
+    public Money getTotalDueWithFees() {
+        return this.totalDueWithFees;
+    }
+
+    public Money getPrincipalInArrears() {
+        return this.principalInArrears;
+    }
+
+    public Money getInterestInArrears() {
+        return this.interestInArrears;
+    }
+
+    /**
+     * Lateness days of loan products, if already looked up for these totals.
+     */
+    public Short getLatenessDays() {
+        return this.latenessDays;
+    }
+
+    public void setLatenessDays(Short latenessDays) {
+        if (latenessDays != null && !latenessDays.equals(this.latenessDays)) {
+            this.principalInArrearsOutsideLateness = null;
+            this.interestInArrearsOutsideLateness = null;
+        }
+        this.latenessDays = latenessDays;
+    }
+
+    /**
+     * Principal due on unpaid installments in arrears for longer than the lateness days. Requires
+     * {@link #setLatenessDays(Short)}.
+     */
+    public Money getPrincipalInArrearsOutsideLateness() {
+        if (principalInArrearsOutsideLateness == null) {
+            calculateArrearsOutsideLateness();
+        }
+        return this.principalInArrearsOutsideLateness;
+    }
+
+    /**
+     * Interest of installments in arrears for longer than the lateness days. Requires
+     * {@link #setLatenessDays(Short)}.
+     */
+    public Money getInterestInArrearsOutsideLateness() {
+        if (interestInArrearsOutsideLateness == null) {
+            calculateArrearsOutsideLateness();
+        }
+        return this.interestInArrearsOutsideLateness;
+    }
+
+    private void calculateArrearsOutsideLateness() {
+        if (latenessDays == null) {
+            throw new IllegalStateException("lateness days have not been set");
+        }
+        MifosCurrency currency = totalPrincipal.getCurrency();
+        MoneyAccumulator principal = new MoneyAccumulator(currency);
+        MoneyAccumulator interest = new MoneyAccumulator(currency);
+        long latenessMillis = latenessDays.intValue() * MILLIS_PER_DAY;
+        for (LoanScheduleEntity installment : installmentsInArrears) {
+            if (asOf.getTime() - installment.getActionDate().getTime() > latenessMillis) {
+                if (installment.isNotPaid()) {
+                    principal.add(installment.getPrincipalDue());
+                }
+                interest.add(installment.getInterest());
+            }
+        }
+        this.principalInArrearsOutsideLateness = principal.toMoney();
+        this.interestInArrearsOutsideLateness = interest.toMoney();
+    }
+}
@@ -67,6 +67,7 @@ public class ScheduleCalculatorAdaptor {
             scheduleCalculator.computeExtraInterest(schedule, asOfDate);
             populateExtraInterestInLoanScheduleEntities(schedule, loan.getLoanScheduleEntityMap());
         }
+        loan.invalidateScheduleTotals();
     }
     
     public BigDecimal getExtraInterest(LoanBO loan, Date transactionDate) {
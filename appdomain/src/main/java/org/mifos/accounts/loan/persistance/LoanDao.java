@@ -20,7 +20,9 @@
 
 package org.mifos.accounts.loan.persistance;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.mifos.accounts.loan.business.LoanBO;
 import org.mifos.dto.domain.SurveyDto;
@@ -32,6 +34,12 @@ public interface LoanDao {
 
     LoanBO findByGlobalAccountNum(String globalAccountNum);
 
+    /**
+     * Returns the account state id of every loan or savings account in the given collection, keyed by global account
+     * number, using a single query and without loading the accounts.
+     */
+    Map<String, Short> findAccountStateIdsByGlobalAccountNums(Collection<String> globalAccountNums);
+
     void save(LoanBO loanAccount);
 
     List<SurveyDto> getAccountSurveyDto(Integer accountId);
@@ -2,6 +2,7 @@ package org.mifos.accounts.loan.persistance;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +33,23 @@ public class LoanDaoHibernate implements LoanDao {
         return (LoanBO) this.genericDao.executeUniqueResultNamedQuery(NamedQueryConstants.FIND_LOAN_ACCOUNT_BY_SYSTEM_ID, queryParameters);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, Short> findAccountStateIdsByGlobalAccountNums(Collection<String> globalAccountNums) {
+        Map<String, Short> accountStateIds = new HashMap<String, Short>();
+        if (globalAccountNums.isEmpty()) {
+            return accountStateIds;
+        }
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("globalAccountNums", globalAccountNums);
+        List<Object[]> queryResult = (List<Object[]>) this.genericDao.executeNamedQuery(
+                NamedQueryConstants.FIND_ACCOUNT_STATE_IDS_BY_GLOBAL_ACCOUNT_NUMS, queryParameters);
+        for (Object[] row : queryResult) {
+            accountStateIds.put((String) row[0], (Short) row[1]);
+        }
+        return accountStateIds;
+    }
+
     @Override
     public LoanBO findById(Integer accountId) {
         Map<String, Integer> queryParameters = new HashMap<String, Integer>();
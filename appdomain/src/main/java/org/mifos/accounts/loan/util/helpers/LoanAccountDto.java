@@ -29,6 +29,7 @@ import org.mifos.application.collectionsheet.business.CollectionSheetEntryLoanIn
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.api.DataTransferObject;
 import org.mifos.framework.util.helpers.Money;
+import org.mifos.framework.util.helpers.MoneyAccumulator;
 
 public class LoanAccountDto implements DataTransferObject {
 
@@ -88,18 +89,17 @@ public class LoanAccountDto implements DataTransferObject {
     }
 
     public Double getTotalAmountDue() {
-        Money totalAmount = new Money(loanAmount.getCurrency());
         if (isDisbursalAccount()) {
             return amountPaidAtDisbursement;
         }
 
+        MoneyAccumulator totalAmount = new MoneyAccumulator(loanAmount.getCurrency());
         if (accountTrxnDetails != null && accountTrxnDetails.size() > 0) {
             for (CollectionSheetEntryInstallmentDto accountAction : accountTrxnDetails) {
-                totalAmount = totalAmount.add(((CollectionSheetEntryLoanInstallmentDto) accountAction)
-                        .getTotalDueWithFees());
+                totalAmount.add(((CollectionSheetEntryLoanInstallmentDto) accountAction).getTotalDueWithFees());
             }
         }
-        return totalAmount.getAmountDoubleValue();
+        return totalAmount.getAmount().doubleValue();
     }
 
     public boolean isInterestDeductedAtDisbursement() {
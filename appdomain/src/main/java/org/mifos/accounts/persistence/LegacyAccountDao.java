@@ -24,6 +24,7 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -86,6 +87,8 @@ import org.mifos.framework.util.helpers.MifosStringUtils;
 @SuppressWarnings("unchecked")
 public class LegacyAccountDao extends LegacyGenericDao {
 
+    private static final int ACCOUNT_IDS_PER_QUERY = 1000;
+
     private LegacyAccountDao() {
     }
     
@@ -210,6 +213,34 @@ public class LegacyAccountDao extends LegacyGenericDao {
         return customerIds;
     }
 
+    /**
+     * Groups the given account ids by the office of the account, keeping the order of the ids within each office.
+     */
+    public Map<Short, List<Integer>> groupAccountIdsByOffice(List<Integer> accountIds) throws PersistenceException {
+        Map<Integer, Short> officeIds = new HashMap<Integer, Short>();
+        for (int from = 0; from < accountIds.size(); from += ACCOUNT_IDS_PER_QUERY) {
+            HashMap<String, Object> queryParameters = new HashMap<String, Object>();
+            queryParameters.put("ACCOUNT_IDS",
+                    accountIds.subList(from, Math.min(from + ACCOUNT_IDS_PER_QUERY, accountIds.size())));
+            List<Object[]> rows = executeNamedQuery("getOfficeIdsForAccounts", queryParameters);
+            for (Object[] row : rows) {
+                officeIds.put((Integer) row[0], (Short) row[1]);
+            }
+        }
+
+        Map<Short, List<Integer>> accountIdsByOffice = new LinkedHashMap<Short, List<Integer>>();
+        for (Integer accountId : accountIds) {
+            Short officeId = officeIds.get(accountId);
+            List<Integer> officeAccountIds = accountIdsByOffice.get(officeId);
+            if (officeAccountIds == null) {
+                officeAccountIds = new ArrayList<Integer>();
+                accountIdsByOffice.put(officeId, officeAccountIds);
+            }
+            officeAccountIds.add(accountId);
+        }
+        return accountIdsByOffice;
+    }
+
     public List<AccountStateEntity> retrieveAllAccountStateList(Short prdTypeId) throws PersistenceException {
         HashMap<String, Object> queryParameters = new HashMap<String, Object>();
         queryParameters.put("prdTypeId", prdTypeId);
@@ -23,6 +23,7 @@ package org.mifos.accounts.productdefinition.business.service;
 import org.mifos.accounts.productdefinition.business.ProductTypeEntity;
 import org.mifos.accounts.productdefinition.persistence.LoanProductDao;
 import org.mifos.accounts.productdefinition.persistence.SavingsProductDao;
+import org.mifos.config.cache.CacheRepository;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.dto.screen.ProductConfigurationDto;
 import org.mifos.framework.hibernate.helper.HibernateTransactionHelper;
@@ -52,6 +53,7 @@ public class ProductServiceImpl implements ProductService {
             this.loanProductDao.save(loanProductConfiguration);
             this.savingsProductDao.save(savingsProductConfiguration);
             transactionHelper.commitTransaction();
+            CacheRepository.getInstance().invalidateSystemConfiguration();
         } catch (Exception e) {
             transactionHelper.rollbackTransaction();
             throw new MifosRuntimeException(e);
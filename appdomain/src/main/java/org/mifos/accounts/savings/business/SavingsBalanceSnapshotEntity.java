@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.savings.business;
+
+import java.util.Date;
+
+import org.joda.time.LocalDate;
+import org.mifos.accounts.savings.interest.EndOfDayDetail;
+import org.mifos.framework.business.AbstractEntity;
+import org.mifos.framework.util.helpers.Money;
+
+/**
+ * Balance and interest of a savings account as of an interest posting date.
+ *
+ * The balance is the sum of the end of day details of every day up to and including the snapshot date, so interest
+ * posting can start from the latest snapshot instead of replaying the whole account history. A snapshot records the
+ * last account transaction that existed when it was taken; a transaction recorded later but dated on or before the
+ * snapshot date makes it stale.
+ */
+public class SavingsBalanceSnapshotEntity extends AbstractEntity {
+
+    @SuppressWarnings("unused")
+    // See Hibernate mapping
+    private final Integer id;
+
+    private final Integer accountId;
+
+    private final Date snapshotDate;
+
+    private final Money balance;
+
+    private final Money accruedInterest;
+
+    private final Integer lastAccountTrxnId;
+
+    protected SavingsBalanceSnapshotEntity() {
+        this.id = null;
+        this.accountId = null;
+        this.snapshotDate = null;
+        this.balance = null;
+        this.accruedInterest = null;
+        this.lastAccountTrxnId = null;
+    }
+
+    public SavingsBalanceSnapshotEntity(Integer accountId, LocalDate snapshotDate, Money balance,
+            Money accruedInterest, Integer lastAccountTrxnId) {
+        this.id = null;
+        this.accountId = accountId;
+        this.snapshotDate = snapshotDate.toDateMidnight().toDate();
+        this.balance = balance;
+        this.accruedInterest = accruedInterest;
+        this.lastAccountTrxnId = lastAccountTrxnId;
+    }
+
+    public Integer getAccountId() {
+        return this.accountId;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return new LocalDate(this.snapshotDate);
+    }
+
+    public Money getBalance() {
+        return this.balance;
+    }
+
+    public Money getAccruedInterest() {
+        return this.accruedInterest;
+    }
+
+    public Integer getLastAccountTrxnId() {
+        return this.lastAccountTrxnId;
+    }
+
+    /**
+     * A single end of day detail on the snapshot date that carries the whole balance, to stand in for the history
+     * up to the snapshot when calculating interest.
+     */
+    public EndOfDayDetail asOpeningEndOfDayDetail() {
+        Money zero = Money.zero(this.balance.getCurrency());
+        return new EndOfDayDetail(getSnapshotDate(), this.balance, zero, zero);
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.joda.time.LocalDate;
 import org.mifos.accounts.savings.business.SavingsBO;
+import org.mifos.accounts.savings.business.SavingsBalanceSnapshotEntity;
 import org.mifos.accounts.savings.business.SavingsScheduleEntity;
 import org.mifos.accounts.savings.interest.EndOfDayDetail;
 import org.mifos.application.master.business.MifosCurrency;
@@ -61,6 +62,23 @@ public interface SavingsDao {
 
     List<EndOfDayDetail> retrieveAllEndOfDayDetailsFor(MifosCurrency currency, Long savingsId);
 
+    /**
+     * End of day details of the days strictly after {@code afterDate}.
+     */
+    List<EndOfDayDetail> retrieveEndOfDayDetailsAfter(MifosCurrency currency, Long savingsId, LocalDate afterDate);
+
+    /**
+     * The latest balance snapshot dated before {@code date} that no later transaction has invalidated, or null.
+     */
+    SavingsBalanceSnapshotEntity findLatestBalanceSnapshotBefore(Long savingsId, LocalDate date);
+
+    /**
+     * Saves the snapshot, replacing any snapshot of the account on or after its date.
+     */
+    void saveBalanceSnapshot(SavingsBalanceSnapshotEntity balanceSnapshot);
+
+    Integer findLastAccountTrxnId(Long savingsId);
+
     List<Integer> retrieveAllActiveAndInActiveSavingsAccountsPendingInterestPostingOn(LocalDate interestPostingDate);
 
     List<SavingsScheduleEntity> retrieveAllCustomerSchedules(Integer savingAccountId, Integer customerId);
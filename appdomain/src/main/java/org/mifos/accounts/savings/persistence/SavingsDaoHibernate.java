@@ -37,6 +37,7 @@ import org.mifos.accounts.business.AccountNotesEntity;
 import org.mifos.accounts.business.AccountPaymentEntity;
 import org.mifos.accounts.savings.business.SavingsActivityEntity;
 import org.mifos.accounts.savings.business.SavingsBO;
+import org.mifos.accounts.savings.business.SavingsBalanceSnapshotEntity;
 import org.mifos.accounts.savings.business.SavingsScheduleEntity;
 import org.mifos.accounts.savings.interest.EndOfDayDetail;
 import org.mifos.accounts.util.helpers.AccountConstants;
@@ -46,6 +47,7 @@ import org.mifos.application.servicefacade.CollectionSheetCustomerSavingDto;
 import org.mifos.application.servicefacade.CollectionSheetCustomerSavingsAccountDto;
 import org.mifos.application.servicefacade.CustomerHierarchyParams;
 import org.mifos.customers.business.CustomerBO;
+import org.mifos.customers.persistence.CustomerHierarchyQueries;
 import org.mifos.dto.domain.CustomerNoteDto;
 import org.mifos.dto.domain.NoteSearchDto;
 import org.mifos.dto.screen.NotesSearchResultsDto;
@@ -87,11 +89,12 @@ public class SavingsDaoHibernate implements SavingsDao {
         final Map<String, Object> restOfHierarchyParameters = new HashMap<String, Object>();
         restOfHierarchyParameters.put("BRANCH_ID", customerHierarchyParams.getBranchId());
         restOfHierarchyParameters.put("SEARCH_ID", customerHierarchyParams.getSearchId());
+        restOfHierarchyParameters.put("CUSTOMER_ID", customerHierarchyParams.getCustomerAtTopOfHierarchyId());
         restOfHierarchyParameters.put("TRANSACTION_DATE", customerHierarchyParams.getTransactionDate().toString());
 
         final List<CollectionSheetCustomerSavingDto> mandatorySavingsOnRestOfHierarchy = (List<CollectionSheetCustomerSavingDto>) baseDao
                 .executeNamedQueryWithResultTransformer(
-                        "findAllMandatorySavingAccountsForClientsOrGroupsWithCompleteGroupStatusForRestOfCustomerHierarchy",
+                        CustomerHierarchyQueries.queryName("findAllMandatorySavingAccountsForClientsOrGroupsWithCompleteGroupStatusForRestOfCustomerHierarchy"),
                         restOfHierarchyParameters, CollectionSheetCustomerSavingDto.class);
 
         return nullSafeSavingsHierarchy(mandatorySavingsOnRootCustomer, mandatorySavingsOnRestOfHierarchy);
@@ -114,11 +117,12 @@ public class SavingsDaoHibernate implements SavingsDao {
         final Map<String, Object> restOfHierarchyParameters = new HashMap<String, Object>();
         restOfHierarchyParameters.put("BRANCH_ID", customerHierarchyParams.getBranchId());
         restOfHierarchyParameters.put("SEARCH_ID", customerHierarchyParams.getSearchId());
+        restOfHierarchyParameters.put("CUSTOMER_ID", customerHierarchyParams.getCustomerAtTopOfHierarchyId());
         restOfHierarchyParameters.put("TRANSACTION_DATE", customerHierarchyParams.getTransactionDate().toString());
 
         final List<CollectionSheetCustomerSavingDto> voluntarySavingsOnRestOfHierarchy = (List<CollectionSheetCustomerSavingDto>) baseDao
                 .executeNamedQueryWithResultTransformer(
-                        "findAllVoluntarySavingsAccountsForClientsAndGroupsWithCompleteGroupStatusForRestOfCustomerHierarchy",
+                        CustomerHierarchyQueries.queryName("findAllVoluntarySavingsAccountsForClientsAndGroupsWithCompleteGroupStatusForRestOfCustomerHierarchy"),
                         restOfHierarchyParameters, CollectionSheetCustomerSavingDto.class);
 
         return nullSafeSavingsHierarchy(voluntarySavingsOnRootCustomer, voluntarySavingsOnRestOfHierarchy);
@@ -141,11 +145,12 @@ public class SavingsDaoHibernate implements SavingsDao {
         final Map<String, Object> restOfHierarchyParameters = new HashMap<String, Object>();
         restOfHierarchyParameters.put("BRANCH_ID", customerHierarchyParams.getBranchId());
         restOfHierarchyParameters.put("SEARCH_ID", customerHierarchyParams.getSearchId());
+        restOfHierarchyParameters.put("CUSTOMER_ID", customerHierarchyParams.getCustomerAtTopOfHierarchyId());
         restOfHierarchyParameters.put("TRANSACTION_DATE", customerHierarchyParams.getTransactionDate().toString());
 
         final List<CollectionSheetCustomerSavingDto> perIndividualGroupSavingsOnRestOfHierarchy = (List<CollectionSheetCustomerSavingDto>) baseDao
                 .executeNamedQueryWithResultTransformer(
-                        "findAllMandatorySavingsAccountsForCentersAndGroupsWithPerIndividualStatusForRestOfCustomerHierarchy",
+                        CustomerHierarchyQueries.queryName("findAllMandatorySavingsAccountsForCentersAndGroupsWithPerIndividualStatusForRestOfCustomerHierarchy"),
                         restOfHierarchyParameters, CollectionSheetCustomerSavingDto.class);
 
         return nullSafeSavingsHierarchy(centerOrPerIndividualGroupSavingsOnRootCustomer,
@@ -168,11 +173,12 @@ public class SavingsDaoHibernate implements SavingsDao {
         final Map<String, Object> restOfHierarchyParameters = new HashMap<String, Object>();
         restOfHierarchyParameters.put("BRANCH_ID", customerHierarchyParams.getBranchId());
         restOfHierarchyParameters.put("SEARCH_ID", customerHierarchyParams.getSearchId());
+        restOfHierarchyParameters.put("CUSTOMER_ID", customerHierarchyParams.getCustomerAtTopOfHierarchyId());
         restOfHierarchyParameters.put("TRANSACTION_DATE", customerHierarchyParams.getTransactionDate().toString());
 
         final List<CollectionSheetCustomerSavingDto> perIndividualGroupSavingsOnRestOfHierarchy = (List<CollectionSheetCustomerSavingDto>) baseDao
                 .executeNamedQueryWithResultTransformer(
-                        "findAllVoluntarySavingsAccountsForCentersAndGroupsWithPerIndividualStatusForRestOfCustomerHierarchy",
+                        CustomerHierarchyQueries.queryName("findAllVoluntarySavingsAccountsForCentersAndGroupsWithPerIndividualStatusForRestOfCustomerHierarchy"),
                         restOfHierarchyParameters, CollectionSheetCustomerSavingDto.class);
 
         return nullSafeSavingsHierarchy(centerOrPerIndividualGroupSavingsOnRootCustomer,
@@ -204,9 +210,10 @@ public class SavingsDaoHibernate implements SavingsDao {
         topOfHierarchyParameters.put("SEARCH_ID", customerHierarchyParams.getSearchId());
         //snip the '.%' from SEARCH_ID
         topOfHierarchyParameters.put("SEARCH_ID_NO_PERCENTAGE", customerHierarchyParams.getSearchId().substring(0, customerHierarchyParams.getSearchId().length() - 2));
+        topOfHierarchyParameters.put("CUSTOMER_ID", customerHierarchyParams.getCustomerAtTopOfHierarchyId());
 
         return (List<CollectionSheetCustomerSavingsAccountDto>) baseDao.executeNamedQueryWithResultTransformer(
-                "findAllSavingAccountsForCustomerHierarchy", topOfHierarchyParameters,
+                CustomerHierarchyQueries.queryName("findAllSavingAccountsForCustomerHierarchy"), topOfHierarchyParameters,
                 CollectionSheetCustomerSavingsAccountDto.class);
     }
 
@@ -249,15 +256,30 @@ public class SavingsDaoHibernate implements SavingsDao {
         this.baseDao.createOrUpdate(savingsAccount);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public List<EndOfDayDetail> retrieveAllEndOfDayDetailsFor(MifosCurrency currency, Long savingsId) {
 
-        List<EndOfDayDetail> allEndOfDayDetailsForAccount = new ArrayList<EndOfDayDetail>();
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("ACCOUNT_ID", savingsId.intValue());
+        return retrieveEndOfDayDetails(currency, "savings.retrieveAllEndOfDayTransactionDetails", queryParameters);
+    }
+
+    @Override
+    public List<EndOfDayDetail> retrieveEndOfDayDetailsAfter(MifosCurrency currency, Long savingsId, LocalDate afterDate) {
 
         Map<String, Object> queryParameters = new HashMap<String, Object>();
         queryParameters.put("ACCOUNT_ID", savingsId.intValue());
-        List<Object[]> queryResult = (List<Object[]>) this.baseDao.executeNamedQuery("savings.retrieveAllEndOfDayTransactionDetails", queryParameters);
+        queryParameters.put("AFTER_DATE", afterDate.toDateMidnight().toDate());
+        return retrieveEndOfDayDetails(currency, "savings.retrieveEndOfDayTransactionDetailsAfter", queryParameters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EndOfDayDetail> retrieveEndOfDayDetails(MifosCurrency currency, String queryName,
+            Map<String, Object> queryParameters) {
+
+        List<EndOfDayDetail> allEndOfDayDetailsForAccount = new ArrayList<EndOfDayDetail>();
+
+        List<Object[]> queryResult = (List<Object[]>) this.baseDao.executeNamedQuery(queryName, queryParameters);
 
         if (queryResult != null) {
             for (Object[] dailyRecord : queryResult) {
@@ -274,6 +296,34 @@ public class SavingsDaoHibernate implements SavingsDao {
         return allEndOfDayDetailsForAccount;
     }
 
+    @Override
+    public SavingsBalanceSnapshotEntity findLatestBalanceSnapshotBefore(Long savingsId, LocalDate date) {
+
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("ACCOUNT_ID", savingsId.intValue());
+        queryParameters.put("BEFORE_DATE", date.toDateMidnight().toDate());
+        return (SavingsBalanceSnapshotEntity) this.baseDao.executeUniqueResultNamedQuery(
+                "savings.findLatestValidBalanceSnapshot", queryParameters);
+    }
+
+    @Override
+    public void saveBalanceSnapshot(SavingsBalanceSnapshotEntity balanceSnapshot) {
+
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("ACCOUNT_ID", balanceSnapshot.getAccountId());
+        queryParameters.put("FROM_DATE", balanceSnapshot.getSnapshotDate().toDateMidnight().toDate());
+        this.baseDao.executeNamedQueryDelete("savings.deleteBalanceSnapshotsFrom", queryParameters);
+        this.baseDao.createOrUpdate(balanceSnapshot);
+    }
+
+    @Override
+    public Integer findLastAccountTrxnId(Long savingsId) {
+
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("ACCOUNT_ID", savingsId.intValue());
+        return (Integer) this.baseDao.executeUniqueResultNamedQuery("savings.findLastAccountTrxnId", queryParameters);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<Integer> retrieveAllActiveAndInActiveSavingsAccountsPendingInterestPostingOn(LocalDate interestPostingDate) {
@@ -171,18 +171,16 @@ public interface NamedQueryConstants {
     String GET_ACTIVE_AND_ONHOLD_CHILDREN_COUNT = "Customer.getActiveAndOnHoldChildrenCount";
     String GET_CUSTOMER_COUNT_FOR_OFFICE = "Customer.getCustomerCountForOffice";
     String GET_SEARCH_IDS_FOR_OFFICE = "Customer.getSearchIdsForOffice";
-    String GET_SQL_CUSTOMER_COUNT_FOR_OFFICE = "Customer.Sql.getCustomerCountForOffice";
-    String GET_SQL_CUSTOMER_COUNT_BASED_ON_STATUS_FOR_OFFICE = "Customer.Sql.getCustomerCountBasedOnStatusForOffice";
-    String GET_SQL_VERY_POOR_CUSTOMER_COUNT_BASED_ON_STATUS_FOR_OFFICE = "Customer.Sql.getVeryPoorCustomerCountBasedOnStatusForOffice";
-    String GET_SQL_ACTIVE_ACCOUNT_USER_COUNT_FOR_OFFICE = "Customer.Sql.getActiveAccountUserCountForOffice";
-    String GET_SQL_VERY_POOR_ACTIVE_ACCOUNT_USER_COUNT_FOR_OFFICE = "Customer.Sql.getVeryPoorActiveBorrowersCountForOffice";
-    String GET_SQL_REPLACEMENT_COUNT_FOR_OFFICE = "Customer.Sql.getReplacementCountForOffice";
-    String GET_SQL_VERY_POOR_REPLACEMENT_COUNT_FOR_OFFICE = "Customer.Sql.getVeryPoorReplacementCountForOffice";
+    String GET_SQL_CUSTOMER_COUNT_BY_LEVEL_FOR_OFFICE = "Customer.Sql.getCustomerCountByLevelForOffice";
+    String GET_SQL_CUSTOMER_AND_VERY_POOR_COUNT_BASED_ON_STATUS_FOR_OFFICE = "Customer.Sql.getCustomerAndVeryPoorCountBasedOnStatusForOffice";
+    String GET_SQL_ACTIVE_BORROWER_AND_SAVER_COUNT_FOR_OFFICE = "Customer.Sql.getActiveBorrowerAndSaverCountForOffice";
+    String GET_SQL_REPLACEMENT_AND_VERY_POOR_REPLACEMENT_COUNT_FOR_OFFICE = "Customer.Sql.getReplacementAndVeryPoorReplacementCountForOffice";
     String GET_TOTAL_AMOUNT_FOR_GROUP = "Customer.getTotalAmountForGroup";
     String GET_LOAN_SUMMARY_CURRENCIES_FOR_ALL_CLIENTS_OF_GROUP = "Customer.getLoanSummaryCurrenciesForAllClientsOfGroup";
     String GET_LOAN_SUMMARY_CURRENCIES_FOR_GROUP = "Customer.getLoanSummaryCurrenciesForGroup";
     String GET_TOTAL_AMOUNT_FOR_ALL_CLIENTS_OF_GROUP = "Customer.getTotalAmountForAllClientsOfGroup";
     String GET_ALL_BASIC_GROUP_INFO = "Customer.getAllBasicGroupInfo";
+    String GET_PORTFOLIO_AT_RISK_AMOUNTS_FOR_ALL_GROUPS = "Customer.getPortfolioAtRiskAmountsForAllGroups";
     String GET_CLIENT_UPLOADED_FILE = "Customer.getClientUploadedFile";
     String GET_CLIENT_ALL_UPLOADED_FILES = "Customer.getClientAllUploadedFiles";
     String GET_CLIENT_UPLOADED_FILE_BY_NAME = "Customer.getClientUploadedFileByName";
@@ -208,6 +206,7 @@ public interface NamedQueryConstants {
     String GET_MAX_ACCOUNT_ID = "accounts.getMaxAccountId";
     String FIND_ACCOUNT_BY_SYSTEM_ID = "accounts.findBySystemId";
     String FIND_LOAN_ACCOUNT_BY_SYSTEM_ID = "accounts.findLoanBySystemId";
+    String FIND_ACCOUNT_STATE_IDS_BY_GLOBAL_ACCOUNT_NUMS = "accounts.findAccountStateIdsByGlobalAccountNums";
     String FIND_LOAN_ACCOUNT_BY_EXTERNAL_ID = "accounts.findLoanByExternalId";
     String FIND_LOAN_ACCOUNT_BY_CLIENT_GOVERNMENT_ID_AND_PRODUCT_SHORT_NAME = "accounts.findLoanByClientGovernmentIdAndProductShortName";
     String FIND_SAVINGS_ACCOUNT_BY_CLIENT_GOVERNMENT_ID_AND_PRODUCT_SHORT_NAME = "accounts.findSavingsByClientGovernmentIdAndProductShortName";
@@ -441,6 +440,8 @@ public interface NamedQueryConstants {
 
     String ACTIVE_CLIENTS_UNDER_PARENT = "Customer.getActiveClientsUnderParent";
     String ALL_EXCEPT_CANCELLED_CLOSED_CLIENTS_UNDER_PARENT = "Customer.getAllExceptClosedAndCancelledClientsUnderParent";
+    String DELETE_HIERARCHY_CLOSURE_OF_SUBTREE = "customer.deleteHierarchyClosureOfSubtree";
+    String INSERT_HIERARCHY_CLOSURE_OF_SUBTREE = "customer.insertHierarchyClosureOfSubtree";
     String ACTIVE_CLIENTS_UNDER_GROUP = "Customer.getActiveClientsUnderGroup";
     String ALL_EXCEPT_CANCELLED_CLOSED_CLIENTS_WITHOUT_GROUP_FOR_LOAN_OFFICER = "Customer.getAllExceptClosedAndCancelledClientsWithoutGroupForLoanOfficer";
 
@@ -84,6 +84,17 @@ public interface AccountingDao {
 
 	public boolean savingOpenBalancesTransaction(GlBalancesBO balancesBO);
 
+	/**
+	 * Inserts the transactions and their details with JDBC batches. Does not commit.
+	 */
+	public void savingGeneralLedgerTransactions(List<GlMasterBO> glMasterBOs);
+
+	/**
+	 * Adds the debit and credit sums of each delta to the matching balance row with one update per row, creating the
+	 * rows that do not exist yet with a zero opening balance. Does not commit.
+	 */
+	public void addToGlBalances(List<GlBalancesBO> balanceDeltas);
+
 	public <T extends Object> T getPersistedObject(final Class<T> clazz,
 			final Serializable persistentObjectId) throws PersistenceException;
 
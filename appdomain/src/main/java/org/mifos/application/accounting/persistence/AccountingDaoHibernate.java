@@ -21,7 +21,14 @@
 package org.mifos.application.accounting.persistence;
 
 import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +38,7 @@ import org.hibernate.Query;
 import org.mifos.application.accounting.business.CoaBranchBO;
 import org.mifos.application.accounting.business.FinancialYearBO;
 import org.mifos.application.accounting.business.GlBalancesBO;
+import org.mifos.application.accounting.business.GlDetailBO;
 import org.mifos.application.accounting.business.GlMasterBO;
 import org.mifos.application.accounting.business.ProcessUpdateBo;
 import org.mifos.config.business.ConfigurationKeyValue;
@@ -52,6 +60,22 @@ import org.mifos.framework.util.helpers.DateUtils;
 public class AccountingDaoHibernate extends LegacyGenericDao implements
 		AccountingDao {
 
+	private static final String INSERT_GL_MASTER = "insert into acc_glmaster "
+			+ "(transaction_date, transaction_type, from_office_level, from_office_id, main_account, transaction_amount, "
+			+ "amount_action, transaction_narration, to_office_level, to_office_id, transaction_by, status, created_by, "
+			+ "created_date, stage, member_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_GL_DETAIL = "insert into acc_gldetail "
+			+ "(transaction_master_id, sub_account, transaction_amount, amount_action, cheque_no, cheque_date, "
+			+ "bank_name, bank_branch) values (?, ?, ?, ?, ?, ?, ?, ?)";
+	// closing_bal comes first so that it is computed from the sums before this update on every database
+	private static final String UPDATE_GL_BALANCE = "update acc_glbalances "
+			+ "set closing_bal = openning_bal + transaction_dr_sum + ? - transaction_cr_sum - ?, "
+			+ "transaction_dr_sum = transaction_dr_sum + ?, transaction_cr_sum = transaction_cr_sum + ? "
+			+ "where office_id = ? and office_level = ? and glcode_value = ? and financialyear_id = ?";
+	private static final String INSERT_GL_BALANCE = "insert into acc_glbalances "
+			+ "(financialyear_id, office_level, office_id, glcode_value, openning_bal, transaction_dr_sum, "
+			+ "transaction_cr_sum, closing_bal, created_by, created_date) values (?, ?, ?, ?, 0, ?, ?, ?, ?, ?)";
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<GLCodeDto> findMainAccountCashGlCodes() {
@@ -129,6 +153,137 @@ public class AccountingDaoHibernate extends LegacyGenericDao implements
 		return result;
 	}
 
+	@Override
+	public void savingGeneralLedgerTransactions(List<GlMasterBO> glMasterBOs) {
+		if (glMasterBOs.isEmpty()) {
+			return;
+		}
+		try {
+			Connection connection = getSession().connection();
+			List<Long> transactionMasterIds = insertGlMasters(connection, glMasterBOs);
+
+			PreparedStatement statement = connection.prepareStatement(INSERT_GL_DETAIL);
+			try {
+				for (int i = 0; i < glMasterBOs.size(); i++) {
+					for (GlDetailBO glDetailBO : glMasterBOs.get(i).getGlDetailBOList()) {
+						statement.setLong(1, transactionMasterIds.get(i));
+						statement.setString(2, glDetailBO.getSubAccount());
+						statement.setBigDecimal(3, glDetailBO.getTransactionAmount());
+						statement.setString(4, glDetailBO.getAmountAction());
+						statement.setString(5, glDetailBO.getChequeNo());
+						statement.setDate(6, toSqlDate(glDetailBO.getChequeDate()));
+						statement.setString(7, glDetailBO.getBankName());
+						statement.setString(8, glDetailBO.getBankBranch());
+						statement.addBatch();
+					}
+				}
+				statement.executeBatch();
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			throw new MifosRuntimeException(e);
+		}
+	}
+
+	private List<Long> insertGlMasters(Connection connection, List<GlMasterBO> glMasterBOs) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(INSERT_GL_MASTER, Statement.RETURN_GENERATED_KEYS);
+		try {
+			for (GlMasterBO glMasterBO : glMasterBOs) {
+				statement.setDate(1, toSqlDate(glMasterBO.getTransactionDate()));
+				statement.setString(2, glMasterBO.getTransactionType());
+				statement.setInt(3, glMasterBO.getFromOfficeLevel());
+				statement.setString(4, glMasterBO.getFromOfficeId());
+				statement.setString(5, glMasterBO.getMainAccount());
+				statement.setBigDecimal(6, glMasterBO.getTransactionAmount());
+				statement.setString(7, glMasterBO.getAmountAction());
+				statement.setString(8, glMasterBO.getTransactionNarration());
+				statement.setInt(9, glMasterBO.getToOfficeLevel());
+				statement.setString(10, glMasterBO.getToOfficeId());
+				statement.setInt(11, glMasterBO.getTransactionBy());
+				statement.setString(12, glMasterBO.getStatus());
+				statement.setObject(13, glMasterBO.getCreatedBy(), Types.SMALLINT);
+				statement.setDate(14, toSqlDate(glMasterBO.getCreatedDate()));
+				statement.setInt(15, glMasterBO.getStage());
+				statement.setString(16, glMasterBO.getMemberId());
+				statement.addBatch();
+			}
+			statement.executeBatch();
+
+			List<Long> transactionMasterIds = new ArrayList<Long>(glMasterBOs.size());
+			ResultSet generatedKeys = statement.getGeneratedKeys();
+			try {
+				while (generatedKeys.next()) {
+					transactionMasterIds.add(generatedKeys.getLong(1));
+				}
+			} finally {
+				generatedKeys.close();
+			}
+			if (transactionMasterIds.size() != glMasterBOs.size()) {
+				throw new SQLException("Expected " + glMasterBOs.size()
+						+ " generated acc_glmaster ids but got " + transactionMasterIds.size());
+			}
+			return transactionMasterIds;
+		} finally {
+			statement.close();
+		}
+	}
+
+	@Override
+	public void addToGlBalances(List<GlBalancesBO> balanceDeltas) {
+		try {
+			Connection connection = getSession().connection();
+			List<GlBalancesBO> missingBalances = new ArrayList<GlBalancesBO>();
+
+			PreparedStatement update = connection.prepareStatement(UPDATE_GL_BALANCE);
+			try {
+				for (GlBalancesBO delta : balanceDeltas) {
+					update.setBigDecimal(1, delta.getTransactionDebitSum());
+					update.setBigDecimal(2, delta.getTransactionCreditSum());
+					update.setBigDecimal(3, delta.getTransactionDebitSum());
+					update.setBigDecimal(4, delta.getTransactionCreditSum());
+					update.setString(5, delta.getOfficeId());
+					update.setInt(6, delta.getOfficeLevel());
+					update.setString(7, delta.getGlCodeValue());
+					update.setInt(8, delta.getFinancialYearBO().getFinancialYearId());
+					if (update.executeUpdate() == 0) {
+						missingBalances.add(delta);
+					}
+				}
+			} finally {
+				update.close();
+			}
+
+			if (missingBalances.isEmpty()) {
+				return;
+			}
+			PreparedStatement insert = connection.prepareStatement(INSERT_GL_BALANCE);
+			try {
+				for (GlBalancesBO delta : missingBalances) {
+					insert.setInt(1, delta.getFinancialYearBO().getFinancialYearId());
+					insert.setInt(2, delta.getOfficeLevel());
+					insert.setString(3, delta.getOfficeId());
+					insert.setString(4, delta.getGlCodeValue());
+					insert.setBigDecimal(5, delta.getTransactionDebitSum());
+					insert.setBigDecimal(6, delta.getTransactionCreditSum());
+					insert.setBigDecimal(7, delta.getClosingBalance());
+					insert.setObject(8, delta.getCreatedBy(), Types.SMALLINT);
+					insert.setDate(9, toSqlDate(delta.getCreatedDate()));
+					insert.addBatch();
+				}
+				insert.executeBatch();
+			} finally {
+				insert.close();
+			}
+		} catch (SQLException e) {
+			throw new MifosRuntimeException(e);
+		}
+	}
+
+	private static java.sql.Date toSqlDate(Date date) {
+		return date == null ? null : new java.sql.Date(date.getTime());
+	}
+
 	@Override
 	public FinancialYearBO savingFinancialYearBO(FinancialYearBO financialYearBO) {
 		FinancialYearBO bo=null;
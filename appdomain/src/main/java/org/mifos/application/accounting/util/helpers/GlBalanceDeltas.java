@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.accounting.util.helpers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifos.application.accounting.business.FinancialYearBO;
+import org.mifos.application.accounting.business.GlBalancesBO;
+import org.mifos.application.accounting.business.GlDetailBO;
+import org.mifos.application.accounting.business.GlMasterBO;
+
+/**
+ * Sums the debits and credits that a set of general ledger transactions make to each balance (office, gl code) of
+ * one financial year, so that each balance row can be updated once for the whole set instead of once per
+ * transaction.
+ */
+public class GlBalanceDeltas {
+
+    private static final String DEBIT = "debit";
+    private static final String CREDIT = "credit";
+
+    private final FinancialYearBO financialYearBO;
+    private final Map<String, GlBalancesBO> deltas = new LinkedHashMap<String, GlBalancesBO>();
+
+    public GlBalanceDeltas(FinancialYearBO financialYearBO) {
+        this.financialYearBO = financialYearBO;
+    }
+
+    /**
+     * Adds the main account and the first sub account of the transaction, like
+     * AccountingServiceFacadeWebTier#savingAccountingTransactions does.
+     */
+    public void add(GlMasterBO glMasterBO) {
+        add(glMasterBO, glMasterBO.getMainAccount(), glMasterBO.getAmountAction());
+        GlDetailBO glDetailBO = glMasterBO.getGlDetailBOList().get(0);
+        add(glMasterBO, glDetailBO.getSubAccount(), glDetailBO.getAmountAction());
+    }
+
+    private void add(GlMasterBO glMasterBO, String glCodeValue, String action) {
+        String key = glMasterBO.getFromOfficeLevel() + "|" + glMasterBO.getFromOfficeId() + "|" + glCodeValue;
+        GlBalancesBO delta = deltas.get(key);
+        if (delta == null) {
+            delta = new GlBalancesBO();
+            delta.setOfficeLevel(glMasterBO.getFromOfficeLevel());
+            delta.setOfficeId(glMasterBO.getFromOfficeId());
+            delta.setGlCodeValue(glCodeValue);
+            delta.setFinancialYearBO(financialYearBO);
+            delta.setCreatedBy(glMasterBO.getCreatedBy());
+            delta.setCreatedDate(glMasterBO.getCreatedDate());
+            delta.setOpeningBalance(BigDecimal.ZERO);
+            delta.setTransactionDebitSum(BigDecimal.ZERO);
+            delta.setTransactionCreditSum(BigDecimal.ZERO);
+            delta.setClosingBalance(BigDecimal.ZERO);
+            deltas.put(key, delta);
+        }
+        BigDecimal amount = glMasterBO.getTransactionAmount();
+        if (DEBIT.equals(action)) {
+            delta.setTransactionDebitSum(delta.getTransactionDebitSum().add(amount));
+        } else if (CREDIT.equals(action)) {
+            delta.setTransactionCreditSum(delta.getTransactionCreditSum().add(amount));
+        }
+        delta.setClosingBalance(delta.getTransactionDebitSum().subtract(delta.getTransactionCreditSum()));
+    }
+
+    /**
+     * One entry per balance, in the order the balances were first met. The debit, credit and closing balance
+     * amounts are the changes to apply; the opening balance is zero.
+     */
+    public List<GlBalancesBO> getDeltas() {
+        return new ArrayList<GlBalancesBO>(deltas.values());
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 
 import org.mifos.application.master.business.MifosCurrency;
 import org.mifos.framework.util.helpers.Money;
+import org.mifos.framework.util.helpers.MoneyAccumulator;
 
 public class CollectionSheetEntryCustomerAccountInstallmentDto extends CollectionSheetEntryInstallmentDto {
 
@@ -94,14 +95,14 @@ public class CollectionSheetEntryCustomerAccountInstallmentDto extends Collectio
     }
 
     public Money getTotalFeeDue() {
-        Money totalFees = new Money(currency);
+        MoneyAccumulator totalFees = new MoneyAccumulator(currency);
         if (collectionSheetEntryAccountFeeActions != null) {
             for (CollectionSheetEntryAccountFeeActionDto obj : collectionSheetEntryAccountFeeActions) {
-                totalFees = totalFees.add(obj.getFeeDue());
+                totalFees.add(obj.getFeeDue());
             }
         }
 
-        return totalFees;
+        return totalFees.toMoney();
     }
 
     public Money getTotalFees() {
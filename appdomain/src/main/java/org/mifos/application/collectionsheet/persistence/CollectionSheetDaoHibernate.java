@@ -40,6 +40,7 @@ import org.mifos.application.servicefacade.CollectionSheetCustomerSavingsAccount
 import org.mifos.application.servicefacade.CollectionSheetLoanFeeDto;
 import org.mifos.application.servicefacade.CustomerHierarchyParams;
 import org.mifos.core.MifosRuntimeException;
+import org.mifos.customers.persistence.CustomerHierarchyQueries;
 import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.persistence.LegacyGenericDao;
 import org.mifos.framework.util.helpers.Constants;
@@ -80,10 +81,11 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         final Map<String, Object> withinHierarchyQueryParameters = new HashMap<String, Object>();
         withinHierarchyQueryParameters.put("BRANCH_ID", topCustomer.getBranchId());
         withinHierarchyQueryParameters.put("SEARCH_ID", topCustomer.getSearchId() + ".%");
+        withinHierarchyQueryParameters.put("CUSTOMER_ID", customerId);
         withinHierarchyQueryParameters.put("TRANSACTION_DATE", transactionDate.toString());
 
         final List<CollectionSheetCustomerDto> restOfHierarchy = executeNamedQueryWithResultTransformer(
-                "findCustomersWithinHierarchyAsDto", withinHierarchyQueryParameters, CollectionSheetCustomerDto.class);
+                CustomerHierarchyQueries.queryName("findCustomersWithinHierarchyAsDto"), withinHierarchyQueryParameters, CollectionSheetCustomerDto.class);
 
         final List<CollectionSheetCustomerDto> collectionSheetCutomerList = new ArrayList<CollectionSheetCustomerDto>();
         collectionSheetCutomerList.add(topCustomer);
@@ -120,10 +122,12 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         final Map<String, Object> queryParameters = new HashMap<String, Object>();
         queryParameters.put("BRANCH_ID", branchId);
         queryParameters.put("SEARCH_ID", searchId);
+        queryParameters.put("CUSTOMER_ID", customerAtTopOfHierarchyId);
+        queryParameters.put("MIN_DEPTH", searchIdMatchesTopOfHierarchy(searchId) ? 0 : 1);
         queryParameters.put("TRANSACTION_DATE", transactionDate.toString());
 
         final List<CollectionSheetCustomerLoanDto> loanRepayments = executeNamedQueryWithResultTransformer(
-                "findLoanRepaymentsforCustomerHierarchyAsDto", queryParameters, CollectionSheetCustomerLoanDto.class);
+                CustomerHierarchyQueries.queryName("findLoanRepaymentsforCustomerHierarchyAsDto"), queryParameters, CollectionSheetCustomerLoanDto.class);
 
         for (CollectionSheetCustomerLoanDto customerLoan : loanRepayments) {
 
@@ -155,10 +159,18 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         return allLoanRepaymentsGroupedByCustomerId;
     }
 
+    /**
+     * Without a center hierarchy the loan repayments are looked up with "topSearchId%" rather than "topSearchId.%",
+     * which also matches the customer at the top of the hierarchy. The closure variants then include depth 0.
+     */
+    private static boolean searchIdMatchesTopOfHierarchy(String searchId) {
+        return !searchId.endsWith(".%");
+    }
+
     @SuppressWarnings("unchecked")
     private void addInformationAboutActiveLoans(Map<Integer, List<CollectionSheetCustomerLoanDto>> allLoanRepaymentsGroupedByCustomerId, Map<String, Object> queryParameters) {
         final List<CollectionSheetCustomerLoanDto> activeLoans = executeNamedQueryWithResultTransformer(
-                "findActiveLoansforCustomerHierarchyAsDto", queryParameters, CollectionSheetCustomerLoanDto.class);
+                CustomerHierarchyQueries.queryName("findActiveLoansforCustomerHierarchyAsDto"), queryParameters, CollectionSheetCustomerLoanDto.class);
 
         for (CollectionSheetCustomerLoanDto customerLoan : activeLoans) {
 
@@ -210,10 +222,11 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         final Map<String, Object> withinHierarchyQueryParameters = new HashMap<String, Object>();
         withinHierarchyQueryParameters.put("BRANCH_ID", branchId);
         withinHierarchyQueryParameters.put("SEARCH_ID", searchId);
+        withinHierarchyQueryParameters.put("CUSTOMER_ID", customerAtTopOfHierarchyId);
         withinHierarchyQueryParameters.put("TRANSACTION_DATE", transactionDate.toString());
 
         final List<CollectionSheetLoanFeeDto> outstandingLoanFees = executeNamedQueryWithResultTransformer(
-                "findOutstandingFeesForLoansOnCustomerHierarchyAsDto", withinHierarchyQueryParameters,
+                CustomerHierarchyQueries.queryName("findOutstandingFeesForLoansOnCustomerHierarchyAsDto"), withinHierarchyQueryParameters,
                 CollectionSheetLoanFeeDto.class);
 
         if (outstandingLoanFees == null) {
@@ -249,10 +262,11 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         final Map<String, Object> withinHierarchyQueryParameters = new HashMap<String, Object>();
         withinHierarchyQueryParameters.put("BRANCH_ID", branchId);
         withinHierarchyQueryParameters.put("SEARCH_ID", searchId);
+        withinHierarchyQueryParameters.put("CUSTOMER_ID", customerAtTopOfHierarchyId);
         withinHierarchyQueryParameters.put("TRANSACTION_DATE", transactionDate.toString());
 
         final List<CollectionSheetCustomerAccountCollectionDto> customerAccountFees = executeNamedQueryWithResultTransformer(
-                "findAccountCollectionsOnCustomerAccountForCustomerHierarchyAsDto", withinHierarchyQueryParameters,
+                CustomerHierarchyQueries.queryName("findAccountCollectionsOnCustomerAccountForCustomerHierarchyAsDto"), withinHierarchyQueryParameters,
                 CollectionSheetCustomerAccountCollectionDto.class);
 
         for (CollectionSheetCustomerAccountCollectionDto accountCollectionFee : customerAccountFees) {
@@ -309,10 +323,11 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         final Map<String, Object> withinHierarchyQueryParameters = new HashMap<String, Object>();
         withinHierarchyQueryParameters.put("BRANCH_ID", branchId);
         withinHierarchyQueryParameters.put("SEARCH_ID", searchId);
+        withinHierarchyQueryParameters.put("CUSTOMER_ID", customerAtTopOfHierarchyId);
         withinHierarchyQueryParameters.put("TRANSACTION_DATE", transactionDate.toString());
 
         final List<CollectionSheetCustomerAccountCollectionDto> customerAccountFees = executeNamedQueryWithResultTransformer(
-                "findOutstandingFeesForCustomerAccountOnCustomerHierarchyAsDto", withinHierarchyQueryParameters,
+                CustomerHierarchyQueries.queryName("findOutstandingFeesForCustomerAccountOnCustomerHierarchyAsDto"), withinHierarchyQueryParameters,
                 CollectionSheetCustomerAccountCollectionDto.class);
 
         if (customerAccountFees == null) {
@@ -362,10 +377,11 @@ public class CollectionSheetDaoHibernate extends LegacyGenericDao implements Col
         final Map<String, Object> withinHierarchyQueryParameters = new HashMap<String, Object>();
         withinHierarchyQueryParameters.put("BRANCH_ID", branchId);
         withinHierarchyQueryParameters.put("SEARCH_ID", searchId);
+        withinHierarchyQueryParameters.put("CUSTOMER_ID", customerAtTopOfHierarchyId);
         withinHierarchyQueryParameters.put("TRANSACTION_DATE", transactionDate.toString());
 
         final List<CollectionSheetCustomerLoanDto> allLoanDisbursements = executeNamedQueryWithResultTransformer(
-                "findLoanDisbursementsforCustomerHierarchyAsDto", withinHierarchyQueryParameters,
+                CustomerHierarchyQueries.queryName("findLoanDisbursementsforCustomerHierarchyAsDto"), withinHierarchyQueryParameters,
                 CollectionSheetCustomerLoanDto.class);
 
         if (allLoanDisbursements != null) {
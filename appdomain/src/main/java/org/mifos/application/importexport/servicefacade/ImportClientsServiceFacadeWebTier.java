@@ -21,6 +21,7 @@ package org.mifos.application.importexport.servicefacade;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.joda.time.DateTime;
@@ -33,6 +34,7 @@ import org.mifos.application.meeting.business.MeetingBO;
 import org.mifos.application.meeting.business.MeetingFactory;
 import org.mifos.calendar.CalendarEvent;
 import org.mifos.config.ClientRules;
+import org.mifos.config.GeneralConfig;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.business.CustomerAccountBO;
 import org.mifos.customers.business.CustomerBO;
@@ -110,210 +112,316 @@ public class ImportClientsServiceFacadeWebTier implements ImportClientsServiceFa
 
     @Override
     public ParsedClientsDto save(ParsedClientsDto parsedClientsDto) {
-        MifosUser user = (MifosUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        UserContext userContext = toUserContext(user);
-
-        OfficeBO userOffice = this.officeDao.findOfficeById(userContext.getBranchId());
-        userContext.setBranchGlobalNum(userOffice.getGlobalOfficeNum());
-
+        UserContext userContext = getUserContext();
         DateTimeService dateTimeService = new DateTimeService();
 
         /* Construct ClientBO objects */
         List<NewClientDto> newClients = new ArrayList<NewClientDto>();
-
         for (ImportedClientDetail importedClient : parsedClientsDto.getSuccessfullyParsedRows()) {
-            String secondMiddleName = null;
-            ClientCreationDetail clientCreationDetail = importedClient.getClientCreationDetail();
+            newClients.add(createClient(importedClient, userContext));
+        }
 
-            PersonnelBO formedBy = null;
+        /* Validate client data */
+        for (NewClientDto newClient : newClients) {
+            try {
+                validateClient(newClient.getClientBO());
+            } catch (CustomerException ex) {
+                throw new MifosRuntimeException(ex);
+            }
+        }
 
-            /* Client name details */
-            ClientNameDetailDto clientNameDetails = clientCreationDetail.getClientNameDetailDto();
-            ClientNameDetailEntity clientNameDetailEntity = new ClientNameDetailEntity(null, secondMiddleName,
-                    clientNameDetails);
+        /* Save clients */
+        List<AccountFeesEntity> accountFees = new ArrayList<AccountFeesEntity>(); // empty list
+        try {
+            hibernateTransactionHelper.startTransaction();
+            for (NewClientDto newClient : newClients) {
+                saveClient(newClient, accountFees, dateTimeService);
+            }
+            hibernateTransactionHelper.commitTransaction();
+        } catch (Exception ex) {
+            hibernateTransactionHelper.rollbackTransaction();
+            throw new MifosRuntimeException(ex);
+        }
 
-            ClientDetailEntity clientDetailEntity = new ClientDetailEntity();
-            clientDetailEntity.updateClientDetails(clientCreationDetail.getClientPersonalDetailDto());
+        return parsedClientsDto;
+    }
 
-            String clientFirstName = clientNameDetails.getFirstName();
-            String clientLastName = clientNameDetails.getLastName();
-            String secondLastName = clientNameDetails.getSecondLastName();
+    @Override
+    public int importClients(InputStream inputStream, final ImportProgressListener listener) {
+        this.xlsClientsImporter.setLocale(this.personnelServiceFacade.getUserPreferredLocale());
+        final UserContext userContext = getUserContext();
+        final DateTimeService dateTimeService = new DateTimeService();
+        final int[] rowsImported = { 0 };
+
+        this.xlsClientsImporter.parse(inputStream, GeneralConfig.getRecordCommittingSizeForClientImport(),
+                new XlsClientsImporter.ChunkHandler() {
+                    @Override
+                    public void handleChunk(List<ImportedClientDetail> parsedRows, List<String> errors, int rowsRead) {
+                        List<String> chunkErrors = new ArrayList<String>(errors);
+                        rowsImported[0] += saveChunk(parsedRows, userContext, dateTimeService, chunkErrors);
+                        listener.chunkProcessed(rowsRead, rowsImported[0], chunkErrors);
+                    }
+                });
+        return rowsImported[0];
+    }
 
-            /* Spouse/father name details */
-            ClientNameDetailEntity spouseFatherNameDetailEntity = null;
-            if (clientCreationDetail.getSpouseFatherName() != null) {
-                spouseFatherNameDetailEntity = new ClientNameDetailEntity(null, secondMiddleName,
-                        clientCreationDetail.getSpouseFatherName());
-            }
-            /* Data conversion */
-            DateTime dateOfBirth = new DateTime(clientCreationDetail.getDateOfBirth());
-            DateTime mfiJoiningDate = new DateTime(clientCreationDetail.getMfiJoiningDate());
-            DateTime trainedDateTime = null;
-            if (clientCreationDetail.getTrainedDate() != null) {
-                trainedDateTime = new DateTime(clientCreationDetail.getTrainedDate());
+    /**
+     * Saves the clients that pass validation in one transaction and clears the session afterwards, so that the
+     * session does not grow with the number of chunks saved. If the transaction fails, the clients are saved again
+     * one transaction each, so that only the rows that cannot be saved are rejected.
+     *
+     * @return the number of clients saved
+     */
+    private int saveChunk(List<ImportedClientDetail> importedClients, UserContext userContext,
+            DateTimeService dateTimeService, List<String> errors) {
+        List<ImportedClientDetail> validClients = new ArrayList<ImportedClientDetail>();
+        List<NewClientDto> newClients = new ArrayList<NewClientDto>();
+        for (ImportedClientDetail importedClient : importedClients) {
+            try {
+                NewClientDto newClient = createClient(importedClient, userContext);
+                validateClient(newClient.getClientBO());
+                validClients.add(importedClient);
+                newClients.add(newClient);
+            } catch (CustomerException ex) {
+                errors.add(getClientError(importedClient, ex.getKey()));
+            } catch (RuntimeException ex) {
+                errors.add(getClientError(importedClient, ex.getMessage()));
             }
-            /* Status */
-            CustomerStatus clientStatus = CustomerStatus.fromInt(clientCreationDetail.getClientStatus());
-            CustomerStatus finalStatus = clientStatus;
-            if (clientStatus == CustomerStatus.CLIENT_ACTIVE && clientCreationDetail.getActivationDate()==null) {
-                clientStatus = CustomerStatus.CLIENT_PENDING;
+        }
+        if (newClients.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            saveInTransaction(newClients, dateTimeService);
+            return newClients.size();
+        } catch (RuntimeException ex) {
+            int saved = 0;
+            for (ImportedClientDetail importedClient : validClients) {
+                try {
+                    // the clients of the failed transaction may hold ids that were rolled back, so create them anew
+                    saveInTransaction(Collections.singletonList(createClient(importedClient, userContext)),
+                            dateTimeService);
+                    saved++;
+                } catch (RuntimeException rowEx) {
+                    errors.add(getClientError(importedClient, rowEx.getMessage()));
+                }
             }
-            /* Address */
-            Address address = null;
-            if (clientCreationDetail.getAddress() != null) {
-                AddressDto dto = clientCreationDetail.getAddress();
-                address = new Address(dto.getLine1(), dto.getLine2(), dto.getLine3(), dto.getCity(), dto.getState(),
-                        dto.getCountry(), dto.getZip(), dto.getPhoneNumber());
+            return saved;
+        }
+    }
+
+    /**
+     * Saves the clients in one transaction. On failure the transaction is rolled back and the session closed without
+     * being flushed, so that nothing of the failed transaction reaches the database or the next transaction.
+     */
+    private void saveInTransaction(List<NewClientDto> newClients, DateTimeService dateTimeService) {
+        List<AccountFeesEntity> accountFees = new ArrayList<AccountFeesEntity>(); // empty list
+        try {
+            hibernateTransactionHelper.startTransaction();
+            for (NewClientDto newClient : newClients) {
+                saveClient(newClient, accountFees, dateTimeService);
             }
-            // empty list
-            List<ClientInitialSavingsOfferingEntity> associatedOfferings = new ArrayList<ClientInitialSavingsOfferingEntity>();
-            // client object
-            ClientBO client;
-            if (clientCreationDetail.getGroupFlag() == 1) {
-                CustomerBO group = customerDao.findCustomerBySystemId(clientCreationDetail.getParentGroupId());
-
-                if (clientCreationDetail.getFormedBy() != null) {
-                    formedBy = this.personnelDao.findPersonnelById(clientCreationDetail.getFormedBy());
-                } else {
-                    formedBy = group.getPersonnel();
-                }
+            hibernateTransactionHelper.commitTransaction();
+        } catch (RuntimeException ex) {
+            hibernateTransactionHelper.rollbackTransaction();
+            hibernateTransactionHelper.closeSession();
+            throw ex;
+        }
+        hibernateTransactionHelper.flushAndClearSession();
+    }
 
-                client = ClientBO.createNewInGroupHierarchy(userContext, clientCreationDetail.getClientName(),
-                        clientStatus, mfiJoiningDate, group, formedBy, clientNameDetailEntity, dateOfBirth,
-                        clientCreationDetail.getGovernmentId(), clientCreationDetail.isTrained(), trainedDateTime,
-                        clientCreationDetail.getGroupFlag(), clientFirstName, clientLastName, secondLastName,
-                        spouseFatherNameDetailEntity, clientDetailEntity, associatedOfferings,
-                        clientCreationDetail.getExternalId(), address, clientCreationDetail.getActivationDate());
-            } else {
-                Short officeId = clientCreationDetail.getOfficeId();
-                Short officerId = clientCreationDetail.getLoanOfficerId();
+    private String getClientError(ImportedClientDetail importedClient, String message) {
+        String clientName = importedClient.getClientCreationDetail().getClientName();
+        if (importedClient.getRowNumber() == null) {
+            return clientName + ": " + message;
+        }
+        return xlsClientsImporter.getRowError(importedClient.getRowNumber()) + clientName + ": " + message;
+    }
 
-                PersonnelBO loanOfficer = personnelDao.findPersonnelById(officerId);
-                OfficeBO office = this.officeDao.findOfficeById(officeId);
+    // package-private, like the steps below, so that tests can stub it
+    UserContext getUserContext() {
+        MifosUser user = (MifosUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        UserContext userContext = toUserContext(user);
 
-                if (clientCreationDetail.getFormedBy() != null) {
-                    formedBy = this.personnelDao.findPersonnelById(clientCreationDetail.getFormedBy());
-                } else {
-                    formedBy = loanOfficer;
-                }
+        OfficeBO userOffice = this.officeDao.findOfficeById(userContext.getBranchId());
+        userContext.setBranchGlobalNum(userOffice.getGlobalOfficeNum());
+        return userContext;
+    }
 
-                int lastSearchIdCustomerValue = customerDao
-                        .retrieveLastSearchIdValueForNonParentCustomersInOffice(officeId);
+    NewClientDto createClient(ImportedClientDetail importedClient, UserContext userContext) {
+        String secondMiddleName = null;
+        ClientCreationDetail clientCreationDetail = importedClient.getClientCreationDetail();
 
-                /* meeting */
-                final MeetingDto meetingDto = importedClient.getMeeting();
-                MeetingBO clientMeeting = null;
-                if (meetingDto != null) {
-                    clientMeeting = new MeetingFactory().create(meetingDto);
-                    clientMeeting.setUserContext(userContext);
-                }
+        PersonnelBO formedBy = null;
 
-                client = ClientBO.createNewOutOfGroupHierarchy(userContext, clientCreationDetail.getClientName(),
-                        clientStatus, mfiJoiningDate, office, loanOfficer, clientMeeting, formedBy,
-                        clientNameDetailEntity, dateOfBirth, clientCreationDetail.getGovernmentId(),
-                        clientCreationDetail.isTrained(), trainedDateTime, clientCreationDetail.getGroupFlag(),
-                        clientFirstName, clientLastName, secondLastName, spouseFatherNameDetailEntity,
-                        clientDetailEntity, associatedOfferings, clientCreationDetail.getExternalId(), address,
-                        lastSearchIdCustomerValue);
+        /* Client name details */
+        ClientNameDetailDto clientNameDetails = clientCreationDetail.getClientNameDetailDto();
+        ClientNameDetailEntity clientNameDetailEntity = new ClientNameDetailEntity(null, secondMiddleName,
+                clientNameDetails);
 
-                if (clientCreationDetail.getActivationDate() != null){
-                    client.setCustomerActivationDate(clientCreationDetail.getActivationDate().toDateMidnight().toDate());
-                }
+        ClientDetailEntity clientDetailEntity = new ClientDetailEntity();
+        clientDetailEntity.updateClientDetails(clientCreationDetail.getClientPersonalDetailDto());
+
+        String clientFirstName = clientNameDetails.getFirstName();
+        String clientLastName = clientNameDetails.getLastName();
+        String secondLastName = clientNameDetails.getSecondLastName();
+
+        /* Spouse/father name details */
+        ClientNameDetailEntity spouseFatherNameDetailEntity = null;
+        if (clientCreationDetail.getSpouseFatherName() != null) {
+            spouseFatherNameDetailEntity = new ClientNameDetailEntity(null, secondMiddleName,
+                    clientCreationDetail.getSpouseFatherName());
+        }
+        /* Data conversion */
+        DateTime dateOfBirth = new DateTime(clientCreationDetail.getDateOfBirth());
+        DateTime mfiJoiningDate = new DateTime(clientCreationDetail.getMfiJoiningDate());
+        DateTime trainedDateTime = null;
+        if (clientCreationDetail.getTrainedDate() != null) {
+            trainedDateTime = new DateTime(clientCreationDetail.getTrainedDate());
+        }
+        /* Status */
+        CustomerStatus clientStatus = CustomerStatus.fromInt(clientCreationDetail.getClientStatus());
+        CustomerStatus finalStatus = clientStatus;
+        if (clientStatus == CustomerStatus.CLIENT_ACTIVE && clientCreationDetail.getActivationDate()==null) {
+            clientStatus = CustomerStatus.CLIENT_PENDING;
+        }
+        /* Address */
+        Address address = null;
+        if (clientCreationDetail.getAddress() != null) {
+            AddressDto dto = clientCreationDetail.getAddress();
+            address = new Address(dto.getLine1(), dto.getLine2(), dto.getLine3(), dto.getCity(), dto.getState(),
+                    dto.getCountry(), dto.getZip(), dto.getPhoneNumber());
+        }
+        // empty list
+        List<ClientInitialSavingsOfferingEntity> associatedOfferings = new ArrayList<ClientInitialSavingsOfferingEntity>();
+        // client object
+        ClientBO client;
+        if (clientCreationDetail.getGroupFlag() == 1) {
+            CustomerBO group = customerDao.findCustomerBySystemId(clientCreationDetail.getParentGroupId());
+
+            if (clientCreationDetail.getFormedBy() != null) {
+                formedBy = this.personnelDao.findPersonnelById(clientCreationDetail.getFormedBy());
+            } else {
+                formedBy = group.getPersonnel();
             }
-            // global id
-            if (importedClient.getClientGlobalNum() != null) {
-                client.setGlobalCustNum(importedClient.getClientGlobalNum());
+
+            client = ClientBO.createNewInGroupHierarchy(userContext, clientCreationDetail.getClientName(),
+                    clientStatus, mfiJoiningDate, group, formedBy, clientNameDetailEntity, dateOfBirth,
+                    clientCreationDetail.getGovernmentId(), clientCreationDetail.isTrained(), trainedDateTime,
+                    clientCreationDetail.getGroupFlag(), clientFirstName, clientLastName, secondLastName,
+                    spouseFatherNameDetailEntity, clientDetailEntity, associatedOfferings,
+                    clientCreationDetail.getExternalId(), address, clientCreationDetail.getActivationDate());
+        } else {
+            Short officeId = clientCreationDetail.getOfficeId();
+            Short officerId = clientCreationDetail.getLoanOfficerId();
+
+            PersonnelBO loanOfficer = personnelDao.findPersonnelById(officerId);
+            OfficeBO office = this.officeDao.findOfficeById(officeId);
+
+            if (clientCreationDetail.getFormedBy() != null) {
+                formedBy = this.personnelDao.findPersonnelById(clientCreationDetail.getFormedBy());
+            } else {
+                formedBy = loanOfficer;
             }
 
-            NewClientDto newClient = new NewClientDto(client, finalStatus);
+            int lastSearchIdCustomerValue = customerDao
+                    .retrieveLastSearchIdValueForNonParentCustomersInOffice(officeId);
 
-            newClients.add(newClient);
-        }
+            /* meeting */
+            final MeetingDto meetingDto = importedClient.getMeeting();
+            MeetingBO clientMeeting = null;
+            if (meetingDto != null) {
+                clientMeeting = new MeetingFactory().create(meetingDto);
+                clientMeeting.setUserContext(userContext);
+            }
 
-        /* Validate client data */
-        for (NewClientDto newClient : newClients) {
-            ClientBO client = newClient.getClientBO();
-            try {
-                client.validate();
-                customerDao.validateClientForDuplicateNameOrGovtId(client.getDisplayName(), client.getDateOfBirth(),
-                        client.getGovernmentId());
-            } catch (CustomerException ex) {
-                throw new MifosRuntimeException(ex);
+            client = ClientBO.createNewOutOfGroupHierarchy(userContext, clientCreationDetail.getClientName(),
+                    clientStatus, mfiJoiningDate, office, loanOfficer, clientMeeting, formedBy,
+                    clientNameDetailEntity, dateOfBirth, clientCreationDetail.getGovernmentId(),
+                    clientCreationDetail.isTrained(), trainedDateTime, clientCreationDetail.getGroupFlag(),
+                    clientFirstName, clientLastName, secondLastName, spouseFatherNameDetailEntity,
+                    clientDetailEntity, associatedOfferings, clientCreationDetail.getExternalId(), address,
+                    lastSearchIdCustomerValue);
+
+            if (clientCreationDetail.getActivationDate() != null){
+                client.setCustomerActivationDate(clientCreationDetail.getActivationDate().toDateMidnight().toDate());
             }
         }
+        // global id
+        if (importedClient.getClientGlobalNum() != null) {
+            client.setGlobalCustNum(importedClient.getClientGlobalNum());
+        }
 
-        /* Save clients */
-        List<AccountFeesEntity> accountFees = new ArrayList<AccountFeesEntity>(); // empty list
-        try {
-            hibernateTransactionHelper.startTransaction();
-            for (NewClientDto newClient : newClients) {
+        return new NewClientDto(client, finalStatus);
+    }
 
-                ClientBO client = newClient.getClientBO();
-                CustomerStatus finalStatus = newClient.getCustomerStatus();
-                // status to pending approval if active
+    void validateClient(ClientBO client) throws CustomerException {
+        client.validate();
+        customerDao.validateClientForDuplicateNameOrGovtId(client.getDisplayName(), client.getDateOfBirth(),
+                client.getGovernmentId());
+    }
 
-                MeetingBO meeting = client.getCustomerMeetingValue();
+    void saveClient(NewClientDto newClient, List<AccountFeesEntity> accountFees,
+            DateTimeService dateTimeService) {
+        ClientBO client = newClient.getClientBO();
+        CustomerStatus finalStatus = newClient.getCustomerStatus();
+        // status to pending approval if active
 
-                customerDao.save(client);
-                hibernateTransactionHelper.flushSession();
+        MeetingBO meeting = client.getCustomerMeetingValue();
 
-                CalendarEvent applicableCalendarEvents = holidayDao.findCalendarEventsForThisYearAndNext(client
-                        .getOfficeId());
-                CustomerAccountBO customerAccount = customerAccountFactory.create(client, accountFees, meeting,
-                        applicableCalendarEvents);
-                client.addAccount(customerAccount);
-                customerDao.save(client);
-                hibernateTransactionHelper.flushSession();
+        customerDao.save(client);
+        hibernateTransactionHelper.flushSession();
 
-                if (client.getParentCustomer() != null) {
-                    customerDao.save(client.getParentCustomer());
-                }
+        CalendarEvent applicableCalendarEvents = holidayDao.findCalendarEventsForThisYearAndNext(client
+                .getOfficeId());
+        CustomerAccountBO customerAccount = customerAccountFactory.create(client, accountFees, meeting,
+                applicableCalendarEvents);
+        client.addAccount(customerAccount);
+        customerDao.save(client);
+        hibernateTransactionHelper.flushSession();
 
-                if (client.getGlobalCustNum() == null) {
-                    client.generateGlobalCustomerNumber();
-                }
-                client.generateSearchId();
-                customerDao.save(client);
-                hibernateTransactionHelper.flushSession();
+        if (client.getParentCustomer() != null) {
+            customerDao.save(client.getParentCustomer());
+        }
 
-                if (client.getParentCustomer() != null) {
-                    customerDao.save(client.getParentCustomer());
-                }
+        if (client.getGlobalCustNum() == null) {
+            client.generateGlobalCustomerNumber();
+        }
+        client.generateSearchId();
+        customerDao.save(client);
+        hibernateTransactionHelper.flushSession();
 
-                /* activate client */
-                if (finalStatus == CustomerStatus.CLIENT_ACTIVE) {
-                    hibernateTransactionHelper.flushSession();
-                    hibernateTransactionHelper.beginAuditLoggingFor(client);
-                    client.clearCustomerFlagsIfApplicable(client.getStatus(), finalStatus);
-
-                    client.updateCustomerStatus(finalStatus);
-                    // changeStatus(client, oldStatus, newStatus);
-                    if (client.getParentCustomer() != null) {
-                        CustomerHierarchyEntity hierarchy = new CustomerHierarchyEntity(client,
-                                client.getParentCustomer());
-                        client.addCustomerHierarchy(hierarchy);
-                    }
+        if (client.getParentCustomer() != null) {
+            customerDao.save(client.getParentCustomer());
+        }
 
-                    if (client.getCustomerActivationDate() != null)
-                    {
-                        client.setCustomerActivationDate(client.getCustomerActivationDate());
-                    }
-                    else{
-                        client.setCustomerActivationDate(dateTimeService.getCurrentJavaDateTime());
-                    }
-                    customerAccount.createSchedulesAndFeeSchedulesForFirstTimeActiveCustomer(client, accountFees,
-                            meeting, applicableCalendarEvents, new DateTime(client.getCustomerActivationDate()));
-                    
-                    customerDao.save(client);
-                }
+        /* activate client */
+        if (finalStatus == CustomerStatus.CLIENT_ACTIVE) {
+            hibernateTransactionHelper.flushSession();
+            hibernateTransactionHelper.beginAuditLoggingFor(client);
+            client.clearCustomerFlagsIfApplicable(client.getStatus(), finalStatus);
+
+            client.updateCustomerStatus(finalStatus);
+            // changeStatus(client, oldStatus, newStatus);
+            if (client.getParentCustomer() != null) {
+                CustomerHierarchyEntity hierarchy = new CustomerHierarchyEntity(client,
+                        client.getParentCustomer());
+                client.addCustomerHierarchy(hierarchy);
             }
-            hibernateTransactionHelper.commitTransaction();
-        } catch (Exception ex) {
-            hibernateTransactionHelper.rollbackTransaction();
-            throw new MifosRuntimeException(ex);
-        }
 
-        return parsedClientsDto;
+            if (client.getCustomerActivationDate() != null)
+            {
+                client.setCustomerActivationDate(client.getCustomerActivationDate());
+            }
+            else{
+                client.setCustomerActivationDate(dateTimeService.getCurrentJavaDateTime());
+            }
+            customerAccount.createSchedulesAndFeeSchedulesForFirstTimeActiveCustomer(client, accountFees,
+                    meeting, applicableCalendarEvents, new DateTime(client.getCustomerActivationDate()));
+            
+            customerDao.save(client);
+        }
     }
 
     private UserContext toUserContext(MifosUser user) {
@@ -20,16 +20,20 @@
 
 package org.mifos.application.importexport.xls;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.poi.hssf.usermodel.HSSFCell;
-import org.apache.poi.hssf.usermodel.HSSFRichTextString;
+import org.apache.poi.hssf.record.RecordFormatException;
 import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -72,6 +76,7 @@ import org.mifos.dto.screen.ClientNameDetailDto;
 import org.mifos.dto.screen.ClientPersonalDetailDto;
 import org.mifos.framework.business.util.Address;
 import org.mifos.framework.components.fieldConfiguration.util.helpers.FieldConfig;
+import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.util.helpers.DateUtils;
 
 public class XlsClientsImporter implements MessageSourceAware {
@@ -114,24 +119,9 @@ public class XlsClientsImporter implements MessageSourceAware {
 
     public ParsedClientsDto parse(final InputStream input) {
 
-        final List<ValueListElement> buisnessActivitiesList = customerDao.retrieveBusinessActivities();
-        final List<ValueListElement> gendersList = customerDao.retrieveGenders();
-        final List<ValueListElement> citizenshipsList = customerDao.retrieveCitizenship();
-        final List<ValueListElement> ethinicitiesList = customerDao.retrieveEthnicity();
-        final List<ValueListElement> educationLevelsList = customerDao.retrieveEducationLevels();
-        final List<ValueListElement> handicappedList = customerDao.retrieveHandicapped();
-        final List<ValueListElement> povertyStatusList = customerDao.retrievePoverty();
-        final List<ValueListElement> maritalStatusList = customerDao.retrieveMaritalStatuses();
-        final List<ValueListElement> salutationsList = customerDao.retrieveSalutations();
-
-        final List<OfficeDto> allOfficess = officeDao.findAllOffices();
-
-        final FieldConfig fieldConfig = FieldConfig.getInstance();
-
-        final List<String> globalCustNums = new ArrayList<String>();
-
-        final List<String> errorsList = new ArrayList<String>();
-        final List<ImportedClientDetail> parsedClientDetails = new ArrayList<ImportedClientDetail>();
+        final ParseContext context = new ParseContext();
+        final List<String> errorsList = context.errorsList;
+        final List<ImportedClientDetail> parsedClientDetails = context.parsedClientDetails;
 
         try {
             final HSSFWorkbook workbook = new HSSFWorkbook(input);
@@ -158,433 +148,10 @@ public class XlsClientsImporter implements MessageSourceAware {
                 }
             }
 
-            XlsImportConstants currentCell = XlsImportConstants.CLIENT_NUM_CELL;
-            int friendlyRowNumber = 0;
-
             /* Parse client data */
             if (errorsList.isEmpty()) {
                 while (rowIterator.hasNext()) {
-                    try {
-                        row = (HSSFRow) rowIterator.next();
-                        friendlyRowNumber = row.getRowNum() + 1;
-                        /* Get data from sheet */
-                        currentCell = XlsImportConstants.CLIENT_NUM_CELL;
-                        String clientGlobalNum = getCellStringValue(row, currentCell);
-                        if (StringUtils.isBlank(clientGlobalNum)) {
-                            clientGlobalNum = null; // generate number
-                        } else {
-                            // check for duplicates
-                            validateGlobalCustNum(clientGlobalNum, globalCustNums);
-                            globalCustNums.add(clientGlobalNum);
-                        }
-
-                        currentCell = XlsImportConstants.BRANCH_SHORT_NAME_CELL;
-                        final String branchShortName = getCellStringValue(row, currentCell);
-                        final Short branchOfficeId = getBranchId(branchShortName, allOfficess);
-
-                        currentCell = XlsImportConstants.GROUP_GLOBAL_NUM_CELL;
-                        final String groupGlobalNum = getCellStringValue(row, currentCell);
-                        validateGroup(groupGlobalNum);
-
-                        if (StringUtils.isBlank(groupGlobalNum) && branchOfficeId == null) {
-                            String error = getRowError(friendlyRowNumber)
-                                    + getMessage(XlsMessageConstants.OFFICE_AND_BRANCH);
-                            errorsList.add(error);
-                            continue;
-                        }
-
-                        currentCell = XlsImportConstants.SALUTATION_CELL;
-                        final String salutation = getCellStringValue(row, currentCell);
-                        final Integer salutationId = getValueElementId(salutation, salutationsList);
-                        validateMandatoryField(salutationId);
-
-                        currentCell = XlsImportConstants.FIRST_NAME_CELL;
-                        final String clientFirstName = getCellStringValue(row, currentCell);
-                        validateMandatoryField(clientFirstName);
-
-                        currentCell = XlsImportConstants.MIDDLE_NAME_CELL;
-                        final String clientMiddleName = getCellStringValue(row, currentCell);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.MIDDLE_NAME)) {
-                            validateMandatoryField(clientMiddleName);
-                        }
-
-                        currentCell = XlsImportConstants.LAST_NAME_CELL;
-                        final String clientLastName = getCellStringValue(row, currentCell);
-                        validateMandatoryField(clientLastName);
-
-                        currentCell = XlsImportConstants.SECOND_LAST_NAME_CELL;
-                        final String clientSecondLastName = getCellStringValue(row, currentCell);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.SECOND_LAST_NAME)) {
-                            validateMandatoryField(clientSecondLastName);
-                        }
-
-                        currentCell = XlsImportConstants.GOVERNMENT_ID_CELL;
-                        String governmentId = getCellStringValue(row, currentCell);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.GOVERNMENT_ID)) {
-                            validateMandatoryField(governmentId);
-                        }
-
-                        currentCell = XlsImportConstants.DATE_OF_BIRTH_CELL;
-                        final Date dateOfBirth = getCellDateValue(row, currentCell);
-                        validateMandatoryField(dateOfBirth);
-                        validateAge(dateOfBirth);
-
-                        currentCell = XlsImportConstants.GENDER_CELL;
-                        final String gender = getCellStringValue(row, currentCell);
-                        final Short genderId = intToShort(getValueElementId(gender, gendersList));
-                        validateMandatoryField(genderId);
-
-                        currentCell = XlsImportConstants.MARITAL_STATUS_CELL;
-                        final String maritalStatus = getCellStringValue(row, currentCell);
-                        final Integer maritalStatusId = getValueElementId(maritalStatus, maritalStatusList);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.MARITAL_STATUS)) {
-                            validateMandatoryField(maritalStatusId);
-                        }
-
-                        currentCell = XlsImportConstants.NUMBER_OF_CHILDREN_CELL;
-                        final Short numberOfChildren = intToShort(getCellIntegerValue(row, currentCell));
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.NUMBER_OF_CHILDREN)) {
-                            validateMandatoryField(numberOfChildren);
-                        }
-
-                        currentCell = XlsImportConstants.CITIZENSHIP_CELL;
-                        final String citizenship = getCellStringValue(row, currentCell);
-                        final Integer citizenshipId = getValueElementId(citizenship, citizenshipsList);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.CITIZENSHIP)) {
-                            validateMandatoryField(citizenshipId);
-                        }
-
-                        currentCell = XlsImportConstants.ETHINICITY_CELL;
-                        final String ethinicity = getCellStringValue(row, currentCell);
-                        final Integer ethinicityId = getValueElementId(ethinicity, ethinicitiesList);
-                        if (fieldConfig.isFieldHidden(CLIENT_ENTITY + HiddenMandatoryFieldNamesConstants.ETHNICITY)) {
-                            validateMandatoryField(ethinicityId);
-                        }
-
-                        currentCell = XlsImportConstants.EDUCATION_LEVEL_CELL;
-                        final String educationLevel = getCellStringValue(row, currentCell);
-                        final Integer educationLevelId = getValueElementId(educationLevel, educationLevelsList);
-                        if (fieldConfig.isFieldHidden(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.EDUCATION_LEVEL)) {
-                            validateMandatoryField(educationLevelId);
-                        }
-
-                        currentCell = XlsImportConstants.ACTIVITIES_CELL;
-                        final String activites = getCellStringValue(row, currentCell);
-                        final Integer activityId = getValueElementId(activites, buisnessActivitiesList);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.BUSINESS_ACTIVITIES)) {
-                            validateMandatoryField(activityId);
-                        }
-
-                        currentCell = XlsImportConstants.POVERTY_STATUS_CELL;
-                        final String povertyStatus = getCellStringValue(row, currentCell);
-                        final Short povertyStatusId = intToShort(getValueElementId(povertyStatus, povertyStatusList));
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.POVERTY_STATUS)) {
-                            validateMandatoryField(povertyStatusId);
-                        }
-
-                        currentCell = XlsImportConstants.HANDICAPPED_CELL;
-                        final String handicapped = getCellStringValue(row, currentCell);
-                        final Integer handicappedId = getValueElementId(handicapped, handicappedList);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.HANDICAPPED)) {
-                            validateMandatoryField(handicappedId);
-                        }
-
-                        currentCell = XlsImportConstants.SPOUSE_FATHER_RELATIONSHIP_CELL;
-                        final String spouseOrFather = getCellStringValue(row, currentCell);
-                        final Short spouseFatherNameType = getSpouseNameType(spouseOrFather);
-
-                        final boolean familyMandatory = fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                + HiddenMandatoryFieldNamesConstants.FAMILY_DETAILS);
-                        if (familyMandatory) {
-                            validateMandatoryField(spouseFatherNameType);
-                        }
-
-                        currentCell = XlsImportConstants.SPOUSE_FIRST_NAME_CELL;
-                        final String spouseFirstName = getCellStringValue(row, currentCell);
-                        if (familyMandatory) {
-                            validateMandatoryField(spouseFirstName);
-                        }
-
-                        currentCell = XlsImportConstants.SPOUSE_MIDDLE_NAME_CELL;
-                        final String spouseMiddleName = getCellStringValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.SPOUSE_SECOND_LAST_NAME_CELL;
-                        final String spouseSecondLastName = getCellStringValue(row, currentCell);
-                        if (familyMandatory
-                                && fieldConfig.isFieldManadatory(CLIENT_ENTITY
-                                        + HiddenMandatoryFieldNamesConstants.SPOUSE_FATHER_SECOND_LAST_NAME)) {
-                            validateMandatoryField(spouseSecondLastName);
-                        }
-
-                        currentCell = XlsImportConstants.SPOUSE_LAST_NAME_CELL;
-                        final String spouseLastName = getCellStringValue(row, currentCell);
-                        if (familyMandatory) {
-                            validateMandatoryField(spouseLastName);
-                        }
-
-                        currentCell = XlsImportConstants.ADDRESS_CELL;
-                        final String address = getCellStringValue(row, currentCell);
-                        if (fieldConfig.isFieldManadatory(CLIENT_ENTITY + HiddenMandatoryFieldNamesConstants.ADDRESS1)) {
-                            validateMandatoryField(address);
-                        }
-
-                        currentCell = XlsImportConstants.CITY_DISTRICT_CELL;
-                        final String cityDistrict = getCellStringValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.STATE_CELL;
-                        final String state = getCellStringValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.COUNTRY_CELL;
-                        final String country = getCellStringValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.POSTAL_CODE_CELL;
-                        final String postalCode = getCellStringValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.TELEPHONE_CELL;
-                        final String telephone = getCellStringValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.RECRUITED_BY_CELL;
-                        final String recruitedBy = getCellStringValue(row, currentCell);
-                        validateMandatoryField(recruitedBy);
-                        final Short formedBy = getOfficerId(recruitedBy);
-
-                        currentCell = XlsImportConstants.STATUS_CELL;
-                        final String status = getCellStringValue(row, currentCell);
-                        final Short statusId = statusToShort(status);
-
-                        currentCell = XlsImportConstants.LOAN_OFFICER_CELL;
-                        final String loanOfficer = getCellStringValue(row, currentCell);
-                        if (!StringUtils.isBlank(groupGlobalNum) && !StringUtils.isBlank(loanOfficer)) {
-                            throw new CellException(getMessage(XlsMessageConstants.LOAN_OFFICER_FOR_GROUP_CLIENT));
-                        }
-                        
-                        currentCell = XlsImportConstants.ACTIVATION_DATE_CELL;
-                        final LocalDate activationDate = DateUtils.getLocalDateFromDate(getCellDateValue(row, currentCell));
-                        if (activationDate != null && !status.equals(getMessage(XlsMessageConstants.ACTIVE))) {
-                            throw new CellException(getMessage(XlsMessageConstants.ACTIVE_STATUS_FOR_ACTIVATION_DATE));
-                        }
-
-                        /* Meeting data */
-
-                        currentCell = XlsImportConstants.MEETING_FREQUENCY_CELL;
-                        final Integer recurrenceType = getRecurrenceType(getCellStringValue(row, currentCell));
-
-                        currentCell = XlsImportConstants.MEETING_RECUR_EVERY_WEEK_CELL;
-                        final Integer recurEveryWeek = getCellIntegerValue(row, currentCell);
-
-                        currentCell = XlsImportConstants.MEETING_ON_WEEK_CELL;
-                        final Integer weeklyMeetingDay = getDayValue(getCellStringValue(row, currentCell));
-
-                        currentCell = XlsImportConstants.MEETING_OPT1_DAY_CELL;
-                        final Integer opt1Day = getCellIntegerValue(row, currentCell);
-                        validateMonthDay(opt1Day);
-
-                        currentCell = XlsImportConstants.MEETING_OPT1_EVERY_CELL;
-                        final Integer opt1Every = getCellIntegerValue(row, currentCell);
-                        validatePositive(opt1Every);
-
-                        currentCell = XlsImportConstants.MEETING_OPT2_THE_CELL;
-                        final Integer opt2The = getDayRankValue(getCellStringValue(row, currentCell));
-
-                        currentCell = XlsImportConstants.MEETING_OPT2_DAY_CELL;
-                        final Integer opt2Day = getDayValue(getCellStringValue(row, currentCell));
-
-                        currentCell = XlsImportConstants.MEETING_OPT2_EVERY_CELL;
-                        final Integer opt2Every = getCellIntegerValue(row, currentCell);
-                        validatePositive(opt2Every);
-
-                        currentCell = XlsImportConstants.MEETING_LOCATION_CELL;
-                        final String meetingLocation = getCellStringValue(row, currentCell);
-
-                        Integer recurrenceDayNumber = 0;
-                        Integer recurrenceWeekOfMonth = 0;
-                        Integer recurrenceDayOfWeek = 0;
-                        Integer recurEvery = 0;
-                        /*
-                         * Validate meeting data
-                         */
-                        if (!StringUtils.isBlank(groupGlobalNum) && recurrenceType != null) {
-                            // no meeting allowed for a group
-                            throw new RowException(getMessage(XlsMessageConstants.MEETING_FOR_GROUP));
-                        } else if (recurrenceType == null) {
-                            // make sure everything is empty
-                            if (recurEveryWeek != null || weeklyMeetingDay != null || opt1Day != null
-                                    || opt1Every != null || opt2Day != null || opt2Every != null || opt2The != null
-                                    || !StringUtils.isBlank(meetingLocation)) {
-                                throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
-                            }
-                        } else if (recurrenceType == RecurrenceType.WEEKLY.getValue().intValue()) {
-                            // make sure weekly data is set
-                            if (recurEveryWeek == null || weeklyMeetingDay == null) {
-                                throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
-                            }
-                            // make sure monthly details are empty
-                            if (opt1Day != null || opt1Every != null || opt2Day != null || opt2Every != null
-                                    || opt2The != null) {
-                                throw new RowException(
-                                        getMessage(XlsMessageConstants.MONTHLY_MEETING_DETAILS_NOT_EMPTY));
-                            }
-                            // set data
-                            recurrenceDayOfWeek = weeklyMeetingDay;
-                            recurEvery = recurEveryWeek;
-                            // validate location
-                            validateMandatoryField(meetingLocation);
-                        } else { // monthly recurrence
-                            // make sure weekly details are empty
-                            if (recurEveryWeek != null || weeklyMeetingDay != null) {
-                                throw new RowException(getMessage(XlsMessageConstants.WEEKLY_MEETING_DETAILS_NOT_EMPTY));
-                            }
-                            if (opt1Day == null) { // option 2
-                                // make sure option 2 is set
-                                if (opt2Day == null || opt2Every == null || opt2The == null) {
-                                    throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
-                                }
-                                // make sure option 1 is empty
-                                if (opt1Every != null) {
-                                    throw new RowException(getMessage(XlsMessageConstants.OPTIONS_EXCLUSIVE));
-                                }
-                                // set data
-                                recurrenceWeekOfMonth = opt2The;
-                                recurrenceDayOfWeek = opt2Day;
-                                recurEvery = opt2Every;
-                            } else { // option 1
-                                // make sure option 1 is set
-                                if (opt1Every == null) {
-                                    throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
-                                }
-                                // make sure option 2 is empty
-                                if (opt2Day != null || opt2Every != null || opt2The != null) {
-                                    throw new RowException(getMessage(XlsMessageConstants.OPTIONS_EXCLUSIVE));
-                                }
-                                // set data
-                                recurrenceDayNumber = opt1Day;
-                                recurEvery = opt1Every;
-                            }
-                            // validate location
-                            validateMandatoryField(meetingLocation);
-                        }
-                        /*
-                         * Create meeting data
-                         */
-                        MeetingDto meetingDto = null;
-                        if (recurrenceType != null) {
-                            final LocalDate meetingStartDate = new LocalDate();
-                            final MeetingRecurrenceDto meetingRecurrenceDto = new MeetingRecurrenceDto(
-                                    recurrenceDayNumber, recurrenceWeekOfMonth, recurrenceDayOfWeek);
-                            final MeetingDetailsDto meetingDetailsDto = new MeetingDetailsDto(recurrenceType, null,
-                                    recurEvery, meetingRecurrenceDto);
-                            final MeetingTypeDto meetingTypeDto = new MeetingTypeDto(MeetingType.CUSTOMER_MEETING
-                                    .getValue().intValue(), null, null);
-                            meetingDto = new MeetingDto(meetingStartDate, meetingLocation, meetingTypeDto,
-                                    meetingDetailsDto);
-                        } else {
-
-                        }
-
-                        String clientName = buildName(clientFirstName, clientMiddleName, clientLastName,
-                                clientSecondLastName);
-                        customerDao.validateClientForDuplicateNameOrGovtId(clientName, dateOfBirth, governmentId);
-
-                        /* Create dto's */
-                        /* address */
-                        final Address addressObject = new Address(address, null, null, cityDistrict, state, country,
-                                postalCode, telephone);
-                        final AddressDto addressDto = Address.toDto(addressObject);
-                        /* Personal details */
-                        final ClientNameDetailDto clientNameDetailDto = new ClientNameDetailDto(CLIENT_NAME_TYPE,
-                                salutationId, clientFirstName, clientMiddleName, clientLastName, clientSecondLastName);
-                        final ClientPersonalDetailDto clientPersonalDetailDto = new ClientPersonalDetailDto(ethinicityId,
-                                citizenshipId, handicappedId, activityId, maritalStatusId, educationLevelId,
-                                numberOfChildren, genderId, povertyStatusId);
-                        /* Spouse details */
-                        ClientNameDetailDto spouseNameDetailDto = null;
-                        if (spouseFatherNameType == null) {
-                            spouseNameDetailDto = new ClientNameDetailDto();
-                            spouseNameDetailDto.setFirstName("");
-                            spouseNameDetailDto.setLastName("");
-                        } else {
-                            spouseNameDetailDto = new ClientNameDetailDto(spouseFatherNameType, null, spouseFirstName,
-                                    spouseMiddleName, spouseLastName, spouseSecondLastName);
-                        }
-                        /* branch office */
-                        Short officeId = 0;
-                        Short loanOfficerId = null;
-                        Short groupFlagValue = 1;
-                        if (StringUtils.isBlank(groupGlobalNum)) {
-                            if (statusId == CustomerStatus.CLIENT_ACTIVE.getValue() && meetingDto == null) {
-                                String error = getRowError(friendlyRowNumber)
-                                        + getMessage(XlsMessageConstants.NO_MEETING_ERROR);
-                                errorsList.add(error);
-                                continue;
-                            }
-
-                            groupFlagValue = 0;
-                            officeId = branchOfficeId;
-
-                            List<PersonnelBO> officers = legacyPersonnelDao.getActiveLoanOfficersUnderOffice(officeId);
-                            if (officers.isEmpty()) {
-                                String error = getCellError(friendlyRowNumber,
-                                        XlsImportConstants.BRANCH_SHORT_NAME_CELL)
-                                        + getMessage(XlsMessageConstants.NO_OFFICERS_ERROR, branchShortName);
-                                errorsList.add(error);
-                                continue;
-                            }
-
-                            loanOfficerId = null;
-                            for (PersonnelBO officer : officers) {
-                                if (officer.getDisplayName().equals(loanOfficer)) {
-                                    loanOfficerId = officer.getPersonnelId();
-                                    break;
-                                }
-                            }
-
-                        } else {
-                            validateGroupStatus(groupGlobalNum, statusId);
-                        }
-
-                        /* Not imported values */
-                        final boolean trained = false;
-                        final Date trainedDate = null;
-                        final java.sql.Date mfiJoiningDate = null;
-                        final String externalId = "";
-                        final InputStream picture = null;
-                        final List<ApplicableAccountFeeDto> feesToApply = null;
-                        final List<ClientNameDetailDto> familyNames = null;
-                        final List<ClientFamilyDetailDto> familyDetails = null;
-                        final List<Short> selectedSavingsProducts = null;
-                        /* Final dto */
-                        final ClientCreationDetail clientCreationDetail = new ClientCreationDetail(selectedSavingsProducts,
-                                clientName, statusId, mfiJoiningDate, externalId, addressDto, formedBy, dateOfBirth,
-                                governmentId, trained, trainedDate, groupFlagValue, clientNameDetailDto,
-                                clientPersonalDetailDto, spouseNameDetailDto, picture, feesToApply, groupGlobalNum,
-                                familyNames, familyDetails, loanOfficerId, officeId, activationDate);
-
-                        validateDuplicateCustomers(clientCreationDetail, parsedClientDetails);
-
-                        final ImportedClientDetail importedClientDetail = new ImportedClientDetail(clientCreationDetail,
-                                clientGlobalNum, meetingDto);
-                        parsedClientDetails.add(importedClientDetail);
-                    } catch (RowException ex) {
-                        final String error = getRowError(friendlyRowNumber) + ex.getMessage();
-                        errorsList.add(error);
-                    } catch (CustomerException ex) {
-                        final String error = getRowError(friendlyRowNumber)
-                                + getMessage(XlsMessageConstants.DUPLICATE_CLIENT_ERROR);
-                        errorsList.add(error);
-                    } catch (Exception ex) {
-                        final String error = getCellError(friendlyRowNumber, currentCell) + ex.getMessage();
-                        errorsList.add(error);
-                    }
+                    parseRow(XlsRow.of((HSSFRow) rowIterator.next()), context);
                 }
             }
         } catch (Exception ex) {
@@ -593,6 +160,526 @@ public class XlsClientsImporter implements MessageSourceAware {
         return new ParsedClientsDto(errorsList, parsedClientDetails);
     }
 
+    /**
+     * Handles the rows of a workbook a chunk at a time.
+     */
+    public interface ChunkHandler {
+        /**
+         * @param parsedRows the rows of the chunk that were parsed successfully
+         * @param errors the errors of the rows of the chunk that were not
+         * @param rowsRead the number of data rows read so far, including this chunk
+         */
+        void handleChunk(List<ImportedClientDetail> parsedRows, List<String> errors, int rowsRead);
+    }
+
+    /**
+     * Parses the workbook like {@link #parse(InputStream)} but reads it a row at a time with {@link XlsSheetReader}
+     * and hands the parsed rows and errors to the handler every chunkSize rows, so that neither the workbook nor all
+     * of its parsed rows have to be held in memory at once. Exceptions thrown by the handler end the parsing.
+     */
+    public void parse(final InputStream input, final int chunkSize, final ChunkHandler handler) {
+        final ParseContext context = new ParseContext();
+        final StreamedRows rows = new StreamedRows();
+        XlsSheetReader reader = new XlsSheetReader(new XlsSheetReader.RowHandler() {
+            @Override
+            public void handleRow(XlsRow row) {
+                if (rows.rejected) {
+                    return;
+                }
+                /* Skip first rows */
+                rows.seen++;
+                if (row.getRowNum() == XlsImportConstants.FIRST_CLIENT_ROW.value()) {
+                    rows.firstClientRowFound = true;
+                }
+                if (rows.seen <= XlsImportConstants.SKIPPED_ROWS.value()) {
+                    return;
+                }
+                /* test first data row: data rows before it are held back until it is known to exist */
+                if (!rows.firstClientRowFound) {
+                    if (row.getRowNum() < XlsImportConstants.FIRST_CLIENT_ROW.value()) {
+                        rows.heldBack.add(row);
+                        return;
+                    }
+                    rows.rejected = true;
+                    return;
+                }
+                for (XlsRow heldBackRow : rows.heldBack) {
+                    parseRow(heldBackRow, context);
+                    rows.read++;
+                }
+                rows.heldBack.clear();
+                parseRow(row, context);
+                rows.read++;
+                if (rows.read % Math.max(1, chunkSize) == 0) {
+                    context.handOn(handler, rows.read);
+                }
+            }
+        });
+        try {
+            reader.read(input);
+            if (rows.rejected || !rows.firstClientRowFound || rows.seen < XlsImportConstants.SKIPPED_ROWS.value()) {
+                context.errorsList.add(getMessage(XlsMessageConstants.NOT_ENOUGH_INPUT_ROW));
+            }
+        } catch (IOException ex) {
+            context.errorsList.add(getMessage(XlsMessageConstants.ERROR_READING_DOCUMENT, ex.getMessage()));
+        } catch (RecordFormatException ex) {
+            context.errorsList.add(getMessage(XlsMessageConstants.ERROR_READING_DOCUMENT, ex.getMessage()));
+        }
+        context.handOn(handler, rows.read);
+    }
+
+    /**
+     * Tracks the rows of a streamed sheet so that {@link #parse(InputStream, int, ChunkHandler)} applies the same
+     * checks as {@link #parse(InputStream)}: the first {@link XlsImportConstants#SKIPPED_ROWS} rows are skipped and the
+     * sheet is rejected without parsing any row when it has no {@link XlsImportConstants#FIRST_CLIENT_ROW}.
+     */
+    private static final class StreamedRows {
+        private int seen;
+        private int read;
+        private boolean firstClientRowFound;
+        private boolean rejected;
+        private final List<XlsRow> heldBack = new ArrayList<XlsRow>();
+    }
+
+    private void parseRow(final XlsRow row, final ParseContext context) {
+        final List<ValueListElement> buisnessActivitiesList = context.buisnessActivitiesList;
+        final List<ValueListElement> gendersList = context.gendersList;
+        final List<ValueListElement> citizenshipsList = context.citizenshipsList;
+        final List<ValueListElement> ethinicitiesList = context.ethinicitiesList;
+        final List<ValueListElement> educationLevelsList = context.educationLevelsList;
+        final List<ValueListElement> handicappedList = context.handicappedList;
+        final List<ValueListElement> povertyStatusList = context.povertyStatusList;
+        final List<ValueListElement> maritalStatusList = context.maritalStatusList;
+        final List<ValueListElement> salutationsList = context.salutationsList;
+        final List<OfficeDto> allOfficess = context.allOfficess;
+        final FieldConfig fieldConfig = context.fieldConfig;
+        final List<String> globalCustNums = context.globalCustNums;
+        final List<String> errorsList = context.errorsList;
+        final List<ImportedClientDetail> parsedClientDetails = context.parsedClientDetails;
+
+        XlsImportConstants currentCell = XlsImportConstants.CLIENT_NUM_CELL;
+        final int friendlyRowNumber = row.getRowNum() + 1;
+        try {
+            /* Get data from sheet */
+            currentCell = XlsImportConstants.CLIENT_NUM_CELL;
+            String clientGlobalNum = getCellStringValue(row, currentCell);
+            if (StringUtils.isBlank(clientGlobalNum)) {
+                clientGlobalNum = null; // generate number
+            } else {
+                // check for duplicates
+                validateGlobalCustNum(clientGlobalNum, globalCustNums);
+                globalCustNums.add(clientGlobalNum);
+            }
+
+            currentCell = XlsImportConstants.BRANCH_SHORT_NAME_CELL;
+            final String branchShortName = getCellStringValue(row, currentCell);
+            final Short branchOfficeId = getBranchId(branchShortName, allOfficess);
+
+            currentCell = XlsImportConstants.GROUP_GLOBAL_NUM_CELL;
+            final String groupGlobalNum = getCellStringValue(row, currentCell);
+            validateGroup(groupGlobalNum);
+
+            if (StringUtils.isBlank(groupGlobalNum) && branchOfficeId == null) {
+                String error = getRowError(friendlyRowNumber)
+                        + getMessage(XlsMessageConstants.OFFICE_AND_BRANCH);
+                errorsList.add(error);
+                return;
+            }
+
+            currentCell = XlsImportConstants.SALUTATION_CELL;
+            final String salutation = getCellStringValue(row, currentCell);
+            final Integer salutationId = getValueElementId(salutation, salutationsList);
+            validateMandatoryField(salutationId);
+
+            currentCell = XlsImportConstants.FIRST_NAME_CELL;
+            final String clientFirstName = getCellStringValue(row, currentCell);
+            validateMandatoryField(clientFirstName);
+
+            currentCell = XlsImportConstants.MIDDLE_NAME_CELL;
+            final String clientMiddleName = getCellStringValue(row, currentCell);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.MIDDLE_NAME)) {
+                validateMandatoryField(clientMiddleName);
+            }
+
+            currentCell = XlsImportConstants.LAST_NAME_CELL;
+            final String clientLastName = getCellStringValue(row, currentCell);
+            validateMandatoryField(clientLastName);
+
+            currentCell = XlsImportConstants.SECOND_LAST_NAME_CELL;
+            final String clientSecondLastName = getCellStringValue(row, currentCell);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.SECOND_LAST_NAME)) {
+                validateMandatoryField(clientSecondLastName);
+            }
+
+            currentCell = XlsImportConstants.GOVERNMENT_ID_CELL;
+            String governmentId = getCellStringValue(row, currentCell);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.GOVERNMENT_ID)) {
+                validateMandatoryField(governmentId);
+            }
+
+            currentCell = XlsImportConstants.DATE_OF_BIRTH_CELL;
+            final Date dateOfBirth = getCellDateValue(row, currentCell);
+            validateMandatoryField(dateOfBirth);
+            validateAge(dateOfBirth);
+
+            currentCell = XlsImportConstants.GENDER_CELL;
+            final String gender = getCellStringValue(row, currentCell);
+            final Short genderId = intToShort(getValueElementId(gender, gendersList));
+            validateMandatoryField(genderId);
+
+            currentCell = XlsImportConstants.MARITAL_STATUS_CELL;
+            final String maritalStatus = getCellStringValue(row, currentCell);
+            final Integer maritalStatusId = getValueElementId(maritalStatus, maritalStatusList);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.MARITAL_STATUS)) {
+                validateMandatoryField(maritalStatusId);
+            }
+
+            currentCell = XlsImportConstants.NUMBER_OF_CHILDREN_CELL;
+            final Short numberOfChildren = intToShort(getCellIntegerValue(row, currentCell));
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.NUMBER_OF_CHILDREN)) {
+                validateMandatoryField(numberOfChildren);
+            }
+
+            currentCell = XlsImportConstants.CITIZENSHIP_CELL;
+            final String citizenship = getCellStringValue(row, currentCell);
+            final Integer citizenshipId = getValueElementId(citizenship, citizenshipsList);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.CITIZENSHIP)) {
+                validateMandatoryField(citizenshipId);
+            }
+
+            currentCell = XlsImportConstants.ETHINICITY_CELL;
+            final String ethinicity = getCellStringValue(row, currentCell);
+            final Integer ethinicityId = getValueElementId(ethinicity, ethinicitiesList);
+            if (fieldConfig.isFieldHidden(CLIENT_ENTITY + HiddenMandatoryFieldNamesConstants.ETHNICITY)) {
+                validateMandatoryField(ethinicityId);
+            }
+
+            currentCell = XlsImportConstants.EDUCATION_LEVEL_CELL;
+            final String educationLevel = getCellStringValue(row, currentCell);
+            final Integer educationLevelId = getValueElementId(educationLevel, educationLevelsList);
+            if (fieldConfig.isFieldHidden(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.EDUCATION_LEVEL)) {
+                validateMandatoryField(educationLevelId);
+            }
+
+            currentCell = XlsImportConstants.ACTIVITIES_CELL;
+            final String activites = getCellStringValue(row, currentCell);
+            final Integer activityId = getValueElementId(activites, buisnessActivitiesList);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.BUSINESS_ACTIVITIES)) {
+                validateMandatoryField(activityId);
+            }
+
+            currentCell = XlsImportConstants.POVERTY_STATUS_CELL;
+            final String povertyStatus = getCellStringValue(row, currentCell);
+            final Short povertyStatusId = intToShort(getValueElementId(povertyStatus, povertyStatusList));
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.POVERTY_STATUS)) {
+                validateMandatoryField(povertyStatusId);
+            }
+
+            currentCell = XlsImportConstants.HANDICAPPED_CELL;
+            final String handicapped = getCellStringValue(row, currentCell);
+            final Integer handicappedId = getValueElementId(handicapped, handicappedList);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.HANDICAPPED)) {
+                validateMandatoryField(handicappedId);
+            }
+
+            currentCell = XlsImportConstants.SPOUSE_FATHER_RELATIONSHIP_CELL;
+            final String spouseOrFather = getCellStringValue(row, currentCell);
+            final Short spouseFatherNameType = getSpouseNameType(spouseOrFather);
+
+            final boolean familyMandatory = fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                    + HiddenMandatoryFieldNamesConstants.FAMILY_DETAILS);
+            if (familyMandatory) {
+                validateMandatoryField(spouseFatherNameType);
+            }
+
+            currentCell = XlsImportConstants.SPOUSE_FIRST_NAME_CELL;
+            final String spouseFirstName = getCellStringValue(row, currentCell);
+            if (familyMandatory) {
+                validateMandatoryField(spouseFirstName);
+            }
+
+            currentCell = XlsImportConstants.SPOUSE_MIDDLE_NAME_CELL;
+            final String spouseMiddleName = getCellStringValue(row, currentCell);
+
+            currentCell = XlsImportConstants.SPOUSE_SECOND_LAST_NAME_CELL;
+            final String spouseSecondLastName = getCellStringValue(row, currentCell);
+            if (familyMandatory
+                    && fieldConfig.isFieldManadatory(CLIENT_ENTITY
+                            + HiddenMandatoryFieldNamesConstants.SPOUSE_FATHER_SECOND_LAST_NAME)) {
+                validateMandatoryField(spouseSecondLastName);
+            }
+
+            currentCell = XlsImportConstants.SPOUSE_LAST_NAME_CELL;
+            final String spouseLastName = getCellStringValue(row, currentCell);
+            if (familyMandatory) {
+                validateMandatoryField(spouseLastName);
+            }
+
+            currentCell = XlsImportConstants.ADDRESS_CELL;
+            final String address = getCellStringValue(row, currentCell);
+            if (fieldConfig.isFieldManadatory(CLIENT_ENTITY + HiddenMandatoryFieldNamesConstants.ADDRESS1)) {
+                validateMandatoryField(address);
+            }
+
+            currentCell = XlsImportConstants.CITY_DISTRICT_CELL;
+            final String cityDistrict = getCellStringValue(row, currentCell);
+
+            currentCell = XlsImportConstants.STATE_CELL;
+            final String state = getCellStringValue(row, currentCell);
+
+            currentCell = XlsImportConstants.COUNTRY_CELL;
+            final String country = getCellStringValue(row, currentCell);
+
+            currentCell = XlsImportConstants.POSTAL_CODE_CELL;
+            final String postalCode = getCellStringValue(row, currentCell);
+
+            currentCell = XlsImportConstants.TELEPHONE_CELL;
+            final String telephone = getCellStringValue(row, currentCell);
+
+            currentCell = XlsImportConstants.RECRUITED_BY_CELL;
+            final String recruitedBy = getCellStringValue(row, currentCell);
+            validateMandatoryField(recruitedBy);
+            final Short formedBy = getOfficerId(recruitedBy);
+
+            currentCell = XlsImportConstants.STATUS_CELL;
+            final String status = getCellStringValue(row, currentCell);
+            final Short statusId = statusToShort(status);
+
+            currentCell = XlsImportConstants.LOAN_OFFICER_CELL;
+            final String loanOfficer = getCellStringValue(row, currentCell);
+            if (!StringUtils.isBlank(groupGlobalNum) && !StringUtils.isBlank(loanOfficer)) {
+                throw new CellException(getMessage(XlsMessageConstants.LOAN_OFFICER_FOR_GROUP_CLIENT));
+            }
+            
+            currentCell = XlsImportConstants.ACTIVATION_DATE_CELL;
+            final LocalDate activationDate = DateUtils.getLocalDateFromDate(getCellDateValue(row, currentCell));
+            if (activationDate != null && !status.equals(getMessage(XlsMessageConstants.ACTIVE))) {
+                throw new CellException(getMessage(XlsMessageConstants.ACTIVE_STATUS_FOR_ACTIVATION_DATE));
+            }
+
+            /* Meeting data */
+
+            currentCell = XlsImportConstants.MEETING_FREQUENCY_CELL;
+            final Integer recurrenceType = getRecurrenceType(getCellStringValue(row, currentCell));
+
+            currentCell = XlsImportConstants.MEETING_RECUR_EVERY_WEEK_CELL;
+            final Integer recurEveryWeek = getCellIntegerValue(row, currentCell);
+
+            currentCell = XlsImportConstants.MEETING_ON_WEEK_CELL;
+            final Integer weeklyMeetingDay = getDayValue(getCellStringValue(row, currentCell));
+
+            currentCell = XlsImportConstants.MEETING_OPT1_DAY_CELL;
+            final Integer opt1Day = getCellIntegerValue(row, currentCell);
+            validateMonthDay(opt1Day);
+
+            currentCell = XlsImportConstants.MEETING_OPT1_EVERY_CELL;
+            final Integer opt1Every = getCellIntegerValue(row, currentCell);
+            validatePositive(opt1Every);
+
+            currentCell = XlsImportConstants.MEETING_OPT2_THE_CELL;
+            final Integer opt2The = getDayRankValue(getCellStringValue(row, currentCell));
+
+            currentCell = XlsImportConstants.MEETING_OPT2_DAY_CELL;
+            final Integer opt2Day = getDayValue(getCellStringValue(row, currentCell));
+
+            currentCell = XlsImportConstants.MEETING_OPT2_EVERY_CELL;
+            final Integer opt2Every = getCellIntegerValue(row, currentCell);
+            validatePositive(opt2Every);
+
+            currentCell = XlsImportConstants.MEETING_LOCATION_CELL;
+            final String meetingLocation = getCellStringValue(row, currentCell);
+
+            Integer recurrenceDayNumber = 0;
+            Integer recurrenceWeekOfMonth = 0;
+            Integer recurrenceDayOfWeek = 0;
+            Integer recurEvery = 0;
+            /*
+             * Validate meeting data
+             */
+            if (!StringUtils.isBlank(groupGlobalNum) && recurrenceType != null) {
+                // no meeting allowed for a group
+                throw new RowException(getMessage(XlsMessageConstants.MEETING_FOR_GROUP));
+            } else if (recurrenceType == null) {
+                // make sure everything is empty
+                if (recurEveryWeek != null || weeklyMeetingDay != null || opt1Day != null
+                        || opt1Every != null || opt2Day != null || opt2Every != null || opt2The != null
+                        || !StringUtils.isBlank(meetingLocation)) {
+                    throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
+                }
+            } else if (recurrenceType == RecurrenceType.WEEKLY.getValue().intValue()) {
+                // make sure weekly data is set
+                if (recurEveryWeek == null || weeklyMeetingDay == null) {
+                    throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
+                }
+                // make sure monthly details are empty
+                if (opt1Day != null || opt1Every != null || opt2Day != null || opt2Every != null
+                        || opt2The != null) {
+                    throw new RowException(
+                            getMessage(XlsMessageConstants.MONTHLY_MEETING_DETAILS_NOT_EMPTY));
+                }
+                // set data
+                recurrenceDayOfWeek = weeklyMeetingDay;
+                recurEvery = recurEveryWeek;
+                // validate location
+                validateMandatoryField(meetingLocation);
+            } else { // monthly recurrence
+                // make sure weekly details are empty
+                if (recurEveryWeek != null || weeklyMeetingDay != null) {
+                    throw new RowException(getMessage(XlsMessageConstants.WEEKLY_MEETING_DETAILS_NOT_EMPTY));
+                }
+                if (opt1Day == null) { // option 2
+                    // make sure option 2 is set
+                    if (opt2Day == null || opt2Every == null || opt2The == null) {
+                        throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
+                    }
+                    // make sure option 1 is empty
+                    if (opt1Every != null) {
+                        throw new RowException(getMessage(XlsMessageConstants.OPTIONS_EXCLUSIVE));
+                    }
+                    // set data
+                    recurrenceWeekOfMonth = opt2The;
+                    recurrenceDayOfWeek = opt2Day;
+                    recurEvery = opt2Every;
+                } else { // option 1
+                    // make sure option 1 is set
+                    if (opt1Every == null) {
+                        throw new RowException(getMessage(XlsMessageConstants.INCOMPLETE_MEETING_DATA));
+                    }
+                    // make sure option 2 is empty
+                    if (opt2Day != null || opt2Every != null || opt2The != null) {
+                        throw new RowException(getMessage(XlsMessageConstants.OPTIONS_EXCLUSIVE));
+                    }
+                    // set data
+                    recurrenceDayNumber = opt1Day;
+                    recurEvery = opt1Every;
+                }
+                // validate location
+                validateMandatoryField(meetingLocation);
+            }
+            /*
+             * Create meeting data
+             */
+            MeetingDto meetingDto = null;
+            if (recurrenceType != null) {
+                final LocalDate meetingStartDate = new LocalDate();
+                final MeetingRecurrenceDto meetingRecurrenceDto = new MeetingRecurrenceDto(
+                        recurrenceDayNumber, recurrenceWeekOfMonth, recurrenceDayOfWeek);
+                final MeetingDetailsDto meetingDetailsDto = new MeetingDetailsDto(recurrenceType, null,
+                        recurEvery, meetingRecurrenceDto);
+                final MeetingTypeDto meetingTypeDto = new MeetingTypeDto(MeetingType.CUSTOMER_MEETING
+                        .getValue().intValue(), null, null);
+                meetingDto = new MeetingDto(meetingStartDate, meetingLocation, meetingTypeDto,
+                        meetingDetailsDto);
+            } else {
+
+            }
+
+            String clientName = buildName(clientFirstName, clientMiddleName, clientLastName,
+                    clientSecondLastName);
+            customerDao.validateClientForDuplicateNameOrGovtId(clientName, dateOfBirth, governmentId);
+
+            /* Create dto's */
+            /* address */
+            final Address addressObject = new Address(address, null, null, cityDistrict, state, country,
+                    postalCode, telephone);
+            final AddressDto addressDto = Address.toDto(addressObject);
+            /* Personal details */
+            final ClientNameDetailDto clientNameDetailDto = new ClientNameDetailDto(CLIENT_NAME_TYPE,
+                    salutationId, clientFirstName, clientMiddleName, clientLastName, clientSecondLastName);
+            final ClientPersonalDetailDto clientPersonalDetailDto = new ClientPersonalDetailDto(ethinicityId,
+                    citizenshipId, handicappedId, activityId, maritalStatusId, educationLevelId,
+                    numberOfChildren, genderId, povertyStatusId);
+            /* Spouse details */
+            ClientNameDetailDto spouseNameDetailDto = null;
+            if (spouseFatherNameType == null) {
+                spouseNameDetailDto = new ClientNameDetailDto();
+                spouseNameDetailDto.setFirstName("");
+                spouseNameDetailDto.setLastName("");
+            } else {
+                spouseNameDetailDto = new ClientNameDetailDto(spouseFatherNameType, null, spouseFirstName,
+                        spouseMiddleName, spouseLastName, spouseSecondLastName);
+            }
+            /* branch office */
+            Short officeId = 0;
+            Short loanOfficerId = null;
+            Short groupFlagValue = 1;
+            if (StringUtils.isBlank(groupGlobalNum)) {
+                if (statusId == CustomerStatus.CLIENT_ACTIVE.getValue() && meetingDto == null) {
+                    String error = getRowError(friendlyRowNumber)
+                            + getMessage(XlsMessageConstants.NO_MEETING_ERROR);
+                    errorsList.add(error);
+                    return;
+                }
+
+                groupFlagValue = 0;
+                officeId = branchOfficeId;
+
+                List<PersonnelBO> officers = context.getActiveLoanOfficersUnderOffice(officeId);
+                if (officers.isEmpty()) {
+                    String error = getCellError(friendlyRowNumber,
+                            XlsImportConstants.BRANCH_SHORT_NAME_CELL)
+                            + getMessage(XlsMessageConstants.NO_OFFICERS_ERROR, branchShortName);
+                    errorsList.add(error);
+                    return;
+                }
+
+                loanOfficerId = null;
+                for (PersonnelBO officer : officers) {
+                    if (officer.getDisplayName().equals(loanOfficer)) {
+                        loanOfficerId = officer.getPersonnelId();
+                        break;
+                    }
+                }
+
+            } else {
+                validateGroupStatus(groupGlobalNum, statusId);
+            }
+
+            /* Not imported values */
+            final boolean trained = false;
+            final Date trainedDate = null;
+            final java.sql.Date mfiJoiningDate = null;
+            final String externalId = "";
+            final InputStream picture = null;
+            final List<ApplicableAccountFeeDto> feesToApply = null;
+            final List<ClientNameDetailDto> familyNames = null;
+            final List<ClientFamilyDetailDto> familyDetails = null;
+            final List<Short> selectedSavingsProducts = null;
+            /* Final dto */
+            final ClientCreationDetail clientCreationDetail = new ClientCreationDetail(selectedSavingsProducts,
+                    clientName, statusId, mfiJoiningDate, externalId, addressDto, formedBy, dateOfBirth,
+                    governmentId, trained, trainedDate, groupFlagValue, clientNameDetailDto,
+                    clientPersonalDetailDto, spouseNameDetailDto, picture, feesToApply, groupGlobalNum,
+                    familyNames, familyDetails, loanOfficerId, officeId, activationDate);
+
+            validateDuplicateCustomers(clientCreationDetail, context.clientKeys);
+
+            final ImportedClientDetail importedClientDetail = new ImportedClientDetail(clientCreationDetail,
+                    clientGlobalNum, meetingDto, friendlyRowNumber);
+            parsedClientDetails.add(importedClientDetail);
+        } catch (RowException ex) {
+            final String error = getRowError(friendlyRowNumber) + ex.getMessage();
+            errorsList.add(error);
+        } catch (CustomerException ex) {
+            final String error = getRowError(friendlyRowNumber)
+                    + getMessage(XlsMessageConstants.DUPLICATE_CLIENT_ERROR);
+            errorsList.add(error);
+        } catch (Exception ex) {
+            final String error = getCellError(friendlyRowNumber, currentCell) + ex.getMessage();
+            errorsList.add(error);
+        }
+    }
+
     private String getMessage(final XlsMessageConstants xlsMessageConstant) {
         return messageSource.getMessage(xlsMessageConstant.getText(), null, locale);
     }
@@ -609,7 +696,10 @@ public class XlsClientsImporter implements MessageSourceAware {
         return messageSource.getMessage(xlsMessageConstant.getText(), params, locale);
     }
 
-    private String getRowError(final int friendlyRowNumber) {
+    /**
+     * @return the localized prefix of an error in the given row, as shown to the user
+     */
+    public String getRowError(final int friendlyRowNumber) {
         final StringBuilder sb = new StringBuilder(getMessage(XlsMessageConstants.ROW_ERROR,
                 String.valueOf(friendlyRowNumber)));
         sb.append(": ");
@@ -625,43 +715,22 @@ public class XlsClientsImporter implements MessageSourceAware {
         return sb.toString();
     }
 
-    private String getCellStringValue(final HSSFRow row, final XlsImportConstants xlsImportConstant) {
-        final HSSFCell cell = row.getCell(xlsImportConstant.value(), HSSFRow.RETURN_BLANK_AS_NULL);
-        if (cell != null) {
-            switch (cell.getCellType()) {
-            case HSSFCell.CELL_TYPE_STRING:
-                HSSFRichTextString richText = cell.getRichStringCellValue();
-                return (richText == null) ? "" : richText.getString();
-            case HSSFCell.CELL_TYPE_NUMERIC:
-                int intVal = (int) cell.getNumericCellValue();
-                return String.valueOf(intVal);
-            default:
-                return "";
-            }
-        } else {
-            return "";
-        }
+    private String getCellStringValue(final XlsRow row, final XlsImportConstants xlsImportConstant) {
+        return row.getString(xlsImportConstant.value());
     }
 
-    private Date getCellDateValue(final HSSFRow row, final XlsImportConstants xlsImportConstant) throws Exception {
-        HSSFCell cell = null;
+    private Date getCellDateValue(final XlsRow row, final XlsImportConstants xlsImportConstant) throws Exception {
         try {
-            cell = row.getCell(xlsImportConstant.value(), HSSFRow.RETURN_BLANK_AS_NULL);
-            return (cell == null) ? null : cell.getDateCellValue();
+            return row.getDate(xlsImportConstant.value());
         } catch (Exception ex) {
-            String invalidDateString = (cell == null) ? "" : getCellStringValue(row, xlsImportConstant);
+            String invalidDateString = getCellStringValue(row, xlsImportConstant);
             throw new Exception(getMessage(XlsMessageConstants.INVALID_DATE, invalidDateString));
         }
     }
 
-    private Integer getCellIntegerValue(final HSSFRow row, final XlsImportConstants xlsImportConstant) {
-        final HSSFCell cell = row.getCell(xlsImportConstant.value(), HSSFRow.RETURN_BLANK_AS_NULL);
-        if (cell == null) {
-            return null;
-        } else {
-            Double val = cell.getNumericCellValue();
-            return val.intValue();
-        }
+    private Integer getCellIntegerValue(final XlsRow row, final XlsImportConstants xlsImportConstant) {
+        final Double val = row.getNumber(xlsImportConstant.value());
+        return (val == null) ? null : val.intValue();
     }
 
     private Integer getValueElementId(final String value, final List<ValueListElement> elements) throws CellException {
@@ -822,21 +891,20 @@ public class XlsClientsImporter implements MessageSourceAware {
         throw new CellException(getMessage(XlsMessageConstants.OFFICE_NOT_FOUND_ERROR, branchShortName));
     }
 
-    private void validateDuplicateCustomers(final ClientCreationDetail client,
-            final List<ImportedClientDetail> importedClients) throws RowException {
-        final Date dob = client.getDateOfBirth();
-        final String clientName = client.getClientName();
-
-        for (ImportedClientDetail importedClient : importedClients) {
-            final Date otherDob = importedClient.getClientCreationDetail().getDateOfBirth();
-            final String otherName = importedClient.getClientCreationDetail().getClientName();
-
-            if (dob.equals(otherDob) && clientName.equals(otherName)) {
-                throw new RowException(getMessage(XlsMessageConstants.DUPLICATE_CLIENT_ERROR));
-            }
+    /**
+     * @param clientKeys the name and date of birth of every client parsed before, see {@link #getClientKey}
+     */
+    private void validateDuplicateCustomers(final ClientCreationDetail client, final Set<String> clientKeys)
+            throws RowException {
+        if (!clientKeys.add(getClientKey(client))) {
+            throw new RowException(getMessage(XlsMessageConstants.DUPLICATE_CLIENT_ERROR));
         }
     }
 
+    private static String getClientKey(final ClientCreationDetail client) {
+        return client.getDateOfBirth().getTime() + "|" + client.getClientName();
+    }
+
     private void validateAge(final Date dateOfBirth) throws CellException, ConfigurationException {
         final DateMidnight dob = new DateMidnight(dateOfBirth);
         final DateTime now = new DateTime();
@@ -927,4 +995,46 @@ public class XlsClientsImporter implements MessageSourceAware {
         }
     }
 
+
+    /**
+     * What the rows of one workbook are parsed against, and the results of the rows parsed so far.
+     */
+    private final class ParseContext {
+        private final List<ValueListElement> buisnessActivitiesList = customerDao.retrieveBusinessActivities();
+        private final List<ValueListElement> gendersList = customerDao.retrieveGenders();
+        private final List<ValueListElement> citizenshipsList = customerDao.retrieveCitizenship();
+        private final List<ValueListElement> ethinicitiesList = customerDao.retrieveEthnicity();
+        private final List<ValueListElement> educationLevelsList = customerDao.retrieveEducationLevels();
+        private final List<ValueListElement> handicappedList = customerDao.retrieveHandicapped();
+        private final List<ValueListElement> povertyStatusList = customerDao.retrievePoverty();
+        private final List<ValueListElement> maritalStatusList = customerDao.retrieveMaritalStatuses();
+        private final List<ValueListElement> salutationsList = customerDao.retrieveSalutations();
+        private final List<OfficeDto> allOfficess = officeDao.findAllOffices();
+        private final FieldConfig fieldConfig = FieldConfig.getInstance();
+        private final Map<Short, List<PersonnelBO>> loanOfficersByOffice = new HashMap<Short, List<PersonnelBO>>();
+
+        private final List<String> globalCustNums = new ArrayList<String>();
+        private final Set<String> clientKeys = new HashSet<String>();
+        private final List<String> errorsList = new ArrayList<String>();
+        private final List<ImportedClientDetail> parsedClientDetails = new ArrayList<ImportedClientDetail>();
+
+        List<PersonnelBO> getActiveLoanOfficersUnderOffice(final Short officeId) throws PersistenceException {
+            List<PersonnelBO> officers = loanOfficersByOffice.get(officeId);
+            if (officers == null) {
+                officers = legacyPersonnelDao.getActiveLoanOfficersUnderOffice(officeId);
+                loanOfficersByOffice.put(officeId, officers);
+            }
+            return officers;
+        }
+
+        void handOn(final ChunkHandler handler, final int rowsRead) {
+            if (parsedClientDetails.isEmpty() && errorsList.isEmpty()) {
+                return;
+            }
+            handler.handleChunk(new ArrayList<ImportedClientDetail>(parsedClientDetails), new ArrayList<String>(
+                    errorsList), rowsRead);
+            parsedClientDetails.clear();
+            errorsList.clear();
+        }
+    }
 }
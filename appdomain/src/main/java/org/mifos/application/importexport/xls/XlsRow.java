@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.xls;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.hssf.usermodel.HSSFDateUtil;
+import org.apache.poi.hssf.usermodel.HSSFRichTextString;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+
+/**
+ * The values of one spreadsheet row, detached from the workbook it was read from so that rows can be read one at a
+ * time by {@link XlsSheetReader} without holding the whole workbook in memory. Blank cells are not held.
+ */
+public class XlsRow {
+
+    private final int rowNum;
+    private final Map<Integer, Cell> cells = new HashMap<Integer, Cell>();
+
+    public XlsRow(int rowNum) {
+        this.rowNum = rowNum;
+    }
+
+    public static XlsRow of(HSSFRow row) {
+        XlsRow xlsRow = new XlsRow(row.getRowNum());
+        for (int i = 0; i < row.getLastCellNum(); i++) {
+            HSSFCell cell = row.getCell(i, HSSFRow.RETURN_BLANK_AS_NULL);
+            if (cell == null) {
+                continue;
+            }
+            switch (cell.getCellType()) {
+            case HSSFCell.CELL_TYPE_STRING:
+                HSSFRichTextString richText = cell.getRichStringCellValue();
+                xlsRow.setString(i, richText == null ? "" : richText.getString());
+                break;
+            case HSSFCell.CELL_TYPE_NUMERIC:
+                xlsRow.setNumber(i, cell.getNumericCellValue());
+                break;
+            case HSSFCell.CELL_TYPE_FORMULA:
+                xlsRow.setFormula(i, cell.getCachedFormulaResultType() == HSSFCell.CELL_TYPE_NUMERIC ? cell
+                        .getNumericCellValue() : 0);
+                break;
+            default:
+                xlsRow.setOther(i);
+                break;
+            }
+        }
+        return xlsRow;
+    }
+
+    public int getRowNum() {
+        return this.rowNum;
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    public void setString(int column, String value) {
+        cells.put(column, new Cell(HSSFCell.CELL_TYPE_STRING, value, 0));
+    }
+
+    public void setNumber(int column, double value) {
+        cells.put(column, new Cell(HSSFCell.CELL_TYPE_NUMERIC, null, value));
+    }
+
+    public void setFormula(int column, double cachedValue) {
+        cells.put(column, new Cell(HSSFCell.CELL_TYPE_FORMULA, null, cachedValue));
+    }
+
+    /**
+     * A boolean or error cell.
+     */
+    public void setOther(int column) {
+        cells.put(column, new Cell(HSSFCell.CELL_TYPE_BOOLEAN, null, 0));
+    }
+
+    /**
+     * @return the text of a string cell, the integer part of a numeric cell, or "" for any other or a blank cell
+     */
+    public String getString(int column) {
+        Cell cell = cells.get(column);
+        if (cell == null) {
+            return "";
+        }
+        switch (cell.type) {
+        case HSSFCell.CELL_TYPE_STRING:
+            return cell.string;
+        case HSSFCell.CELL_TYPE_NUMERIC:
+            return String.valueOf((int) cell.number);
+        default:
+            return "";
+        }
+    }
+
+    /**
+     * @return the value of a numeric or formula cell, or null for a blank cell
+     * @throws IllegalStateException for a string or boolean cell
+     */
+    public Double getNumber(int column) {
+        Cell cell = cells.get(column);
+        if (cell == null) {
+            return null;
+        }
+        if (cell.type != HSSFCell.CELL_TYPE_NUMERIC && cell.type != HSSFCell.CELL_TYPE_FORMULA) {
+            throw new IllegalStateException("Cannot get a numeric value from a non numeric cell");
+        }
+        return cell.number;
+    }
+
+    /**
+     * @return the date of a numeric cell, or null for a blank cell
+     * @throws IllegalStateException for a string or boolean cell
+     */
+    public Date getDate(int column) {
+        Double value = getNumber(column);
+        if (value == null) {
+            return null;
+        }
+        return HSSFDateUtil.getJavaDate(value);
+    }
+
+    private static final class Cell {
+        private final int type;
+        private final String string;
+        private final double number;
+
+        Cell(int type, String string, double number) {
+            this.type = type;
+            this.string = string;
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.xls;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+/**
+ * Reads the rows of the first sheet of an xls workbook with the POI event API, handing each row to a
+ * {@link RowHandler} as soon as it has been read. Unlike {@link org.apache.poi.hssf.usermodel.HSSFWorkbook}, no cell
+ * objects are kept for rows that have been handled, so memory use does not grow with the number of rows. Rows
+ * without any non blank cell are not handed on.
+ */
+public class XlsSheetReader implements HSSFListener {
+
+    public interface RowHandler {
+        void handleRow(XlsRow row);
+    }
+
+    private final RowHandler handler;
+
+    private SSTRecord sharedStrings;
+    private int worksheetIndex = -1;
+    private boolean done;
+    private XlsRow currentRow;
+
+    public XlsSheetReader(RowHandler handler) {
+        this.handler = handler;
+    }
+
+    public void read(InputStream input) throws IOException {
+        POIFSFileSystem fileSystem = new POIFSFileSystem(input);
+        InputStream workbookStream = fileSystem.createDocumentInputStream("Workbook");
+        try {
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(this);
+            new HSSFEventFactory().processEvents(request, workbookStream);
+        } finally {
+            workbookStream.close();
+        }
+        flushRow();
+    }
+
+    @Override
+    public void processRecord(Record record) {
+        if (done) {
+            return;
+        }
+        switch (record.getSid()) {
+        case BOFRecord.sid:
+            if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                worksheetIndex++;
+            }
+            break;
+        case EOFRecord.sid:
+            if (worksheetIndex == 0) {
+                flushRow();
+                done = true;
+            }
+            break;
+        case SSTRecord.sid:
+            sharedStrings = (SSTRecord) record;
+            break;
+        case LabelSSTRecord.sid:
+            LabelSSTRecord labelSST = (LabelSSTRecord) record;
+            rowFor(labelSST.getRow()).setString(labelSST.getColumn(), sharedStrings.getString(labelSST.getSSTIndex())
+                    .getString());
+            break;
+        case LabelRecord.sid:
+            LabelRecord label = (LabelRecord) record;
+            rowFor(label.getRow()).setString(label.getColumn(), label.getValue());
+            break;
+        case NumberRecord.sid:
+            NumberRecord number = (NumberRecord) record;
+            rowFor(number.getRow()).setNumber(number.getColumn(), number.getValue());
+            break;
+        case RKRecord.sid:
+            RKRecord rk = (RKRecord) record;
+            rowFor(rk.getRow()).setNumber(rk.getColumn(), rk.getRKNumber());
+            break;
+        case MulRKRecord.sid:
+            MulRKRecord mulRK = (MulRKRecord) record;
+            for (int i = 0; i < mulRK.getNumColumns(); i++) {
+                rowFor(mulRK.getRow()).setNumber(mulRK.getFirstColumn() + i, mulRK.getRKNumberAt(i));
+            }
+            break;
+        case FormulaRecord.sid:
+            FormulaRecord formula = (FormulaRecord) record;
+            rowFor(formula.getRow()).setFormula(formula.getColumn(), formula.getValue());
+            break;
+        case BoolErrRecord.sid:
+            BoolErrRecord boolErr = (BoolErrRecord) record;
+            rowFor(boolErr.getRow()).setOther(boolErr.getColumn());
+            break;
+        default:
+            break;
+        }
+    }
+
+    private XlsRow rowFor(int rowNum) {
+        if (worksheetIndex != 0) {
+            // cells of other sheets are collected into a row that is never handed on
+            return new XlsRow(rowNum);
+        }
+        if (currentRow != null && currentRow.getRowNum() != rowNum) {
+            flushRow();
+        }
+        if (currentRow == null) {
+            currentRow = new XlsRow(rowNum);
+        }
+        return currentRow;
+    }
+
+    private void flushRow() {
+        if (currentRow != null && !currentRow.isEmpty()) {
+            handler.handleRow(currentRow);
+        }
+        currentRow = null;
+    }
+}
@@ -42,6 +42,7 @@ import org.mifos.customers.persistence.CustomerDao;
 import org.mifos.dto.domain.ValueListElement;
 import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.exceptions.SystemException;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.hibernate.helper.Transactional;
 import org.mifos.framework.persistence.LegacyGenericDao;
@@ -221,6 +222,7 @@ public class LegacyMasterDao extends LegacyGenericDao {
         lookUpValueLocaleEntity.setLookUpValue(newElementText);
         lookUpValueLocaleEntity.setLookUpId(lookUpValueEntity.getLookUpId());
         createOrUpdate(lookUpValueLocaleEntity);
+        SecondLevelCache.evictLookUpValueLocalesOnCompletion(lookUpValueEntity.getLookUpId());
 
         // MifosConfiguration.getInstance().updateKey(lookUpValueEntity,
         // newElementText);
@@ -35,8 +35,10 @@ import org.mifos.application.accounting.business.GlDetailBO;
 import org.mifos.application.accounting.business.GlMasterBO;
 import org.mifos.application.accounting.persistence.AccountingDao;
 import org.mifos.application.accounting.persistence.AccountingDaoHibernate;
+import org.mifos.application.accounting.util.helpers.GlBalanceDeltas;
 import org.mifos.application.accounting.util.helpers.SimpleAccountingConstants;
 import org.mifos.application.admin.servicefacade.InvalidDateException;
+import org.mifos.config.GeneralConfig;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.dto.domain.CoaNamesDto;
 import org.mifos.dto.domain.DynamicOfficeDto;
@@ -185,6 +187,10 @@ public class AccountingServiceFacadeWebTier implements AccountingServiceFacade {
 			c.add(Calendar.DATE, 1);
 			Date newDate = c.getTime();
 			lastProcessDate = newDate;
+			if (GeneralConfig.getBatchedMisPostingProcessing()) {
+				processMisPostingsInBatch(lastProcessDate, createdBy, null);
+				continue;
+			}
 			processListOfTransactions(
 					accountingDao.processMisPostings(lastProcessDate),
 					createdBy);
@@ -202,6 +208,59 @@ public class AccountingServiceFacadeWebTier implements AccountingServiceFacade {
 		return flag;
 	}
 
+	/**
+	 * Posts the transactions of one day, for all offices when
+	 * globalOfficeNumber is null, and moves the last process date in one
+	 * transaction.
+	 */
+	private void processMisPostingsInBatch(Date processDate, Short createdBy,
+			String globalOfficeNumber) {
+		try {
+			this.hibernateTransactionHelper.startTransaction();
+			if (globalOfficeNumber == null) {
+				processListOfTransactionsInBatch(
+						accountingDao.processMisPostings(processDate), createdBy);
+				accountingDao.updateLastProcessDate(processDate);
+			} else {
+				processListOfTransactionsInBatch(accountingDao.processMisPostings(
+						processDate, globalOfficeNumber), createdBy);
+				accountingDao.updateLastProcessUpdatedDate(processDate,
+						globalOfficeNumber);
+			}
+			this.hibernateTransactionHelper.commitTransaction();
+		} catch (RuntimeException e) {
+			this.hibernateTransactionHelper.rollbackTransaction();
+			throw e;
+		}
+	}
+
+	/**
+	 * Saves the transactions of one day with JDBC batches and updates each
+	 * affected balance once with the summed amounts, instead of saving and
+	 * re-reading the balances once per transaction. The caller owns the
+	 * transaction.
+	 */
+	void processListOfTransactionsInBatch(
+			List<MisProcessingTransactionsDto> list, Short createdBy) {
+		if (list.isEmpty()) {
+			return;
+		}
+		FinancialYearBO financialYearBO = getFinancialYear();
+		if (financialYearBO == null) {
+			throw new MifosRuntimeException("no financial year defined");
+		}
+		List<GlMasterBO> glMasterBOs = new ArrayList<GlMasterBO>(list.size());
+		GlBalanceDeltas balanceDeltas = new GlBalanceDeltas(financialYearBO);
+		for (MisProcessingTransactionsDto dto : list) {
+			GlMasterBO bo = getGlMasterBO(dto, createdBy);
+			glMasterBOs.add(bo);
+			balanceDeltas.add(bo);
+		}
+		this.hibernateTransactionHelper.flushSession();
+		accountingDao.savingGeneralLedgerTransactions(glMasterBOs);
+		accountingDao.addToGlBalances(balanceDeltas.getDeltas());
+	}
+
 	GlMasterBO getGlMasterBO(MisProcessingTransactionsDto dto, Short createdBy) {
 		GlMasterBO bo = new GlMasterBO();
 		List<GlDetailBO> glDetailBOList = new ArrayList<GlDetailBO>();
@@ -579,6 +638,10 @@ public class AccountingServiceFacadeWebTier implements AccountingServiceFacade {
 				c.add(Calendar.DATE, 1);
 				Date newDate = c.getTime();
 				lastProcessDate = newDate;
+				if (GeneralConfig.getBatchedMisPostingProcessing()) {
+					processMisPostingsInBatch(lastProcessDate, createdBy, globalOfficeNumber);
+					continue;
+				}
 				processListOfTransactions(
 						accountingDao.processMisPostings(lastProcessDate,globalOfficeNumber),
 						createdBy);
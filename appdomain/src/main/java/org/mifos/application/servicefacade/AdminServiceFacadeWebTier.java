@@ -128,6 +128,7 @@ import org.mifos.framework.exceptions.ServiceException;
 import org.mifos.framework.exceptions.SystemException;
 import org.mifos.framework.hibernate.helper.HibernateTransactionHelper;
 import org.mifos.framework.hibernate.helper.HibernateTransactionHelperForStaticHibernateUtil;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.reports.business.ReportsCategoryBO;
 import org.mifos.reports.persistence.ReportsPersistence;
@@ -641,6 +642,7 @@ public class AdminServiceFacadeWebTier implements AdminServiceFacade {
                 persistence.deleteAcceptedPaymentTypes(deletedPaymentTypeList);
                 StaticHibernateUtil.commitTransaction();
             }
+            SecondLevelCache.evictPaymentTypes();
         } catch (PersistenceException e) {
             throw new MifosRuntimeException(e);
         }
@@ -942,6 +944,7 @@ public class AdminServiceFacadeWebTier implements AdminServiceFacade {
                 StaticHibernateUtil.flushSession();
             }
             StaticHibernateUtil.commitTransaction();
+            SecondLevelCache.evictProducts();
 
         } catch (Exception e) {
             StaticHibernateUtil.rollbackTransaction();
@@ -1180,6 +1183,7 @@ public class AdminServiceFacadeWebTier implements AdminServiceFacade {
 
             this.loanProductDao.save(loanProductForUpdate);
             transactionHelper.commitTransaction();
+            SecondLevelCache.evictProducts();
             return loanProductForUpdate.toDto();
         } catch (Exception e) {
             transactionHelper.rollbackTransaction();
@@ -1248,6 +1252,7 @@ public class AdminServiceFacadeWebTier implements AdminServiceFacade {
             
             this.savingsProductDao.save(savingsProductForUpdate);
             transactionHelper.commitTransaction();
+            SecondLevelCache.evictProducts();
             return savingsProductForUpdate.toDto();
         } catch (Exception e) {
             transactionHelper.rollbackTransaction();
@@ -20,6 +20,7 @@
 package org.mifos.application.servicefacade;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.hibernate.HibernateException;
 import org.joda.time.LocalDate;
 import org.mifos.accounts.business.AccountBO;
 import org.mifos.accounts.business.AccountPaymentEntity;
+import org.mifos.accounts.financial.business.service.AccountingEntryBatch;
 import org.mifos.accounts.loan.business.LoanBO;
 import org.mifos.accounts.loan.persistance.ClientAttendanceDao;
 import org.mifos.accounts.loan.persistance.LegacyLoanDao;
@@ -38,6 +40,7 @@ import org.mifos.accounts.savings.business.SavingsBO;
 import org.mifos.accounts.savings.persistence.SavingsDao;
 import org.mifos.application.collectionsheet.persistence.CollectionSheetDao;
 import org.mifos.config.ClientRules;
+import org.mifos.config.GeneralConfig;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.api.CustomerLevel;
 import org.mifos.customers.client.business.ClientAttendanceBO;
@@ -143,38 +146,49 @@ public class CollectionSheetServiceImpl implements CollectionSheetService {
         final List<String> failedLoanRepaymentAccountNumbers = new ArrayList<String>();
         final List<String> failedCustomerAccountPaymentNums = new ArrayList<String>();
 
-        final List<ClientAttendanceBO> clientAttendances = saveCollectionSheetAssembler
-                .clientAttendanceAssemblerfromDto(saveCollectionSheet.getSaveCollectionSheetCustomers(),
-                        saveCollectionSheet.getTransactionDate(), branchId, searchId);
-
-        final AccountPaymentEntity payment = saveCollectionSheetAssembler.accountPaymentAssemblerFromDto(
-                saveCollectionSheet.getTransactionDate(), saveCollectionSheet.getPaymentType(), saveCollectionSheet
-                        .getReceiptId(), saveCollectionSheet.getReceiptDate(), saveCollectionSheet.getUserId());
-
-        final List<SavingsBO> savingsAccounts = saveCollectionSheetAssembler.savingsAccountAssemblerFromDto(
-                saveCollectionSheet.getSaveCollectionSheetCustomers(), payment, failedSavingsDepositAccountNums,
-                failedSavingsWithdrawalNums);
-
-        Short paymentTypeId = (payment.getPaymentType() == null || payment.getPaymentType().getId() == null) ? null : payment.getPaymentType().getId();
-        final List<LoanBO> loanAccounts = saveCollectionSheetAssembler.loanAccountAssemblerFromDto(saveCollectionSheet
-                .getSaveCollectionSheetCustomers(), payment, failedLoanDisbursementAccountNumbers,
-                failedLoanRepaymentAccountNumbers, paymentTypeId);
-
-        final List<AccountBO> customerAccounts = saveCollectionSheetAssembler.customerAccountAssemblerFromDto(
-                saveCollectionSheet.getSaveCollectionSheetCustomers(), payment, failedCustomerAccountPaymentNums);
-
         boolean databaseErrorOccurred = false;
         Throwable databaseError = null;
-        readTime = System.currentTimeMillis() - totalTimeStart;
 
+        // accounting entries built while applying the payments are written with the accounts in one JDBC batch
+        final AccountingEntryBatch accountingEntries = GeneralConfig.getBatchedAccountingEntries() ? AccountingEntryBatch
+                .begin() : null;
         try {
-            saveTimeStart = System.currentTimeMillis();
-            persistCollectionSheet(clientAttendances, loanAccounts, customerAccounts, savingsAccounts);
-            saveTime = System.currentTimeMillis() - saveTimeStart;
-        } catch (HibernateException e) {
-            logger.error("database error saving collection sheet", e);
-            databaseErrorOccurred = true;
-            databaseError = e;
+            final List<ClientAttendanceBO> clientAttendances = saveCollectionSheetAssembler
+                    .clientAttendanceAssemblerfromDto(saveCollectionSheet.getSaveCollectionSheetCustomers(),
+                            saveCollectionSheet.getTransactionDate(), branchId, searchId);
+
+            final AccountPaymentEntity payment = saveCollectionSheetAssembler.accountPaymentAssemblerFromDto(
+                    saveCollectionSheet.getTransactionDate(), saveCollectionSheet.getPaymentType(), saveCollectionSheet
+                            .getReceiptId(), saveCollectionSheet.getReceiptDate(), saveCollectionSheet.getUserId());
+
+            final List<SavingsBO> savingsAccounts = saveCollectionSheetAssembler.savingsAccountAssemblerFromDto(
+                    saveCollectionSheet.getSaveCollectionSheetCustomers(), payment, failedSavingsDepositAccountNums,
+                    failedSavingsWithdrawalNums);
+
+            Short paymentTypeId = (payment.getPaymentType() == null || payment.getPaymentType().getId() == null) ? null : payment.getPaymentType().getId();
+            final List<LoanBO> loanAccounts = saveCollectionSheetAssembler.loanAccountAssemblerFromDto(saveCollectionSheet
+                    .getSaveCollectionSheetCustomers(), payment, failedLoanDisbursementAccountNumbers,
+                    failedLoanRepaymentAccountNumbers, paymentTypeId);
+
+            final List<AccountBO> customerAccounts = saveCollectionSheetAssembler.customerAccountAssemblerFromDto(
+                    saveCollectionSheet.getSaveCollectionSheetCustomers(), payment, failedCustomerAccountPaymentNums);
+
+            readTime = System.currentTimeMillis() - totalTimeStart;
+
+            try {
+                saveTimeStart = System.currentTimeMillis();
+                persistCollectionSheet(clientAttendances, loanAccounts, customerAccounts, savingsAccounts,
+                        accountingEntries);
+                saveTime = System.currentTimeMillis() - saveTimeStart;
+            } catch (HibernateException e) {
+                logger.error("database error saving collection sheet", e);
+                databaseErrorOccurred = true;
+                databaseError = e;
+            }
+        } finally {
+            if (accountingEntries != null) {
+                AccountingEntryBatch.end();
+            }
         }
 
         totalTime = System.currentTimeMillis() - totalTimeStart;
@@ -229,9 +243,13 @@ public class CollectionSheetServiceImpl implements CollectionSheetService {
 
     }
 
+    /**
+     * @param accountingEntries the accounting entries of the collection sheet, or null if they are cascaded from their
+     *            account transactions
+     */
     private void persistCollectionSheet(final List<ClientAttendanceBO> clientAttendances,
             final List<LoanBO> loanAccounts, final List<AccountBO> customerAccountList,
-            final List<SavingsBO> savingAccounts) {
+            final List<SavingsBO> savingAccounts, final AccountingEntryBatch accountingEntries) {
 
         try {
             StaticHibernateUtil.startTransaction();
@@ -241,11 +259,19 @@ public class CollectionSheetServiceImpl implements CollectionSheetService {
             legacyAccountDao.save(customerAccountList);
             savingsDao.save(savingAccounts);
 
+            if (accountingEntries != null) {
+                StaticHibernateUtil.flushSession();
+                accountingEntries.write(StaticHibernateUtil.getSessionTL().connection());
+            }
+
             StaticHibernateUtil.commitTransaction();
 
         } catch (HibernateException e) {
             StaticHibernateUtil.rollbackTransaction();
             throw e;
+        } catch (SQLException e) {
+            StaticHibernateUtil.rollbackTransaction();
+            throw new HibernateException("Unable to write accounting entries", e);
         } finally {
             StaticHibernateUtil.closeSession();
         }
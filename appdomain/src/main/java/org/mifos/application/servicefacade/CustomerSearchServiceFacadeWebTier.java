@@ -2,11 +2,12 @@ package org.mifos.application.servicefacade;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.mifos.accounts.loan.persistance.LoanDao;
-import org.mifos.accounts.savings.persistence.SavingsDao;
 import org.mifos.accounts.servicefacade.UserContextFactory;
 import org.mifos.accounts.util.helpers.AccountTypes;
 import org.mifos.core.MifosRuntimeException;
@@ -39,9 +40,6 @@ public class CustomerSearchServiceFacadeWebTier implements
     @Autowired
     LoanDao loanDao;
     
-    @Autowired
-    SavingsDao savingsDao;
-    
 	@Autowired
 	CustomerServiceFacade customerServiceFacade;
 	
@@ -86,6 +84,8 @@ public class CustomerSearchServiceFacadeWebTier implements
         }
 		/* FIXME: QueryResult.get returns CustomerSearchDto with messed up customers and accounts data.
 		 */
+        Map<String, Short> accountStateIds = loanDao.findAccountStateIdsByGlobalAccountNums(collectGlobalAccountNums(resultList));
+
         for ( CustomerSearchDto customerSearchDto : resultList ){
         	if ( customerSearchDto.getCustomerType() == 1){
         		ClientSearchResultDto clientSearchResultDto = new ClientSearchResultDto();
@@ -113,19 +113,19 @@ public class CustomerSearchServiceFacadeWebTier implements
                     String accountStr = (String)loanGlobalAccount;
                     clientSearchResultDto.getLoanGlobalAccountNum().add(accountStr);
                     clientSearchResultDto.getLoanGlobalAccountStateIds().put(accountStr,
-                            loanDao.findByGlobalAccountNum(accountStr).getAccountState().getId());
+                            accountStateIds.get(accountStr));
                 }
         		for (Object savingGlobalAccount : customerSearchDto.getSavingsGlobalAccountNum()){
         		    String accountStr = (String)savingGlobalAccount;
         			clientSearchResultDto.getSavingsGlobalAccountNum().add(accountStr);
                     clientSearchResultDto.getSavingsGlobalAccountStateIds().put(accountStr,
-                            savingsDao.findBySystemId(accountStr).getState().getValue());   
+                            accountStateIds.get(accountStr));   
         		}
         		for (Object groupLoanAccount: customerSearchDto.getGroupLoanGlobalAccountNum()) {
                     String accountStr = (String)groupLoanAccount;
                     clientSearchResultDto.getGroupLoanGlobalAccountNum().add(accountStr);
                     clientSearchResultDto.getGroupLoanGlobalAccountStateIds().put(accountStr,
-                            loanDao.findByGlobalAccountNum(accountStr).getAccountState().getId());   
+                            accountStateIds.get(accountStr));   
                 }
         		
         		clientSearchResultDto.setStatus(customerSearchDto.getStatus());
@@ -157,19 +157,19 @@ public class CustomerSearchServiceFacadeWebTier implements
         		    String accountStr = (String) loanGlobalAccount;
         			groupSearchResultDto.getLoanGlobalAccountNum().add(accountStr);
         			groupSearchResultDto.getLoanGlobalAccountStateIds().put(accountStr,
-                            loanDao.findByGlobalAccountNum(accountStr).getAccountState().getId());
+                            accountStateIds.get(accountStr));
         		}
         		for (Object savingGlobalAccount : customerSearchDto.getSavingsGlobalAccountNum()){
                     String accountStr = (String)savingGlobalAccount;
                     groupSearchResultDto.getSavingsGlobalAccountNum().add(accountStr);
                     groupSearchResultDto.getSavingsGlobalAccountStateIds().put(accountStr,
-                            savingsDao.findBySystemId(accountStr).getState().getValue());   
+                            accountStateIds.get(accountStr));   
                     }
         		for (Object groupLoanAccount: customerSearchDto.getGroupLoanGlobalAccountNum()) {
                     String accountStr = (String)groupLoanAccount;
                     groupSearchResultDto.getGroupLoanGlobalAccountNum().add(accountStr);
                     groupSearchResultDto.getGroupLoanGlobalAccountStateIds().put(accountStr,
-                            loanDao.findByGlobalAccountNum(accountStr).getAccountState().getId());   
+                            accountStateIds.get(accountStr));   
         		}
         		
         		groupSearchResultDto.setStatus(customerSearchDto.getStatus());
@@ -196,7 +196,7 @@ public class CustomerSearchServiceFacadeWebTier implements
                     String accountStr = (String)savingGlobalAccount;
                     centerSearchResultDto.getSavingsGlobalAccountNum().add(accountStr);
                     centerSearchResultDto.getSavingsGlobalAccountStateIds().put(accountStr,
-                            savingsDao.findBySystemId(accountStr).getState().getValue()); 
+                            accountStateIds.get(accountStr)); 
         		}
         		
         		centerSearchResultDto.setStatus(customerSearchDto.getStatus());
@@ -309,4 +309,26 @@ public class CustomerSearchServiceFacadeWebTier implements
         return customerStates;
 	}
 
+    /**
+     * Collects the loan, group loan and savings account numbers shown for the customers of a result page so their
+     * states can be read with one query.
+     */
+    private Set<String> collectGlobalAccountNums(List<CustomerSearchDto> resultList) {
+        Set<String> globalAccountNums = new HashSet<String>();
+        for (CustomerSearchDto customerSearchDto : resultList) {
+            if (customerSearchDto.getCustomerType() == 1 || customerSearchDto.getCustomerType() == 2
+                    || customerSearchDto.getCustomerType() == 3) {
+                for (Object loanGlobalAccount : customerSearchDto.getLoanGlobalAccountNum()) {
+                    globalAccountNums.add((String) loanGlobalAccount);
+                }
+                for (Object savingGlobalAccount : customerSearchDto.getSavingsGlobalAccountNum()) {
+                    globalAccountNums.add((String) savingGlobalAccount);
+                }
+                for (Object groupLoanAccount : customerSearchDto.getGroupLoanGlobalAccountNum()) {
+                    globalAccountNums.add((String) groupLoanAccount);
+                }
+            }
+        }
+        return globalAccountNums;
+    }
 }
@@ -56,6 +56,7 @@ import org.mifos.accounts.productdefinition.util.helpers.InterestCalcType;
 import org.mifos.accounts.savings.business.SavingsAccountActivationDetail;
 import org.mifos.accounts.savings.business.SavingsAccountTypeInspector;
 import org.mifos.accounts.savings.business.SavingsBO;
+import org.mifos.accounts.savings.business.SavingsBalanceSnapshotEntity;
 import org.mifos.accounts.savings.business.SavingsScheduleEntity;
 import org.mifos.accounts.savings.business.SavingsTrxnDetailEntity;
 import org.mifos.accounts.savings.interest.CalendarPeriod;
@@ -515,24 +516,74 @@ public class SavingsServiceFacadeWebTier implements SavingsServiceFacade {
         }
     }
 
+    @Override
+    public List<Integer> retrieveSavingsAccountsPendingInterestPostingOn(LocalDate dateOfBatchJob) {
+        return this.savingsDao.retrieveAllActiveAndInActiveSavingsAccountsPendingInterestPostingOn(dateOfBatchJob);
+    }
+
+    /**
+     * Posts interest for the last posting period of a chunk of accounts in a single transaction.
+     * 
+     * If any account of the chunk fails, the transaction is rolled back and the accounts are posted again in one
+     * transaction each, so a failing account does not hold back the rest of the chunk. Returns the ids of the accounts
+     * that could not be posted.
+     */
+    @Override
+    public List<Integer> postInterestForLastPostingPeriod(List<Integer> savingsIds) {
+
+        MifosUser user = (MifosUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        UserContext userContext = toUserContext(user);
+
+        PersonnelBO createdBy = this.personnelDao.findPersonnelById(userContext.getId());
+
+        try {
+            this.transactionHelper.startTransaction();
+            for (Integer savingsId : savingsIds) {
+                postInterestForAccount(savingsId, userContext, createdBy, true);
+            }
+            this.transactionHelper.commitTransaction();
+            return new ArrayList<Integer>();
+        } catch (Exception e) {
+            this.transactionHelper.rollbackTransaction();
+            logger.warn("Unable to post interest for a chunk of " + savingsIds.size()
+                    + " savings accounts, posting them one at a time", e);
+        } finally {
+            this.transactionHelper.closeSession();
+        }
+
+        List<Integer> failedSavingsIds = new ArrayList<Integer>();
+        for (Integer savingsId : savingsIds) {
+            try {
+                postInterestForAccount(savingsId, userContext, createdBy, false);
+            } catch (RuntimeException e) {
+                // failures before the save leave the account modified in the session
+                this.transactionHelper.rollbackTransaction();
+                this.transactionHelper.closeSession();
+                logger.error("Unable to post interest for savings account " + savingsId, e);
+                failedSavingsIds.add(savingsId);
+            }
+        }
+        return failedSavingsIds;
+    }
+
     private void postInterestForAccount(Integer savingsId, UserContext userContext, PersonnelBO createdBy,
             boolean inTransaction) {
 
         SavingsBO savingsAccount = this.savingsDao.findById(Long.valueOf(savingsId));
         savingsAccount.updateDetails(userContext);
 
-        List<EndOfDayDetail> allEndOfDayDetailsForAccount = savingsDao.retrieveAllEndOfDayDetailsFor(
-                savingsAccount.getCurrency(), Long.valueOf(savingsId));
-
-        LocalDate interestPostingDate = new LocalDate(savingsAccount.getNextIntPostDate());
-
         InterestScheduledEvent postingSchedule = savingsInterestScheduledEventFactory
                 .createScheduledEventFrom(savingsAccount.getInterestPostingMeeting());
-        LocalDate startOfPeriod = postingSchedule.findFirstDateOfPeriodForMatchingDate(interestPostingDate);
-        CalendarPeriod lastInterestPostingPeriod = new CalendarPeriod(startOfPeriod, interestPostingDate);
+        CalendarPeriod lastInterestPostingPeriod = nextInterestPostingPeriod(savingsAccount);
+
+        // resume from the balance at the last posting instead of replaying the whole account history
+        SavingsBalanceSnapshotEntity openingSnapshot = this.savingsDao.findLatestBalanceSnapshotBefore(
+                Long.valueOf(savingsId), lastInterestPostingPeriod.getStartDate());
+        List<EndOfDayDetail> endOfDayDetailsForAccount = retrieveEndOfDayDetailsSince(openingSnapshot,
+                savingsAccount.getCurrency(), Long.valueOf(savingsId));
 
         InterestPostingPeriodResult interestPostingPeriodResult = determinePostingPeriodResult(
-                lastInterestPostingPeriod, savingsAccount, allEndOfDayDetailsForAccount);
+                lastInterestPostingPeriod, savingsAccount, endOfDayDetailsForAccount);
         savingsAccount.postInterest(postingSchedule, interestPostingPeriodResult, createdBy);
 
         StringBuilder postingInfoMessage = new StringBuilder().append("account id: ")
@@ -546,6 +597,8 @@ public class SavingsServiceFacadeWebTier implements SavingsServiceFacade {
             }
 
             this.savingsDao.save(savingsAccount);
+            this.savingsDao.saveBalanceSnapshot(createBalanceSnapshot(savingsAccount, openingSnapshot,
+                    endOfDayDetailsForAccount, interestPostingPeriodResult));
 
             if (!inTransaction) {
                 this.transactionHelper.commitTransaction();
@@ -562,6 +615,75 @@ public class SavingsServiceFacadeWebTier implements SavingsServiceFacade {
         }
     }
 
+    private CalendarPeriod nextInterestPostingPeriod(SavingsBO savingsAccount) {
+        LocalDate interestPostingDate = new LocalDate(savingsAccount.getNextIntPostDate());
+        InterestScheduledEvent postingSchedule = savingsInterestScheduledEventFactory
+                .createScheduledEventFrom(savingsAccount.getInterestPostingMeeting());
+        LocalDate startOfPeriod = postingSchedule.findFirstDateOfPeriodForMatchingDate(interestPostingDate);
+        return new CalendarPeriod(startOfPeriod, interestPostingDate);
+    }
+
+    /**
+     * The interest of the account's next posting period without posting it, resumed from the latest valid balance
+     * snapshot when {@code fromSnapshot} is true and replayed from the whole account history otherwise.
+     */
+    // Exposed for testing
+    InterestPostingPeriodResult calculateNextPostingPeriodResult(Long savingsId, boolean fromSnapshot) {
+        SavingsBO savingsAccount = this.savingsDao.findById(savingsId);
+        CalendarPeriod postingPeriod = nextInterestPostingPeriod(savingsAccount);
+        SavingsBalanceSnapshotEntity openingSnapshot = null;
+        if (fromSnapshot) {
+            openingSnapshot = this.savingsDao.findLatestBalanceSnapshotBefore(savingsId, postingPeriod.getStartDate());
+        }
+        return determinePostingPeriodResult(postingPeriod, savingsAccount, retrieveEndOfDayDetailsSince(
+                openingSnapshot, savingsAccount.getCurrency(), savingsId));
+    }
+
+    /**
+     * With a snapshot, the snapshot balance stands in for every day up to its date and only later end of day details
+     * are read. Without one the whole history is read.
+     */
+    private List<EndOfDayDetail> retrieveEndOfDayDetailsSince(SavingsBalanceSnapshotEntity openingSnapshot,
+            MifosCurrency currency, Long savingsId) {
+        if (openingSnapshot == null) {
+            return this.savingsDao.retrieveAllEndOfDayDetailsFor(currency, savingsId);
+        }
+        List<EndOfDayDetail> endOfDayDetails = new ArrayList<EndOfDayDetail>();
+        endOfDayDetails.add(openingSnapshot.asOpeningEndOfDayDetail());
+        endOfDayDetails.addAll(this.savingsDao.retrieveEndOfDayDetailsAfter(currency, savingsId,
+                openingSnapshot.getSnapshotDate()));
+        return endOfDayDetails;
+    }
+
+    /**
+     * The balance and interest as of the posting date just posted, including the interest posting itself. Must be
+     * called after the posting has been saved so the new transaction is covered.
+     */
+    private SavingsBalanceSnapshotEntity createBalanceSnapshot(SavingsBO savingsAccount,
+            SavingsBalanceSnapshotEntity openingSnapshot, List<EndOfDayDetail> endOfDayDetailsForAccount,
+            InterestPostingPeriodResult interestPostingPeriodResult) {
+
+        LocalDate postingDate = interestPostingPeriodResult.getPostingPeriod().getEndDate();
+        MifosCurrency currency = savingsAccount.getCurrency();
+        Money postedInterest = new Money(currency, interestPostingPeriodResult.getDifferenceInInterest().getAmount());
+
+        Money balance = postedInterest;
+        Money accruedInterest = postedInterest;
+        if (openingSnapshot != null) {
+            accruedInterest = accruedInterest.add(openingSnapshot.getAccruedInterest());
+        }
+        for (EndOfDayDetail endOfDayDetail : endOfDayDetailsForAccount) {
+            if (!endOfDayDetail.getDate().isAfter(postingDate)) {
+                balance = balance.add(endOfDayDetail.getResultantAmountForDay());
+                accruedInterest = accruedInterest.add(endOfDayDetail.getInterest());
+            }
+        }
+
+        Long savingsId = Long.valueOf(savingsAccount.getAccountId());
+        return new SavingsBalanceSnapshotEntity(savingsAccount.getAccountId(), postingDate, balance, accruedInterest,
+                this.savingsDao.findLastAccountTrxnId(savingsId));
+    }
+
     private Money calculateAccountBalanceOn(LocalDate date, List<EndOfDayDetail> allEndOfDayDetailsForAccount,
             MifosCurrency currency) {
 
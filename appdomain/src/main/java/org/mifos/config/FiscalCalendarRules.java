@@ -27,6 +27,7 @@ import java.util.List;
 import org.joda.time.Days;
 import org.mifos.application.meeting.util.helpers.WeekDay;
 import org.mifos.config.business.MifosConfigurationManager;
+import org.mifos.config.cache.CacheRepository;
 
 public class FiscalCalendarRules {
 
@@ -170,6 +171,7 @@ public class FiscalCalendarRules {
     public void setWorkingDays(final String workingDays) {
         MifosConfigurationManager.getInstance().setProperty(FiscalCalendarRulesWorkingDays, workingDays);
         reloadConfigWorkingDays();
+        CacheRepository.getInstance().invalidateSystemConfiguration();
     }
 
     public void setWorkingDays(final List<WeekDay> workingDays) {
@@ -27,7 +27,24 @@ public class GeneralConfig {
     public static final String MaxPointsPerPPISurvey = "GeneralConfig.MaxPointsPerPPISurvey";
     public static final String BatchSizeForBatchJobs = "GeneralConfig.BatchSizeForBatchJobs";
     public static final String RecordCommittingSizeForBatchJobs = "GeneralConfig.RecordCommittingSizeForBatchJobs";
+    public static final String RecordCommittingSizeForGenerateMeetingsTask = "GeneralConfig.RecordCommittingSizeForGenerateMeetingsTask";
+    public static final String RecordCommittingSizeForSavingsInterestPostingTask = "GeneralConfig.RecordCommittingSizeForSavingsInterestPostingTask";
     public static final String OutputIntervalForBatchJobs = "GeneralConfig.OutputIntervalForBatchJobs";
+    public static final String NumberOfThreadsForBatchJobs = "GeneralConfig.NumberOfThreadsForBatchJobs";
+    public static final String SetBasedPortfolioAtRiskCalculation = "GeneralConfig.SetBasedPortfolioAtRiskCalculation";
+    public static final String IncrementalLoanArrearsAging = "GeneralConfig.IncrementalLoanArrearsAging";
+    public static final String AsynchronousAuditLogging = "GeneralConfig.AsynchronousAuditLogging";
+    public static final String AuditLogQueueCapacity = "GeneralConfig.AuditLogQueueCapacity";
+    public static final String CustomerHierarchyClosureQueries = "GeneralConfig.CustomerHierarchyClosureQueries";
+    public static final String BatchedMisPostingProcessing = "GeneralConfig.BatchedMisPostingProcessing";
+    public static final String ClientPhotoThumbnailWidth = "GeneralConfig.ClientPhotoThumbnailWidth";
+    public static final String RecordCommittingSizeForClientImport = "GeneralConfig.RecordCommittingSizeForClientImport";
+    public static final String BatchedAccountingEntries = "GeneralConfig.BatchedAccountingEntries";
+    public static final String ReportQueueThreads = "GeneralConfig.ReportQueueThreads";
+    public static final String ReportQueueCapacity = "GeneralConfig.ReportQueueCapacity";
+    public static final String ReportJobsPerUser = "GeneralConfig.ReportJobsPerUser";
+    public static final String ReportResultCacheSize = "GeneralConfig.ReportResultCacheSize";
+    public static final String ReportResultMemoryMegabytes = "GeneralConfig.ReportResultMemoryMegabytes";
     public static final String allowDataPrefetchingWhenSavingCollectionSheets = "GeneralConfig.allowDataPrefetchingWhenSavingCollectionSheets";
 
     public static int getMaxPointsPerPPISurvey() {
@@ -57,6 +74,24 @@ public class GeneralConfig {
         return committingRecordSizeForBatchJobs;
     }
 
+    public static int getRecordCommittingSizeForGenerateMeetingsTask() {
+        int committingRecordSize = 500; // default value is 500
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(RecordCommittingSizeForGenerateMeetingsTask)) {
+            committingRecordSize = configMgr.getInt(RecordCommittingSizeForGenerateMeetingsTask);
+        }
+        return committingRecordSize;
+    }
+
+    public static int getRecordCommittingSizeForSavingsInterestPostingTask() {
+        int committingRecordSize = 100; // default value is 100
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(RecordCommittingSizeForSavingsInterestPostingTask)) {
+            committingRecordSize = configMgr.getInt(RecordCommittingSizeForSavingsInterestPostingTask);
+        }
+        return committingRecordSize;
+    }
+
     public static int getOutputIntervalForBatchJobs() {
         int outputRecordIntervalForBatchJobs = 1000; // default value is 1000
         MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
@@ -66,6 +101,141 @@ public class GeneralConfig {
         return outputRecordIntervalForBatchJobs;
     }
 
+    public static int getNumberOfThreadsForBatchJobs() {
+        int numberOfThreadsForBatchJobs = 1; // default value is 1 (single threaded)
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(NumberOfThreadsForBatchJobs)) {
+            numberOfThreadsForBatchJobs = configMgr.getInt(NumberOfThreadsForBatchJobs);
+        }
+        return numberOfThreadsForBatchJobs;
+    }
+
+    public static Boolean getSetBasedPortfolioAtRiskCalculation() {
+        Boolean setBased = false; // default value is false
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(SetBasedPortfolioAtRiskCalculation)) {
+            setBased = configMgr.getBoolean(SetBasedPortfolioAtRiskCalculation, setBased);
+        }
+        return setBased;
+    }
+
+    public static Boolean getIncrementalLoanArrearsAging() {
+        Boolean incremental = false; // default value is false
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(IncrementalLoanArrearsAging)) {
+            incremental = configMgr.getBoolean(IncrementalLoanArrearsAging, incremental);
+        }
+        return incremental;
+    }
+
+    public static Boolean getAsynchronousAuditLogging() {
+        Boolean asynchronous = false; // default value is false
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(AsynchronousAuditLogging)) {
+            asynchronous = configMgr.getBoolean(AsynchronousAuditLogging, asynchronous);
+        }
+        return asynchronous;
+    }
+
+    public static int getAuditLogQueueCapacity() {
+        int queueCapacity = 10000; // default value is 10000
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(AuditLogQueueCapacity)) {
+            queueCapacity = configMgr.getInt(AuditLogQueueCapacity);
+        }
+        return queueCapacity;
+    }
+
+    public static Boolean getCustomerHierarchyClosureQueries() {
+        Boolean closureQueries = false; // default value is false
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(CustomerHierarchyClosureQueries)) {
+            closureQueries = configMgr.getBoolean(CustomerHierarchyClosureQueries, closureQueries);
+        }
+        return closureQueries;
+    }
+
+    public static Boolean getBatchedMisPostingProcessing() {
+        Boolean batched = false; // default value is false
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(BatchedMisPostingProcessing)) {
+            batched = configMgr.getBoolean(BatchedMisPostingProcessing, batched);
+        }
+        return batched;
+    }
+
+    public static int getClientPhotoThumbnailWidth() {
+        int width = 0; // default value is 0
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(ClientPhotoThumbnailWidth)) {
+            width = configMgr.getInt(ClientPhotoThumbnailWidth);
+        }
+        return width;
+    }
+
+    public static int getRecordCommittingSizeForClientImport() {
+        int committingRecordSize = 500; // default value is 500
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(RecordCommittingSizeForClientImport)) {
+            committingRecordSize = configMgr.getInt(RecordCommittingSizeForClientImport);
+        }
+        return committingRecordSize;
+    }
+
+    public static Boolean getBatchedAccountingEntries() {
+        Boolean batched = false; // default value is false
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(BatchedAccountingEntries)) {
+            batched = configMgr.getBoolean(BatchedAccountingEntries, batched);
+        }
+        return batched;
+    }
+
+    public static int getReportQueueThreads() {
+        int threads = 2; // default value is 2
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(ReportQueueThreads)) {
+            threads = configMgr.getInt(ReportQueueThreads);
+        }
+        return threads;
+    }
+
+    public static int getReportQueueCapacity() {
+        int queueCapacity = 50; // default value is 50
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(ReportQueueCapacity)) {
+            queueCapacity = configMgr.getInt(ReportQueueCapacity);
+        }
+        return queueCapacity;
+    }
+
+    public static int getReportJobsPerUser() {
+        int jobsPerUser = 2; // default value is 2
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(ReportJobsPerUser)) {
+            jobsPerUser = configMgr.getInt(ReportJobsPerUser);
+        }
+        return jobsPerUser;
+    }
+
+    public static int getReportResultCacheSize() {
+        int cacheSize = 20; // default value is 20
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(ReportResultCacheSize)) {
+            cacheSize = configMgr.getInt(ReportResultCacheSize);
+        }
+        return cacheSize;
+    }
+
+    public static int getReportResultMemoryMegabytes() {
+        int megabytes = 64; // default value is 64
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        if (configMgr.containsKey(ReportResultMemoryMegabytes)) {
+            megabytes = configMgr.getInt(ReportResultMemoryMegabytes);
+        }
+        return megabytes;
+    }
+
     public static Boolean getAllowDataPrefetchingWhenSavingCollectionSheets() {
         Boolean allowDataPrefetching = true; // default value is true
         MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
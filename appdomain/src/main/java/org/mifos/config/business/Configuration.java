@@ -20,8 +20,8 @@
 
 package org.mifos.config.business;
 
-import java.util.Hashtable;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.mifos.config.cache.CacheRepository;
 import org.mifos.config.util.helpers.ConfigurationInitializer;
@@ -36,7 +36,7 @@ public class Configuration {
      * It is the map of instances of OfficeConfig stored based on officeid. It
      * is cache of OfficeConfig instances
      */
-    private Map<Short, OfficeConfig> officeConfigMap;
+    private ConcurrentMap<Short, OfficeConfig> officeConfigMap;
 
     private SystemConfiguration systemConfig;
 
@@ -67,7 +67,7 @@ public class Configuration {
 
     private Configuration() {
         cacheRepo = CacheRepository.getInstance();
-        officeConfigMap = new Hashtable<Short, OfficeConfig>();
+        officeConfigMap = new ConcurrentHashMap<Short, OfficeConfig>();
     }
 
     /**
@@ -77,12 +77,13 @@ public class Configuration {
      * cache also.
      */
     public OfficeConfig getOfficeConfig(Short officeId) {
-        if (officeConfigMap.containsKey(officeId)) {
-            return officeConfigMap.get(officeId);
+        OfficeConfig officeConfig = officeConfigMap.get(officeId);
+        if (officeConfig != null) {
+            return officeConfig;
         }
-        OfficeConfig officeConfig = new OfficeConfig(cacheRepo, officeId);
-        officeConfigMap.put(officeId, officeConfig);
-        return officeConfig;
+        officeConfig = new OfficeConfig(cacheRepo, officeId);
+        OfficeConfig existing = officeConfigMap.putIfAbsent(officeId, officeConfig);
+        return (existing != null) ? existing : officeConfig;
     }
 
     public SystemConfiguration getSystemConfig() {
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.config.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named, thread safe cache with an upper bound on the number of entries and an optional time to live.
+ *
+ * Entries are held in a {@link ConcurrentHashMap}, so neither readers nor writers take a cache wide lock. Each entry
+ * carries its own expiry time and is dropped when it is next read after it expires. The order in which entries were
+ * put is kept in a lock free queue: when the cache grows past its maximum size the oldest entries are evicted first,
+ * and putting a key again makes it the newest entry. If a {@link CacheWeigher} is given, the oldest entries are also
+ * evicted while the total weight of the entries is above the maximum weight; the newest entry is always kept, even if
+ * it weighs more than that on its own. Concurrent puts may overshoot the bounds until their evictions have run.
+ *
+ * If a {@link CacheLoader} is given, a miss loads the value and caches it, so invalidated entries are reloaded on
+ * demand. A loaded value is not cached if the cache was invalidated while it was being loaded, as it may have been
+ * read before the change that caused the invalidation.
+ */
+public class BoundedCache<K, V> {
+
+    public static final long NO_EXPIRY = 0;
+    public static final long NO_WEIGHT_LIMIT = Long.MAX_VALUE;
+
+    private final String name;
+    private final int maxSize;
+    private final long timeToLiveMillis;
+    private final CacheLoader<K, V> loader;
+    private final long maxWeight;
+    private final CacheWeigher<V> weigher;
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<K, Entry<K, V>>();
+    /**
+     * Every entry put, oldest first. Entries that have since been replaced or removed stay queued until they are
+     * polled for eviction or purged, so the number queued is tracked to keep the queue bounded.
+     */
+    private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<Entry<K, V>>();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong weight = new AtomicLong();
+    /**
+     * Incremented by every invalidation, so that a load that started before it does not cache its value.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public BoundedCache(String name, int maxSize, long timeToLiveMillis) {
+        this(name, maxSize, timeToLiveMillis, null);
+    }
+
+    public BoundedCache(String name, int maxSize, long timeToLiveMillis, CacheLoader<K, V> loader) {
+        this(name, maxSize, timeToLiveMillis, loader, NO_WEIGHT_LIMIT, null);
+    }
+
+    public BoundedCache(String name, int maxSize, long timeToLiveMillis, long maxWeight, CacheWeigher<V> weigher) {
+        this(name, maxSize, timeToLiveMillis, null, maxWeight, weigher);
+    }
+
+    private BoundedCache(String name, int maxSize, long timeToLiveMillis, CacheLoader<K, V> loader, long maxWeight,
+            CacheWeigher<V> weigher) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive for cache " + name);
+        }
+        if (timeToLiveMillis < 0) {
+            throw new IllegalArgumentException("timeToLiveMillis must not be negative for cache " + name);
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive for cache " + name);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.loader = loader;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isExpired(currentTimeMillis())) {
+                hitCount.incrementAndGet();
+                return entry.getValue();
+            }
+            // the entry may have been replaced since it was read
+            if (removeEntry(entry)) {
+                evictionCount.incrementAndGet();
+            }
+        }
+        missCount.incrementAndGet();
+        if (loader == null) {
+            return null;
+        }
+        long loadGeneration = generation.get();
+        V value = loader.load(key);
+        if (value == null) {
+            return null;
+        }
+        Entry<K, V> loaded = newEntry(key, value);
+        Entry<K, V> existing = entries.putIfAbsent(key, loaded);
+        if (existing != null) {
+            // another thread put or loaded the key meanwhile; its value is at least as recent as this one
+            return value;
+        }
+        added(loaded, null);
+        // checked after adding, so that an invalidation either sees the loaded entry or is seen here
+        if (generation.get() != loadGeneration) {
+            removeEntry(loaded);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        Entry<K, V> entry = newEntry(key, value);
+        added(entry, entries.put(key, entry));
+    }
+
+    public void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        Entry<K, V> removed = entries.remove(key);
+        if (removed != null) {
+            weight.addAndGet(-removed.getWeight());
+        }
+    }
+
+    /**
+     * Drops the given keys. Loads in progress do not cache their values even if none of the keys is held.
+     */
+    public void invalidateAll(Collection<K> keys) {
+        generation.incrementAndGet();
+        for (K key : keys) {
+            invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (K key : entries.keySet()) {
+            Entry<K, V> removed = entries.remove(key);
+            if (removed != null) {
+                weight.addAndGet(-removed.getWeight());
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the keys currently held, including entries that have expired but not yet been read. Entries can be
+     * invalidated while iterating over it.
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(new HashSet<K>(entries.keySet()));
+    }
+
+    private Entry<K, V> newEntry(K key, V value) {
+        long expiresAt = timeToLiveMillis == NO_EXPIRY ? Long.MAX_VALUE : currentTimeMillis() + timeToLiveMillis;
+        long entryWeight = weigher == null ? 0 : weigher.weigh(value);
+        return new Entry<K, V>(key, value, expiresAt, entryWeight);
+    }
+
+    private void added(Entry<K, V> entry, Entry<K, V> replaced) {
+        weight.addAndGet(entry.getWeight() - (replaced == null ? 0 : replaced.getWeight()));
+        insertionOrder.add(entry);
+        if (queued.incrementAndGet() > 2L * maxSize) {
+            purgeReplacedEntries();
+        }
+        evictOldestEntries();
+    }
+
+    /**
+     * @return whether the entry was still held and has been removed
+     */
+    private boolean removeEntry(Entry<K, V> entry) {
+        if (entries.remove(entry.getKey(), entry)) {
+            weight.addAndGet(-entry.getWeight());
+            return true;
+        }
+        return false;
+    }
+
+    private void evictOldestEntries() {
+        while ((entries.size() > maxSize || weight.get() > maxWeight) && entries.size() > 1) {
+            Entry<K, V> oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            dequeued(oldest);
+            if (removeEntry(oldest)) {
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops the queued entries that are no longer held, so that replacing and invalidating keys does not grow the
+     * queue while the cache is below its bounds.
+     */
+    private void purgeReplacedEntries() {
+        for (Iterator<Entry<K, V>> queuedEntries = insertionOrder.iterator(); queuedEntries.hasNext();) {
+            Entry<K, V> entry = queuedEntries.next();
+            if (entries.get(entry.getKey()) != entry && dequeued(entry)) {
+                queuedEntries.remove();
+            }
+        }
+    }
+
+    private boolean dequeued(Entry<K, V> entry) {
+        if (entry.dequeued.compareAndSet(false, true)) {
+            queued.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public long getTimeToLiveMillis() {
+        return this.timeToLiveMillis;
+    }
+
+    public long getMaxWeight() {
+        return this.maxWeight;
+    }
+
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": size=" + getSize() + "/" + maxSize + ", hits=" + getHitCount() + ", misses="
+                + getMissCount() + ", evictions=" + getEvictionCount()
+                + (weigher == null ? "" : ", weight=" + getWeight() + "/" + maxWeight);
+    }
+
+    private static class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiresAt;
+        private final long weight;
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+
+        Entry(K key, V value, long expiresAt, long weight) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+
+        K getKey() {
+            return this.key;
+        }
+
+        V getValue() {
+            return this.value;
+        }
+
+        long getWeight() {
+            return this.weight;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -20,16 +20,29 @@
 
 package org.mifos.config.cache;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.mifos.config.business.SystemConfiguration;
 
+/**
+ * Registry of the named caches used for configuration lookups. The office cache is always registered under
+ * {@link OfficeCache#NAME}; other caches can be added with {@link #createCache(String, int, long, CacheLoader)}.
+ *
+ * {@link #invalidateOffice(Short)} and {@link #invalidateSystemConfiguration()} are called when offices or system
+ * configuration change, so that cached values are reloaded rather than served stale.
+ */
 public class CacheRepository {
 
-    private SystemConfiguration systemConfiguration;
-    private OfficeCache officeCache;
+    private volatile SystemConfiguration systemConfiguration;
+    private volatile OfficeCache officeCache;
+    private final ConcurrentMap<String, BoundedCache<?, ?>> caches = new ConcurrentHashMap<String, BoundedCache<?, ?>>();
     private static CacheRepository cacheRep = new CacheRepository();
 
     private CacheRepository() {
-        officeCache = new OfficeCache();
+        setOfficeCache(new OfficeCache());
     }
 
     public OfficeCache getOfficeCache() {
@@ -38,6 +51,7 @@ public class CacheRepository {
 
     public void setOfficeCache(OfficeCache officeCache) {
         this.officeCache = officeCache;
+        caches.put(OfficeCache.NAME, officeCache.getCache());
     }
 
     public void setSystemConfiguration(SystemConfiguration configuration) {
@@ -48,6 +62,37 @@ public class CacheRepository {
         return (key != null) ? officeCache.getElement(key) : null;
     }
 
+    public <K, V> BoundedCache<K, V> createCache(String name, int maxSize, long timeToLiveMillis,
+            CacheLoader<K, V> loader) {
+        BoundedCache<K, V> cache = new BoundedCache<K, V>(name, maxSize, timeToLiveMillis, loader);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    public BoundedCache<?, ?> getCache(String name) {
+        return caches.get(name);
+    }
+
+    public List<BoundedCache<?, ?>> getCaches() {
+        return new ArrayList<BoundedCache<?, ?>>(caches.values());
+    }
+
+    /**
+     * Drops the values cached for the given office, e.g. after the office was created, moved or updated.
+     */
+    public void invalidateOffice(Short officeId) {
+        officeCache.invalidate(officeId);
+    }
+
+    /**
+     * Drops every cached value, e.g. after working days or product configuration changed.
+     */
+    public void invalidateSystemConfiguration() {
+        for (BoundedCache<?, ?> cache : caches.values()) {
+            cache.invalidateAll();
+        }
+    }
+
     public static CacheRepository getInstance() {
         return cacheRep;
     }
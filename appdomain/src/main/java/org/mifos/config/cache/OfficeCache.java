@@ -20,24 +20,67 @@
 
 package org.mifos.config.cache;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
  * This class defines methods which allow elements to be put into or retrieved
- * from the Cache which composite key. Cache is maintained as a hashmap. Here
- * Key is the combination of officeId and a String Constant.
+ * from the Cache which composite key. Here Key is the combination of officeId
+ * and a String Constant. Elements are held in a {@link BoundedCache}; when a
+ * loader is given, invalidated or expired elements are loaded again on demand.
  */
 public class OfficeCache {
-    private Map<Key, Object> cache;
+
+    public static final String NAME = "officeConfiguration";
+    public static final int MAX_SIZE = 1000;
+    public static final long TIME_TO_LIVE_MILLIS = 60 * 60 * 1000L;
+
+    private final BoundedCache<Key, Object> cache;
 
     public OfficeCache() {
+        this(null, null);
     }
 
-    public OfficeCache(Map<Key, Object> cache) {
-        this.cache = cache;
+    public OfficeCache(Map<Key, Object> elements) {
+        this(elements, null);
+    }
+
+    public OfficeCache(Map<Key, Object> elements, CacheLoader<Key, Object> loader) {
+        long timeToLive = (loader == null) ? BoundedCache.NO_EXPIRY : TIME_TO_LIVE_MILLIS;
+        this.cache = new BoundedCache<Key, Object>(NAME, MAX_SIZE, timeToLive, loader);
+        if (elements != null) {
+            for (Map.Entry<Key, Object> element : elements.entrySet()) {
+                cache.put(element.getKey(), element.getValue());
+            }
+        }
     }
 
     public Object getElement(Key key) {
-        return (key != null) ? cache.get(key) : null;
+        return cache.get(key);
+    }
+
+    /**
+     * Drops every element held for the given office.
+     */
+    public void invalidate(Short officeId) {
+        if (officeId == null) {
+            return;
+        }
+        List<Key> officeKeys = new ArrayList<Key>();
+        for (Key key : cache.keySet()) {
+            if (officeId.equals(key.getOfficeId())) {
+                officeKeys.add(key);
+            }
+        }
+        cache.invalidateAll(officeKeys);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public BoundedCache<Key, Object> getCache() {
+        return cache;
     }
 }
@@ -33,14 +33,17 @@ import org.mifos.application.servicefacade.ApplicationContextProvider;
 import org.mifos.config.AccountingRules;
 import org.mifos.config.FiscalCalendarRules;
 import org.mifos.config.business.SystemConfiguration;
+import org.mifos.config.cache.CacheLoader;
 import org.mifos.config.cache.CacheRepository;
 import org.mifos.config.cache.Key;
 import org.mifos.config.cache.OfficeCache;
 import org.mifos.config.persistence.ConfigurationPersistence;
+import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.office.business.OfficeBO;
 import org.mifos.customers.office.persistence.OfficePersistence;
 import org.mifos.framework.exceptions.ApplicationException;
 import org.mifos.framework.exceptions.ConstantsNotLoadedException;
+import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.exceptions.StartUpException;
 import org.mifos.framework.exceptions.SystemException;
 
@@ -81,30 +84,76 @@ public class ConfigurationInitializer {
         setWeekOffList(officeConfigMap);
         setLateNessAndDormancyDaysForAccount(officeConfigMap);
 
-        return new OfficeCache(officeConfigMap);
+        return new OfficeCache(officeConfigMap, new OfficeConfigurationLoader());
     }
 
     private void setFiscalStartOfWeek(Map<Key, Object> officeConfigMap) throws SystemException, ApplicationException {
-
-        Short id = new FiscalCalendarRules().getStartOfWeek();
-        officeConfigMap.put(new Key(getHeadOffice().getOfficeId(), ConfigConstants.FISCAL_START_OF_WEEK), id);
+        putIfNotNull(officeConfigMap, ConfigConstants.FISCAL_START_OF_WEEK, getFiscalStartOfWeek());
     }
 
     private void setWeekOffList(Map<Key, Object> officeConfigMap) throws SystemException, ApplicationException {
-
-        // get weekday off (not working day)
-        List<Short> weekOffList = new FiscalCalendarRules().getWeekDayOffList();
-        if (weekOffList != null) {
-            officeConfigMap.put(new Key(getHeadOffice().getOfficeId(), ConfigConstants.WEEK_OFF_LIST), weekOffList);
-        }
+        putIfNotNull(officeConfigMap, ConfigConstants.WEEK_OFF_LIST, getWeekOffList());
     }
 
     private void setLateNessAndDormancyDaysForAccount(Map<Key, Object> officeConfigMap) throws SystemException,
             ApplicationException {
-        Short latenessDays = new LoanPrdPersistence().retrieveLatenessForPrd();
-        Short dormancyDays = ApplicationContextProvider.getBean(SavingsProductDao.class).findSavingsProductConfiguration().getDormancyDays();
-        officeConfigMap.put(new Key(getHeadOffice().getOfficeId(), ConfigConstants.LATENESS_DAYS), latenessDays);
-        officeConfigMap.put(new Key(getHeadOffice().getOfficeId(), ConfigConstants.DORMANCY_DAYS), dormancyDays);
+        putIfNotNull(officeConfigMap, ConfigConstants.LATENESS_DAYS, getLatenessDays());
+        putIfNotNull(officeConfigMap, ConfigConstants.DORMANCY_DAYS, getDormancyDays());
+    }
+
+    private void putIfNotNull(Map<Key, Object> officeConfigMap, String key, Object value) throws ApplicationException {
+        if (value != null) {
+            officeConfigMap.put(new Key(getHeadOffice().getOfficeId(), key), value);
+        }
+    }
+
+    private Short getFiscalStartOfWeek() {
+        return new FiscalCalendarRules().getStartOfWeek();
+    }
+
+    private List<Short> getWeekOffList() {
+        // get weekday off (not working day)
+        return new FiscalCalendarRules().getWeekDayOffList();
+    }
+
+    private Short getLatenessDays() throws PersistenceException {
+        return new LoanPrdPersistence().retrieveLatenessForPrd();
+    }
+
+    private Short getDormancyDays() {
+        return ApplicationContextProvider.getBean(SavingsProductDao.class).findSavingsProductConfiguration().getDormancyDays();
+    }
+
+    /**
+     * Reloads a single head office value after it was invalidated or expired from the office cache. Values are only
+     * configured at head office level, so keys of other offices have no value.
+     */
+    private class OfficeConfigurationLoader implements CacheLoader<Key, Object> {
+
+        @Override
+        public Object load(Key key) {
+            try {
+                if (!getHeadOffice().getOfficeId().equals(key.getOfficeId())) {
+                    return null;
+                }
+                String name = key.getKey();
+                if (ConfigConstants.FISCAL_START_OF_WEEK.equalsIgnoreCase(name)) {
+                    return getFiscalStartOfWeek();
+                }
+                if (ConfigConstants.WEEK_OFF_LIST.equalsIgnoreCase(name)) {
+                    return getWeekOffList();
+                }
+                if (ConfigConstants.LATENESS_DAYS.equalsIgnoreCase(name)) {
+                    return getLatenessDays();
+                }
+                if (ConfigConstants.DORMANCY_DAYS.equalsIgnoreCase(name)) {
+                    return getDormancyDays();
+                }
+                return null;
+            } catch (ApplicationException e) {
+                throw new MifosRuntimeException(e);
+            }
+        }
     }
 
     public void initialize() {
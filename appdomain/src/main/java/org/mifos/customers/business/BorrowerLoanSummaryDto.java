@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.customers.business;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.mifos.accounts.productdefinition.util.helpers.InterestType;
+import org.mifos.accounts.util.helpers.AccountState;
+import org.mifos.accounts.util.helpers.AccountTypes;
+import org.mifos.application.master.business.MifosCurrency;
+import org.mifos.config.AccountingRules;
+import org.mifos.framework.util.helpers.Money;
+
+/**
+ * An open loan of a borrower of a loan officer as loaded by the
+ * Customer.getOpenLoanSummariesOfBorrowersUnderLoanOfficer query. The amounts are those {@link
+ * org.mifos.accounts.loan.business.LoanBO} derives from its schedule, summed by the database.
+ */
+public class BorrowerLoanSummaryDto {
+
+    private Integer customerId;
+    private Integer accountId;
+    private String globalAccountNum;
+    private Short accountTypeId;
+    private Short accountStateId;
+    private String accountStateName;
+    private String prdOfferingName;
+    private Short interestTypeId;
+    private Short currencyId;
+    private BigDecimal loanBalance = BigDecimal.ZERO;
+    private BigDecimal remainingPrincipal = BigDecimal.ZERO;
+    private Date lastActionDate;
+    private BigDecimal amountInArrears = BigDecimal.ZERO;
+    private BigDecimal nextInstallmentDue = BigDecimal.ZERO;
+    private BigDecimal totalRepayable = BigDecimal.ZERO;
+
+    public BorrowerLoanSummaryDto() {
+        // default constructor for hibernate
+    }
+
+    public MifosCurrency getCurrency() {
+        return AccountingRules.getCurrencyByCurrencyId(this.currencyId);
+    }
+
+    public Money getLoanBalance() {
+        return new Money(getCurrency(), this.loanBalance);
+    }
+
+    /**
+     * Same as {@link org.mifos.accounts.loan.business.LoanBO#getRemainingPrincipalAmount()}.
+     */
+    public Money getRemainingPrincipalAmount() {
+        return new Money(getCurrency(), this.remainingPrincipal);
+    }
+
+    /**
+     * Same as {@link org.mifos.accounts.business.AccountBO#getTotalAmountInArrears()}.
+     */
+    public Money getTotalAmountInArrears() {
+        return new Money(getCurrency(), this.amountInArrears);
+    }
+
+    /**
+     * Same as {@link org.mifos.accounts.business.AccountBO#getTotalAmountDue()}.
+     */
+    public Money getTotalAmountDue() {
+        return new Money(getCurrency(), this.amountInArrears.add(this.nextInstallmentDue));
+    }
+
+    /**
+     * Same as {@link org.mifos.accounts.loan.business.LoanBO#getTotalRepayableAmount()}, except for the extra
+     * interest of declining balance interest recalculation loans, see {@link #isDecliningBalanceInterestRecalculation()}.
+     */
+    public Money getTotalRepayableAmount() {
+        return new Money(getCurrency(), this.totalRepayable);
+    }
+
+    public boolean isDecliningBalanceInterestRecalculation() {
+        return InterestType.DECLINING_PB.getValue().equals(this.interestTypeId);
+    }
+
+    public boolean isGroupLoanAccount() {
+        return AccountTypes.GROUP_LOAN_ACCOUNT.getValue().equals(this.accountTypeId);
+    }
+
+    public boolean isDisbursed() {
+        return AccountState.isDisbursed(this.accountStateId);
+    }
+
+    public Integer getCustomerId() {
+        return this.customerId;
+    }
+
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+
+    public Integer getAccountId() {
+        return this.accountId;
+    }
+
+    public void setAccountId(Integer accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getGlobalAccountNum() {
+        return this.globalAccountNum;
+    }
+
+    public void setGlobalAccountNum(String globalAccountNum) {
+        this.globalAccountNum = globalAccountNum;
+    }
+
+    public Short getAccountTypeId() {
+        return this.accountTypeId;
+    }
+
+    public void setAccountTypeId(Short accountTypeId) {
+        this.accountTypeId = accountTypeId;
+    }
+
+    public Short getAccountStateId() {
+        return this.accountStateId;
+    }
+
+    public void setAccountStateId(Short accountStateId) {
+        this.accountStateId = accountStateId;
+    }
+
+    public String getAccountStateName() {
+        return this.accountStateName;
+    }
+
+    public void setAccountStateName(String accountStateName) {
+        this.accountStateName = accountStateName;
+    }
+
+    public String getPrdOfferingName() {
+        return this.prdOfferingName;
+    }
+
+    public void setPrdOfferingName(String prdOfferingName) {
+        this.prdOfferingName = prdOfferingName;
+    }
+
+    public Short getInterestTypeId() {
+        return this.interestTypeId;
+    }
+
+    public void setInterestTypeId(Short interestTypeId) {
+        this.interestTypeId = interestTypeId;
+    }
+
+    public Short getCurrencyId() {
+        return this.currencyId;
+    }
+
+    public void setCurrencyId(Short currencyId) {
+        this.currencyId = currencyId;
+    }
+
+    public void setLoanBalance(BigDecimal loanBalance) {
+        if (loanBalance != null) {
+            this.loanBalance = loanBalance;
+        }
+    }
+
+    public void setRemainingPrincipal(BigDecimal remainingPrincipal) {
+        if (remainingPrincipal != null) {
+            this.remainingPrincipal = remainingPrincipal;
+        }
+    }
+
+    public Date getLastActionDate() {
+        return this.lastActionDate;
+    }
+
+    public void setLastActionDate(Date lastActionDate) {
+        this.lastActionDate = lastActionDate;
+    }
+
+    public void setAmountInArrears(BigDecimal amountInArrears) {
+        if (amountInArrears != null) {
+            this.amountInArrears = amountInArrears;
+        }
+    }
+
+    public void setNextInstallmentDue(BigDecimal nextInstallmentDue) {
+        if (nextInstallmentDue != null) {
+            this.nextInstallmentDue = nextInstallmentDue;
+        }
+    }
+
+    public void setTotalRepayable(BigDecimal totalRepayable) {
+        if (totalRepayable != null) {
+            this.totalRepayable = totalRepayable;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.customers.business;
+
+import org.mifos.framework.business.AbstractEntity;
+
+/**
+ * One ancestor/descendant pair of the customer hierarchy, including the pair of every customer with itself at depth
+ * 0. The rows of a customer and its descendants are rebuilt from their parents by
+ * {@link org.mifos.customers.persistence.CustomerDao#updateCustomerHierarchy(CustomerBO)} whenever its parent
+ * changes, so the customers under a center or group can be found with an indexed join instead of a search id prefix
+ * scan. Centers, groups and clients are at most three levels deep, so depth is at most 2.
+ */
+public class CustomerHierarchyClosureEntity extends AbstractEntity {
+
+    private final Integer ancestorId;
+
+    private final Integer descendantId;
+
+    private final Short depth;
+
+    protected CustomerHierarchyClosureEntity() {
+        this.ancestorId = null;
+        this.descendantId = null;
+        this.depth = null;
+    }
+
+    public Integer getAncestorId() {
+        return this.ancestorId;
+    }
+
+    public Integer getDescendantId() {
+        return this.descendantId;
+    }
+
+    public Short getDepth() {
+        return this.depth;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof CustomerHierarchyClosureEntity)) {
+            return false;
+        }
+        CustomerHierarchyClosureEntity other = (CustomerHierarchyClosureEntity) obj;
+        return ancestorId != null && ancestorId.equals(other.ancestorId) && descendantId != null
+                && descendantId.equals(other.descendantId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = ancestorId == null ? 0 : ancestorId.hashCode();
+        return 31 * result + (descendantId == null ? 0 : descendantId.hashCode());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.customers.business;
+
+import org.mifos.customers.api.CustomerLevel;
+
+/**
+ * A group or client of a loan officer as loaded by the Customer.getBorrowersUnderLoanOfficer query.
+ */
+public class LoanOfficerBorrowerDto {
+
+    private Integer customerId;
+    private String displayName;
+    private String globalCustNum;
+    private String searchId;
+    private Short customerLevelId;
+    private Integer parentCustomerId;
+    private String displayAddress;
+    private String phoneNumber;
+
+    public LoanOfficerBorrowerDto() {
+        // default constructor for hibernate
+    }
+
+    public Integer getCustomerId() {
+        return this.customerId;
+    }
+
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getGlobalCustNum() {
+        return this.globalCustNum;
+    }
+
+    public void setGlobalCustNum(String globalCustNum) {
+        this.globalCustNum = globalCustNum;
+    }
+
+    public String getSearchId() {
+        return this.searchId;
+    }
+
+    public void setSearchId(String searchId) {
+        this.searchId = searchId;
+    }
+
+    public Short getCustomerLevelId() {
+        return this.customerLevelId;
+    }
+
+    public void setCustomerLevelId(Short customerLevelId) {
+        this.customerLevelId = customerLevelId;
+    }
+
+    public Integer getParentCustomerId() {
+        return this.parentCustomerId;
+    }
+
+    public void setParentCustomerId(Integer parentCustomerId) {
+        this.parentCustomerId = parentCustomerId;
+    }
+
+    public String getDisplayAddress() {
+        return this.displayAddress;
+    }
+
+    public void setDisplayAddress(String displayAddress) {
+        this.displayAddress = displayAddress;
+    }
+
+    public String getPhoneNumber() {
+        return this.phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public boolean isGroup() {
+        return CustomerLevel.GROUP.getValue().equals(this.customerLevelId);
+    }
+}
@@ -941,6 +941,7 @@ public class CustomerServiceImpl implements CustomerService {
                 customerDao.save(client);
             }
             hibernateTransactionHelper.flushSession();
+            customerDao.updateCustomerHierarchy(group);
 
             GroupBO groupInitialised = group;
             if (regenerateSchedules) {
@@ -1005,6 +1006,7 @@ public class CustomerServiceImpl implements CustomerService {
 
             client.updateDetails(userContext);
             customerDao.save(client);
+            customerDao.updateCustomerHierarchy(client);
 
             hibernateTransactionHelper.flushAndClearSession();
 
@@ -1046,6 +1048,7 @@ public class CustomerServiceImpl implements CustomerService {
             if (client.getParentCustomer() != null) {
                 this.customerDao.save(client.getParentCustomer());
             }
+            this.customerDao.updateCustomerHierarchy(client);
             this.hibernateTransactionHelper.commitTransaction();
         } catch (ApplicationException e) {
             this.hibernateTransactionHelper.rollbackTransaction();
@@ -1097,6 +1100,7 @@ public class CustomerServiceImpl implements CustomerService {
                     customerDao.save(client);
                 }
             }
+            customerDao.updateCustomerHierarchy(group);
 
             hibernateTransactionHelper.commitTransaction();
 
@@ -1243,6 +1247,7 @@ public class CustomerServiceImpl implements CustomerService {
             client.removeGroupMembership();
             client.generateSearchId();
             this.customerDao.save(client);
+            this.customerDao.updateCustomerHierarchy(client);
             this.hibernateTransactionHelper.commitTransaction();
         } catch (Exception e) {
             this.hibernateTransactionHelper.rollbackTransaction();
@@ -20,7 +20,12 @@
 
 package org.mifos.customers.group.persistence;
 
+import java.math.BigDecimal;
+import java.sql.Connection;
 import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -188,6 +193,90 @@ public class GroupPersistence extends LegacyGenericDao {
         return result;
     }
 
+    /**
+     * Set based counterpart of {@link #updateGroupInfoAndGroupPerformanceHistoryForPortfolioAtRisk(double, Integer)}
+     * used by the PAR task. All updates are sent as two JDBC batches within the current transaction, which is left
+     * for the caller to commit. The customer row of a group is only updated once its group_perf_history row was, so a
+     * group that could not be updated is left untouched and the others can still be committed.
+     *
+     * @return the ids of the groups whose group_perf_history or customer row could not be updated
+     */
+    public List<Integer> updateGroupInfoAndGroupPerformanceHistoryForPortfolioAtRisk(
+            Map<Integer, Double> portfolioAtRiskByGroup) throws PersistenceException {
+        List<Integer> failedGroupIds = new ArrayList<Integer>();
+        if (portfolioAtRiskByGroup.isEmpty()) {
+            return failedGroupIds;
+        }
+        List<Integer> groupIds = new ArrayList<Integer>(portfolioAtRiskByGroup.keySet());
+        Session session = StaticHibernateUtil.getSessionTL();
+        PreparedStatement updateCustomer = null;
+        PreparedStatement updatePerformanceHistory = null;
+        try {
+            StaticHibernateUtil.startTransaction();
+            Connection connection = session.connection();
+
+            short userId = 1; // this is bach job, so no user
+            Date currentDate = new DateTimeService().getCurrentJavaSqlDate();
+            updateCustomer = connection
+                    .prepareStatement("update customer set updated_by = ?, updated_date = ? where customer_id = ?");
+            updatePerformanceHistory = connection
+                    .prepareStatement("update group_perf_history set portfolio_at_risk = ? where customer_id = ?");
+            for (Integer groupId : groupIds) {
+                // same decimal literal as the per group update
+                updatePerformanceHistory.setBigDecimal(1, new BigDecimal(Double.toString(portfolioAtRiskByGroup
+                        .get(groupId))));
+                updatePerformanceHistory.setInt(2, groupId);
+                updatePerformanceHistory.addBatch();
+            }
+            int[] performanceHistoryRows = updatePerformanceHistory.executeBatch();
+
+            List<Integer> updatedGroupIds = new ArrayList<Integer>();
+            for (int i = 0; i < groupIds.size(); i++) {
+                if (isSingleRowUpdated(performanceHistoryRows[i])) {
+                    updatedGroupIds.add(groupIds.get(i));
+                } else {
+                    failedGroupIds.add(groupIds.get(i));
+                }
+            }
+            if (updatedGroupIds.isEmpty()) {
+                return failedGroupIds;
+            }
+
+            for (Integer groupId : updatedGroupIds) {
+                updateCustomer.setShort(1, userId);
+                updateCustomer.setDate(2, currentDate);
+                updateCustomer.setInt(3, groupId);
+                updateCustomer.addBatch();
+            }
+            int[] customerRows = updateCustomer.executeBatch();
+            for (int i = 0; i < updatedGroupIds.size(); i++) {
+                if (!isSingleRowUpdated(customerRows[i])) {
+                    failedGroupIds.add(updatedGroupIds.get(i));
+                }
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException(e);
+        } finally {
+            closeQuietly(updateCustomer);
+            closeQuietly(updatePerformanceHistory);
+        }
+        return failedGroupIds;
+    }
+
+    private boolean isSingleRowUpdated(int updateCount) {
+        return updateCount == 1 || updateCount == Statement.SUCCESS_NO_INFO;
+    }
+
+    private void closeQuietly(Statement statement) {
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // nothing more can be done with the statement
+            }
+        }
+    }
+
     /**
      * @deprecated - use {@link CustomerService#createGroup(GroupBO, org.mifos.application.meeting.business.MeetingBO, List)}.
      * use {@link CustomerDao#save(org.mifos.customers.business.CustomerBO)}.
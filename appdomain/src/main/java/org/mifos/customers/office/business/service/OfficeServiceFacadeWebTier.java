@@ -57,6 +57,7 @@ import org.mifos.dto.screen.OnlyBranchOfficeHierarchyDto;
 import org.mifos.framework.business.util.Address;
 import org.mifos.framework.exceptions.ApplicationException;
 import org.mifos.framework.exceptions.PersistenceException;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.util.helpers.Constants;
 import org.mifos.security.MifosUser;
@@ -136,6 +137,7 @@ public class OfficeServiceFacadeWebTier implements OfficeServiceFacade {
             StaticHibernateUtil.startTransaction();
             office.update(userContext, officeUpdateRequest, parentOffice);
             StaticHibernateUtil.commitTransaction();
+            SecondLevelCache.evictOffices();
             return isParentOfficeChanged;
         } catch (OfficeException e1) {
             throw new BusinessRuleException(e1.getKey(), e1);
@@ -54,7 +54,9 @@ import org.mifos.dto.domain.CustomerFlagDto;
 import org.mifos.dto.domain.CustomerMeetingDto;
 import org.mifos.dto.domain.CustomerNoteDto;
 import org.mifos.dto.domain.CustomerPositionOtherDto;
+import org.mifos.dto.domain.LastRepaymentDto;
 import org.mifos.dto.domain.LoanDetailDto;
+import org.mifos.dto.domain.OverdueCustomer;
 import org.mifos.dto.domain.PersonnelDto;
 import org.mifos.dto.domain.SavingsDetailDto;
 import org.mifos.dto.domain.ValueListElement;
@@ -211,6 +213,13 @@ public interface CustomerDao {
 
     void updateLoanOfficersForAllChildrenAndAccounts(Short loanOfficerId, String searchId, Short officeId);
 
+    /**
+     * Rebuilds the customer_hierarchy_closure rows of the customer and of everything below it from the current
+     * parent of each customer. {@link #save(CustomerBO)} calls it for new customers; it must be called whenever a
+     * customer is moved to another parent.
+     */
+    void updateCustomerHierarchy(CustomerBO customer);
+
     List<ClientBO> validateGovernmentIdForClient(String governmentId);
     
     List<ClientBO> validateGovernmentIdForUnclosedClient(String governmentId);
@@ -282,6 +291,19 @@ public interface CustomerDao {
 
     List<ClientBO> findAllExceptClosedAndCancelledClientsUnderParent(String searchId, Short officeId);
 
+    List<ClientBO> findAllExceptClosedAndCancelledClientsUnderParent(Integer parentId, String searchId,
+            Short officeId);
+
+    /**
+     * For each group and client of the loan officer with open loans, the open loan with the latest installment.
+     */
+    List<LastRepaymentDto> findLastRepaymentsOfBorrowersUnderLoanOfficer(Short loanOfficerId, Short officeId);
+
+    /**
+     * The groups and clients of the loan officer with disbursed loans in arrears.
+     */
+    List<OverdueCustomer> findOverdueBorrowersUnderLoanOfficer(Short loanOfficerId, Short officeId);
+
     List<ClientBO> findAllExceptClosedAndCancelledClientsWithoutGroupForLoanOfficer(Short loanOfficerId, Short officeId);
 
     ClientBO findClientById(Integer integer);
@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +50,7 @@ import org.mifos.accounts.productdefinition.business.SavingsOfferingBO;
 import org.mifos.accounts.productdefinition.util.helpers.ApplicableTo;
 import org.mifos.accounts.savings.business.SavingsBO;
 import org.mifos.accounts.savings.persistence.GenericDao;
+import org.mifos.accounts.util.helpers.AccountState;
 import org.mifos.accounts.util.helpers.AccountTypes;
 import org.mifos.application.NamedQueryConstants;
 import org.mifos.application.master.MessageLookup;
@@ -64,12 +66,14 @@ import org.mifos.config.util.helpers.ConfigurationConstants;
 import org.mifos.core.CurrencyMismatchException;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.api.CustomerLevel;
+import org.mifos.customers.business.BorrowerLoanSummaryDto;
 import org.mifos.customers.business.CustomerAccountBO;
 import org.mifos.customers.business.CustomerBO;
 import org.mifos.customers.business.CustomerFlagDetailEntity;
 import org.mifos.customers.business.CustomerMeetingEntity;
 import org.mifos.customers.business.CustomerPerformanceHistoryDto;
 import org.mifos.customers.business.CustomerStatusEntity;
+import org.mifos.customers.business.LoanOfficerBorrowerDto;
 import org.mifos.customers.center.business.CenterBO;
 import org.mifos.customers.checklist.business.AccountCheckListBO;
 import org.mifos.customers.checklist.business.CustomerCheckListBO;
@@ -88,6 +92,7 @@ import org.mifos.customers.util.helpers.CustomerStatus;
 import org.mifos.customers.util.helpers.Param;
 import org.mifos.dto.domain.CenterDisplayDto;
 import org.mifos.dto.domain.CenterPerformanceHistoryDto;
+import org.mifos.dto.domain.ClientDescriptionDto;
 import org.mifos.dto.domain.CustomerAccountSummaryDto;
 import org.mifos.dto.domain.CustomerAddressDto;
 import org.mifos.dto.domain.CustomerDetailDto;
@@ -96,7 +101,10 @@ import org.mifos.dto.domain.CustomerFlagDto;
 import org.mifos.dto.domain.CustomerMeetingDto;
 import org.mifos.dto.domain.CustomerNoteDto;
 import org.mifos.dto.domain.CustomerPositionOtherDto;
+import org.mifos.dto.domain.LastRepaymentDto;
 import org.mifos.dto.domain.LoanDetailDto;
+import org.mifos.dto.domain.OverdueCustomer;
+import org.mifos.dto.domain.OverdueLoan;
 import org.mifos.dto.domain.PersonnelDto;
 import org.mifos.dto.domain.SavingsDetailDto;
 import org.mifos.dto.domain.ValueListElement;
@@ -282,9 +290,17 @@ public class CustomerDaoHibernate implements CustomerDao {
         return (fee.isMonthly() && meeting.isMonthly()) || (fee.isWeekly() && meeting.isWeekly());
     }
 
+    /**
+     * Also adds the customer_hierarchy_closure rows of a customer saved for the first time, so that every way of
+     * creating a customer keeps the closure complete.
+     */
     @Override
     public void save(CustomerBO customer) {
+        boolean isNew = customer.getCustomerId() == null;
         this.genericDao.createOrUpdate(customer);
+        if (isNew) {
+            updateCustomerHierarchy(customer);
+        }
     }
 
     @Override
@@ -1444,6 +1460,20 @@ public class CustomerDaoHibernate implements CustomerDao {
         updateLoanOfficersForAllChildrenAccounts(parentLO, parentSearchId, parentOfficeId);
     }
 
+    @Override
+    public void updateCustomerHierarchy(CustomerBO customer) {
+        Session session = this.genericDao.getSession();
+        session.flush();
+
+        Query delete = session.getNamedQuery(NamedQueryConstants.DELETE_HIERARCHY_CLOSURE_OF_SUBTREE);
+        delete.setParameter("CUSTOMER_ID", customer.getCustomerId());
+        delete.executeUpdate();
+
+        Query insert = session.getNamedQuery(NamedQueryConstants.INSERT_HIERARCHY_CLOSURE_OF_SUBTREE);
+        insert.setParameter("CUSTOMER_ID", customer.getCustomerId());
+        insert.executeUpdate();
+    }
+
     /**
      * Update loan officer for all children accounts.
      *
@@ -1758,6 +1788,189 @@ public class CustomerDaoHibernate implements CustomerDao {
         return clients;
     }
 
+    @Override
+    public List<ClientBO> findAllExceptClosedAndCancelledClientsUnderParent(Integer parentId, String searchId,
+            Short officeId) {
+        if (!CustomerHierarchyQueries.isClosureEnabled()) {
+            return findAllExceptClosedAndCancelledClientsUnderParent(searchId, officeId);
+        }
+        List<ClientBO> clients = new ArrayList<ClientBO>();
+
+        HashMap<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("PARENT_ID", parentId);
+        List<ClientBO> queryResult = (List<ClientBO>) this.genericDao.executeNamedQuery(
+                CustomerHierarchyQueries.queryName(NamedQueryConstants.ALL_EXCEPT_CANCELLED_CLOSED_CLIENTS_UNDER_PARENT),
+                queryParameters);
+        if (queryResult != null) {
+            clients.addAll(queryResult);
+        }
+        return clients;
+    }
+
+    @Override
+    public List<LastRepaymentDto> findLastRepaymentsOfBorrowersUnderLoanOfficer(Short loanOfficerId, Short officeId) {
+        Map<Integer, List<BorrowerLoanSummaryDto>> loansByBorrower = findOpenLoansOfBorrowersUnderLoanOfficer(
+                loanOfficerId, officeId);
+
+        List<LastRepaymentDto> lastRepayments = new ArrayList<LastRepaymentDto>();
+        for (LoanOfficerBorrowerDto borrower : findBorrowersUnderLoanOfficer(loanOfficerId, officeId)) {
+            List<BorrowerLoanSummaryDto> loans = loansByBorrower.get(borrower.getCustomerId());
+            if (loans == null) {
+                continue;
+            }
+            BorrowerLoanSummaryDto lastLoan = null;
+            for (BorrowerLoanSummaryDto loan : loans) {
+                if (lastLoan == null || lastLoan.getLastActionDate().before(loan.getLastActionDate())) {
+                    lastLoan = loan;
+                }
+            }
+
+            ClientDescriptionDto clientDescription = new ClientDescriptionDto(borrower.getCustomerId(),
+                    borrower.getDisplayName(), borrower.getGlobalCustNum(), borrower.getSearchId());
+            LoanDetailDto loanDetails = new LoanDetailDto(lastLoan.getGlobalAccountNum(),
+                    lastLoan.getPrdOfferingName(), lastLoan.getAccountStateId(), lastLoan.getAccountStateName(),
+                    lastLoan.getLoanBalance().toString(), lastLoan.getTotalAmountDue().toString(),
+                    lastLoan.getAccountTypeId(), lastLoan.getTotalAmountInArrears().toString());
+
+            LastRepaymentDto lastRepayment = new LastRepaymentDto(clientDescription, loanDetails,
+                    lastLoan.getLastActionDate());
+            lastRepayment.setGroup(borrower.isGroup());
+            lastRepayments.add(lastRepayment);
+        }
+        return lastRepayments;
+    }
+
+    @Override
+    public List<OverdueCustomer> findOverdueBorrowersUnderLoanOfficer(Short loanOfficerId, Short officeId) {
+        Map<Integer, List<BorrowerLoanSummaryDto>> loansByBorrower = findOpenLoansOfBorrowersUnderLoanOfficer(
+                loanOfficerId, officeId);
+
+        List<OverdueCustomer> overdueCustomers = new ArrayList<OverdueCustomer>();
+        for (LoanOfficerBorrowerDto borrower : findBorrowersUnderLoanOfficer(loanOfficerId, officeId)) {
+            List<BorrowerLoanSummaryDto> loans = loansByBorrower.get(borrower.getCustomerId());
+            if (loans == null) {
+                continue;
+            }
+            List<OverdueLoan> overdueLoans = new ArrayList<OverdueLoan>();
+            Money capitalOutstanding = null;
+            for (BorrowerLoanSummaryDto loan : loans) {
+                if (loan.isGroupLoanAccount() && !borrower.isGroup()) {
+                    continue;
+                }
+                if (!loan.getTotalAmountInArrears().isNonZero() || !loan.isDisbursed()) {
+                    continue;
+                }
+                Money remainingPrincipal = loan.getRemainingPrincipalAmount();
+                overdueLoans.add(new OverdueLoan(loan.getTotalAmountInArrears().toString(),
+                        loan.getGlobalAccountNum(), loan.getPrdOfferingName(), loan.getAccountStateName(),
+                        Integer.valueOf(loan.getAccountStateId()), getTotalRepayableAmount(loan).toString(),
+                        remainingPrincipal.toString()));
+                capitalOutstanding = capitalOutstanding == null ? remainingPrincipal : capitalOutstanding
+                        .add(remainingPrincipal);
+            }
+            if (overdueLoans.isEmpty()) {
+                continue;
+            }
+
+            OverdueCustomer overdueCustomer = new OverdueCustomer();
+            overdueCustomer.setDisplayName(borrower.getDisplayName());
+            overdueCustomer.setGlobalCustNum(borrower.getGlobalCustNum());
+            overdueCustomer.setOverdueLoans(overdueLoans);
+            overdueCustomer.setPhoneNumber(borrower.getPhoneNumber());
+            overdueCustomer.setAddress(borrower.getDisplayAddress());
+            overdueCustomer.setGroup(borrower.isGroup());
+            overdueCustomer.setTotalCapitalOutstanding(capitalOutstanding.toString());
+            overdueCustomers.add(overdueCustomer);
+        }
+        return overdueCustomers;
+    }
+
+    /**
+     * The groups of the loan officer, each followed by its clients, then the clients of the loan officer without a
+     * group.
+     */
+    @SuppressWarnings("unchecked")
+    private List<LoanOfficerBorrowerDto> findBorrowersUnderLoanOfficer(Short loanOfficerId, Short officeId) {
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("personnelId", loanOfficerId);
+        queryParameters.put("officeId", officeId);
+        List<LoanOfficerBorrowerDto> queryResult = (List<LoanOfficerBorrowerDto>) this.genericDao
+                .executeNamedQueryWithResultTransformer("Customer.getBorrowersUnderLoanOfficer", queryParameters,
+                        LoanOfficerBorrowerDto.class);
+
+        Map<Integer, List<LoanOfficerBorrowerDto>> groups = new LinkedHashMap<Integer, List<LoanOfficerBorrowerDto>>();
+        for (LoanOfficerBorrowerDto borrower : queryResult) {
+            if (borrower.isGroup()) {
+                groups.put(borrower.getCustomerId(), new ArrayList<LoanOfficerBorrowerDto>());
+            }
+        }
+        List<LoanOfficerBorrowerDto> clientsWithoutGroup = new ArrayList<LoanOfficerBorrowerDto>();
+        for (LoanOfficerBorrowerDto borrower : queryResult) {
+            if (borrower.isGroup()) {
+                groups.get(borrower.getCustomerId()).add(0, borrower);
+            } else if (borrower.getParentCustomerId() == null) {
+                clientsWithoutGroup.add(borrower);
+            } else {
+                groups.get(borrower.getParentCustomerId()).add(borrower);
+            }
+        }
+
+        List<LoanOfficerBorrowerDto> borrowers = new ArrayList<LoanOfficerBorrowerDto>(queryResult.size());
+        for (List<LoanOfficerBorrowerDto> groupAndClients : groups.values()) {
+            borrowers.addAll(groupAndClients);
+        }
+        borrowers.addAll(clientsWithoutGroup);
+        return borrowers;
+    }
+
+    /**
+     * The open loans of the loan officer's borrowers keyed by customer id, with the account state names localized
+     * through {@link MessageLookup}.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, List<BorrowerLoanSummaryDto>> findOpenLoansOfBorrowersUnderLoanOfficer(Short loanOfficerId,
+            Short officeId) {
+        Map<String, Object> queryParameters = new HashMap<String, Object>();
+        queryParameters.put("personnelId", loanOfficerId);
+        queryParameters.put("officeId", officeId);
+        queryParameters.put("today", DateUtils.getCurrentDateWithoutTimeStamp());
+        List<BorrowerLoanSummaryDto> queryResult = (List<BorrowerLoanSummaryDto>) this.genericDao
+                .executeNamedQueryWithResultTransformer("Customer.getOpenLoanSummariesOfBorrowersUnderLoanOfficer",
+                        queryParameters, BorrowerLoanSummaryDto.class);
+
+        MessageLookup messageLookup = ApplicationContextProvider.getBean(MessageLookup.class);
+        Map<Short, String> accountStateNames = new HashMap<Short, String>();
+        Map<Integer, List<BorrowerLoanSummaryDto>> loansByBorrower = new HashMap<Integer, List<BorrowerLoanSummaryDto>>();
+        for (BorrowerLoanSummaryDto loan : queryResult) {
+            String accountStateName = accountStateNames.get(loan.getAccountStateId());
+            if (accountStateName == null) {
+                accountStateName = messageLookup.lookup(AccountState.fromShort(loan.getAccountStateId()));
+                accountStateNames.put(loan.getAccountStateId(), accountStateName);
+            }
+            loan.setAccountStateName(accountStateName);
+
+            List<BorrowerLoanSummaryDto> loans = loansByBorrower.get(loan.getCustomerId());
+            if (loans == null) {
+                loans = new ArrayList<BorrowerLoanSummaryDto>();
+                loansByBorrower.put(loan.getCustomerId(), loans);
+            }
+            loans.add(loan);
+        }
+        return loansByBorrower;
+    }
+
+    /**
+     * The extra interest of declining balance interest recalculation loans depends on the payments made so far, so
+     * for those loans the total is still computed by the loan itself.
+     */
+    private Money getTotalRepayableAmount(BorrowerLoanSummaryDto loan) {
+        if (loan.isDecliningBalanceInterestRecalculation()) {
+            return ((LoanBO) this.genericDao.getSession().get(LoanBO.class, loan.getAccountId()))
+                    .getTotalRepayableAmount();
+        }
+        return loan.getTotalRepayableAmount();
+    }
+
     @Override
     public void save(CustomerCheckListBO customerChecklist) {
         this.genericDao.createOrUpdate(customerChecklist);
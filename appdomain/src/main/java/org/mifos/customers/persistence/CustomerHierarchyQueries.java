@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.customers.persistence;
+
+import org.mifos.config.GeneralConfig;
+
+/**
+ * Chooses between the two forms of the named queries on the customers below a center or group.
+ *
+ * The original form matches the search id prefix of the top customer within its branch. The closure form, named like
+ * the original with {@link #CLOSURE_SUFFIX} appended, joins customer_hierarchy_closure on the top customer's id
+ * (CUSTOMER_ID) instead. The closure form is used when GeneralConfig.CustomerHierarchyClosureQueries is true.
+ */
+public final class CustomerHierarchyQueries {
+
+    public static final String CLOSURE_SUFFIX = "ByClosure";
+
+    private CustomerHierarchyQueries() {
+    }
+
+    public static boolean isClosureEnabled() {
+        return GeneralConfig.getCustomerHierarchyClosureQueries();
+    }
+
+    public static String queryName(String queryName) {
+        return isClosureEnabled() ? queryName + CLOSURE_SUFFIX : queryName;
+    }
+}
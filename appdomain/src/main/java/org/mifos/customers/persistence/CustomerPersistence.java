@@ -1113,6 +1113,16 @@ public class CustomerPersistence extends LegacyGenericDao {
         return executeNamedQuery(NamedQueryConstants.GET_ALL_BASIC_GROUP_INFO, params);
     }
 
+    /**
+     * Returns, for every active or on hold group, a row of group id, outstanding principal at risk, total outstanding
+     * principal (both including the loans of the group's clients) and the number of distinct loan currencies.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getPortfolioAtRiskAmountsForAllGroups() throws PersistenceException {
+        HashMap<String, Object> params = new HashMap<String, Object>();
+        return executeNamedQuery(NamedQueryConstants.GET_PORTFOLIO_AT_RISK_AMOUNTS_FOR_ALL_GROUPS, params);
+    }
+
     public Money getTotalAmountForAllClientsOfGroup(final Short officeId, final AccountState accountState,
             final String searchIdString) throws PersistenceException {
         MifosCurrency currency = getCurrencyForTotalAmountForAllClientsOfGroup(officeId, accountState, searchIdString);
@@ -1128,14 +1138,39 @@ public class CustomerPersistence extends LegacyGenericDao {
         return totalAmount;
     }
 
+    /**
+     * Same as {@link #getTotalAmountForAllClientsOfGroup(Short, AccountState, String)}, but finds the clients through
+     * the customer hierarchy closure table when GeneralConfig.CustomerHierarchyClosureQueries is true.
+     */
+    public Money getTotalAmountForAllClientsOfGroup(final Integer groupId, final Short officeId,
+            final AccountState accountState, final String searchIdString) throws PersistenceException {
+        if (!CustomerHierarchyQueries.isClosureEnabled()) {
+            return getTotalAmountForAllClientsOfGroup(officeId, accountState, searchIdString);
+        }
+        HashMap<String, Object> params = new HashMap<String, Object>();
+        params.put("groupId", groupId);
+        params.put("accountState", accountState.getValue());
+
+        MifosCurrency currency = getCurrencyFromQueryResult(executeNamedQuery(
+                CustomerHierarchyQueries.queryName(NamedQueryConstants.GET_LOAN_SUMMARY_CURRENCIES_FOR_ALL_CLIENTS_OF_GROUP),
+                params));
+        BigDecimal amount = getCalculateValueFromQueryResult(executeNamedQuery(
+                CustomerHierarchyQueries.queryName(NamedQueryConstants.GET_TOTAL_AMOUNT_FOR_ALL_CLIENTS_OF_GROUP),
+                params));
+        return new Money(currency, amount);
+    }
+
     private MifosCurrency getCurrencyForTotalAmountForAllClientsOfGroup(final Short officeId,
             final AccountState accountState, final String searchIdString) throws PersistenceException {
         HashMap<String, Object> params = new HashMap<String, Object>();
         params.put("officeId", officeId);
         params.put("accountState", accountState.getValue());
         params.put("searchId", searchIdString);
-        List queryResult = executeNamedQuery(NamedQueryConstants.GET_LOAN_SUMMARY_CURRENCIES_FOR_ALL_CLIENTS_OF_GROUP,
-                params);
+        return getCurrencyFromQueryResult(executeNamedQuery(
+                NamedQueryConstants.GET_LOAN_SUMMARY_CURRENCIES_FOR_ALL_CLIENTS_OF_GROUP, params));
+    }
+
+    private MifosCurrency getCurrencyFromQueryResult(final List queryResult) {
         if (queryResult.size() > 1) {
             throw new CurrencyMismatchException(ExceptionConstants.ILLEGALMONEYOPERATION);
         }
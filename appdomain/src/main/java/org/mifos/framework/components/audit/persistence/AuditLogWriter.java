@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.audit.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.mifos.config.GeneralConfig;
+import org.mifos.framework.components.audit.business.AuditLog;
+import org.mifos.framework.components.audit.business.AuditLogRecord;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Writes the audit logs produced by {@link org.mifos.framework.components.audit.util.helpers.AuditInterceptor}.
+ * <p>
+ * By default every log is saved synchronously through {@link LegacyAuditDao}. With
+ * GeneralConfig.AsynchronousAuditLogging enabled, logs are put on a bounded queue and a single background thread
+ * inserts them into change_log and change_log_detail with JDBC batches, so the request thread does not pay for a
+ * second write transaction. When the queue is full the caller waits briefly and then saves the log itself, and when
+ * a batch fails each of its logs is saved again on its own, so audit logs are never dropped. Logs still queued at
+ * shutdown are written before the application context closes; logs written after shutdown are saved synchronously.
+ */
+public class AuditLogWriter implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_CHANGE_LOG = "insert into change_log "
+            + "(changed_by, modifier_name, entity_id, entity_type, changed_date) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_CHANGE_LOG_DETAIL = "insert into change_log_detail "
+            + "(change_log_id, field_name, old_value, new_value) values (?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 100;
+    private static final long OFFER_TIMEOUT_MILLIS = 2000;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final LegacyAuditDao legacyAuditDao;
+    private final boolean asynchronous;
+    private final BlockingQueue<AuditLog> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+
+    /**
+     * Held for reading while a log is offered to the queue and for writing when the writer stops accepting logs, so no
+     * log is queued after the writer thread has drained the queue.
+     */
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+    private boolean shutdown;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(LegacyAuditDao legacyAuditDao) {
+        this(legacyAuditDao, GeneralConfig.getAsynchronousAuditLogging(), GeneralConfig.getAuditLogQueueCapacity(),
+                BATCH_SIZE, OFFER_TIMEOUT_MILLIS);
+    }
+
+    AuditLogWriter(LegacyAuditDao legacyAuditDao, boolean asynchronous, int queueCapacity, int batchSize,
+            long offerTimeoutMillis) {
+        this.legacyAuditDao = legacyAuditDao;
+        this.asynchronous = asynchronous;
+        this.queue = new ArrayBlockingQueue<AuditLog>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    public void write(AuditLog auditLog) {
+        if (asynchronous && offer(auditLog)) {
+            return;
+        }
+        legacyAuditDao.save(auditLog);
+    }
+
+    private boolean offer(AuditLog auditLog) {
+        shutdownLock.readLock().lock();
+        try {
+            if (shutdown || !ensureStarted()) {
+                return false;
+            }
+            if (queue.offer(auditLog, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            logger.warn("Audit log queue is full, saving audit log on the calling thread");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            shutdownLock.readLock().unlock();
+        }
+        return false;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private synchronized boolean ensureStarted() {
+        if (writerThread == null) {
+            running = true;
+            writerThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    processQueue();
+                }
+            }, "AuditLogWriter");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+        return running;
+    }
+
+    void processQueue() {
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<AuditLog> batch = new ArrayList<AuditLog>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                stopAccepting();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction. If that fails the batch is rolled back and each log is saved again in its
+     * own transaction, so one bad log does not lose the others.
+     */
+    void writeBatch(List<AuditLog> batch) {
+        try {
+            insertInTransaction(batch);
+            return;
+        } catch (Exception e) {
+            logger.warn("Unable to write a batch of " + batch.size() + " audit logs, saving them one at a time", e);
+        }
+        for (AuditLog auditLog : batch) {
+            try {
+                legacyAuditDao.save(auditLog);
+            } catch (RuntimeException e) {
+                logger.error("Lost audit log for entity type " + auditLog.getEntityType() + " id "
+                        + auditLog.getEntityId() + " changed by " + auditLog.getModifierName(), e);
+            }
+        }
+    }
+
+    protected void insertInTransaction(List<AuditLog> batch) throws Exception {
+        try {
+            StaticHibernateUtil.startTransaction();
+            insert(batch);
+            StaticHibernateUtil.commitTransaction();
+        } catch (Exception e) {
+            StaticHibernateUtil.rollbackTransaction();
+            throw e;
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+    }
+
+    /**
+     * Inserts the logs and their records with two JDBC batches on the current thread's session connection. Does not
+     * commit.
+     */
+    protected void insert(List<AuditLog> auditLogs) throws SQLException {
+        Connection connection = StaticHibernateUtil.getSessionTL().connection();
+        List<Integer> changeLogIds = insertChangeLogs(connection, auditLogs);
+
+        PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE_LOG_DETAIL);
+        try {
+            for (int i = 0; i < auditLogs.size(); i++) {
+                for (AuditLogRecord auditLogRecord : auditLogs.get(i).getAuditLogRecords()) {
+                    statement.setInt(1, changeLogIds.get(i));
+                    statement.setString(2, auditLogRecord.getFieldName());
+                    statement.setString(3, auditLogRecord.getOldValue());
+                    statement.setString(4, auditLogRecord.getNewValue());
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private List<Integer> insertChangeLogs(Connection connection, List<AuditLog> auditLogs) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE_LOG, Statement.RETURN_GENERATED_KEYS);
+        try {
+            for (AuditLog auditLog : auditLogs) {
+                statement.setShort(1, auditLog.getUpdatedBy());
+                statement.setString(2, auditLog.getModifierName());
+                statement.setObject(3, auditLog.getEntityId(), Types.INTEGER);
+                statement.setObject(4, auditLog.getEntityType(), Types.SMALLINT);
+                statement.setDate(5, auditLog.getUpdatedDate() == null ? null : new java.sql.Date(auditLog
+                        .getUpdatedDate().getTime()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            List<Integer> changeLogIds = new ArrayList<Integer>(auditLogs.size());
+            ResultSet generatedKeys = statement.getGeneratedKeys();
+            try {
+                while (generatedKeys.next()) {
+                    changeLogIds.add(generatedKeys.getInt(1));
+                }
+            } finally {
+                generatedKeys.close();
+            }
+            if (changeLogIds.size() != auditLogs.size()) {
+                throw new SQLException("Expected " + auditLogs.size() + " generated change_log ids but got "
+                        + changeLogIds.size());
+            }
+            return changeLogIds;
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Stops accepting new logs and writes the ones still queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        stopAccepting();
+        Thread thread;
+        synchronized (this) {
+            thread = writerThread;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    private void stopAccepting() {
+        shutdownLock.writeLock().lock();
+        try {
+            shutdown = true;
+            running = false;
+        } finally {
+            shutdownLock.writeLock().unlock();
+        }
+    }
+}
@@ -21,6 +21,7 @@
 package org.mifos.framework.components.audit.util.helpers;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -77,6 +78,7 @@ public class AuditConfiguration {
     public static void init(Locale currentLocale) throws SystemException {
         auditConfigurtion.createEntityValueMap();
         locale = currentLocale;
+        AuditEntityMetadata.clear();
     }
 
     private void createEntityValueMap() throws SystemException {
@@ -94,6 +96,10 @@ public class AuditConfiguration {
         return entityToClassPath.get(classPath);
     }
 
+    public static Set<String> getAuditedClassPaths() {
+        return Collections.unmodifiableSet(entityToClassPath.keySet());
+    }
+
     public static boolean isObjectToBeLogged(String entityType, String name, String parentName) {
         Boolean flag = false;
         EntitiesToLog objectToBeLogged = entitiesToLog.get(entityType);
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.audit.util.helpers;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.type.Type;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The audit view of one mapped class, compiled once from its Hibernate {@link ClassMetadata} and the audit
+ * configuration of the entity being logged.
+ * <p>
+ * {@link InterceptHelper} used to work out, for every property of every object it snapshots, what kind of property it
+ * is, whether it is configured to be logged or merged and which column name to show. None of that depends on the
+ * object, only on its class, the audited entity and the path it was reached by, so it is worked out here once and
+ * cached. Plans for the audited entities themselves are compiled at startup by {@link #precompile()}; plans for the
+ * objects reached from them are compiled the first time they are met.
+ */
+public final class AuditEntityMetadata {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEntityMetadata.class);
+
+    private static final String[] NOT_LOGGABLE_PROPERTIES = { AuditConstants.VERSIONNO, AuditConstants.CREATEDBY,
+            AuditConstants.CREATEDDATE, AuditConstants.UPDATEDBY, AuditConstants.UPDATEDDATE, AuditConstants.LOOKUPID };
+
+    private static final ConcurrentMap<Key, AuditEntityMetadata> compiledMetadata =
+            new ConcurrentHashMap<Key, AuditEntityMetadata>();
+
+    private final ClassMetadata classMetadata;
+    private final String[] propertyNames;
+    private final AuditProperty[] properties;
+
+    private AuditEntityMetadata(ClassMetadata classMetadata, String entityName, String parentName) {
+        this.classMetadata = classMetadata;
+        this.propertyNames = classMetadata.getPropertyNames();
+        Type[] propertyTypes = classMetadata.getPropertyTypes();
+        this.properties = new AuditProperty[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            properties[i] = new AuditProperty(propertyNames[i], propertyTypes[i], entityName, parentName);
+        }
+    }
+
+    /**
+     * @param parentName the name of the property the object was reached through, or null for the audited entity
+     */
+    public static AuditEntityMetadata forClass(Class<?> clazz, String entityName, String parentName) {
+        Key key = new Key(clazz, entityName, parentName);
+        AuditEntityMetadata metadata = compiledMetadata.get(key);
+        if (metadata == null) {
+            metadata = new AuditEntityMetadata(StaticHibernateUtil.getSessionFactory().getClassMetadata(clazz),
+                    entityName, parentName);
+            AuditEntityMetadata existing = compiledMetadata.putIfAbsent(key, metadata);
+            if (existing != null) {
+                metadata = existing;
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Compiles the plans of every audited entity. Requires {@link AuditConfiguration#init} and Hibernate to be
+     * initialized.
+     */
+    public static void precompile() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (String classPath : AuditConfiguration.getAuditedClassPaths()) {
+            try {
+                Class<?> clazz = classLoader.loadClass(classPath);
+                if (StaticHibernateUtil.getSessionFactory().getClassMetadata(clazz) != null) {
+                    forClass(clazz, AuditConfiguration.getEntityToClassPath(classPath), null);
+                }
+            } catch (ClassNotFoundException e) {
+                logger.warn("Audited class " + classPath + " not found, its audit metadata is compiled on first use");
+            }
+        }
+        logger.info("Compiled audit metadata for " + compiledMetadata.size() + " classes");
+    }
+
+    /**
+     * Drops every compiled plan, for use when the audit configuration is reloaded.
+     */
+    public static void clear() {
+        compiledMetadata.clear();
+    }
+
+    public ClassMetadata getClassMetadata() {
+        return this.classMetadata;
+    }
+
+    public String getIdentifierPropertyName() {
+        return classMetadata.getIdentifierPropertyName();
+    }
+
+    public String[] getPropertyNames() {
+        return this.propertyNames;
+    }
+
+    public AuditProperty[] getProperties() {
+        return this.properties;
+    }
+
+    /**
+     * @param columnName the configured column name of the unqualified property name
+     * @param qualifiedColumnName the configured column name of the parent qualified property name, or null
+     */
+    static boolean isValueLoggable(String propertyName, String columnName, String qualifiedColumnName) {
+        for (String notLoggable : NOT_LOGGABLE_PROPERTIES) {
+            if (propertyName.equalsIgnoreCase(notLoggable)) {
+                return false;
+            }
+        }
+        if (qualifiedColumnName != null && qualifiedColumnName.equalsIgnoreCase(XMLConstants.DONOTLOGTHISPROPERTY)) {
+            return false;
+        }
+        return !columnName.equalsIgnoreCase(XMLConstants.DONOTLOGTHISPROPERTY);
+    }
+
+    /**
+     * One property of a mapped class, as seen from a given audited entity and parent property.
+     */
+    public static final class AuditProperty {
+
+        private final String name;
+        private final Type type;
+        private final boolean simple;
+        private final boolean entity;
+        private final boolean collection;
+        private final boolean component;
+        private final boolean toBeLogged;
+        private final boolean toBeMerged;
+        private final boolean valueLoggable;
+        private final boolean meeting;
+        private final boolean loanOfferingFees;
+        private final String columnName;
+
+        AuditProperty(String name, Type type, String entityName, String parentName) {
+            this.name = name;
+            this.type = type;
+            this.simple = !type.isEntityType() && !type.isComponentType() && !type.isCollectionType();
+            this.entity = type.isEntityType() && !type.isComponentType();
+            this.collection = type.isCollectionType();
+            this.component = !type.isEntityType() && type.isComponentType();
+            this.toBeLogged = AuditConfiguration.isObjectToBeLogged(entityName, name, parentName);
+            this.toBeMerged = collection && toBeLogged
+                    && AuditConfiguration.isObjectPropertiesToBeMerged(entityName, name, parentName);
+            this.meeting = name.equalsIgnoreCase("meeting");
+            this.loanOfferingFees = name.equalsIgnoreCase("loanOfferingFees");
+
+            String qualifiedName = parentName == null ? name : parentName.concat(name);
+            String configuredColumnName = AuditConfiguration.getColumnNameForPropertyName(entityName, qualifiedName);
+            this.columnName = "".equals(configuredColumnName) ? name : configuredColumnName;
+            this.valueLoggable = isValueLoggable(name, AuditConfiguration.getColumnNameForPropertyName(entityName,
+                    name), parentName == null ? null : configuredColumnName);
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Type getType() {
+            return this.type;
+        }
+
+        /**
+         * Neither an association, a component nor a collection.
+         */
+        public boolean isSimple() {
+            return this.simple;
+        }
+
+        public boolean isEntity() {
+            return this.entity;
+        }
+
+        public boolean isCollection() {
+            return this.collection;
+        }
+
+        public boolean isComponent() {
+            return this.component;
+        }
+
+        public boolean isToBeLogged() {
+            return this.toBeLogged;
+        }
+
+        public boolean isToBeMerged() {
+            return this.toBeMerged;
+        }
+
+        public boolean isValueLoggable() {
+            return this.valueLoggable;
+        }
+
+        public boolean isMeeting() {
+            return this.meeting;
+        }
+
+        public boolean isLoanOfferingFees() {
+            return this.loanOfferingFees;
+        }
+
+        /**
+         * The configured column name of the property, or its name if none is configured.
+         */
+        public String getColumnName() {
+            return this.columnName;
+        }
+    }
+
+    private static final class Key {
+        private final Class<?> clazz;
+        private final String entityName;
+        private final String parentName;
+
+        Key(Class<?> clazz, String entityName, String parentName) {
+            this.clazz = clazz;
+            this.entityName = entityName;
+            this.parentName = parentName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return clazz.equals(other.clazz) && equal(entityName, other.entityName)
+                    && equal(parentName, other.parentName);
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = clazz.hashCode();
+            result = 31 * result + (entityName == null ? 0 : entityName.hashCode());
+            result = 31 * result + (parentName == null ? 0 : parentName.hashCode());
+            return result;
+        }
+    }
+}
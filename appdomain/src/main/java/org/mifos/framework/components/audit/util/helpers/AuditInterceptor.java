@@ -33,7 +33,7 @@ import org.mifos.application.util.helpers.EntityType;
 import org.mifos.framework.business.AbstractBusinessObject;
 import org.mifos.framework.components.audit.business.AuditLog;
 import org.mifos.framework.components.audit.business.AuditLogRecord;
-import org.mifos.framework.components.audit.persistence.LegacyAuditDao;
+import org.mifos.framework.components.audit.persistence.AuditLogWriter;
 import org.mifos.framework.util.DateTimeService;
 import org.mifos.security.util.UserContext;
 
@@ -83,7 +83,7 @@ public class AuditInterceptor extends EmptyInterceptor {
             Set<AuditLogRecord> auditLogRecords = createAuditLogRecord();
             auditLog.addAuditLogRecords(auditLogRecords);
             if (!auditLogRecords.isEmpty()) {
-                ApplicationContextProvider.getBean(LegacyAuditDao.class).save(auditLog);
+                ApplicationContextProvider.getBean(AuditLogWriter.class).write(auditLog);
             }
         }
     }
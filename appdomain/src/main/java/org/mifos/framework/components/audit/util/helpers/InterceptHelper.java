@@ -41,6 +41,7 @@ import org.mifos.application.meeting.business.MeetingBO;
 import org.mifos.customers.personnel.business.PersonnelLevelEntity;
 import org.mifos.customers.personnel.business.PersonnelStatusEntity;
 import org.mifos.framework.business.AbstractBusinessObject;
+import org.mifos.framework.components.audit.util.helpers.AuditEntityMetadata.AuditProperty;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.util.helpers.DateUtils;
 import org.mifos.framework.util.helpers.Money;
@@ -109,11 +110,6 @@ public class InterceptHelper {
 
     public Map hibernateMeta(Object object, String state) {
         logger.debug("object : " + object);
-        ClassMetadata customMeta = StaticHibernateUtil.getSessionFactory().getClassMetadata(object.getClass());
-        Object[] propertyValues = customMeta.getPropertyValues(object, EntityMode.POJO);
-        String[] propertyNames = customMeta.getPropertyNames();
-        Type[] propertyTypes = customMeta.getPropertyTypes();
-
         if (state.equalsIgnoreCase(AuditConstants.TRANSACTIONBEGIN)) {
             // locale=((BusinessObject)object).getUserContext().getMfiLocale();
             locale = ((AbstractBusinessObject) object).getUserContext().getCurrentLocale();
@@ -121,14 +117,22 @@ public class InterceptHelper {
             localeId = ((AbstractBusinessObject) object).getUserContext().getLocaleId();
             logger.debug("initial path class: " + AuditConfiguration.getEntityToClassPath(object.getClass().getName()));
             entityName = AuditConfiguration.getEntityToClassPath(object.getClass().getName());
+        }
+
+        AuditEntityMetadata metadata = AuditEntityMetadata.forClass(object.getClass(), entityName, null);
+        ClassMetadata customMeta = metadata.getClassMetadata();
+        Object[] propertyValues = customMeta.getPropertyValues(object, EntityMode.POJO);
+        String[] propertyNames = metadata.getPropertyNames();
+        AuditProperty[] properties = metadata.getProperties();
+
+        if (state.equalsIgnoreCase(AuditConstants.TRANSACTIONBEGIN)) {
             entityId = Integer.valueOf(customMeta.getIdentifier(object, EntityMode.POJO).toString());
         }
 
         setPrimaryKeyValues(customMeta, object, customMeta.getIdentifierPropertyName(), state);
 
         for (int i = 0; i < propertyNames.length; i++) {
-            if (!propertyTypes[i].isEntityType() && !propertyTypes[i].isCollectionType()
-                    && !propertyTypes[i].isComponentType()) {
+            if (properties[i].isSimple()) {
                 if (state.equalsIgnoreCase(AuditConstants.TRANSACTIONBEGIN)) {
                     String name = propertyNames[i];
                     if (AuditConfiguration.checkForPropertyName(entityName, name, localeId)) {
@@ -152,12 +156,7 @@ public class InterceptHelper {
                             initialValues.put(propertyNames[i], propertyValues[i]);
                         }
                     }
-                    String columnName = AuditConfiguration.getColumnNameForPropertyName(entityName, name);
-                    if (columnName != null && !columnName.equals("")) {
-                        columnNames.put(propertyNames[i], columnName);
-                    } else {
-                        columnNames.put(propertyNames[i], propertyNames[i]);
-                    }
+                    columnNames.put(propertyNames[i], properties[i].getColumnName());
                 } else {
                     String name = propertyNames[i];
                     logger.debug("c hibernateMeta " + name + " : " + propertyValues[i]);
@@ -182,18 +181,13 @@ public class InterceptHelper {
                             changedValues.put(propertyNames[i], propertyValues[i]);
                         }
                     }
-                    String columnName = AuditConfiguration.getColumnNameForPropertyName(entityName, name);
-                    if (columnName != null && !columnName.equals("")) {
-                        columnNames.put(propertyNames[i], columnName);
-                    } else {
-                        columnNames.put(propertyNames[i], propertyNames[i]);
-                    }
+                    columnNames.put(propertyNames[i], properties[i].getColumnName());
                 }
             }
 
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && propertyValues[i] instanceof MasterDataEntity
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], null)) {
+                    && properties[i].isToBeLogged()) {
                 String personnelStatusName = AuditConstants.PERSONNELSTATUSPATH;
                 String personnelLevelName = AuditConstants.PERSONNELLEVELPATH;
                 if (propertyValues[i].getClass().getName().startsWith(personnelStatusName)) {
@@ -208,22 +202,22 @@ public class InterceptHelper {
             }
 
             // Reading Collection Types
-            if (propertyTypes[i].isCollectionType()
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], null)
-                    && AuditConfiguration.isObjectPropertiesToBeMerged(entityName, propertyNames[i], null)) {
+            if (properties[i].isCollection()
+                    && properties[i].isToBeLogged()
+                    && properties[i].isToBeMerged()) {
                 populateAndMergeCollectionTypes(state, propertyValues[i], propertyNames[i], null);
             }
 
-            if (propertyTypes[i].isCollectionType()
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], null)
-                    && !AuditConfiguration.isObjectPropertiesToBeMerged(entityName, propertyNames[i], null)) {
+            if (properties[i].isCollection()
+                    && properties[i].isToBeLogged()
+                    && !properties[i].isToBeMerged()) {
                 Iterator iterator = ((Set) propertyValues[i]).iterator();
                 while (iterator.hasNext()) {
                     Object obj = iterator.next();
                     if (obj != null) {
                         if (obj instanceof LoanOfferingFeesEntity) {
                             LoanOfferingFeesEntity loanOfferingFeesEntity = (LoanOfferingFeesEntity) obj;
-                            if (propertyNames[i].equalsIgnoreCase("loanOfferingFees")
+                            if (properties[i].isLoanOfferingFees()
                                     && loanOfferingFeesEntity.getPrdOfferingFeeId() != null) {
                                 readLoanOfferingFeesCollection(loanOfferingFeesEntity, state);
                             } else {
@@ -235,9 +229,9 @@ public class InterceptHelper {
                     }
                 }
             }
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], null)) {
+                    && properties[i].isToBeLogged()) {
                 Object obj = propertyValues[i];
                 if (obj != null) {
                     readFurtherMeta(obj, propertyNames[i], state);
@@ -245,7 +239,7 @@ public class InterceptHelper {
             }
 
             // Reading further Money type
-            if (!propertyTypes[i].isEntityType() && propertyTypes[i].isComponentType()
+            if (properties[i].isComponent()
                     && !(propertyValues[i] instanceof MasterDataEntity) && (propertyValues[i] instanceof Money)) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
@@ -254,12 +248,12 @@ public class InterceptHelper {
             }
 
             // Reading further component type
-            if (!propertyTypes[i].isEntityType() && propertyTypes[i].isComponentType()
+            if (properties[i].isComponent()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], null)) {
+                    && properties[i].isToBeLogged()) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
-                    readFurtherComponenetMeta(obj1, propertyNames[i], state, propertyTypes[i]);
+                    readFurtherComponenetMeta(obj1, propertyNames[i], state, properties[i].getType());
                 }
             }
 
@@ -274,11 +268,11 @@ public class InterceptHelper {
     }
 
     private void readFurtherMeta(Object obj, String firstName, String state) {
-        Class clazz = getClazz(obj);
-        ClassMetadata customMeta = StaticHibernateUtil.getSessionFactory().getClassMetadata(clazz);
+        AuditEntityMetadata metadata = AuditEntityMetadata.forClass(getClazz(obj), entityName, firstName);
+        ClassMetadata customMeta = metadata.getClassMetadata();
         Object[] propertyValues = customMeta.getPropertyValues(obj, EntityMode.POJO);
-        String[] propertyNames = customMeta.getPropertyNames();
-        Type[] propertyTypes = customMeta.getPropertyTypes();
+        String[] propertyNames = metadata.getPropertyNames();
+        AuditProperty[] properties = metadata.getProperties();
         String prdStatusName = AuditConstants.PRDSTATUSPATH;
         if (obj.getClass().getName().startsWith(prdStatusName)) {
             Short id = ((PrdStatusEntity) obj).getOfferingStatusId();
@@ -289,20 +283,20 @@ public class InterceptHelper {
 
         for (int i = 0; i < propertyNames.length; i++) {
             logger.debug("readFurtherMeta property : " + propertyNames[i]);
-            setColumnValues(propertyTypes[i], propertyNames[i], firstName, state, propertyValues[i]);
+            setColumnValues(properties[i], firstName, state, propertyValues[i]);
 
             // Reading masterdata Types
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && propertyValues[i] instanceof MasterDataEntity
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 populateValueForObjectsOfTypeMasterDataEntity(propertyValues[i], state, firstName
                         .concat(propertyNames[i]));
             }
 
             // Reading Collection Types
-            if (propertyTypes[i].isCollectionType()
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)
-                    && !AuditConfiguration.isObjectPropertiesToBeMerged(entityName, propertyNames[i], firstName)) {
+            if (properties[i].isCollection()
+                    && properties[i].isToBeLogged()
+                    && !properties[i].isToBeMerged()) {
                 Iterator iterator = ((Set) propertyValues[i]).iterator();
                 while (iterator.hasNext()) {
                     Object valueFromSet = iterator.next();
@@ -311,21 +305,21 @@ public class InterceptHelper {
             }
 
             // Reading Collection Types
-            if (propertyTypes[i].isCollectionType()
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)
-                    && AuditConfiguration.isObjectPropertiesToBeMerged(entityName, propertyNames[i], firstName)) {
+            if (properties[i].isCollection()
+                    && properties[i].isToBeLogged()
+                    && properties[i].isToBeMerged()) {
                 populateAndMergeCollectionTypes(state, propertyValues[i], propertyNames[i], firstName);
             }
 
             // Reading further entity type
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
                     if (obj1 instanceof MeetingBO) {
                         MeetingBO meeting = (MeetingBO) obj1;
-                        if (propertyNames[i].equalsIgnoreCase("meeting") && meeting.getMeetingId() != null) {
+                        if (properties[i].isMeeting() && meeting.getMeetingId() != null) {
                             readMeetingEntity(meeting, propertyNames[i], state);
                         } else {
                             readFurtherMeta(obj1, propertyNames[i], state);
@@ -337,17 +331,17 @@ public class InterceptHelper {
             }
 
             // Reading further component type
-            if (!propertyTypes[i].isEntityType() && propertyTypes[i].isComponentType()
+            if (properties[i].isComponent()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
-                    readFurtherComponenetMeta(obj1, propertyNames[i], state, propertyTypes[i]);
+                    readFurtherComponenetMeta(obj1, propertyNames[i], state, properties[i].getType());
                 }
             }
 
             // Reading further Money type
-            if (!propertyTypes[i].isEntityType() && propertyTypes[i].isComponentType()
+            if (properties[i].isComponent()
                     && !(propertyValues[i] instanceof MasterDataEntity) && (propertyValues[i] instanceof Money)) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
@@ -541,11 +535,10 @@ public class InterceptHelper {
         }
     }
 
-    private void setColumnValues(Type propertyType, String propertyName, String firstName, String state,
-            Object propertyValue) {
-        if (!propertyType.isEntityType() && !propertyType.isComponentType() && !propertyType.isCollectionType()) {
+    private void setColumnValues(AuditProperty property, String firstName, String state, Object propertyValue) {
+        if (property.isSimple()) {
             if (state.equalsIgnoreCase(AuditConstants.TRANSACTIONBEGIN)) {
-                String name = firstName.concat(propertyName);
+                String name = firstName.concat(property.getName());
                 logger.debug("i setColumnValues " + name + " : " + propertyValue);
                 if (AuditConfiguration.checkForPropertyName(entityName, name, localeId)) {
                     String value = AuditConfiguration.getValueOfCorrespondingId(entityName, name, propertyValue,
@@ -568,14 +561,9 @@ public class InterceptHelper {
                         initialValues.put(name, propertyValue);
                     }
                 }
-                String columnName = AuditConfiguration.getColumnNameForPropertyName(entityName, name);
-                if (columnName != null && !columnName.equals("")) {
-                    columnNames.put(name, columnName);
-                } else {
-                    columnNames.put(name, propertyName);
-                }
+                columnNames.put(name, property.getColumnName());
             } else {
-                String name = firstName.concat(propertyName);
+                String name = firstName.concat(property.getName());
                 logger.debug("c setColumnValues " + name + " : " + propertyValue);
                 if (AuditConfiguration.checkForPropertyName(entityName, name, localeId)) {
                     String value = AuditConfiguration.getValueOfCorrespondingId(entityName, name, propertyValue,
@@ -598,12 +586,7 @@ public class InterceptHelper {
                         changedValues.put(name, propertyValue);
                     }
                 }
-                String columnName = AuditConfiguration.getColumnNameForPropertyName(entityName, name);
-                if (columnName != null && !columnName.equals("")) {
-                    columnNames.put(name, columnName);
-                } else {
-                    columnNames.put(name, propertyName);
-                }
+                columnNames.put(name, property.getColumnName());
             }
         }
 
@@ -648,20 +631,18 @@ public class InterceptHelper {
     }
 
     private void readFurtherMetaForCollectionType(Object obj, String firstName, String state) {
-        Class l = getClazz(obj);
-
-        ClassMetadata customMeta = StaticHibernateUtil.getSessionFactory().getClassMetadata(l);
+        AuditEntityMetadata metadata = AuditEntityMetadata.forClass(getClazz(obj), entityName, firstName);
+        ClassMetadata customMeta = metadata.getClassMetadata();
 
         Object[] propertyValues = customMeta.getPropertyValues(obj, EntityMode.POJO);
-        String[] propertyNames = customMeta.getPropertyNames();
-        Type[] propertyTypes = customMeta.getPropertyTypes();
+        String[] propertyNames = metadata.getPropertyNames();
+        AuditProperty[] properties = metadata.getProperties();
 
         setPrimaryKeyValueForCollectionType(customMeta, obj, firstName.concat(customMeta.getIdentifierPropertyName()),
                 state);
 
         for (int i = 0; i < propertyNames.length; i++) {
-            if (!propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
-                    && !propertyTypes[i].isCollectionType()) {
+            if (properties[i].isSimple()) {
                 if (state.equalsIgnoreCase(AuditConstants.TRANSACTIONBEGIN)) {
                     String name = firstName.concat(propertyNames[i]);
                     logger.debug("i readFurtherMetaForCollectionType : " + name + " : " + propertyValues[i]);
@@ -717,12 +698,7 @@ public class InterceptHelper {
                             }
                         }
                     }
-                    String columnName = AuditConfiguration.getColumnNameForPropertyName(entityName, name);
-                    if (columnName != null && !columnName.equals("")) {
-                        columnNames.put(name, columnName);
-                    } else {
-                        columnNames.put(name, propertyNames[i]);
-                    }
+                    columnNames.put(name, properties[i].getColumnName());
                 } else {
                     String name = firstName.concat(propertyNames[i].toString());
                     logger.debug("c readFurtherMetaForCollectionType : " + name + " : " + propertyValues[i]);
@@ -778,30 +754,25 @@ public class InterceptHelper {
                             }
                         }
                     }
-                    String columnName = AuditConfiguration.getColumnNameForPropertyName(entityName, name);
-                    if (columnName != null && !columnName.equals("")) {
-                        columnNames.put(name, columnName);
-                    } else {
-                        columnNames.put(name, propertyNames[i]);
-                    }
+                    columnNames.put(name, properties[i].getColumnName());
                 }
             }
 
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && propertyValues[i] instanceof MasterDataEntity
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 populateValueForObjectsOfTypeMasterDataEntityInCollections(propertyValues[i], state, firstName
                         .concat(propertyNames[i]));
             }
 
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 Object object = propertyValues[i];
                 if (object != null) {
                     if (object instanceof MeetingBO) {
                         MeetingBO meeting = (MeetingBO) object;
-                        if (propertyNames[i].equalsIgnoreCase("meeting") && meeting.getMeetingId() != null) {
+                        if (properties[i].isMeeting() && meeting.getMeetingId() != null) {
                             readMeetingCollection(meeting, propertyNames[i], state);
                         } else {
                             readFurtherMetaForCollectionType(object, propertyNames[i], state);
@@ -824,12 +795,13 @@ public class InterceptHelper {
              */
 
             // Reading further component type
-            if (!propertyTypes[i].isEntityType() && propertyTypes[i].isComponentType()
+            if (properties[i].isComponent()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
-                    readComponenetTypeInCollectionTypeWithoutMerge(obj1, propertyNames[i], state, propertyTypes[i]);
+                    readComponenetTypeInCollectionTypeWithoutMerge(obj1, propertyNames[i], state,
+                            properties[i].getType());
                 }
             }
 
@@ -947,25 +919,23 @@ public class InterceptHelper {
     }
 
     private void readAndMergeCollectionTypes(Object obj, String firstName, String parentName, String state) {
-        Class l = getClazz(obj);
-
-        ClassMetadata customMeta = StaticHibernateUtil.getSessionFactory().getClassMetadata(l);
+        AuditEntityMetadata metadata = AuditEntityMetadata.forClass(getClazz(obj), entityName, firstName);
+        ClassMetadata customMeta = metadata.getClassMetadata();
 
         Object[] propertyValues = customMeta.getPropertyValues(obj, EntityMode.POJO);
-        String[] propertyNames = customMeta.getPropertyNames();
-        Type[] propertyTypes = customMeta.getPropertyTypes();
+        String[] propertyNames = metadata.getPropertyNames();
+        AuditProperty[] properties = metadata.getProperties();
 
         setPrimaryKeyValueForCollectionTypeAndMerge(customMeta, obj, firstName.concat(customMeta
                 .getIdentifierPropertyName()), state);
 
         for (int i = 0; i < propertyNames.length; i++) {
             logger.debug("property Name : " + propertyNames[i] + " value : " + propertyValues[i]);
-            if (!propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
-                    && !propertyTypes[i].isCollectionType()) {
+            if (properties[i].isSimple()) {
                 if (state.equalsIgnoreCase(AuditConstants.TRANSACTIONBEGIN)) {
                     String name = firstName.concat(propertyNames[i]);
                     logger.debug("i readFurtherMetaForCollectionType " + name + " value : " + propertyValues[i]);
-                    if (isValueLoggable(propertyNames[i], firstName)) {
+                    if (properties[i].isValueLoggable()) {
                         if (AuditConfiguration.checkForPropertyName(entityName, name, localeId)) {
                             String value = AuditConfiguration.getValueOfCorrespondingId(entityName, name,
                                     propertyValues[i], localeId);
@@ -989,7 +959,7 @@ public class InterceptHelper {
                 } else {
                     String name = firstName.concat(propertyNames[i].toString());
                     logger.debug("c readFurtherMetaForCollectionType " + name + " value : " + propertyValues[i]);
-                    if (isValueLoggable(propertyNames[i], firstName)) {
+                    if (properties[i].isValueLoggable()) {
                         if (AuditConfiguration.checkForPropertyName(entityName, name, localeId)) {
                             String value = AuditConfiguration.getValueOfCorrespondingId(entityName, name,
                                     propertyValues[i], localeId);
@@ -1011,21 +981,21 @@ public class InterceptHelper {
                 }
             }
 
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && propertyValues[i] instanceof MasterDataEntity
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
 
                 populateAndMergeValueForObjectsOfTypeMasterDataEntityInCollections(propertyValues[i], state, firstName
                         .concat(propertyNames[i]));
             }
-            if (propertyTypes[i].isEntityType() && !propertyTypes[i].isComponentType()
+            if (properties[i].isEntity()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 Object object = propertyValues[i];
                 if (object != null) {
                     if (object instanceof MeetingBO) {
                         MeetingBO meeting = (MeetingBO) object;
-                        if (propertyNames[i].equalsIgnoreCase("meeting") && meeting.getMeetingId() != null) {
+                        if (properties[i].isMeeting() && meeting.getMeetingId() != null) {
                             readAndMergeMeetingCollection(meeting, propertyNames[i], state);
                         } else {
                             readAndMergeCollectionTypes(object, propertyNames[i], firstName, state);
@@ -1047,12 +1017,13 @@ public class InterceptHelper {
              */
 
             // Reading further component type
-            if (!propertyTypes[i].isEntityType() && propertyTypes[i].isComponentType()
+            if (properties[i].isComponent()
                     && !(propertyValues[i] instanceof MasterDataEntity)
-                    && AuditConfiguration.isObjectToBeLogged(entityName, propertyNames[i], firstName)) {
+                    && properties[i].isToBeLogged()) {
                 Object obj1 = propertyValues[i];
                 if (obj1 != null) {
-                    readComponenetTypeInCollectionTypeWithMerge(obj1, propertyNames[i], state, propertyTypes[i]);
+                    readComponenetTypeInCollectionTypeWithMerge(obj1, propertyNames[i], state,
+                            properties[i].getType());
                 }
             }
         }
@@ -1618,13 +1589,11 @@ public class InterceptHelper {
     }
 
     private Class getClazz(Object obj) {
-        try {
-            HibernateProxy hibernateProxy = (HibernateProxy) obj;
-            LazyInitializer lazyInitializer = hibernateProxy.getHibernateLazyInitializer();
+        if (obj instanceof HibernateProxy) {
+            LazyInitializer lazyInitializer = ((HibernateProxy) obj).getHibernateLazyInitializer();
             return lazyInitializer.getPersistentClass();
-        } catch (ClassCastException e) {
-            return obj.getClass();
         }
+        return obj.getClass();
     }
 
     private String getOldValueToKey(Map map, String key) {
@@ -1642,23 +1611,9 @@ public class InterceptHelper {
     }
 
     private boolean isValueLoggable(String propertyName, String parentName) {
-        if (propertyName.equalsIgnoreCase(AuditConstants.VERSIONNO)
-                || propertyName.equalsIgnoreCase(AuditConstants.CREATEDBY)
-                || propertyName.equalsIgnoreCase(AuditConstants.CREATEDDATE)
-                || propertyName.equalsIgnoreCase(AuditConstants.UPDATEDBY)
-                || propertyName.equalsIgnoreCase(AuditConstants.UPDATEDDATE)
-                || propertyName.equalsIgnoreCase(AuditConstants.LOOKUPID)) {
-            return false;
-        }
-        if (parentName != null
-                && AuditConfiguration.getColumnNameForPropertyName(entityName, parentName.concat(propertyName))
-                        .equalsIgnoreCase(XMLConstants.DONOTLOGTHISPROPERTY)) {
-            return false;
-        } else if (AuditConfiguration.getColumnNameForPropertyName(entityName, propertyName).equalsIgnoreCase(
-                XMLConstants.DONOTLOGTHISPROPERTY)) {
-            return false;
-        }
-        return true;
+        return AuditEntityMetadata.isValueLoggable(propertyName, AuditConfiguration.getColumnNameForPropertyName(
+                entityName, propertyName), parentName == null ? null : AuditConfiguration
+                .getColumnNameForPropertyName(entityName, parentName.concat(propertyName)));
     }
 
     private void populateAndMergeCollectionTypes(String state, Object propertyValue, String propertyName,
@@ -132,6 +132,16 @@ public class ClientFileServiceFileSystem implements ClientFileService {
         }
     }
 
+    public StreamedContent getContent(UploadedFileDto uploadedFileDto) {
+        ClientFileEntity clientFile = customerDao.getUploadedFile(uploadedFileDto.getUploadedFileId());
+        if (clientFile == null || clientFile.getFileInfo() == null) {
+            return null;
+        }
+        final String path = viewOrganizationSettingsServiceFacade.getClientStorageDirectory() + File.separator
+                + clientFile.getClientId().toString() + File.separator + clientFile.getFileInfo().getName();
+        return FileStorageManager.getContent(path, clientFile.getFileInfo().getContentType());
+    }
+
     public boolean checkIfFileExists(Integer clientId, String fileName) {
         String storageDir = viewOrganizationSettingsServiceFacade.getClientStorageDirectory();
         String fileDir = storageDir + File.separator + clientId.toString();
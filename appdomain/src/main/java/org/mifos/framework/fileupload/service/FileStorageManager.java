@@ -63,6 +63,18 @@ public class FileStorageManager {
         return data;
     }
 
+    /**
+     * @return the file to be streamed, or null if it does not exist
+     */
+    public static StreamedContent getContent(String path, String contentType) {
+        File file = new File(path);
+        if (!file.isFile()) {
+            logger.error("Error reading file " + path);
+            return null;
+        }
+        return new FileStreamedContent(file, contentType);
+    }
+
     public static boolean delete(String path) {
         return FileUtils.deleteQuietly(new File(path));
     }
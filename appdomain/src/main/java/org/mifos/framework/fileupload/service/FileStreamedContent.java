@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.fileupload.service;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A file in the filesystem, written with {@link FileChannel#transferTo} so that the operating system can copy it
+ * straight to the target without it passing through the heap.
+ */
+public class FileStreamedContent implements StreamedContent {
+
+    private final File file;
+    private final String contentType;
+    private final long length;
+    private final long lastModified;
+
+    public FileStreamedContent(File file, String contentType) {
+        this.file = file;
+        this.contentType = contentType;
+        this.length = file.length();
+        this.lastModified = file.lastModified();
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public long getLength() {
+        return this.length;
+    }
+
+    @Override
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    @Override
+    public String getETag() {
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+    }
+
+    @Override
+    public File getFile() {
+        return this.file;
+    }
+
+    @Override
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            long written = 0;
+            while (written < count) {
+                long transferred = channel.transferTo(position + written, count - written, target);
+                if (transferred <= 0) {
+                    throw new EOFException(file.getPath() + " is shorter than " + (position + count) + " bytes");
+                }
+                written += transferred;
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -132,6 +132,16 @@ public class LoanFileServiceFileSystem implements LoanFileService {
         }
     }
 
+    public StreamedContent getContent(UploadedFileDto uploadedFileDto) {
+        LoanFileEntity loanFile = loanDao.getUploadedFile(uploadedFileDto.getUploadedFileId());
+        if (loanFile == null || loanFile.getFileInfo() == null) {
+            return null;
+        }
+        final String path = viewOrganizationSettingsServiceFacade.getLoanStorageDirectory() + File.separator
+                + loanFile.getLoanId().toString() + File.separator + loanFile.getFileInfo().getName();
+        return FileStorageManager.getContent(path, loanFile.getFileInfo().getContentType());
+    }
+
     public boolean checkIfFileExists(Integer accountId, String fileName) {
         String storageDir = viewOrganizationSettingsServiceFacade.getLoanStorageDirectory();
         String fileDir = storageDir + File.separator + accountId.toString();
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.hibernate.helper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.transaction.Synchronization;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entry point for the second level cache regions declared in hibernate.cfg.xml and sized in ehcache.xml.
+ *
+ * Changes made through a hibernate session invalidate the affected regions automatically. The evict methods are for
+ * the few places that write cached rows without going through the owning entity or collection (for example the
+ * lookup value locale rows created by {@link org.mifos.application.master.persistence.LegacyMasterDao} or the
+ * activities inserted over JDBC by {@link org.mifos.security.AddActivity}), and for the admin service facades, which
+ * evict the regions of the offices, products, fees and payment types they change once their transaction has
+ * committed. Rows are only visible to other sessions once they are committed, so eviction has to wait for the commit
+ * too (see {@link #evictLookUpValueLocalesOnCompletion(Integer)}).
+ */
+public final class SecondLevelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCache.class);
+
+    public static final String LOOKUP_VALUES_REGION = "mifos.lookUpValues";
+    public static final String PAYMENT_TYPES_REGION = "mifos.paymentTypes";
+    public static final String OFFICES_REGION = "mifos.offices";
+    public static final String PRODUCTS_REGION = "mifos.products";
+    public static final String FEES_REGION = "mifos.fees";
+    public static final String MEETINGS_REGION = "mifos.meetings";
+    public static final String ROLES_REGION = "mifos.rolesAndActivities";
+    public static final String LOOKUP_VALUE_LOCALES_REGION = "mifos.lookUpValues.locales";
+    public static final String PERSONNEL_ROLES_REGION = "mifos.rolesAndActivities.personnelRoles";
+    public static final String ROLE_ACTIVITIES_REGION = "mifos.rolesAndActivities.activities";
+
+    public static final List<String> REGIONS = Collections.unmodifiableList(Arrays.asList(LOOKUP_VALUES_REGION,
+            LOOKUP_VALUE_LOCALES_REGION, PAYMENT_TYPES_REGION, OFFICES_REGION, PRODUCTS_REGION, FEES_REGION,
+            MEETINGS_REGION, ROLES_REGION, PERSONNEL_ROLES_REGION, ROLE_ACTIVITIES_REGION));
+
+    private static final String LOOKUP_VALUE_ENTITY = "org.mifos.application.master.business.LookUpValueEntity";
+    private static final String LOOKUP_VALUE_LOCALE_ENTITY = "org.mifos.application.master.business.LookUpValueLocaleEntity";
+    private static final String LOOKUP_VALUE_LOCALES_COLLECTION = LOOKUP_VALUE_ENTITY + ".lookUpValueLocales";
+    private static final String PAYMENT_TYPE_ENTITY = "org.mifos.application.master.business.PaymentTypeEntity";
+    private static final String OFFICE_ENTITY = "org.mifos.customers.office.business.OfficeBO";
+    private static final String PRODUCT_ENTITY = "org.mifos.accounts.productdefinition.business.PrdOfferingBO";
+    private static final String FEE_ENTITY = "org.mifos.accounts.fees.business.FeeBO";
+    private static final String ROLE_ENTITY = "org.mifos.security.rolesandpermission.business.RoleBO";
+    private static final String ROLE_ACTIVITIES_COLLECTION = ROLE_ENTITY + ".activities";
+    private static final String PERSONNEL_ROLES_COLLECTION = "org.mifos.customers.personnel.business.PersonnelBO.personnelRoles";
+
+    private SecondLevelCache() {
+    }
+
+    public static void evictLookUpValues() {
+        Cache cache = getCache();
+        cache.evictEntityRegion(LOOKUP_VALUE_ENTITY);
+        cache.evictEntityRegion(LOOKUP_VALUE_LOCALE_ENTITY);
+        cache.evictCollectionRegion(LOOKUP_VALUE_LOCALES_COLLECTION);
+    }
+
+    /**
+     * Evicts the cached locale collection of a single lookup value, used after a locale row was inserted directly
+     * rather than through {@code LookUpValueEntity.getLookUpValueLocales()}.
+     */
+    public static void evictLookUpValueLocales(Integer lookUpId) {
+        if (lookUpId != null) {
+            getCache().evictCollection(LOOKUP_VALUE_LOCALES_COLLECTION, lookUpId);
+        }
+    }
+
+    /**
+     * Evicts the cached locale collection of a single lookup value once the current transaction completes. Evicting
+     * before the commit would let another session cache the collection again without the uncommitted row.
+     */
+    public static void evictLookUpValueLocalesOnCompletion(final Integer lookUpId) {
+        if (lookUpId == null) {
+            return;
+        }
+        Transaction transaction = StaticHibernateUtil.getSessionTL().getTransaction();
+        if (!transaction.isActive()) {
+            evictLookUpValueLocales(lookUpId);
+            return;
+        }
+        transaction.registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                evictLookUpValueLocales(lookUpId);
+            }
+        });
+    }
+
+    public static void evictPaymentTypes() {
+        getCache().evictEntityRegion(PAYMENT_TYPE_ENTITY);
+    }
+
+    public static void evictOffices() {
+        getCache().evictEntityRegion(OFFICE_ENTITY);
+    }
+
+    public static void evictProducts() {
+        getCache().evictEntityRegion(PRODUCT_ENTITY);
+    }
+
+    public static void evictFees() {
+        getCache().evictEntityRegion(FEE_ENTITY);
+    }
+
+    public static void evictRolesAndActivities() {
+        Cache cache = getCache();
+        cache.evictEntityRegion(ROLE_ENTITY);
+        cache.evictCollectionRegion(ROLE_ACTIVITIES_COLLECTION);
+        cache.evictCollectionRegion(PERSONNEL_ROLES_COLLECTION);
+    }
+
+    public static void evictAll() {
+        Cache cache = getCache();
+        cache.evictEntityRegions();
+        cache.evictCollectionRegions();
+        cache.evictQueryRegions();
+        logger.info("Evicted all second level cache regions");
+    }
+
+    /**
+     * Hit, miss and put counts plus the in-memory element count of every mifos cache region, keyed by region name.
+     * The counts stay at zero unless hibernate statistics are enabled (database.hibernate.generate_statistics).
+     */
+    public static Map<String, RegionStatistics> getRegionStatistics() {
+        Statistics statistics = getSessionFactory().getStatistics();
+        Map<String, RegionStatistics> regionStatistics = new LinkedHashMap<String, RegionStatistics>();
+        for (String region : REGIONS) {
+            SecondLevelCacheStatistics cacheStatistics = statistics.getSecondLevelCacheStatistics(region);
+            if (cacheStatistics != null) {
+                regionStatistics.put(region, new RegionStatistics(region, cacheStatistics.getHitCount(),
+                        cacheStatistics.getMissCount(), cacheStatistics.getPutCount(),
+                        cacheStatistics.getElementCountInMemory()));
+            }
+        }
+        return regionStatistics;
+    }
+
+    private static Cache getCache() {
+        return getSessionFactory().getCache();
+    }
+
+    private static SessionFactory getSessionFactory() {
+        return StaticHibernateUtil.getSessionFactory();
+    }
+
+    public static class RegionStatistics {
+
+        private final String region;
+        private final long hitCount;
+        private final long missCount;
+        private final long putCount;
+        private final long elementCountInMemory;
+
+        public RegionStatistics(String region, long hitCount, long missCount, long putCount, long elementCountInMemory) {
+            this.region = region;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.putCount = putCount;
+            this.elementCountInMemory = elementCountInMemory;
+        }
+
+        public String getRegion() {
+            return this.region;
+        }
+
+        public long getHitCount() {
+            return this.hitCount;
+        }
+
+        public long getMissCount() {
+            return this.missCount;
+        }
+
+        public long getPutCount() {
+            return this.putCount;
+        }
+
+        public long getElementCountInMemory() {
+            return this.elementCountInMemory;
+        }
+
+        public double getHitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0d : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return region + ": hits=" + hitCount + ", misses=" + missCount + ", puts=" + putCount + ", elements="
+                    + elementCountInMemory;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.image.service;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Blob;
+import java.sql.SQLException;
+
+import org.mifos.framework.fileupload.service.StreamedContent;
+
+/**
+ * A picture held in the database, read from the blob's stream a buffer at a time instead of with
+ * {@link Blob#getBytes}. The blob must be read while the session that loaded it is open.
+ */
+public class BlobStreamedContent implements StreamedContent {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Blob blob;
+    private final String contentType;
+    private final long length;
+
+    public BlobStreamedContent(Blob blob, String contentType) throws SQLException {
+        this.blob = blob;
+        this.contentType = contentType;
+        this.length = blob.length();
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Pictures in the database carry no modification time.
+     */
+    @Override
+    public long getLastModified() {
+        return -1;
+    }
+
+    @Override
+    public String getETag() {
+        return null;
+    }
+
+    @Override
+    public File getFile() {
+        return null;
+    }
+
+    @Override
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        InputStream in;
+        try {
+            in = blob.getBinaryStream();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        try {
+            long skipped = 0;
+            while (skipped < position) {
+                long n = in.skip(position - skipped);
+                if (n <= 0) {
+                    throw new EOFException("Picture is shorter than " + position + " bytes");
+                }
+                skipped += n;
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Picture is shorter than " + (position + count) + " bytes");
+                }
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    target.write(byteBuffer);
+                }
+                remaining -= read;
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
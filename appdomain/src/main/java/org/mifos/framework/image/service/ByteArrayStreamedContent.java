@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.image.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.mifos.framework.fileupload.service.StreamedContent;
+
+/**
+ * Content already held in memory, such as a scaled down client photo.
+ */
+public class ByteArrayStreamedContent implements StreamedContent {
+
+    private final byte[] data;
+    private final String contentType;
+    private final long lastModified;
+    private final String eTag;
+
+    public ByteArrayStreamedContent(byte[] data, String contentType, long lastModified, String eTag) {
+        this.data = data.clone();
+        this.contentType = contentType;
+        this.lastModified = lastModified;
+        this.eTag = eTag;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public long getLength() {
+        return data.length;
+    }
+
+    @Override
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    @Override
+    public String getETag() {
+        return this.eTag;
+    }
+
+    @Override
+    public File getFile() {
+        return null;
+    }
+
+    @Override
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(data, (int) position, (int) count);
+        while (byteBuffer.hasRemaining()) {
+            target.write(byteBuffer);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.mifos.framework.image.service;
 
 import java.io.InputStream;
 
+import org.mifos.framework.fileupload.service.StreamedContent;
 import org.mifos.framework.image.domain.ClientPhoto;
 
 public interface ClientPhotoService {
@@ -16,4 +17,9 @@ public interface ClientPhotoService {
 
     byte[] getData(ClientPhoto clientPhoto);
 
+    /**
+     * @return the stored photo, to be streamed rather than read into memory, or null if there is none
+     */
+    StreamedContent getContent(ClientPhoto clientPhoto);
+
 }
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.mifos.accounts.savings.persistence.GenericDao;
 import org.mifos.customers.client.business.CustomerPictureEntity;
 import org.mifos.customers.persistence.CustomerDao;
+import org.mifos.framework.fileupload.service.StreamedContent;
 import org.mifos.framework.hibernate.helper.HibernateTransactionHelper;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.image.domain.ClientPhoto;
@@ -131,6 +132,7 @@ public class ClientPhotoServiceDatabase implements ClientPhotoService {
                 transactionStarted = true;
                 this.genericDao.createOrUpdate(clientPhoto);
                 this.hibernateTransactionHelper.commitTransaction();
+                ClientPhotoThumbnails.invalidate(clientId);
             }
         } catch (Exception ex) {
             if (transactionStarted) {
@@ -156,6 +158,7 @@ public class ClientPhotoServiceDatabase implements ClientPhotoService {
                 this.genericDao.delete(clientPhoto.getImageInfo().getCustomerPictureEntity());
                 this.genericDao.delete(clientPhoto);
                 this.hibernateTransactionHelper.commitTransaction();
+                ClientPhotoThumbnails.invalidate(clientId);
             }
         } catch (Exception ex) {
             if (transactionStarted) {
@@ -190,6 +193,24 @@ public class ClientPhotoServiceDatabase implements ClientPhotoService {
         return output;
     }
     
+    @Override
+    public StreamedContent getContent(ClientPhoto clientPhoto) {
+        if (clientPhoto == null || clientPhoto.getImageInfo() == null
+                || clientPhoto.getImageInfo().getCustomerPictureEntity() == null) {
+            return null;
+        }
+        final Blob picture = clientPhoto.getImageInfo().getCustomerPictureEntity().getPicture();
+        if (picture == null) {
+            return null;
+        }
+        try {
+            return new BlobStreamedContent(picture, clientPhoto.getImageInfo().getContentType());
+        } catch (SQLException ex) {
+            LOG.error("Unable to read picture", ex);
+            return null;
+        }
+    }
+
     private String determineContentType(InputStream in) throws IOException {
         String contentType = URLConnection.guessContentTypeFromStream(in);
         if (contentType == null) {
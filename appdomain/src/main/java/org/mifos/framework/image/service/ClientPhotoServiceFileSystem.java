@@ -5,6 +5,7 @@ import java.io.InputStream;
 
 import org.mifos.accounts.savings.persistence.GenericDao;
 import org.mifos.customers.client.util.helpers.ClientConstants;
+import org.mifos.framework.fileupload.service.StreamedContent;
 import org.mifos.framework.hibernate.helper.HibernateTransactionHelper;
 import org.mifos.framework.image.domain.ClientPhoto;
 import org.mifos.framework.image.domain.ImageInfo;
@@ -73,6 +74,7 @@ public class ClientPhotoServiceFileSystem implements ClientPhotoService {
             hibernateTransactionHelper.startTransaction();
             genericDao.getSession().save(updateImageInfo);
             hibernateTransactionHelper.commitTransaction();
+            ClientPhotoThumbnails.invalidate(clientId);
 
         } catch (IOException e) {
             LOG.error("Unable to persist", e);
@@ -93,6 +95,7 @@ public class ClientPhotoServiceFileSystem implements ClientPhotoService {
         hibernateTransactionHelper.startTransaction();
         genericDao.getSession().delete(clientPhoto);
         hibernateTransactionHelper.commitTransaction();
+        ClientPhotoThumbnails.invalidate(clientId);
         return ImageStorageManager.delete(imageInfo.getPath());
     }
 
@@ -105,4 +108,13 @@ public class ClientPhotoServiceFileSystem implements ClientPhotoService {
             return ImageStorageManager.getData(path);
         }
     }
+
+    @Override
+    public StreamedContent getContent(ClientPhoto clientPhoto) {
+        if (clientPhoto == null || clientPhoto.getImageInfo() == null) {
+            return null;
+        }
+        ImageInfo imageInfo = clientPhoto.getImageInfo();
+        return ImageStorageManager.getContent(imageInfo.getPath(), imageInfo.getContentType());
+    }
 }
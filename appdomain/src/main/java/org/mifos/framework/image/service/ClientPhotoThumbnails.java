@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.image.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import javax.imageio.ImageIO;
+
+import org.mifos.config.cache.BoundedCache;
+import org.mifos.framework.fileupload.service.StreamedContent;
+
+/**
+ * Scaled down copies of client photos, kept in memory so that a page showing many clients does not send every photo
+ * at full size. A photo is scaled the first time it is asked for at a given width; the copy is dropped when the
+ * photo is updated or deleted, or when the stored photo no longer has the entity tag it was scaled from.
+ */
+public final class ClientPhotoThumbnails {
+
+    public static final String NAME = "clientPhotoThumbnails";
+    public static final int MAX_SIZE = 1000;
+
+    private static final String CONTENT_TYPE = "image/png";
+
+    private static final BoundedCache<Long, Thumbnail> cache = new BoundedCache<Long, Thumbnail>(NAME, MAX_SIZE,
+            BoundedCache.NO_EXPIRY);
+
+    private ClientPhotoThumbnails() {
+        // utility class
+    }
+
+    /**
+     * @return the photo scaled down to the given width, or the photo itself if it is no wider or cannot be decoded
+     */
+    public static StreamedContent get(Long clientId, StreamedContent photo, int width) throws IOException {
+        if (width <= 0) {
+            return photo;
+        }
+        Thumbnail thumbnail = cache.get(clientId);
+        if (thumbnail == null || !thumbnail.isScaledFrom(photo.getETag(), width)) {
+            thumbnail = new Thumbnail(photo.getETag(), width, scale(photo, width));
+            cache.put(clientId, thumbnail);
+        }
+        return thumbnail.getContent() == null ? photo : thumbnail.getContent();
+    }
+
+    public static void invalidate(Long clientId) {
+        cache.invalidate(clientId);
+    }
+
+    private static StreamedContent scale(StreamedContent photo, int width) throws IOException {
+        ByteArrayOutputStream original = new ByteArrayOutputStream((int) photo.getLength());
+        photo.transferTo(0, photo.getLength(), Channels.newChannel(original));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(original.toByteArray()));
+        if (image == null || image.getWidth() <= width) {
+            return null;
+        }
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", out);
+        String eTag = photo.getETag() == null ? null : photo.getETag().substring(0, photo.getETag().length() - 1)
+                + "-w" + width + "\"";
+        return new ByteArrayStreamedContent(out.toByteArray(), CONTENT_TYPE, photo.getLastModified(), eTag);
+    }
+
+    static final class Thumbnail {
+        private final String sourceETag;
+        private final int width;
+        private final StreamedContent content;
+
+        Thumbnail(String sourceETag, int width, StreamedContent content) {
+            this.sourceETag = sourceETag;
+            this.width = width;
+            this.content = content;
+        }
+
+        boolean isScaledFrom(String eTag, int scaledWidth) {
+            return width == scaledWidth && (sourceETag == null ? eTag == null : sourceETag.equals(eTag));
+        }
+
+        /**
+         * @return the scaled photo, or null if the photo is served as it is
+         */
+        StreamedContent getContent() {
+            return this.content;
+        }
+    }
+}
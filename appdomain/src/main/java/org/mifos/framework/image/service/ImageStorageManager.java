@@ -10,6 +10,8 @@ import org.apache.commons.lang.RandomStringUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.RandomUtils;
 import org.mifos.config.business.MifosConfigurationManager;
+import org.mifos.framework.fileupload.service.FileStreamedContent;
+import org.mifos.framework.fileupload.service.StreamedContent;
 import org.mifos.framework.image.domain.ImageInfo;
 import org.mifos.framework.util.ConfigurationLocator;
 import org.slf4j.Logger;
@@ -102,6 +104,21 @@ public class ImageStorageManager {
         return data;
     }
 
+    /**
+     * @return the stored image to be streamed, or null if there is no image at the path
+     */
+    public static StreamedContent getContent(String path, String contentType) {
+        if (path == null) {
+            return null;
+        }
+        File file = new File(getStorageLocation() + path);
+        if (!file.isFile()) {
+            LOG.error("Image storage moved !!!" + path);
+            return null;
+        }
+        return new FileStreamedContent(file, contentType);
+    }
+
     public static boolean delete(String path) {
         return FileUtils.deleteQuietly(new File(getStorageLocation() + path));
     }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.persistence;
+
+import java.beans.PropertyVetoException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifos.core.MifosRuntimeException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+
+/**
+ * A {@link DriverManagerDataSource} whose connections come from a bounded c3p0 pool instead of a new physical
+ * connection per {@link #getConnection()}.
+ * <p>
+ * Extending {@link DriverManagerDataSource} keeps the url and credentials readable by code that casts the
+ * <code>dataSource</code> and <code>dataSourcePentahoDW</code> beans (e.g. the ETL batch job). Connections must be
+ * closed by the caller so they are returned to the pool.
+ */
+public class PooledDriverManagerDataSource extends DriverManagerDataSource implements DisposableBean {
+
+    private final ComboPooledDataSource pool = new ComboPooledDataSource();
+
+    private final AtomicLong connectionRequests = new AtomicLong();
+    private final AtomicLong totalWaitTimeMillis = new AtomicLong();
+    private final AtomicLong maxWaitTimeMillis = new AtomicLong();
+
+    public PooledDriverManagerDataSource() {
+        super();
+    }
+
+    @Override
+    public void setDriverClassName(String driverClassName) {
+        super.setDriverClassName(driverClassName);
+        try {
+            pool.setDriverClass(driverClassName);
+        } catch (PropertyVetoException e) {
+            throw new MifosRuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setUrl(String url) {
+        super.setUrl(url);
+        pool.setJdbcUrl(url);
+    }
+
+    @Override
+    public void setUsername(String username) {
+        super.setUsername(username);
+        pool.setUser(username);
+    }
+
+    @Override
+    public void setPassword(String password) {
+        super.setPassword(password);
+        pool.setPassword(password);
+    }
+
+    public void setPoolName(String poolName) {
+        pool.setDataSourceName(poolName);
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        pool.setMinPoolSize(minPoolSize);
+        pool.setInitialPoolSize(minPoolSize);
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        pool.setMaxPoolSize(maxPoolSize);
+    }
+
+    public void setAcquireIncrement(int acquireIncrement) {
+        pool.setAcquireIncrement(acquireIncrement);
+    }
+
+    /**
+     * Size of the prepared statement cache shared by all pooled connections; 0 disables statement caching.
+     */
+    public void setMaxStatements(int maxStatements) {
+        pool.setMaxStatements(maxStatements);
+    }
+
+    public void setMaxStatementsPerConnection(int maxStatementsPerConnection) {
+        pool.setMaxStatementsPerConnection(maxStatementsPerConnection);
+    }
+
+    /**
+     * Seconds a connection can stay idle in the pool before it is discarded; 0 means never.
+     */
+    public void setMaxIdleTime(int maxIdleTime) {
+        pool.setMaxIdleTime(maxIdleTime);
+    }
+
+    /**
+     * Seconds between validations of idle connections with {@link #setPreferredTestQuery(String)}.
+     */
+    public void setIdleConnectionTestPeriod(int idleConnectionTestPeriod) {
+        pool.setIdleConnectionTestPeriod(idleConnectionTestPeriod);
+    }
+
+    public void setPreferredTestQuery(String preferredTestQuery) {
+        pool.setPreferredTestQuery(preferredTestQuery);
+    }
+
+    public void setTestConnectionOnCheckin(boolean testConnectionOnCheckin) {
+        pool.setTestConnectionOnCheckin(testConnectionOnCheckin);
+    }
+
+    /**
+     * Seconds after which a connection that was not returned to the pool is considered leaked and closed; 0 disables
+     * leak detection. The stack trace of the code that checked out a leaked connection is logged.
+     */
+    public void setUnreturnedConnectionTimeout(int unreturnedConnectionTimeout) {
+        pool.setUnreturnedConnectionTimeout(unreturnedConnectionTimeout);
+        pool.setDebugUnreturnedConnectionStackTraces(unreturnedConnectionTimeout > 0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.currentTimeMillis();
+        Connection connection = pool.getConnection();
+        recordWaitTime(System.currentTimeMillis() - start);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.currentTimeMillis();
+        Connection connection = pool.getConnection(username, password);
+        recordWaitTime(System.currentTimeMillis() - start);
+        return connection;
+    }
+
+    private void recordWaitTime(long waitTimeMillis) {
+        connectionRequests.incrementAndGet();
+        totalWaitTimeMillis.addAndGet(waitTimeMillis);
+        long max = maxWaitTimeMillis.get();
+        while (waitTimeMillis > max && !maxWaitTimeMillis.compareAndSet(max, waitTimeMillis)) {
+            max = maxWaitTimeMillis.get();
+        }
+    }
+
+    public int getNumActiveConnections() throws SQLException {
+        return pool.getNumBusyConnectionsDefaultUser();
+    }
+
+    public int getNumIdleConnections() throws SQLException {
+        return pool.getNumIdleConnectionsDefaultUser();
+    }
+
+    public int getNumConnections() throws SQLException {
+        return pool.getNumConnectionsDefaultUser();
+    }
+
+    public int getNumThreadsAwaitingConnection() throws SQLException {
+        return pool.getNumThreadsAwaitingCheckoutDefaultUser();
+    }
+
+    public int getNumLeakedConnections() throws SQLException {
+        return pool.getNumUnclosedOrphanedConnectionsDefaultUser();
+    }
+
+    public long getConnectionRequests() {
+        return connectionRequests.get();
+    }
+
+    public long getAverageWaitTimeMillis() {
+        long requests = connectionRequests.get();
+        return requests == 0 ? 0 : totalWaitTimeMillis.get() / requests;
+    }
+
+    public long getMaxWaitTimeMillis() {
+        return maxWaitTimeMillis.get();
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.util.helpers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.mifos.application.master.business.MifosCurrency;
+import org.mifos.core.CurrencyMismatchException;
+
+/**
+ * A running total of {@link Money} amounts in one currency, for loops that add up many installments.
+ * <p>
+ * Every {@link Money#add(Money)} creates a new {@link BigDecimal} and a new {@link Money}. This class instead keeps the
+ * total as two <code>long</code>s, the whole units and the fraction at the internal precision of {@link Money}, and
+ * carries between them. It only falls back to a {@link BigDecimal} once the whole units no longer fit in a
+ * <code>long</code>. Adding amounts at the internal precision is exact, so {@link #toMoney()} gives exactly the amount
+ * that adding the same values with {@link Money#add(Money)} would. Unlike {@link Money}, an accumulator is mutable and
+ * must not be shared between threads.
+ */
+public final class MoneyAccumulator {
+
+    private static final int SCALE = Money.getInternalPrecision();
+
+    /**
+     * One whole unit in units of the fraction.
+     */
+    private static final long ONE = BigInteger.TEN.pow(SCALE).longValue();
+    private static final BigInteger ONE_AS_BIG_INTEGER = BigInteger.valueOf(ONE);
+
+    /**
+     * Unscaled amounts shorter than this have a whole part that fits in a <code>long</code>.
+     */
+    private static final int MAX_UNSCALED_BIT_LENGTH = Long.SIZE - 1 + ONE_AS_BIG_INTEGER.bitLength() - 1;
+
+    private final MifosCurrency currency;
+
+    private long units;
+
+    /**
+     * Always less than {@link #ONE} in magnitude, and never of the opposite sign to {@link #units}.
+     */
+    private long fraction;
+
+    /**
+     * The total, once it no longer fits in {@link #units} and {@link #fraction}.
+     */
+    private BigDecimal overflowTotal;
+
+    public MoneyAccumulator(MifosCurrency currency) {
+        if (currency == null) {
+            throw new NullPointerException(ExceptionConstants.CURRENCY_MUST_NOT_BE_NULL);
+        }
+        this.currency = currency;
+    }
+
+    public MifosCurrency getCurrency() {
+        return this.currency;
+    }
+
+    /**
+     * Like {@link Money#add(Money)}, a null amount is ignored.
+     */
+    public MoneyAccumulator add(Money money) {
+        if (money != null) {
+            checkCurrency(money);
+            accumulate(money.getAmount(), false);
+        }
+        return this;
+    }
+
+    /**
+     * Like {@link Money#subtract(Money)}, a null amount is ignored.
+     */
+    public MoneyAccumulator subtract(Money money) {
+        if (money != null) {
+            checkCurrency(money);
+            accumulate(money.getAmount(), true);
+        }
+        return this;
+    }
+
+    public Money toMoney() {
+        return new Money(currency, getAmount());
+    }
+
+    public BigDecimal getAmount() {
+        if (overflowTotal != null) {
+            return overflowTotal;
+        }
+        return BigDecimal.valueOf(units).add(BigDecimal.valueOf(fraction, SCALE));
+    }
+
+    public void reset() {
+        units = 0;
+        fraction = 0;
+        overflowTotal = null;
+    }
+
+    // Exposed for testing
+    boolean isOverflowed() {
+        return overflowTotal != null;
+    }
+
+    private void accumulate(BigDecimal amount, boolean negate) {
+        if (amount.signum() == 0) {
+            return;
+        }
+        if (overflowTotal == null && amount.scale() == SCALE) {
+            // the BigDecimal's own digits for large amounts, a small BigInteger for the others
+            BigInteger unscaled = amount.unscaledValue();
+            int bitLength = unscaled.bitLength();
+            if (bitLength < Long.SIZE) {
+                long value = unscaled.longValue();
+                if (accumulate(value / ONE, value % ONE, negate)) {
+                    return;
+                }
+            } else if (bitLength < MAX_UNSCALED_BIT_LENGTH) {
+                BigInteger[] unitsAndFraction = unscaled.divideAndRemainder(ONE_AS_BIG_INTEGER);
+                if (accumulate(unitsAndFraction[0].longValue(), unitsAndFraction[1].longValue(), negate)) {
+                    return;
+                }
+            }
+        }
+        BigDecimal total = getAmount();
+        overflowTotal = negate ? total.subtract(amount) : total.add(amount);
+    }
+
+    /**
+     * @return false, leaving the total unchanged, if the whole units of the new total do not fit in a long
+     */
+    private boolean accumulate(long amountUnits, long amountFraction, boolean negate) {
+        // amountUnits is at most Long.MAX_VALUE / ONE in magnitude, so negating it cannot overflow
+        long addedUnits = negate ? -amountUnits : amountUnits;
+        long newFraction = fraction + (negate ? -amountFraction : amountFraction);
+        long carry = newFraction / ONE;
+        newFraction %= ONE;
+
+        long newUnits = units + addedUnits;
+        if (((units ^ newUnits) & (addedUnits ^ newUnits)) < 0) {
+            return false;
+        }
+        long carriedUnits = newUnits + carry;
+        if (((newUnits ^ carriedUnits) & (carry ^ carriedUnits)) < 0) {
+            return false;
+        }
+        // give the fraction the sign of the units, so that both stay within range
+        if (carriedUnits > 0 && newFraction < 0) {
+            carriedUnits--;
+            newFraction += ONE;
+        } else if (carriedUnits < 0 && newFraction > 0) {
+            carriedUnits++;
+            newFraction -= ONE;
+        }
+        units = carriedUnits;
+        fraction = newFraction;
+        return true;
+    }
+
+    private void checkCurrency(Money money) {
+        if (!currency.getCurrencyId().equals(money.getCurrency().getCurrencyId())) {
+            throw new CurrencyMismatchException(ExceptionConstants.ILLEGALMONEYOPERATION);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.sql.Types;
 
 import org.mifos.application.master.business.LookUpEntity;
 import org.mifos.config.Localization;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.persistence.Upgrade;
 import org.mifos.security.rolesandpermission.util.helpers.RolesAndPermissionConstants;
 
@@ -116,6 +117,17 @@ public class AddActivity extends Upgrade {
             deleteFromLookupValue(connection, (short) lookupId);
             throw e;
         }
+        evictCachedActivities();
+    }
+
+    /**
+     * The rows above are written with plain JDBC, so the second level cache does not know that the cached roles,
+     * activities and lookup values are out of date. Upgrades run before the application serves requests, so no other
+     * session can cache the old rows again before the upgrade is committed.
+     */
+    private static void evictCachedActivities() {
+        SecondLevelCache.evictRolesAndActivities();
+        SecondLevelCache.evictLookUpValues();
     }
 
     private void allowActivity(Connection connection, short activityId, int roleId) throws SQLException {
@@ -163,6 +175,7 @@ public class AddActivity extends Upgrade {
             throws SQLException {
         int lookupId = findLookupId(connection, activity);
         updateMessage(connection, lookupId, locale, newMessage);
+        evictCachedActivities();
     }
 
     public static void reparentActivity(Connection connection, short activityId, Short newParent) throws SQLException {
@@ -172,6 +185,7 @@ public class AddActivity extends Upgrade {
         statement.setShort(2, activityId);
         statement.executeUpdate();
         statement.close();
+        evictCachedActivities();
     }
 
 }
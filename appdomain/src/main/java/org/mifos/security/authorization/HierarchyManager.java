@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.mifos.config.cache.CacheRepository;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.office.exceptions.OfficeException;
 import org.mifos.customers.office.persistence.OfficePersistence;
@@ -70,6 +71,9 @@ public class HierarchyManager implements Observer {
         } else if (e.getEventType().equals(Constants.UPDATE)) {
             updateMapForUpdateEvent(officeList);
         }
+        for (OfficeCacheDto office : officeList) {
+            CacheRepository.getInstance().invalidateOffice(office.getOfficeId());
+        }
 
         logger.info("Map after " + hierarchyMap);
     }
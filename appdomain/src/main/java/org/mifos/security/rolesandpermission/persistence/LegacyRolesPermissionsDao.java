@@ -48,6 +48,7 @@ import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.exceptions.SecurityException;
 import org.mifos.framework.exceptions.ServiceException;
 import org.mifos.framework.exceptions.SystemException;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.persistence.LegacyGenericDao;
 import org.mifos.framework.util.helpers.SearchUtils;
@@ -392,7 +393,7 @@ public class LegacyRolesPermissionsDao extends LegacyGenericDao {
         lookUpValueLocaleEntity.setLocaleId(Localization.ENGLISH_LOCALE_ID);
         lookUpValueLocaleEntity.setLookUpValue(lookUpDescription);
         createOrUpdate(lookUpValueLocaleEntity);
-
+        SecondLevelCache.evictLookUpValueLocalesOnCompletion(lookUpId);
     }
 
     private int createLookUpValue(DynamicLookUpValueCreationTypes type, String lookUpDescription)
@@ -28,11 +28,14 @@ import java.util.List;
 
 import javax.servlet.ServletContext;
 
+import org.mifos.application.admin.servicefacade.BatchjobRunDto;
 import org.mifos.application.admin.servicefacade.BatchjobsDto;
 import org.mifos.application.admin.servicefacade.BatchjobsSchedulerDto;
 import org.mifos.application.admin.servicefacade.BatchjobsServiceFacade;
 import org.mifos.application.master.MessageLookup;
 import org.mifos.application.servicefacade.ApplicationContextProvider;
+import org.mifos.framework.components.batchjobs.BatchJobMetrics;
+import org.mifos.framework.components.batchjobs.MifosBatchJob;
 import org.mifos.framework.components.batchjobs.MifosScheduler;
 import org.mifos.framework.components.batchjobs.exceptions.TaskSystemException;
 import org.quartz.CronTrigger;
@@ -41,6 +44,9 @@ import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.SimpleTrigger;
 import org.quartz.Trigger;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
 
 public class BatchjobsServiceFacadeWebTier implements BatchjobsServiceFacade{
     private final String CRON_TRIGGER = "CronTrigger";
@@ -75,13 +81,64 @@ public class BatchjobsServiceFacadeWebTier implements BatchjobsServiceFacade{
                     String previousRunStatus = mifosScheduler.getJobsPreviousRunStatus(jobName);
                     int triggerState = scheduler.getTriggerState(trigger.getName(), groupName);
                     String failDescription = mifosScheduler.getJobFailDescription(jobName);
-                    batchjobs.add(new BatchjobsDto(jobName, frequency, taskType, priority, previousRunStatus, lastFire, lastSuccessfulRun, nextFire, triggerState, failDescription));
+                    List<JobExecution> lastRuns = mifosScheduler.getJobExecutionHistory(jobName, 1);
+                    BatchjobRunDto lastRun = lastRuns.isEmpty() ? null : toBatchjobRunDto(jobName, lastRuns.get(0));
+                    batchjobs.add(new BatchjobsDto(jobName, frequency, taskType, priority, previousRunStatus, lastFire, lastSuccessfulRun, nextFire, triggerState, failDescription, lastRun));
                 }
             }
         }
         return batchjobs;
     }
 
+    @Override
+    public List<BatchjobRunDto> getBatchjobRunHistory(ServletContext context, String jobName, int maxRuns) {
+        MifosScheduler mifosScheduler = (MifosScheduler) context.getAttribute(MifosScheduler.class.getName());
+        List<BatchjobRunDto> history = new ArrayList<BatchjobRunDto>();
+        for (JobExecution jobExecution : mifosScheduler.getJobExecutionHistory(jobName, maxRuns)) {
+            history.add(toBatchjobRunDto(jobName, jobExecution));
+        }
+        return history;
+    }
+
+    /**
+     * Adds up the {@link BatchJobMetrics} stored in the contexts of the steps of the run.
+     */
+    private BatchjobRunDto toBatchjobRunDto(String jobName, JobExecution jobExecution) {
+        long itemsRead = 0;
+        long itemsProcessed = 0;
+        long itemsFailed = 0;
+        long itemsCommitted = 0;
+        long chunkCount = 0;
+        long elapsedMillis = 0;
+        long chunkLatencyP50 = 0;
+        long chunkLatencyP90 = 0;
+        long chunkLatencyP99 = 0;
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            ExecutionContext metrics = stepExecution.getExecutionContext();
+            itemsRead += metrics.getLong(BatchJobMetrics.ITEMS_READ, 0);
+            itemsProcessed += metrics.getLong(BatchJobMetrics.ITEMS_PROCESSED, 0);
+            itemsFailed += metrics.getLong(BatchJobMetrics.ITEMS_FAILED, 0);
+            itemsCommitted += metrics.getLong(BatchJobMetrics.ITEMS_COMMITTED, 0);
+            chunkCount += metrics.getLong(BatchJobMetrics.CHUNK_COUNT, 0);
+            elapsedMillis += metrics.getLong(BatchJobMetrics.ELAPSED_MILLIS, 0);
+            chunkLatencyP50 = Math.max(chunkLatencyP50, metrics.getLong(BatchJobMetrics.CHUNK_LATENCY_P50, 0));
+            chunkLatencyP90 = Math.max(chunkLatencyP90, metrics.getLong(BatchJobMetrics.CHUNK_LATENCY_P90, 0));
+            chunkLatencyP99 = Math.max(chunkLatencyP99, metrics.getLong(BatchJobMetrics.CHUNK_LATENCY_P99, 0));
+        }
+        double throughput = elapsedMillis == 0 ? itemsProcessed : itemsProcessed * 1000.0 / elapsedMillis;
+
+        Date executionTime = new Date(jobExecution.getJobInstance().getJobParameters().getLong(
+                MifosBatchJob.JOB_EXECUTION_TIME_KEY));
+        Date startTime = jobExecution.getStartTime() != null ? jobExecution.getStartTime() : new Date(0);
+        Date endTime = jobExecution.getEndTime() != null ? jobExecution.getEndTime() : new Date(0);
+        String status = jobExecution.getStatus().toString();
+        status = status.substring(0, 1) + status.substring(1).toLowerCase();
+
+        return new BatchjobRunDto(jobName, executionTime, startTime, endTime, status, itemsRead, itemsProcessed,
+                itemsFailed, itemsCommitted, chunkCount, elapsedMillis, throughput, chunkLatencyP50, chunkLatencyP90,
+                chunkLatencyP99);
+    }
+
     @Override
     public BatchjobsSchedulerDto getBatchjobsScheduler(ServletContext context) throws SchedulerException {
         MifosScheduler mifosScheduler = (MifosScheduler) context.getAttribute(MifosScheduler.class.getName());
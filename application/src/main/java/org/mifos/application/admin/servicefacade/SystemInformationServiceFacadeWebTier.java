@@ -22,14 +22,21 @@ package org.mifos.application.admin.servicefacade;
 
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.servlet.ServletContext;
 
 import org.hibernate.HibernateException;
 import org.mifos.application.admin.system.SystemInfo;
+import org.mifos.application.servicefacade.ApplicationContextProvider;
 import org.mifos.core.MifosRuntimeException;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
+import org.mifos.framework.hibernate.helper.SecondLevelCache.RegionStatistics;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.framework.persistence.PooledDriverManagerDataSource;
 import org.mifos.reports.struts.action.BirtReportsUploadAction;
 
 /**
@@ -96,4 +103,35 @@ public class SystemInformationServiceFacadeWebTier implements SystemInformationS
                 throw new MifosRuntimeException(e);
             }
     	}
+
+    @Override
+    public List<CacheStatisticsDto> getCacheStatistics() {
+        List<CacheStatisticsDto> cacheStatistics = new ArrayList<CacheStatisticsDto>();
+        for (RegionStatistics regionStatistics : SecondLevelCache.getRegionStatistics().values()) {
+            cacheStatistics.add(new CacheStatisticsDto(regionStatistics.getRegion(), regionStatistics.getHitCount(),
+                    regionStatistics.getMissCount(), regionStatistics.getPutCount(), regionStatistics
+                            .getElementCountInMemory(), regionStatistics.getHitRatio()));
+        }
+        return cacheStatistics;
+    }
+
+    @Override
+    public List<ConnectionPoolStatisticsDto> getConnectionPoolStatistics() {
+        List<ConnectionPoolStatisticsDto> poolStatistics = new ArrayList<ConnectionPoolStatisticsDto>();
+        Map<String, PooledDriverManagerDataSource> dataSources = ApplicationContextProvider.getApplicationContext()
+                .getBeansOfType(PooledDriverManagerDataSource.class);
+        try {
+            for (Map.Entry<String, PooledDriverManagerDataSource> entry : dataSources.entrySet()) {
+                PooledDriverManagerDataSource dataSource = entry.getValue();
+                poolStatistics.add(new ConnectionPoolStatisticsDto(entry.getKey(), dataSource.getNumConnections(),
+                        dataSource.getNumActiveConnections(), dataSource.getNumIdleConnections(), dataSource
+                                .getNumThreadsAwaitingConnection(), dataSource.getNumLeakedConnections(), dataSource
+                                .getConnectionRequests(), dataSource.getAverageWaitTimeMillis(), dataSource
+                                .getMaxWaitTimeMillis()));
+            }
+        } catch (SQLException e) {
+            throw new MifosRuntimeException(e);
+        }
+        return poolStatistics;
+    }
 }
\ No newline at end of file
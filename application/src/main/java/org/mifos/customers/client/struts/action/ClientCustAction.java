@@ -57,6 +57,7 @@ import org.mifos.application.servicefacade.ApplicationContextProvider;
 import org.mifos.application.util.helpers.ActionForwards;
 import org.mifos.application.util.helpers.YesNoFlag;
 import org.mifos.config.ClientRules;
+import org.mifos.config.GeneralConfig;
 import org.mifos.config.util.helpers.HiddenMandatoryFieldNamesConstants;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.business.CustomerBO;
@@ -98,8 +99,11 @@ import org.mifos.framework.business.util.Address;
 import org.mifos.framework.components.fieldConfiguration.util.helpers.FieldConfig;
 import org.mifos.framework.exceptions.ApplicationException;
 import org.mifos.framework.exceptions.PageExpiredException;
+import org.mifos.framework.fileupload.service.StreamedContent;
+import org.mifos.framework.fileupload.service.StreamedContentWriter;
 import org.mifos.framework.image.domain.ClientPhoto;
 import org.mifos.framework.image.service.ClientPhotoService;
+import org.mifos.framework.image.service.ClientPhotoThumbnails;
 import org.mifos.framework.util.helpers.CloseSession;
 import org.mifos.framework.util.helpers.Constants;
 import org.mifos.framework.util.helpers.DateUtils;
@@ -452,6 +456,12 @@ public class ClientCustAction extends CustAction implements QuestionnaireAction
         ClientBO clientBO = getClientFromSession(request);
         ClientPhotoService cps = ApplicationContextProvider.getBean(ClientPhotoService.class);
         ClientPhoto cp = cps.read(clientBO.getCustomerId().longValue());
+        StreamedContent content = cps.getContent(cp);
+        if (content != null) {
+            content = ClientPhotoThumbnails.get(cp.getClientId(), content, GeneralConfig.getClientPhotoThumbnailWidth());
+            StreamedContentWriter.write(content, request, response);
+            return null;
+        }
         InputStream in = null;
         if(cp != null) {
             in = new ByteArrayInputStream(cps.getData(cp));
@@ -79,6 +79,7 @@ import org.mifos.config.business.MifosConfigurationManager;
 import org.mifos.config.exceptions.ConfigurationException;
 import org.mifos.config.persistence.ConfigurationPersistence;
 import org.mifos.framework.components.audit.util.helpers.AuditConfiguration;
+import org.mifos.framework.components.audit.util.helpers.AuditEntityMetadata;
 import org.mifos.framework.components.batchjobs.MifosScheduler;
 import org.mifos.framework.components.batchjobs.exceptions.TaskSystemException;
 import org.mifos.framework.components.batchjobs.helpers.ETLReportDWHelper;
@@ -704,6 +705,7 @@ public class ApplicationInitializer implements ServletContextListener, ServletRe
 
     private void configureAuditLogValues(Locale locale) throws SystemException {
         AuditConfiguration.init(locale);
+        AuditEntityMetadata.precompile();
     }
 
     @Override
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.batchjobs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Counters and chunk latencies of one run of a batch job.
+ * <p>
+ * {@link TaskHelper} creates one per run and stores it in the step execution context when the run ends, so the
+ * figures are persisted by Spring Batch together with the step execution and can be compared across runs. Helpers
+ * record items as they read, process and commit them; the methods are thread safe so partitioned helpers can record
+ * from their worker threads.
+ */
+public class BatchJobMetrics {
+
+    public static final String ITEMS_READ = "mifos.metrics.itemsRead";
+    public static final String ITEMS_PROCESSED = "mifos.metrics.itemsProcessed";
+    public static final String ITEMS_FAILED = "mifos.metrics.itemsFailed";
+    public static final String ITEMS_COMMITTED = "mifos.metrics.itemsCommitted";
+    public static final String CHUNK_COUNT = "mifos.metrics.chunkCount";
+    public static final String ELAPSED_MILLIS = "mifos.metrics.elapsedMillis";
+    public static final String THROUGHPUT = "mifos.metrics.throughput";
+    public static final String CHUNK_LATENCY_P50 = "mifos.metrics.chunkLatencyP50";
+    public static final String CHUNK_LATENCY_P90 = "mifos.metrics.chunkLatencyP90";
+    public static final String CHUNK_LATENCY_P99 = "mifos.metrics.chunkLatencyP99";
+
+    private final AtomicLong itemsRead = new AtomicLong();
+    private final AtomicLong itemsProcessed = new AtomicLong();
+    private final AtomicLong itemsFailed = new AtomicLong();
+    private final AtomicLong itemsCommitted = new AtomicLong();
+    private final List<Long> chunkLatencies = new ArrayList<Long>();
+
+    private final long startTime;
+    private volatile long endTime;
+
+    public BatchJobMetrics() {
+        this.startTime = currentTimeMillis();
+    }
+
+    public void itemsRead(int count) {
+        itemsRead.addAndGet(count);
+    }
+
+    public void itemProcessed() {
+        itemsProcessed.incrementAndGet();
+    }
+
+    public void itemsProcessed(int count) {
+        itemsProcessed.addAndGet(count);
+    }
+
+    public void itemFailed() {
+        itemsFailed.incrementAndGet();
+    }
+
+    public void itemsFailed(int count) {
+        itemsFailed.addAndGet(count);
+    }
+
+    /**
+     * Records the commit of a chunk of items.
+     *
+     * @param chunkStartTime when work on the chunk started, in milliseconds
+     */
+    public void chunkCommitted(int count, long chunkStartTime) {
+        itemsCommitted.addAndGet(count);
+        long latency = Math.max(0, currentTimeMillis() - chunkStartTime);
+        synchronized (chunkLatencies) {
+            chunkLatencies.add(latency);
+        }
+    }
+
+    public void finish() {
+        if (endTime == 0) {
+            endTime = currentTimeMillis();
+        }
+    }
+
+    public long getItemsRead() {
+        return itemsRead.get();
+    }
+
+    public long getItemsProcessed() {
+        return itemsProcessed.get();
+    }
+
+    public long getItemsFailed() {
+        return itemsFailed.get();
+    }
+
+    public long getItemsCommitted() {
+        return itemsCommitted.get();
+    }
+
+    public int getChunkCount() {
+        synchronized (chunkLatencies) {
+            return chunkLatencies.size();
+        }
+    }
+
+    public long getElapsedMillis() {
+        long end = endTime == 0 ? currentTimeMillis() : endTime;
+        return Math.max(0, end - startTime);
+    }
+
+    /**
+     * @return items processed per second, over the whole run
+     */
+    public double getThroughput() {
+        long elapsed = getElapsedMillis();
+        if (elapsed == 0) {
+            return getItemsProcessed();
+        }
+        return getItemsProcessed() * 1000.0 / elapsed;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the chunk latency in milliseconds below which the given percentage of chunks fall, using the nearest
+     *         rank method, or 0 if no chunk was committed
+     */
+    public long getChunkLatencyPercentile(double percentile) {
+        List<Long> sorted;
+        synchronized (chunkLatencies) {
+            sorted = new ArrayList<Long>(chunkLatencies);
+        }
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.min(sorted.size(), Math.max(1, rank)) - 1);
+    }
+
+    public void saveTo(ExecutionContext executionContext) {
+        executionContext.putLong(ITEMS_READ, getItemsRead());
+        executionContext.putLong(ITEMS_PROCESSED, getItemsProcessed());
+        executionContext.putLong(ITEMS_FAILED, getItemsFailed());
+        executionContext.putLong(ITEMS_COMMITTED, getItemsCommitted());
+        executionContext.putLong(CHUNK_COUNT, getChunkCount());
+        executionContext.putLong(ELAPSED_MILLIS, getElapsedMillis());
+        executionContext.putDouble(THROUGHPUT, getThroughput());
+        executionContext.putLong(CHUNK_LATENCY_P50, getChunkLatencyPercentile(50));
+        executionContext.putLong(CHUNK_LATENCY_P90, getChunkLatencyPercentile(90));
+        executionContext.putLong(CHUNK_LATENCY_P99, getChunkLatencyPercentile(99));
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        return getItemsRead() + " read, " + getItemsProcessed() + " processed, " + getItemsFailed() + " failed, "
+                + getItemsCommitted() + " committed in " + getChunkCount() + " chunks, elapsed time: "
+                + getElapsedMillis() + " ms, throughput: " + Math.round(getThroughput())
+                + " items/s, chunk latency p50/p90/p99: " + getChunkLatencyPercentile(50) + "/"
+                + getChunkLatencyPercentile(90) + "/" + getChunkLatencyPercentile(99) + " ms";
+    }
+}
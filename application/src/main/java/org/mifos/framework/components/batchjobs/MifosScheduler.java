@@ -327,6 +327,19 @@ public class MifosScheduler {
         return runStatus;
     }
 
+    /**
+     * @return the executions of the most recent runs of the job, most recent first, with their step executions and
+     *         execution contexts loaded
+     */
+    public List<JobExecution> getJobExecutionHistory(String jobName, int maxRuns) {
+        JobExplorer explorer = getBatchJobExplorer();
+        List<JobExecution> history = new ArrayList<JobExecution>();
+        for (JobInstance jobInstance : explorer.getJobInstances(jobName, 0, maxRuns)) {
+            history.addAll(explorer.getJobExecutions(jobInstance));
+        }
+        return history;
+    }
+
     public String getJobFailDescription(String jobName) {
         String failDescription = null;
         JobExplorer explorer = getBatchJobExplorer();
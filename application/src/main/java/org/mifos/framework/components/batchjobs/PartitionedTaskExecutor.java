@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.batchjobs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the partitions of a batch job on a fixed pool of worker threads.
+ * <p>
+ * Each worker uses its own hibernate session (sessions are thread local in {@link StaticHibernateUtil}) and therefore
+ * its own transaction, so a partition that fails does not affect the work committed by the others. The executor starts
+ * a transaction for each partition and commits it once the processor returns. Processors that commit in chunks of
+ * their own, like the batch job helpers do every RecordCommittingSizeForBatchJobs items, keep the chunks they
+ * committed before a failure; only the work since their last commit is rolled back.
+ */
+public class PartitionedTaskExecutor<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedTaskExecutor.class);
+
+    /**
+     * Processes one partition on a worker thread and returns the identifiers of the items that could not be processed.
+     */
+    public interface PartitionProcessor<T> {
+        List<String> process(List<T> partition) throws Exception;
+    }
+
+    private final String taskName;
+    private final int degreeOfParallelism;
+
+    public PartitionedTaskExecutor(String taskName, int degreeOfParallelism) {
+        this.taskName = taskName;
+        this.degreeOfParallelism = Math.max(1, degreeOfParallelism);
+    }
+
+    public int getDegreeOfParallelism() {
+        return degreeOfParallelism;
+    }
+
+    /**
+     * Splits an (ordered) list of items into at most <code>partitionCount</code> contiguous ranges of similar size.
+     */
+    public static <T> List<List<T>> partitionByRange(List<T> items, int partitionCount) {
+        List<List<T>> partitions = new ArrayList<List<T>>();
+        if (items.isEmpty()) {
+            return partitions;
+        }
+        int count = Math.min(Math.max(1, partitionCount), items.size());
+        int size = items.size() / count;
+        int remainder = items.size() % count;
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = start + size + (i < remainder ? 1 : 0);
+            partitions.add(new ArrayList<T>(items.subList(start, end)));
+            start = end;
+        }
+        return partitions;
+    }
+
+    /**
+     * Processes all partitions and returns the combined list of failed item identifiers. A partition that throws has its
+     * uncommitted work rolled back and is reported as a whole; it does not stop the remaining partitions.
+     */
+    public List<String> execute(List<List<T>> partitions, final PartitionProcessor<T> processor)
+            throws BatchJobException {
+        final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+        if (partitions.isEmpty()) {
+            return errors;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(degreeOfParallelism, partitions.size()),
+                new WorkerThreadFactory(taskName));
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            int partitionNumber = 0;
+            for (final List<T> partition : partitions) {
+                final int currentPartition = ++partitionNumber;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        processPartition(currentPartition, partition, processor, errors);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BatchJobException(e);
+        } catch (ExecutionException e) {
+            throw new BatchJobException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return errors;
+    }
+
+    void processPartition(int partitionNumber, List<T> partition, PartitionProcessor<T> processor,
+            List<String> errors) {
+        long startTime = System.currentTimeMillis();
+        try {
+            StaticHibernateUtil.startTransaction();
+            errors.addAll(processor.process(partition));
+            StaticHibernateUtil.commitTransaction();
+        } catch (Exception e) {
+            logger.error(taskName + ": partition " + partitionNumber + " failed", e);
+            StaticHibernateUtil.rollbackTransaction();
+            errors.add(taskName + " partition " + partitionNumber);
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+        logger.info(taskName + ": partition " + partitionNumber + " of " + partition.size() + " items processed in "
+                + (System.currentTimeMillis() - startTime) + " milliseconds");
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        WorkerThreadFactory(String taskName) {
+            this.namePrefix = taskName + "-worker-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
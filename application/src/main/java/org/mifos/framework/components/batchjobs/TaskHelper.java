@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
@@ -36,10 +37,19 @@ public abstract class TaskHelper implements Tasklet {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskHelper.class);
 
+    private volatile BatchJobMetrics metrics = new BatchJobMetrics();
+
     protected Logger getLogger() {
         return logger;
     }
 
+    /**
+     * The metrics of the current run. Helpers record the items they read, process, fail and commit here.
+     */
+    protected BatchJobMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * This methods, performs the job specific to each task. Most batch jobs must be run daily.
      *
@@ -52,13 +62,20 @@ public abstract class TaskHelper implements Tasklet {
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
         checkHibernateSession();
-        Date scheduledFireTime = new Date(chunkContext.getStepContext().getStepExecution().getJobParameters().getLong(MifosBatchJob.JOB_EXECUTION_TIME_KEY));
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        Date scheduledFireTime = new Date(stepExecution.getJobParameters().getLong(MifosBatchJob.JOB_EXECUTION_TIME_KEY));
+        metrics = new BatchJobMetrics();
         try {
             execute(scheduledFireTime.getTime());
         }
         catch (BatchJobException ex) {
             logger.error("Exception during task execution", ex);
             contribution.setExitStatus(ExitStatus.FAILED.addExitDescription(ex.getErrorMessage()));
+        } finally {
+            metrics.finish();
+            metrics.saveTo(stepExecution.getExecutionContext());
+            contribution.incrementWriteCount((int) metrics.getItemsCommitted());
+            getLogger().info(stepExecution.getStepName() + " metrics: " + metrics);
         }
         return RepeatStatus.FINISHED;
     }
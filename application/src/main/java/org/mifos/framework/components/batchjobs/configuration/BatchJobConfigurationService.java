@@ -32,4 +32,6 @@ public interface BatchJobConfigurationService {
 
     int getOutputIntervalForBatchJobs();
 
+    int getNumberOfThreadsForBatchJobs();
+
 }
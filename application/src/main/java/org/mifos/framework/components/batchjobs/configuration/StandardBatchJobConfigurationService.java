@@ -43,4 +43,9 @@ public class StandardBatchJobConfigurationService implements BatchJobConfigurati
         return GeneralConfig.getOutputIntervalForBatchJobs();
     }
 
+    @Override
+    public int getNumberOfThreadsForBatchJobs() {
+        return GeneralConfig.getNumberOfThreadsForBatchJobs();
+    }
+
 }
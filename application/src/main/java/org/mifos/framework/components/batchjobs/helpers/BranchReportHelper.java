@@ -20,14 +20,18 @@
 
 package org.mifos.framework.components.batchjobs.helpers;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
+import org.mifos.config.GeneralConfig;
 import org.mifos.customers.business.service.CustomerBusinessService;
 import org.mifos.customers.office.business.OfficeBO;
 import org.mifos.customers.office.business.service.OfficeBusinessService;
+import org.mifos.framework.components.batchjobs.PartitionedTaskExecutor;
+import org.mifos.framework.components.batchjobs.SchedulerConstants;
 import org.mifos.framework.components.batchjobs.TaskHelper;
 import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
 import org.mifos.framework.exceptions.ServiceException;
@@ -55,9 +59,15 @@ public class BranchReportHelper extends TaskHelper {
 
     @Override
     public void execute(long timeInMillis) throws BatchJobException {
+        Date runDate = new Date(timeInMillis);
+        int numberOfThreads = GeneralConfig.getNumberOfThreadsForBatchJobs();
+        if (numberOfThreads > 1) {
+            executePartitioned(runDate, numberOfThreads);
+            return;
+        }
+
         Session session = StaticHibernateUtil.getSessionTL();
         StaticHibernateUtil.startTransaction();
-        Date runDate = new Date(timeInMillis);
 
         try {
             removeExistingBranchReportsForGivenRunDate(runDate);
@@ -71,6 +81,57 @@ public class BranchReportHelper extends TaskHelper {
         }
     }
 
+    /**
+     * Removes the existing reports for the run date, then builds the report of each branch on its own worker thread,
+     * session and transaction. A failing branch is rolled back without affecting the reports of the others.
+     */
+    private void executePartitioned(final Date runDate, int numberOfThreads) throws BatchJobException {
+        List<Short> branchOfficeIds = new ArrayList<Short>();
+        try {
+            StaticHibernateUtil.startTransaction();
+            removeExistingBranchReportsForGivenRunDate(runDate);
+            StaticHibernateUtil.commitTransaction();
+            List<OfficeBO> branchOffices = officeBusinessService.getBranchOffices();
+            if (branchOffices != null) {
+                for (OfficeBO branchOffice : branchOffices) {
+                    branchOfficeIds.add(branchOffice.getOfficeId());
+                }
+            }
+        } catch (HibernateException e) {
+            StaticHibernateUtil.rollbackTransaction();
+            throw new BatchJobException(e);
+        } catch (ServiceException e) {
+            StaticHibernateUtil.rollbackTransaction();
+            throw new BatchJobException(e);
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+
+        getLogger().info(
+                "BranchReportTask: generating " + branchOfficeIds.size() + " branch reports using " + numberOfThreads
+                        + " worker threads.");
+        PartitionedTaskExecutor<Short> executor = createPartitionedTaskExecutor(numberOfThreads);
+        List<String> errors = executor.execute(PartitionedTaskExecutor.partitionByRange(branchOfficeIds,
+                branchOfficeIds.size()), new PartitionedTaskExecutor.PartitionProcessor<Short>() {
+            @Override
+            public List<String> process(List<Short> partition) throws Exception {
+                for (Short branchOfficeId : partition) {
+                    createBranchReport(StaticHibernateUtil.getSessionTL(), officeBusinessService
+                            .getOffice(branchOfficeId), runDate);
+                }
+                return new ArrayList<String>();
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new BatchJobException(SchedulerConstants.FAILURE, errors);
+        }
+    }
+
+    // Exposed for testing
+    PartitionedTaskExecutor<Short> createPartitionedTaskExecutor(int numberOfThreads) {
+        return new PartitionedTaskExecutor<Short>("BranchReportTask", numberOfThreads);
+    }
+
     void populateBranchReportBatch(Session session, Date runDate) throws BatchJobException, ServiceException {
         List<OfficeBO> branchOffices = officeBusinessService.getBranchOffices();
         if (branchOffices == null) {
@@ -17,6 +17,7 @@ import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
 import org.mifos.framework.util.ConfigurationLocator;
 import org.springframework.context.ApplicationContext;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
 
 public class ETLReportDWHelper extends TaskHelper {
 
@@ -39,7 +40,7 @@ public class ETLReportDWHelper extends TaskHelper {
         }
         if (!nameOfDataBase.equals("")) {
         	try {
-        		dsDW.getConnection();
+        		JdbcUtils.closeConnection(dsDW.getConnection());
         	} catch (SQLException ex) {
         		errors.add("Data Warehouse is not configured");
         		throw new BatchJobException("Data warehouse database", errors);
@@ -21,9 +21,11 @@
 package org.mifos.framework.components.batchjobs.helpers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.joda.time.Days;
 import org.mifos.accounts.business.AccountBO;
@@ -35,6 +37,7 @@ import org.mifos.application.servicefacade.ApplicationContextProvider;
 import org.mifos.config.FiscalCalendarRules;
 import org.mifos.config.GeneralConfig;
 import org.mifos.customers.business.CustomerAccountBO;
+import org.mifos.framework.components.batchjobs.PartitionedTaskExecutor;
 import org.mifos.framework.components.batchjobs.SchedulerConstants;
 import org.mifos.framework.components.batchjobs.TaskHelper;
 import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
@@ -50,7 +53,14 @@ public class GenerateMeetingsForCustomerAndSavingsHelper extends TaskHelper {
     private final LegacyAccountDao legacyAccountDao = ApplicationContextProvider.getBean(LegacyAccountDao.class);
 
     private List<Days> workingDays;
-    private Map<Short, List<Holiday>> officeCurrentAndFutureHolidays;
+
+    private int accountCount;
+    private int outputIntervalForBatchJobs;
+    private int batchSize;
+    private int recordCommittingSize;
+    private long taskStartTime;
+    private final AtomicInteger processedRecordCount = new AtomicInteger();
+    private final AtomicInteger updatedRecordCount = new AtomicInteger();
 
     public GenerateMeetingsForCustomerAndSavingsHelper() {
         super();
@@ -59,103 +69,166 @@ public class GenerateMeetingsForCustomerAndSavingsHelper extends TaskHelper {
     @Override
     public void execute(@SuppressWarnings("unused") final long timeInMillis) throws BatchJobException {
 
-        workingDays = new FiscalCalendarRules().getWorkingDaysAsJodaTimeDays();
-        officeCurrentAndFutureHolidays = new HashMap<Short, List<Holiday>>();
+        workingDays = Collections.unmodifiableList(new FiscalCalendarRules().getWorkingDaysAsJodaTimeDays());
 
-        long taskStartTime = new DateTimeService().getCurrentDateTime().getMillis();
+        taskStartTime = new DateTimeService().getCurrentDateTime().getMillis();
+        processedRecordCount.set(0);
+        updatedRecordCount.set(0);
 
         List<Integer> customerAndSavingsAccountIds = findActiveCustomerAndSavingsAccountIdsThatRequiredMeetingsToBeGenerated();
 
-        int accountCount = customerAndSavingsAccountIds.size();
+        accountCount = customerAndSavingsAccountIds.size();
+        getMetrics().itemsRead(accountCount);
         if (accountCount == 0) {
             return;
         }
 
+        outputIntervalForBatchJobs = GeneralConfig.getOutputIntervalForBatchJobs();
+        batchSize = GeneralConfig.getBatchSizeForBatchJobs();
+        recordCommittingSize = GeneralConfig.getRecordCommittingSizeForGenerateMeetingsTask();
+        int numberOfThreads = GeneralConfig.getNumberOfThreadsForBatchJobs();
+
+        infoLogBatchParameters(accountCount, outputIntervalForBatchJobs, batchSize, recordCommittingSize,
+                numberOfThreads);
+
         List<String> errorList = new ArrayList<String>();
-        int currentRecordNumber = 0;
-        int outputIntervalForBatchJobs = GeneralConfig.getOutputIntervalForBatchJobs();
-        int batchSize = GeneralConfig.getBatchSizeForBatchJobs();
-        // jpw - hardcoded recordCommittingSize to 500 because now only accounts that need more schedules are returned
-        int recordCommittingSize = 500;
+        try {
+            if (numberOfThreads > 1 && accountCount > 1) {
+                errorList.addAll(executeByOffice(customerAndSavingsAccountIds, numberOfThreads));
+            } else {
+                errorList.addAll(generateMeetings(customerAndSavingsAccountIds));
+            }
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
 
-        infoLogBatchParameters(accountCount, outputIntervalForBatchJobs, batchSize, recordCommittingSize);
+        logProgress();
+        if (errorList.size() > 0) {
+            throw new BatchJobException(SchedulerConstants.FAILURE, errorList);
+        }
 
-        long startTime = new DateTimeService().getCurrentDateTime().getMillis();
+        logMessage("GenerateMeetingsForCustomerAndSavings ran in "
+                + (new DateTimeService().getCurrentDateTime().getMillis() - taskStartTime));
+
+    }
+
+    /**
+     * Handles the accounts of each office as one partition on its own worker thread, session and transaction, so
+     * holidays are read and the schedule generator is built once per office. A failing office is rolled back to its
+     * last commit without affecting the others.
+     */
+    private List<String> executeByOffice(List<Integer> accountIds, int numberOfThreads) throws BatchJobException {
+        Map<Short, List<Integer>> accountIdsByOffice;
+        try {
+            accountIdsByOffice = legacyAccountDao.groupAccountIdsByOffice(accountIds);
+        } catch (PersistenceException e) {
+            throw new BatchJobException(e);
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+        logMessage("Processing " + accountIds.size() + " accounts of " + accountIdsByOffice.size()
+                + " offices using " + numberOfThreads + " worker threads.");
+
+        PartitionedTaskExecutor<Integer> executor = new PartitionedTaskExecutor<Integer>(
+                "GenerateMeetingsForCustomerAndSavingsTask", numberOfThreads);
+        return executor.execute(new ArrayList<List<Integer>>(accountIdsByOffice.values()),
+                new PartitionedTaskExecutor.PartitionProcessor<Integer>() {
+                    @Override
+                    public List<String> process(List<Integer> partition) {
+                        return generateMeetings(partition);
+                    }
+                });
+    }
+
+    /**
+     * Generates the next set of meetings for the given accounts using the current thread's session, committing every
+     * RecordCommittingSizeForGenerateMeetingsTask updated accounts. Processing stops at the first failing account,
+     * whose id is returned.
+     */
+    private List<String> generateMeetings(List<Integer> accountIds) {
+        List<String> errorList = new ArrayList<String>();
+        Map<Short, OfficeScheduleGeneration> officeScheduleGenerations = new HashMap<Short, OfficeScheduleGeneration>();
+        int currentRecordNumber = 0;
+        int updatedInThisTransaction = 0;
+        int uncommitted = 0;
+        long chunkStartTime = System.currentTimeMillis();
         Integer currentAccountId = null;
-        int updatedRecordCount = 0;
 
         try {
             StaticHibernateUtil.getSessionTL();
             StaticHibernateUtil.startTransaction();
 
-            for (Integer accountId : customerAndSavingsAccountIds) {
+            for (Integer accountId : accountIds) {
                 currentRecordNumber++;
                 currentAccountId = accountId;
                 AccountBO accountBO = legacyAccountDao.getAccount(accountId);
 
-                List<Holiday> currentAndFutureHolidays = getOfficeCurrentAndFutureHolidays(accountBO.getOffice()
-                        .getOfficeId());
-                ScheduledDateGeneration scheduleGenerationStrategy = new HolidayAndWorkingDaysAndMoratoriaScheduledDateGeneration(
-                        workingDays, currentAndFutureHolidays);
+                OfficeScheduleGeneration officeScheduleGeneration = getOfficeScheduleGeneration(
+                        officeScheduleGenerations, accountBO.getOffice().getOfficeId());
 
+                boolean updated = false;
                 if (accountBO instanceof CustomerAccountBO) {
-                    ((CustomerAccountBO) accountBO).generateNextSetOfMeetingDates(scheduleGenerationStrategy);
-                    updatedRecordCount++;
+                    ((CustomerAccountBO) accountBO).generateNextSetOfMeetingDates(officeScheduleGeneration
+                            .getScheduledDateGeneration());
+                    updated = true;
                 } else if (accountBO instanceof SavingsBO) {
-                    ((SavingsBO) accountBO).generateNextSetOfMeetingDates(workingDays, currentAndFutureHolidays);
-                    updatedRecordCount++;
+                    ((SavingsBO) accountBO).generateNextSetOfMeetingDates(workingDays, officeScheduleGeneration
+                            .getCurrentAndFutureHolidays());
+                    updated = true;
                 }
 
                 if (currentRecordNumber % batchSize == 0) {
                     StaticHibernateUtil.flushAndClearSession();
                     getLogger().debug("completed HibernateUtil.flushAndClearSession()");
                 }
-                if (updatedRecordCount > 0) {
-                    if (updatedRecordCount % recordCommittingSize == 0) {
+                getMetrics().itemProcessed();
+                uncommitted++;
+                if (updated) {
+                    updatedRecordCount.incrementAndGet();
+                    updatedInThisTransaction++;
+                    if (updatedInThisTransaction % recordCommittingSize == 0) {
                         StaticHibernateUtil.commitTransaction();
+                        getMetrics().chunkCommitted(uncommitted, chunkStartTime);
+                        uncommitted = 0;
+                        chunkStartTime = System.currentTimeMillis();
                         StaticHibernateUtil.getSessionTL();
                         StaticHibernateUtil.startTransaction();
                     }
                 }
 
-                if (currentRecordNumber % outputIntervalForBatchJobs == 0) {
-                    long time = System.currentTimeMillis();
-                    String message = "" + currentRecordNumber + " processed, " + (accountCount - currentRecordNumber)
-                            + " remaining, " + updatedRecordCount + " updated, batch time: " + (time - startTime)
-                            + " ms";
-                    logMessage(message);
-                    startTime = time;
+                if (processedRecordCount.incrementAndGet() % outputIntervalForBatchJobs == 0) {
+                    logProgress();
                 }
             }
             StaticHibernateUtil.commitTransaction();
-            long time = System.currentTimeMillis();
-            String message = "" + currentRecordNumber + " processed, " + (accountCount - currentRecordNumber)
-                    + " remaining, " + updatedRecordCount + " updated, batch time: " + (time - startTime) + " ms";
-            logMessage(message);
+            if (uncommitted > 0) {
+                getMetrics().chunkCommitted(uncommitted, chunkStartTime);
+            }
 
         } catch (Exception e) {
-            logMessage("account " + currentAccountId.intValue() + " exception " + e.getMessage());
+            logMessage("account " + currentAccountId + " exception " + e.getMessage());
             StaticHibernateUtil.rollbackTransaction();
-            errorList.add(currentAccountId.toString());
+            getMetrics().itemFailed();
+            errorList.add(String.valueOf(currentAccountId));
             getLogger().error("Unable to generate schedules for account with ID " + currentAccountId, e);
-        } finally {
-            StaticHibernateUtil.closeSession();
-        }
-
-        if (errorList.size() > 0) {
-            throw new BatchJobException(SchedulerConstants.FAILURE, errorList);
         }
+        return errorList;
+    }
 
-        logMessage("GenerateMeetingsForCustomerAndSavings ran in "
-                + (new DateTimeService().getCurrentDateTime().getMillis() - taskStartTime));
-
+    private void logProgress() {
+        int processed = processedRecordCount.get();
+        long elapsed = Math.max(1, System.currentTimeMillis() - taskStartTime);
+        String message = "" + processed + " processed, " + (accountCount - processed) + " remaining, "
+                + updatedRecordCount.get() + " updated, elapsed time: " + elapsed + " ms, throughput: "
+                + (processed * 1000L / elapsed) + " accounts/s";
+        logMessage(message);
     }
 
     private void infoLogBatchParameters(int accountCount, int outputIntervalForBatchJobs, int batchSize,
-            int recordCommittingSize) {
+            int recordCommittingSize, int numberOfThreads) {
         logMessage("Using parameters:" + "\n  OutputIntervalForBatchJobs: " + outputIntervalForBatchJobs
-                + "\n  BatchSizeForBatchJobs: " + batchSize + "\n  RecordCommittingSizeForBatchJobs: "
-                + recordCommittingSize);
+                + "\n  BatchSizeForBatchJobs: " + batchSize + "\n  RecordCommittingSizeForGenerateMeetingsTask: "
+                + recordCommittingSize + "\n  NumberOfThreadsForBatchJobs: " + numberOfThreads);
         String initial_message = "" + accountCount + " accounts to process, results output every "
                 + outputIntervalForBatchJobs + " accounts";
         logMessage(initial_message);
@@ -177,18 +250,20 @@ public class GenerateMeetingsForCustomerAndSavingsHelper extends TaskHelper {
         return customerAndSavingsAccountIds;
     }
 
-    private List<Holiday> getOfficeCurrentAndFutureHolidays(Short officeId) {
+    private OfficeScheduleGeneration getOfficeScheduleGeneration(
+            Map<Short, OfficeScheduleGeneration> officeScheduleGenerations, Short officeId) {
 
-        List<Holiday> currentAndFutureHolidays = officeCurrentAndFutureHolidays.get(officeId);
+        OfficeScheduleGeneration officeScheduleGeneration = officeScheduleGenerations.get(officeId);
 
-        if (currentAndFutureHolidays != null) {
-            return currentAndFutureHolidays;
+        if (officeScheduleGeneration != null) {
+            return officeScheduleGeneration;
         }
 
         List<Holiday> futureHolidays = holidayDao.findCurrentAndFutureOfficeHolidaysEarliestFirst(officeId);
-        officeCurrentAndFutureHolidays.put(officeId, futureHolidays);
+        officeScheduleGeneration = new OfficeScheduleGeneration(workingDays, futureHolidays);
+        officeScheduleGenerations.put(officeId, officeScheduleGeneration);
 
-        return futureHolidays;
+        return officeScheduleGeneration;
     }
 
     private void logMessage(String finalMessage) {
@@ -196,4 +271,26 @@ public class GenerateMeetingsForCustomerAndSavingsHelper extends TaskHelper {
         getLogger().info(finalMessage);
     }
 
+    /**
+     * The current and future holidays of one office and the schedule generator built from them. Neither changes
+     * while the task runs, so one instance serves every account of the office.
+     */
+    private static class OfficeScheduleGeneration {
+        private final List<Holiday> currentAndFutureHolidays;
+        private final ScheduledDateGeneration scheduledDateGeneration;
+
+        OfficeScheduleGeneration(List<Days> workingDays, List<Holiday> currentAndFutureHolidays) {
+            this.currentAndFutureHolidays = Collections.unmodifiableList(currentAndFutureHolidays);
+            this.scheduledDateGeneration = new HolidayAndWorkingDaysAndMoratoriaScheduledDateGeneration(workingDays,
+                    this.currentAndFutureHolidays);
+        }
+
+        List<Holiday> getCurrentAndFutureHolidays() {
+            return this.currentAndFutureHolidays;
+        }
+
+        ScheduledDateGeneration getScheduledDateGeneration() {
+            return this.scheduledDateGeneration;
+        }
+    }
 }
@@ -20,14 +20,38 @@
 
 package org.mifos.framework.components.batchjobs.helpers;
 
+import java.util.List;
+
 import org.hibernate.Query;
+import org.hibernate.Session;
 import org.joda.time.LocalDate;
+import org.mifos.config.GeneralConfig;
+import org.mifos.config.business.ConfigurationKeyValue;
+import org.mifos.config.persistence.ConfigurationPersistence;
 import org.mifos.framework.components.batchjobs.TaskHelper;
 import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 
 public class LoanArrearsAgingHelper extends TaskHelper {
 
+    /**
+     * Date of the last run and highest account_trxn_id seen by it, stored in config_key_value and used as the
+     * watermark for incremental runs.
+     */
+    static final String LAST_RUN_DATE_KEY = "LoanArrearsAgingLastRunDate";
+    static final String LAST_TRXN_ID_KEY = "LoanArrearsAgingLastTrxnId";
+
+    /**
+     * account_trxn_id is allocated when a transaction row is inserted, not when it commits, so a payment still in
+     * flight during a run can commit later with an id below the highest id the run saw. Such a payment shows up to
+     * the run as a missing id, so each run also stores the lowest id missing among the ids added since the previous
+     * run, and the next incremental run looks at transactions from that id on. Ids missing because their
+     * transaction rolled back are only carried to the next run, not beyond it.
+     */
+    static final String FIRST_UNCOMMITTED_TRXN_ID_KEY = "LoanArrearsAgingFirstUncommittedTrxnId";
+
+    private static final int ACCOUNT_IDS_PER_STATEMENT = 1000;
+
     public LoanArrearsAgingHelper() {
         super();
     }
@@ -46,17 +70,31 @@ public class LoanArrearsAgingHelper extends TaskHelper {
          * A database view could replace this batch job. Unfortunately, as of May 2010, MySql views perform extremely
          * badly if the view contains 'grouped' data i.e. algorithm temptable is used rather than algorithm merge.
          * http://dev.mysql.com/doc/refman/5.0/en/view-algorithms.html
+         *
+         * All changes are made in one transaction so readers never see a partially rebuilt table.
          */
-        deleteAllLoanArrearsAging();
-
-        generateLoanArrearsAging();
-    }
-
-    private void deleteAllLoanArrearsAging() throws BatchJobException {
+        LocalDate currentDate = new LocalDate();
         StaticHibernateUtil.startTransaction();
         try {
-            Query delete = StaticHibernateUtil.getSessionTL().getNamedQuery("deleteAllLoanArrearsAging");
-            delete.executeUpdate();
+            ConfigurationPersistence configurationPersistence = new ConfigurationPersistence();
+            LocalDate lastRunDate = getLastRunDate(configurationPersistence);
+            Integer lastTrxnId = getTrxnId(configurationPersistence, LAST_TRXN_ID_KEY);
+            Integer firstUncommittedTrxnId = getTrxnId(configurationPersistence, FIRST_UNCOMMITTED_TRXN_ID_KEY);
+            Integer maxTrxnId = getMaxAccountTrxnId();
+            Integer newFirstUncommittedTrxnId = getFirstMissingAccountTrxnId(lastTrxnId == null ? 0 : lastTrxnId
+                    .intValue(), maxTrxnId.intValue());
+
+            if (GeneralConfig.getIncrementalLoanArrearsAging() && lastRunDate != null
+                    && firstUncommittedTrxnId != null && !lastRunDate.isAfter(currentDate)) {
+                updateChangedLoanArrearsAging(currentDate, lastRunDate, firstUncommittedTrxnId);
+            } else {
+                regenerateAllLoanArrearsAging(currentDate);
+            }
+
+            configurationPersistence.createOrUpdateConfigurationKeyValueString(LAST_RUN_DATE_KEY, currentDate.toString());
+            configurationPersistence.createOrUpdateConfigurationKeyValueString(LAST_TRXN_ID_KEY, maxTrxnId.toString());
+            configurationPersistence.createOrUpdateConfigurationKeyValueString(FIRST_UNCOMMITTED_TRXN_ID_KEY,
+                    newFirstUncommittedTrxnId.toString());
             StaticHibernateUtil.commitTransaction();
         } catch (Exception e) {
             StaticHibernateUtil.rollbackTransaction();
@@ -64,17 +102,76 @@ public class LoanArrearsAgingHelper extends TaskHelper {
         }
     }
 
-    private void generateLoanArrearsAging() throws BatchJobException {
-        StaticHibernateUtil.startTransaction();
-        try {
-            Query insert_select = StaticHibernateUtil.getSessionTL().getNamedQuery("generateLoanArrearsAging");
-            insert_select.setParameter("CURRENT_DATE", new LocalDate().toString());
-            insert_select.executeUpdate();
-            StaticHibernateUtil.commitTransaction();
-        } catch (Exception e) {
-            StaticHibernateUtil.rollbackTransaction();
-            throw new BatchJobException(e);
+    private void regenerateAllLoanArrearsAging(LocalDate currentDate) {
+        Session session = StaticHibernateUtil.getSessionTL();
+        session.getNamedQuery("deleteAllLoanArrearsAging").executeUpdate();
+
+        Query insertSelect = session.getNamedQuery("generateLoanArrearsAging");
+        insertSelect.setParameter("CURRENT_DATE", currentDate.toString());
+        insertSelect.executeUpdate();
+    }
+
+    /**
+     * Rows of loans that did not change only age, so their days in arrears are moved forward by the days since the
+     * last run. Rows of loans that changed (see findLoanArrearsAgingChangedAccounts) are recomputed, and rows of loans
+     * no longer in bad standing are removed. Transactions are looked for from the first id the last run did not see
+     * committed, so late-committing ones are not missed.
+     */
+    @SuppressWarnings("unchecked")
+    private void updateChangedLoanArrearsAging(LocalDate currentDate, LocalDate lastRunDate,
+            Integer firstUncommittedTrxnId) {
+        Session session = StaticHibernateUtil.getSessionTL();
+
+        Query changedAccounts = session.getNamedQuery("findLoanArrearsAgingChangedAccounts");
+        changedAccounts.setParameter("CURRENT_DATE", currentDate.toString());
+        changedAccounts.setParameter("LAST_RUN_DATE", lastRunDate.toString());
+        changedAccounts.setParameter("LAST_TRXN_ID", firstUncommittedTrxnId.intValue() - 1);
+        List<Integer> accountIds = changedAccounts.list();
+
+        Query shift = session.getNamedQuery("shiftLoanArrearsAgingDays");
+        shift.setParameter("CURRENT_DATE", currentDate.toString());
+        shift.setParameter("LAST_RUN_DATE", lastRunDate.toString());
+        shift.executeUpdate();
+
+        session.getNamedQuery("deleteLoanArrearsAgingNotInBadStanding").executeUpdate();
+
+        for (int from = 0; from < accountIds.size(); from += ACCOUNT_IDS_PER_STATEMENT) {
+            List<Integer> chunk = accountIds.subList(from, Math.min(from + ACCOUNT_IDS_PER_STATEMENT, accountIds.size()));
+
+            Query delete = session.getNamedQuery("deleteLoanArrearsAgingForAccounts");
+            delete.setParameterList("ACCOUNT_IDS", chunk);
+            delete.executeUpdate();
+
+            Query insertSelect = session.getNamedQuery("generateLoanArrearsAgingForAccounts");
+            insertSelect.setParameter("CURRENT_DATE", currentDate.toString());
+            insertSelect.setParameterList("ACCOUNT_IDS", chunk);
+            insertSelect.executeUpdate();
         }
     }
 
+    private Integer getMaxAccountTrxnId() {
+        return (Integer) StaticHibernateUtil.getSessionTL().getNamedQuery("getMaxAccountTrxnId").uniqueResult();
+    }
+
+    /**
+     * @return the lowest id above fromTrxnId and up to maxTrxnId that this transaction does not see, or maxTrxnId + 1
+     *         if there is none
+     */
+    private Integer getFirstMissingAccountTrxnId(int fromTrxnId, int maxTrxnId) {
+        Query firstMissing = StaticHibernateUtil.getSessionTL().getNamedQuery("getFirstMissingAccountTrxnId");
+        firstMissing.setParameter("FROM_TRXN_ID", fromTrxnId);
+        firstMissing.setParameter("MAX_TRXN_ID", maxTrxnId);
+        Integer firstMissingTrxnId = (Integer) firstMissing.uniqueResult();
+        return firstMissingTrxnId == null ? Integer.valueOf(maxTrxnId + 1) : firstMissingTrxnId;
+    }
+
+    private LocalDate getLastRunDate(ConfigurationPersistence configurationPersistence) {
+        ConfigurationKeyValue lastRunDate = configurationPersistence.getConfigurationKeyValue(LAST_RUN_DATE_KEY);
+        return lastRunDate == null ? null : new LocalDate(lastRunDate.getValue());
+    }
+
+    private Integer getTrxnId(ConfigurationPersistence configurationPersistence, String key) {
+        ConfigurationKeyValue trxnId = configurationPersistence.getConfigurationKeyValue(key);
+        return trxnId == null ? null : Integer.valueOf(trxnId.getValue());
+    }
 }
@@ -21,6 +21,7 @@
 package org.mifos.framework.components.batchjobs.helpers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.mifos.accounts.loan.business.LoanBO;
@@ -30,6 +31,7 @@ import org.mifos.accounts.productdefinition.persistence.LoanPrdPersistence;
 import org.mifos.accounts.util.helpers.AccountState;
 import org.mifos.application.servicefacade.ApplicationContextProvider;
 import org.mifos.config.GeneralConfig;
+import org.mifos.framework.components.batchjobs.PartitionedTaskExecutor;
 import org.mifos.framework.components.batchjobs.SchedulerConstants;
 import org.mifos.framework.components.batchjobs.TaskHelper;
 import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
@@ -45,7 +47,6 @@ public class LoanArrearsHelper extends TaskHelper {
     @Override
     public void execute(long timeInMillis) throws BatchJobException {
         long time1 = new DateTimeService().getCurrentDateTime().getMillis();
-        LegacyAccountDao legacyAccountDao = ApplicationContextProvider.getBean(LegacyAccountDao.class);
         List<String> errorList = new ArrayList<String>();
         List<Integer> listAccountIds = null;
         int accountNumber = 0;
@@ -55,30 +56,93 @@ public class LoanArrearsHelper extends TaskHelper {
             listAccountIds = ApplicationContextProvider.getBean(LegacyLoanDao.class).getLoanAccountsInArrearsInGoodStanding(latenessDays);
             long duration2 = new DateTimeService().getCurrentDateTime().getMillis() - time3;
             accountNumber = listAccountIds.size();
+            getMetrics().itemsRead(accountNumber);
             getLogger().info(
                     "LoanArrearsTask: getLoanAccountsInArrearsInGoodStanding ran in " + duration2 + " milliseconds"
                             + " got " + accountNumber + " accounts to update.");
         } catch (Exception e) {
             throw new BatchJobException(e);
         }
+        int numberOfThreads = GeneralConfig.getNumberOfThreadsForBatchJobs();
+        try {
+            if (numberOfThreads > 1 && accountNumber > 1) {
+                errorList.addAll(executePartitioned(listAccountIds, numberOfThreads));
+            } else {
+                errorList.addAll(handleArrears(listAccountIds));
+            }
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+
+        long time2 = new DateTimeService().getCurrentDateTime().getMillis();
+        long duration = time2 - time1;
+        getLogger().info("LoanArrearsTask ran in " + duration + " milliseconds");
+        if (errorList.size() > 0) {
+            throw new BatchJobException(SchedulerConstants.FAILURE, errorList);
+        }
+    }
+
+    /**
+     * Splits the accounts into contiguous id ranges and handles each range on its own worker thread, session and
+     * transaction. Each range is handled like the single threaded path handles all accounts: it commits every
+     * RecordCommittingSizeForBatchJobs accounts and stops at its first failing account, so the accounts committed
+     * before the failure stay in bad standing. The other ranges are not affected.
+     */
+    private List<String> executePartitioned(List<Integer> accountIds, int numberOfThreads) throws BatchJobException {
+        getLogger().info(
+                "LoanArrearsTask: processing " + accountIds.size() + " accounts using " + numberOfThreads
+                        + " worker threads.");
+        List<Integer> sortedAccountIds = new ArrayList<Integer>(accountIds);
+        Collections.sort(sortedAccountIds);
+        PartitionedTaskExecutor<Integer> executor = createPartitionedTaskExecutor(numberOfThreads);
+        return executor.execute(PartitionedTaskExecutor.partitionByRange(sortedAccountIds, numberOfThreads),
+                new PartitionedTaskExecutor.PartitionProcessor<Integer>() {
+                    @Override
+                    public List<String> process(List<Integer> partition) {
+                        return handleArrears(partition);
+                    }
+                });
+    }
+
+    // Exposed for testing
+    PartitionedTaskExecutor<Integer> createPartitionedTaskExecutor(int numberOfThreads) {
+        return new PartitionedTaskExecutor<Integer>("LoanArrearsTask", numberOfThreads);
+    }
+
+    /**
+     * Moves the given accounts into bad standing using the current thread's session, committing every
+     * RecordCommittingSizeForBatchJobs accounts. Processing stops at the first failing account, whose id is returned.
+     */
+    private List<String> handleArrears(List<Integer> accountIds) {
+        List<String> errorList = new ArrayList<String>();
+        LegacyAccountDao legacyAccountDao = ApplicationContextProvider.getBean(LegacyAccountDao.class);
         LoanBO loanBO = null;
         int i = 1;
+        int accountNumber = accountIds.size();
         int batchSize = GeneralConfig.getBatchSizeForBatchJobs();
         int recordCommittingSize = GeneralConfig.getRecordCommittingSizeForBatchJobs();
 
+        int uncommitted = 0;
+        long chunkStartTime = System.currentTimeMillis();
+
         try {
             long startTime = new DateTimeService().getCurrentDateTime().getMillis();
-            for (Integer accountId : listAccountIds) {
+            for (Integer accountId : accountIds) {
                 loanBO = (LoanBO) legacyAccountDao.getAccount(accountId);
                 assert (loanBO.getAccountState().getId().shortValue() == AccountState.LOAN_ACTIVE_IN_GOOD_STANDING
                         .getValue().shortValue());
 
                 loanBO.handleArrears();
+                getMetrics().itemProcessed();
+                uncommitted++;
                 if (i % batchSize == 0) {
                     StaticHibernateUtil.flushAndClearSession();
                 }
                 if (i % recordCommittingSize == 0) {
                     StaticHibernateUtil.commitTransaction();
+                    getMetrics().chunkCommitted(uncommitted, chunkStartTime);
+                    uncommitted = 0;
+                    chunkStartTime = System.currentTimeMillis();
                 }
                 if (i % 1000 == 0) {
                     long time = new DateTimeService().getCurrentDateTime().getMillis();
@@ -90,23 +154,19 @@ public class LoanArrearsHelper extends TaskHelper {
                 i++;
             }
             StaticHibernateUtil.commitTransaction();
+            if (uncommitted > 0) {
+                getMetrics().chunkCommitted(uncommitted, chunkStartTime);
+            }
 
         } catch (Exception e) {
             getLogger().debug("LoanArrearsTask " + e.getMessage());
             StaticHibernateUtil.rollbackTransaction();
+            getMetrics().itemFailed();
             if (loanBO != null) {
                 errorList.add(loanBO.getAccountId().toString());
             }
-        } finally {
-            StaticHibernateUtil.closeSession();
-        }
-
-        long time2 = new DateTimeService().getCurrentDateTime().getMillis();
-        long duration = time2 - time1;
-        getLogger().info("LoanArrearsTask ran in " + duration + " milliseconds");
-        if (errorList.size() > 0) {
-            throw new BatchJobException(SchedulerConstants.FAILURE, errorList);
         }
+        return errorList;
     }
 
 }
@@ -20,6 +20,9 @@
 
 package org.mifos.framework.components.batchjobs.helpers;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 import org.mifos.accounts.util.helpers.AccountState;
 import org.mifos.customers.persistence.CustomerPersistence;
 import org.mifos.framework.util.helpers.Money;
@@ -34,7 +37,6 @@ public class PortfolioAtRiskCalculation {
     // calculated for loans in active in bad standing only
     public static double generatePortfolioAtRiskForTask(Integer groupId, Short branchId, String searchId)
             throws Exception {
-        double portfolioAtRisk = -1;
         CustomerPersistence customerPersistence = new CustomerPersistence();
 
         Money atRiskLoanAmount = customerPersistence.getTotalAmountForGroup(groupId,
@@ -43,18 +45,30 @@ public class PortfolioAtRiskCalculation {
                 AccountState.LOAN_ACTIVE_IN_GOOD_STANDING);
         Money outstandingLoanAmount = atRiskLoanAmount.add(goupLoanAmountForActiveLoans);
 
-        Money clientAtRiskLoanAmount = customerPersistence.getTotalAmountForAllClientsOfGroup(branchId,
+        Money clientAtRiskLoanAmount = customerPersistence.getTotalAmountForAllClientsOfGroup(groupId, branchId,
                 AccountState.LOAN_ACTIVE_IN_BAD_STANDING, searchId);
-        Money clientLoanAmountForActiveLoans = customerPersistence.getTotalAmountForAllClientsOfGroup(branchId,
-                AccountState.LOAN_ACTIVE_IN_GOOD_STANDING, searchId);
+        Money clientLoanAmountForActiveLoans = customerPersistence.getTotalAmountForAllClientsOfGroup(groupId,
+                branchId, AccountState.LOAN_ACTIVE_IN_GOOD_STANDING, searchId);
         Money clientOutstandingLoanAmount = clientAtRiskLoanAmount.add(clientLoanAmountForActiveLoans);
 
         outstandingLoanAmount = outstandingLoanAmount.add(clientOutstandingLoanAmount);
         atRiskLoanAmount = atRiskLoanAmount.add(clientAtRiskLoanAmount);
 
-        if (!outstandingLoanAmount.equals(new Money(outstandingLoanAmount.getCurrency()))) {
-            portfolioAtRisk = atRiskLoanAmount.divide(outstandingLoanAmount).doubleValue();
-        } else if (atRiskLoanAmount.equals(new Money(atRiskLoanAmount.getCurrency()))) {
+        return calculatePortfolioAtRisk(atRiskLoanAmount.getAmount(), outstandingLoanAmount.getAmount());
+    }
+
+    /**
+     * Returns the ratio of the amount at risk to the outstanding amount using the same precision and rounding as
+     * {@link Money#divide(Money)}, 0.0 if both amounts are zero and -1 if the ratio is undefined.
+     */
+    public static double calculatePortfolioAtRisk(BigDecimal atRiskLoanAmount, BigDecimal outstandingLoanAmount) {
+        double portfolioAtRisk = -1;
+        BigDecimal atRisk = atRiskLoanAmount.setScale(Money.getInternalPrecision(), RoundingMode.HALF_UP);
+        BigDecimal outstanding = outstandingLoanAmount.setScale(Money.getInternalPrecision(), RoundingMode.HALF_UP);
+        if (outstanding.compareTo(BigDecimal.ZERO) != 0) {
+            portfolioAtRisk = atRisk.divide(outstanding, Money.getInternalPrecision(), RoundingMode.HALF_UP)
+                    .doubleValue();
+        } else if (atRisk.compareTo(BigDecimal.ZERO) == 0) {
             portfolioAtRisk = 0.0;
         }
         return portfolioAtRisk;
@@ -20,9 +20,13 @@
 
 package org.mifos.framework.components.batchjobs.helpers;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.mifos.config.GeneralConfig;
 import org.mifos.customers.group.BasicGroupInfo;
 import org.mifos.customers.group.persistence.GroupPersistence;
 import org.mifos.customers.persistence.CustomerPersistence;
@@ -41,6 +45,11 @@ public class PortfolioAtRiskHelper extends TaskHelper {
     @Override
     public void execute(long timeInMillis) throws BatchJobException {
 
+        if (GeneralConfig.getSetBasedPortfolioAtRiskCalculation()) {
+            executeSetBased();
+            return;
+        }
+
         long time1 = new DateTimeService().getCurrentDateTime().getMillis();
         List<BasicGroupInfo> groupInfos = null;
         List<String> errorList = new ArrayList<String>();
@@ -55,6 +64,7 @@ public class PortfolioAtRiskHelper extends TaskHelper {
         if (groupInfos != null && !groupInfos.isEmpty()) {
 
             int groupCount = groupInfos.size();
+            getMetrics().itemsRead(groupCount);
             getLogger().info("PortfolioAtRisk: got " + groupCount + " groups to process.");
             long startTime = new DateTimeService().getCurrentDateTime().getMillis();
             int i = 1;
@@ -62,6 +72,7 @@ public class PortfolioAtRiskHelper extends TaskHelper {
             GroupPersistence groupPersistence = new GroupPersistence();
             try {
                 for (BasicGroupInfo groupInfo : groupInfos) {
+                    long groupStartTime = System.currentTimeMillis();
                     groupId = groupInfo.getGroupId();
                     String searchStr = groupInfo.getSearchId() + ".%";
                     double portfolioAtRisk = PortfolioAtRiskCalculation.generatePortfolioAtRiskForTask(groupId,
@@ -72,7 +83,9 @@ public class PortfolioAtRiskHelper extends TaskHelper {
                     if (portfolioAtRisk > -1) {
                         groupPersistence.updateGroupInfoAndGroupPerformanceHistoryForPortfolioAtRisk(portfolioAtRisk,
                                 groupId);
+                        getMetrics().chunkCommitted(1, groupStartTime);
                     }
+                    getMetrics().itemProcessed();
                     if (i % 500 == 0) {
                         long time = new DateTimeService().getCurrentDateTime().getMillis();
                         getLogger().info(
@@ -90,6 +103,7 @@ public class PortfolioAtRiskHelper extends TaskHelper {
                                 + e.getMessage() + " at group " + groupId.toString(), e);
 
                 StaticHibernateUtil.rollbackTransaction();
+                getMetrics().itemFailed();
                 errorList.add(groupId.toString());
             } finally {
                 StaticHibernateUtil.closeSession();
@@ -104,4 +118,64 @@ public class PortfolioAtRiskHelper extends TaskHelper {
         }
     }
 
+    /**
+     * Calculates the portfolio at risk of all groups from one grouped query and writes the results with batched
+     * updates in a single transaction, instead of several round trips per group. Groups that cannot be updated are
+     * reported as failed once the updates of the other groups are committed, like the per group path does.
+     */
+    private void executeSetBased() throws BatchJobException {
+        long time1 = new DateTimeService().getCurrentDateTime().getMillis();
+        List<String> errorList = new ArrayList<String>();
+        try {
+            List<Object[]> amounts = new CustomerPersistence().getPortfolioAtRiskAmountsForAllGroups();
+            getMetrics().itemsRead(amounts.size());
+            getLogger().info(
+                    "PortfolioAtRisk: got amounts for " + amounts.size() + " groups in "
+                            + (new DateTimeService().getCurrentDateTime().getMillis() - time1) + " milliseconds.");
+
+            Map<Integer, Double> portfolioAtRiskByGroup = new LinkedHashMap<Integer, Double>();
+            for (Object[] row : amounts) {
+                Integer groupId = (Integer) row[0];
+                if (((Number) row[3]).intValue() > 1) {
+                    getLogger().error("PortfolioAtRisk: loans of group " + groupId + " use more than one currency");
+                    getMetrics().itemFailed();
+                    errorList.add(groupId.toString());
+                    continue;
+                }
+                double portfolioAtRisk = PortfolioAtRiskCalculation.calculatePortfolioAtRisk((BigDecimal) row[1],
+                        (BigDecimal) row[2]);
+                if (portfolioAtRisk > -1) {
+                    portfolioAtRiskByGroup.put(groupId, portfolioAtRisk);
+                }
+            }
+
+            long updateStartTime = System.currentTimeMillis();
+            List<Integer> failedGroupIds = new GroupPersistence()
+                    .updateGroupInfoAndGroupPerformanceHistoryForPortfolioAtRisk(portfolioAtRiskByGroup);
+            StaticHibernateUtil.commitTransaction();
+            getMetrics().itemsProcessed(portfolioAtRiskByGroup.size());
+            getMetrics().chunkCommitted(portfolioAtRiskByGroup.size() - failedGroupIds.size(), updateStartTime);
+            if (!failedGroupIds.isEmpty()) {
+                getLogger().error("PortfolioAtRisk: unable to update groups " + failedGroupIds);
+                getMetrics().itemsFailed(failedGroupIds.size());
+                for (Integer groupId : failedGroupIds) {
+                    errorList.add(groupId.toString());
+                }
+            }
+        } catch (Exception e) {
+            getLogger().error("PortfolioAtRiskHelper set based execution failed", e);
+            StaticHibernateUtil.rollbackTransaction();
+            throw new BatchJobException(e);
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+
+        long time2 = new DateTimeService().getCurrentDateTime().getMillis();
+        getLogger().info("PortfolioAtRiskTask ran in " + (time2 - time1) + " milliseconds");
+
+        if (errorList.size() > 0) {
+            throw new BatchJobException(SchedulerConstants.FAILURE, errorList);
+        }
+    }
+
 }
@@ -23,17 +23,20 @@ package org.mifos.framework.components.batchjobs.helpers;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.joda.time.LocalDate;
 import org.mifos.application.servicefacade.ApplicationContextProvider;
 import org.mifos.application.servicefacade.SavingsServiceFacade;
+import org.mifos.config.GeneralConfig;
 import org.mifos.config.Localization;
 import org.mifos.customers.personnel.util.helpers.PersonnelLevel;
+import org.mifos.framework.components.batchjobs.PartitionedTaskExecutor;
 import org.mifos.framework.components.batchjobs.SchedulerConstants;
 import org.mifos.framework.components.batchjobs.TaskHelper;
 import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.security.MifosUser;
-import org.mifos.service.BusinessRuleException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -41,10 +44,22 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
 
+/**
+ * Posts the interest of all savings accounts due for posting in chunks of
+ * RecordCommittingSizeForSavingsInterestPostingTask accounts, each chunk in its own transaction. With
+ * NumberOfThreadsForBatchJobs greater than one the chunks are shared out among that many worker threads. Accounts
+ * that cannot be posted are reported when all chunks have run.
+ */
 public class SavingsIntPostingHelper extends TaskHelper {
 
     private SavingsServiceFacade savingsServiceFacade = ApplicationContextProvider.getBean(SavingsServiceFacade.class);
 
+    private int accountCount;
+    private int outputIntervalForBatchJobs;
+    private long taskStartTime;
+    private final AtomicInteger processedRecordCount = new AtomicInteger();
+    private final AtomicInteger failedRecordCount = new AtomicInteger();
+
     public SavingsIntPostingHelper() {
         super();
     }
@@ -66,16 +81,109 @@ public class SavingsIntPostingHelper extends TaskHelper {
 
         LocalDate dateOfBatchJob = new LocalDate(scheduledFireTime);
 
-        List<String> errorList = new ArrayList<String>();
+        taskStartTime = System.currentTimeMillis();
+        processedRecordCount.set(0);
+        failedRecordCount.set(0);
+
+        List<Integer> savingsIds;
         try {
-            this.savingsServiceFacade.postInterestForLastPostingPeriod(dateOfBatchJob);
-        } catch (BusinessRuleException e) {
-            errorList.add(e.getMessageKey());
+            savingsIds = this.savingsServiceFacade.retrieveSavingsAccountsPendingInterestPostingOn(dateOfBatchJob);
+        } finally {
+            StaticHibernateUtil.closeSession();
+        }
+
+        accountCount = savingsIds.size();
+        if (accountCount == 0) {
+            return;
+        }
+
+        outputIntervalForBatchJobs = Math.max(1, GeneralConfig.getOutputIntervalForBatchJobs());
+        int recordCommittingSize = Math.max(1, GeneralConfig.getRecordCommittingSizeForSavingsInterestPostingTask());
+        int numberOfThreads = GeneralConfig.getNumberOfThreadsForBatchJobs();
+
+        infoLogBatchParameters(accountCount, outputIntervalForBatchJobs, recordCommittingSize, numberOfThreads);
+
+        List<List<Integer>> chunks = PartitionedTaskExecutor.partitionByRange(savingsIds,
+                (accountCount + recordCommittingSize - 1) / recordCommittingSize);
+
+        List<String> errorList = new ArrayList<String>();
+        if (numberOfThreads > 1 && chunks.size() > 1) {
+            errorList.addAll(executeInParallel(chunks, numberOfThreads, securityContext.getAuthentication()));
+        } else {
+            for (List<Integer> chunk : chunks) {
+                errorList.addAll(postInterest(chunk));
+            }
         }
 
+        logProgress();
         if (errorList.size() > 0) {
             throw new BatchJobException(SchedulerConstants.FAILURE, errorList);
         }
+
+        logMessage("SavingsIntPostingTask ran in " + (System.currentTimeMillis() - taskStartTime));
+    }
+
+    /**
+     * The security context is thread local, so each worker is given the batch job user before calling the service
+     * facade.
+     */
+    private List<String> executeInParallel(List<List<Integer>> chunks, int numberOfThreads,
+            final Authentication authentication) throws BatchJobException {
+        logMessage("Processing " + chunks.size() + " chunks using " + numberOfThreads + " worker threads.");
+
+        PartitionedTaskExecutor<Integer> executor = new PartitionedTaskExecutor<Integer>("SavingsIntPostingTask",
+                numberOfThreads);
+        return executor.execute(chunks, new PartitionedTaskExecutor.PartitionProcessor<Integer>() {
+            @Override
+            public List<String> process(List<Integer> chunk) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                try {
+                    return postInterest(chunk);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }
+        });
+    }
+
+    /**
+     * Posts one chunk and returns the ids of its accounts that could not be posted.
+     */
+    private List<String> postInterest(List<Integer> savingsIds) {
+        List<String> errorList = new ArrayList<String>();
+        for (Integer failedSavingsId : this.savingsServiceFacade.postInterestForLastPostingPeriod(savingsIds)) {
+            errorList.add(failedSavingsId.toString());
+        }
+        failedRecordCount.addAndGet(errorList.size());
+
+        int processedBefore = processedRecordCount.getAndAdd(savingsIds.size());
+        if (processedBefore / outputIntervalForBatchJobs != (processedBefore + savingsIds.size())
+                / outputIntervalForBatchJobs) {
+            logProgress();
+        }
+        return errorList;
+    }
+
+    private void logProgress() {
+        int processed = processedRecordCount.get();
+        long elapsed = Math.max(1, System.currentTimeMillis() - taskStartTime);
+        String message = "" + processed + " processed, " + (accountCount - processed) + " remaining, "
+                + failedRecordCount.get() + " failed, elapsed time: " + elapsed + " ms, throughput: "
+                + (processed * 1000L / elapsed) + " accounts/s";
+        logMessage(message);
+    }
+
+    private void infoLogBatchParameters(int accountCount, int outputIntervalForBatchJobs, int recordCommittingSize,
+            int numberOfThreads) {
+        logMessage("Using parameters:" + "\n  OutputIntervalForBatchJobs: " + outputIntervalForBatchJobs
+                + "\n  RecordCommittingSizeForSavingsInterestPostingTask: " + recordCommittingSize
+                + "\n  NumberOfThreadsForBatchJobs: " + numberOfThreads);
+        logMessage("" + accountCount + " accounts to process, results output every " + outputIntervalForBatchJobs
+                + " accounts");
+    }
+
+    private void logMessage(String finalMessage) {
+        getLogger().info(finalMessage);
     }
 
     private MifosUser createMifosAdminUser() {
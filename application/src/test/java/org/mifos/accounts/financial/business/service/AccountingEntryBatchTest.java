@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.financial.business.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifos.accounts.business.AccountTrxnEntity;
+import org.mifos.accounts.financial.business.FinancialActionTypeEntity;
+import org.mifos.accounts.financial.business.FinancialTransactionBO;
+import org.mifos.accounts.financial.business.GLCodeEntity;
+import org.mifos.accounts.financial.util.helpers.FinancialConstants;
+import org.mifos.framework.TestUtils;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountingEntryBatchTest {
+
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement statement;
+    @Mock
+    private AccountTrxnEntity savedTrxn;
+    @Mock
+    private AccountTrxnEntity unsavedTrxn;
+    @Mock
+    private FinancialActionTypeEntity financialAction;
+    @Mock
+    private GLCodeEntity glcode;
+
+    @Before
+    public void setUp() throws Exception {
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(savedTrxn.getAccountTrxnId()).thenReturn(7);
+        when(unsavedTrxn.getAccountTrxnId()).thenReturn(null);
+        when(financialAction.getId()).thenReturn((short) 3);
+        when(glcode.getGlcodeId()).thenReturn((short) 11);
+    }
+
+    @After
+    public void tearDown() {
+        AccountingEntryBatch.end();
+    }
+
+    @Test
+    public void isBoundToTheCurrentThreadUntilEnded() {
+        assertThat(AccountingEntryBatch.getCurrent(), is(nullValue()));
+
+        AccountingEntryBatch batch = AccountingEntryBatch.begin();
+        assertThat(AccountingEntryBatch.getCurrent(), is(batch));
+
+        AccountingEntryBatch.end();
+        assertThat(AccountingEntryBatch.getCurrent(), is(nullValue()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cannotBeOpenedTwiceOnOneThread() {
+        AccountingEntryBatch.begin();
+        AccountingEntryBatch.begin();
+    }
+
+    @Test
+    public void writesOnlyEntriesOfSavedAccountTransactions() throws Exception {
+        AccountingEntryBatch batch = AccountingEntryBatch.begin();
+        batch.add(entryFor(savedTrxn, FinancialConstants.DEBIT));
+        batch.add(entryFor(unsavedTrxn, FinancialConstants.CREDIT));
+        batch.add(entryFor(savedTrxn, FinancialConstants.CREDIT));
+
+        assertThat(batch.write(connection), is(2));
+
+        verify(statement, times(2)).addBatch();
+        verify(statement, times(1)).executeBatch();
+        verify(statement, times(2)).setInt(1, 7);
+        verify(statement, times(2)).setShort(11, TestUtils.RUPEE.getCurrencyId());
+        verify(statement).close();
+        assertThat(batch.size(), is(0));
+    }
+
+    private FinancialTransactionBO entryFor(AccountTrxnEntity accountTrxn, FinancialConstants debitCredit) {
+        return new FinancialTransactionBO(accountTrxn, null, financialAction, glcode, new Date(), null, (short) 1,
+                TestUtils.createMoney("10"), "notes", debitCredit.getValue(), new Date());
+    }
+}
@@ -30,6 +30,7 @@ import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -45,6 +46,7 @@ import org.mifos.accounts.business.AccountPaymentEntityBuilder;
 import org.mifos.accounts.business.AccountTrxnEntity;
 import org.mifos.accounts.exceptions.AccountException;
 import org.mifos.accounts.loan.persistance.LegacyLoanDao;
+import org.mifos.accounts.loan.schedule.calculation.ScheduleCalculator;
 import org.mifos.accounts.loan.util.helpers.LoanConstants;
 import org.mifos.accounts.loan.util.helpers.RepaymentScheduleInstallment;
 import org.mifos.accounts.loan.util.helpers.RepaymentScheduleInstallmentBuilder;
@@ -53,6 +55,7 @@ import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
 import org.mifos.accounts.util.helpers.AccountActionTypes;
 import org.mifos.accounts.util.helpers.PaymentStatus;
 import org.mifos.application.master.business.MifosCurrency;
+import org.mifos.config.business.service.ConfigurationBusinessService;
 import org.mifos.customers.business.CustomerBO;
 import org.mifos.customers.personnel.business.PersonnelBO;
 import org.mifos.domain.builders.LoanAccountBuilder;
@@ -126,6 +129,64 @@ public class LoanBOTest {
         Mockito.verify(loanScheduleEntity, Mockito.times(1)).isPaid();
     }
 
+    @Test
+    public void totalRepayableAmountIncludesExtraInterestComputedAfterItWasRead() {
+        final Set<AccountActionDateEntity> installments = new LinkedHashSet<AccountActionDateEntity>();
+        installments.add(getLoanScheduleEntity(rupee, getDate(23, 10, 2010), "100", "10", "1", Money.zero(rupee)));
+        installments.add(getLoanScheduleEntity(rupee, getDate(23, 11, 2010), "100", "10", "2", Money.zero(rupee)));
+        installments.add(getLoanScheduleEntity(rupee, getDate(23, 12, 2010), "100", "10", "3", Money.zero(rupee)));
+        LoanBO loanBO = new LoanBO() {
+            @Override
+            public Set<AccountActionDateEntity> getAccountActionDates() {
+                return installments;
+            }
+
+            @Override
+            public MifosCurrency getCurrency() {
+                return rupee;
+            }
+
+            @Override
+            public boolean isDecliningBalanceInterestRecalculation() {
+                return false;
+            }
+
+            @Override
+            public boolean isDecliningBalanceEqualPrincipleCalculation() {
+                return true;
+            }
+
+            @Override
+            public Date getDisbursementDate() {
+                return getDate(23, 9, 2010);
+            }
+
+            @Override
+            public Money getLoanAmount() {
+                return new Money(rupee, "1000");
+            }
+
+            @Override
+            public Double getInterestRate() {
+                return 24.0;
+            }
+        };
+        ConfigurationBusinessService configurationBusinessService = mock(ConfigurationBusinessService.class);
+        when(configurationBusinessService.isRecalculateInterestEnabled()).thenReturn(true);
+        ScheduleCalculatorAdaptor scheduleCalculatorAdaptor = new ScheduleCalculatorAdaptor(new ScheduleCalculator(),
+                new ScheduleMapper(), configurationBusinessService);
+
+        Money totalRepayableAmount = loanBO.getTotalRepayableAmount();
+        scheduleCalculatorAdaptor.computeExtraInterest(loanBO, getDate(30, 10, 2010));
+
+        Money extraInterest = Money.zero(rupee);
+        for (LoanScheduleEntity installment : loanBO.getLoanScheduleEntities()) {
+            extraInterest = extraInterest.add(installment.getExtraInterest());
+        }
+        assertThat(extraInterest.isGreaterThanZero(), is(true));
+        assertThat(loanBO.getTotalRepayableAmount(), is(totalRepayableAmount.add(extraInterest)));
+    }
+
     /**
      * does't work when changing applicatonConfiguration.custom.properties file.
      * Need to pull out static references to AccountingRules in used classes.
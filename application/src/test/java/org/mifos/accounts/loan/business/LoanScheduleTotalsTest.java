@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.loan.business;
+
+import static java.math.BigDecimal.valueOf;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mifos.framework.TestUtils.getDate;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifos.accounts.business.AccountActionDateEntity;
+import org.mifos.accounts.util.helpers.PaymentStatus;
+import org.mifos.application.master.business.MifosCurrency;
+import org.mifos.framework.util.helpers.Money;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoanScheduleTotalsTest {
+
+    private static final Date AS_OF = getDate(23, 12, 2010);
+
+    @Mock
+    private LoanBO loanBO;
+
+    private MifosCurrency rupee = new MifosCurrency(Short.valueOf("1"), "Rupee", valueOf(1), "INR");
+
+    private List<AccountActionDateEntity> installments;
+
+    @Before
+    public void setup() {
+        when(loanBO.getCurrency()).thenReturn(rupee);
+        installments = new ArrayList<AccountActionDateEntity>();
+        installments.add(new LoanScheduleBuilder("1", loanBO).withDueDate(getDate(23, 10, 2010)).
+                withPaymentStatus(PaymentStatus.UNPAID).withPrincipal(100).withPrincipalPaid(40).withInterest(10).build());
+        installments.add(new LoanScheduleBuilder("2", loanBO).withDueDate(getDate(23, 11, 2010)).
+                withPaymentStatus(PaymentStatus.PAID).withPrincipal(100).withPrincipalPaid(100).withInterest(10).
+                withInterestPaid(10).build());
+        installments.add(new LoanScheduleBuilder("3", loanBO).withDueDate(getDate(20, 12, 2010)).
+                withPaymentStatus(PaymentStatus.UNPAID).withPrincipal(100).withInterest(10).build());
+        installments.add(new LoanScheduleBuilder("4", loanBO).withDueDate(getDate(23, 1, 2011)).
+                withPaymentStatus(PaymentStatus.UNPAID).withPrincipal(100).withInterest(10).build());
+    }
+
+    @Test
+    public void totalsAllInstallmentsAndThoseInArrears() {
+        LoanScheduleTotals totals = new LoanScheduleTotals(rupee, installments, AS_OF);
+
+        assertThat(totals.getTotalPrincipal(), is(money(400)));
+        assertThat(totals.getTotalPrincipalDue(), is(money(260)));
+        assertThat(totals.getTotalInterest(), is(money(40)));
+        assertThat(totals.getTotalDueWithFees(), is(money(290)));
+        assertThat(totals.getPrincipalInArrears(), is(money(160)));
+        assertThat(totals.getInterestInArrears(), is(money(20)));
+    }
+
+    @Test
+    public void totalsOnlyInstallmentsInArrearsLongerThanLatenessDays() {
+        LoanScheduleTotals totals = new LoanScheduleTotals(rupee, installments, AS_OF);
+
+        totals.setLatenessDays((short) 5);
+        assertThat(totals.getPrincipalInArrearsOutsideLateness(), is(money(60)));
+        assertThat(totals.getInterestInArrearsOutsideLateness(), is(money(10)));
+
+        totals.setLatenessDays((short) 100);
+        assertThat(totals.getPrincipalInArrearsOutsideLateness(), is(money(0)));
+        assertThat(totals.getInterestInArrearsOutsideLateness(), is(money(0)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requiresLatenessDaysForTotalsOutsideLateness() {
+        new LoanScheduleTotals(rupee, installments, AS_OF).getPrincipalInArrearsOutsideLateness();
+    }
+
+    @Test
+    public void isAsOfTheDayItWasWorkedOutFor() {
+        LoanScheduleTotals totals = new LoanScheduleTotals(rupee, installments, AS_OF);
+
+        assertThat(totals.isAsOf(getDate(23, 12, 2010)), is(true));
+        assertThat(totals.isAsOf(getDate(24, 12, 2010)), is(false));
+    }
+
+    private Money money(double amount) {
+        return new Money(rupee, amount);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.savings.business;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.mifos.accounts.savings.interest.CalendarPeriod;
+import org.mifos.accounts.savings.interest.EndOfDayDetail;
+import org.mifos.accounts.savings.interest.InterestCalculationPeriodDetail;
+import org.mifos.framework.TestUtils;
+import org.mifos.framework.util.helpers.Money;
+
+public class SavingsBalanceSnapshotEntityTest {
+
+    private final LocalDate snapshotDate = new LocalDate(2011, 1, 31);
+
+    @Test
+    public void openingEndOfDayDetailCarriesTheSnapshotBalance() {
+        SavingsBalanceSnapshotEntity snapshot = new SavingsBalanceSnapshotEntity(1, snapshotDate,
+                TestUtils.createMoney("1250.5"), TestUtils.createMoney("12.5"), 42);
+
+        EndOfDayDetail opening = snapshot.asOpeningEndOfDayDetail();
+
+        assertThat(opening.getDate(), is(snapshotDate));
+        assertThat(opening.getResultantAmountForDay(), is(TestUtils.createMoney("1250.5")));
+        assertThat(opening.getInterest(), is(TestUtils.createMoney("0")));
+    }
+
+    @Test
+    public void resumingFromSnapshotKeepsTheFirstActivityBeforeTheNextPeriod() {
+        SavingsBalanceSnapshotEntity snapshot = new SavingsBalanceSnapshotEntity(1, snapshotDate,
+                TestUtils.createMoney("1000"), TestUtils.createMoney("0"), 42);
+        Money zero = TestUtils.createMoney("0");
+        List<EndOfDayDetail> endOfDayDetails = new ArrayList<EndOfDayDetail>();
+        endOfDayDetails.add(snapshot.asOpeningEndOfDayDetail());
+        endOfDayDetails.add(new EndOfDayDetail(new LocalDate(2011, 2, 10), TestUtils.createMoney("100"), zero, zero));
+
+        CalendarPeriod february = new CalendarPeriod(new LocalDate(2011, 2, 1), new LocalDate(2011, 2, 28));
+        InterestCalculationPeriodDetail periodDetail = InterestCalculationPeriodDetail
+                .populatePeriodDetailBasedOnInterestCalculationInterval(february, endOfDayDetails,
+                        TestUtils.createMoney("1000"));
+
+        assertThat(periodDetail.isFirstActivityBeforeInterval(), is(true));
+        assertThat(periodDetail.getDailyDetails().size(), is(1));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.accounting.util.helpers;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mifos.application.accounting.business.FinancialYearBO;
+import org.mifos.application.accounting.business.GlBalancesBO;
+import org.mifos.application.accounting.business.GlDetailBO;
+import org.mifos.application.accounting.business.GlMasterBO;
+
+public class GlBalanceDeltasTest {
+
+    @Test
+    public void sumsDebitsAndCreditsPerOfficeAndGlCode() {
+        GlBalanceDeltas deltas = new GlBalanceDeltas(new FinancialYearBO());
+        deltas.add(transaction("0002", "11100", "22200", "100"));
+        deltas.add(transaction("0002", "11100", "22200", "50"));
+        deltas.add(transaction("0002", "22200", "11100", "30"));
+
+        List<GlBalancesBO> result = deltas.getDeltas();
+
+        assertThat(result.size(), is(2));
+        assertBalance(result.get(0), "11100", "150", "30", "120");
+        assertBalance(result.get(1), "22200", "30", "150", "-120");
+    }
+
+    @Test
+    public void keepsOfficesApart() {
+        GlBalanceDeltas deltas = new GlBalanceDeltas(new FinancialYearBO());
+        deltas.add(transaction("0002", "11100", "22200", "100"));
+        deltas.add(transaction("0003", "11100", "22200", "100"));
+
+        List<GlBalancesBO> result = deltas.getDeltas();
+
+        assertThat(result.size(), is(4));
+        assertThat(result.get(0).getOfficeId(), is("0002"));
+        assertThat(result.get(2).getOfficeId(), is("0003"));
+        assertThat(result.get(2).getOpeningBalance(), is(BigDecimal.ZERO));
+    }
+
+    private static void assertBalance(GlBalancesBO balance, String glCode, String debit, String credit,
+            String closing) {
+        assertThat(balance.getGlCodeValue(), is(glCode));
+        assertThat(balance.getTransactionDebitSum(), is(new BigDecimal(debit)));
+        assertThat(balance.getTransactionCreditSum(), is(new BigDecimal(credit)));
+        assertThat(balance.getClosingBalance(), is(new BigDecimal(closing)));
+    }
+
+    private static GlMasterBO transaction(String officeId, String debitGlCode, String creditGlCode, String amount) {
+        GlMasterBO bo = new GlMasterBO();
+        List<GlDetailBO> glDetailBOList = new ArrayList<GlDetailBO>();
+        glDetailBOList.add(new GlDetailBO(creditGlCode, new BigDecimal(amount), "credit", "", null, "", "", ""));
+        bo.setGlDetailBOList(glDetailBOList);
+        bo.setFromOfficeLevel(5);
+        bo.setFromOfficeId(officeId);
+        bo.setMainAccount(debitGlCode);
+        bo.setTransactionAmount(new BigDecimal(amount));
+        bo.setAmountAction("debit");
+        bo.setCreatedBy((short) 1);
+        return bo;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.collectionsheet.persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mifos.framework.util.helpers.IntegrationTestObjectMother.sampleBranchOffice;
+import static org.mifos.framework.util.helpers.IntegrationTestObjectMother.testUser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Query;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.accounts.business.AccountTestUtils;
+import org.mifos.accounts.loan.business.LoanBO;
+import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
+import org.mifos.accounts.productdefinition.business.SavingsOfferingBO;
+import org.mifos.accounts.savings.business.SavingsBO;
+import org.mifos.accounts.util.helpers.AccountState;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.servicefacade.ApplicationContextProvider;
+import org.mifos.customers.business.CustomerBO;
+import org.mifos.customers.business.service.CustomerService;
+import org.mifos.customers.center.business.CenterBO;
+import org.mifos.customers.client.business.ClientBO;
+import org.mifos.customers.group.business.GroupBO;
+import org.mifos.customers.persistence.CustomerDao;
+import org.mifos.customers.persistence.CustomerHierarchyQueries;
+import org.mifos.domain.builders.CenterBuilder;
+import org.mifos.domain.builders.ClientBuilder;
+import org.mifos.domain.builders.GroupBuilder;
+import org.mifos.domain.builders.MeetingBuilder;
+import org.mifos.domain.builders.SavingsAccountBuilder;
+import org.mifos.domain.builders.SavingsProductBuilder;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.TestUtils;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.framework.util.helpers.IntegrationTestObjectMother;
+import org.mifos.framework.util.helpers.TestObjectFactory;
+
+/**
+ * Runs every search id based customer hierarchy query and its customer_hierarchy_closure twin (see
+ * {@link CustomerHierarchyQueries}) against the same hierarchy and checks that they return the same rows, also after a
+ * client moves to another group and after a group moves to another center.
+ */
+public class CustomerHierarchyClosureQueriesIntegrationTest extends MifosIntegrationTestCase {
+
+    private static final String[] HIERARCHY_QUERIES = { "findCustomersWithinHierarchyAsDto",
+            "findLoanDisbursementsforCustomerHierarchyAsDto", "findLoanRepaymentsforCustomerHierarchyAsDto",
+            "findActiveLoansforCustomerHierarchyAsDto", "findOutstandingFeesForLoansOnCustomerHierarchyAsDto",
+            "findAccountCollectionsOnCustomerAccountForCustomerHierarchyAsDto",
+            "findOutstandingFeesForCustomerAccountOnCustomerHierarchyAsDto",
+            "findAllMandatorySavingAccountsForClientsOrGroupsWithCompleteGroupStatusForRestOfCustomerHierarchy",
+            "findAllVoluntarySavingsAccountsForClientsAndGroupsWithCompleteGroupStatusForRestOfCustomerHierarchy",
+            "findAllMandatorySavingsAccountsForCentersAndGroupsWithPerIndividualStatusForRestOfCustomerHierarchy",
+            "findAllVoluntarySavingsAccountsForCentersAndGroupsWithPerIndividualStatusForRestOfCustomerHierarchy",
+            "findAllSavingAccountsForCustomerHierarchy", "Customer.getAllExceptClosedAndCancelledClientsUnderParent" };
+
+    private static final String[] GROUP_QUERIES = { "Customer.getTotalAmountForAllClientsOfGroup",
+            "Customer.getLoanSummaryCurrenciesForAllClientsOfGroup" };
+
+    private CustomerService customerService;
+    private CustomerDao customerDao;
+
+    private CenterBO center;
+    private CenterBO otherCenter;
+    private GroupBO group;
+    private GroupBO otherGroup;
+    private GroupBO groupOfOtherCenter;
+    private ClientBO clientWithAccounts;
+    private ClientBO clientToMove;
+    private ClientBO clientOfOtherGroup;
+    private ClientBO clientOfOtherCenter;
+    private LoanBO loan;
+    private LoanBO loanOfOtherCenter;
+    private SavingsBO savingsAccount;
+
+    @Before
+    public void setUp() throws Exception {
+        customerService = ApplicationContextProvider.getBean(CustomerService.class);
+        customerDao = ApplicationContextProvider.getBean(CustomerDao.class);
+
+        MeetingBO weeklyMeeting = new MeetingBuilder().customerMeeting().weekly().every(1).startingToday().build();
+        IntegrationTestObjectMother.saveMeeting(weeklyMeeting);
+        center = new CenterBuilder().with(weeklyMeeting).withName("Center").with(sampleBranchOffice())
+                .withLoanOfficer(testUser()).build();
+        IntegrationTestObjectMother.createCenter(center, weeklyMeeting);
+        group = createGroup("Group", center, weeklyMeeting);
+        otherGroup = createGroup("Other Group", center, weeklyMeeting);
+        clientWithAccounts = createClient("Client With Accounts", group, weeklyMeeting);
+        clientToMove = createClient("Client To Move", group, weeklyMeeting);
+        clientOfOtherGroup = createClient("Client Of Other Group", otherGroup, weeklyMeeting);
+
+        MeetingBO otherWeeklyMeeting = new MeetingBuilder().customerMeeting().weekly().every(1).startingToday()
+                .build();
+        IntegrationTestObjectMother.saveMeeting(otherWeeklyMeeting);
+        otherCenter = new CenterBuilder().with(otherWeeklyMeeting).withName("Other Center")
+                .with(sampleBranchOffice()).withLoanOfficer(testUser()).build();
+        IntegrationTestObjectMother.createCenter(otherCenter, otherWeeklyMeeting);
+        groupOfOtherCenter = createGroup("Group Of Other Center", otherCenter, otherWeeklyMeeting);
+        clientOfOtherCenter = createClient("Client Of Other Center", groupOfOtherCenter, otherWeeklyMeeting);
+
+        java.sql.Date startDate = new java.sql.Date(System.currentTimeMillis());
+        LoanOfferingBO loanOffering = TestObjectFactory.createLoanOffering(startDate, weeklyMeeting);
+        loan = TestObjectFactory.createLoanAccount("42423142341", clientWithAccounts,
+                AccountState.LOAN_ACTIVE_IN_GOOD_STANDING, startDate, loanOffering);
+        AccountTestUtils.changeInstallmentDatesToPreviousDateExceptLastInstallment(loan, 2);
+        loanOfOtherCenter = TestObjectFactory.createLoanAccount("42423142342", clientOfOtherCenter,
+                AccountState.LOAN_ACTIVE_IN_GOOD_STANDING, startDate, loanOffering);
+
+        SavingsOfferingBO savingsProduct = new SavingsProductBuilder().mandatory().appliesToClientsOnly()
+                .withShortName("SP1").buildForIntegrationTests();
+        savingsAccount = new SavingsAccountBuilder().withSavingsProduct(savingsProduct).withCreatedBy(testUser())
+                .withCustomer(clientWithAccounts).build();
+        IntegrationTestObjectMother.saveSavingsProductAndAssociatedSavingsAccounts(savingsProduct, savingsAccount);
+
+        StaticHibernateUtil.flushAndClearSession();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        savingsAccount = null;
+        loanOfOtherCenter = null;
+        loan = null;
+        clientOfOtherCenter = null;
+        clientOfOtherGroup = null;
+        clientToMove = null;
+        clientWithAccounts = null;
+        groupOfOtherCenter = null;
+        otherGroup = null;
+        group = null;
+        otherCenter = null;
+        center = null;
+    }
+
+    @Test
+    public void closureQueriesReturnTheSameRowsAsSearchIdQueries() throws Exception {
+        assertClosureQueriesMatchSearchIdQueriesForWholeHierarchy();
+    }
+
+    @Test
+    public void closureQueriesReturnTheSameRowsAsSearchIdQueriesAfterClientMovesToAnotherGroup() throws Exception {
+        ClientBO client = customerDao.findClientBySystemId(clientToMove.getGlobalCustNum());
+        customerService.transferClientTo(TestUtils.makeUser(), otherGroup.getCustomerId(), client.getGlobalCustNum(),
+                client.getVersionNo());
+        StaticHibernateUtil.flushAndClearSession();
+
+        client = customerDao.findClientBySystemId(clientToMove.getGlobalCustNum());
+        assertThat(client.getParentCustomer().getCustomerId(), is(otherGroup.getCustomerId()));
+        assertClosureQueriesMatchSearchIdQueriesForWholeHierarchy();
+    }
+
+    @Test
+    public void closureQueriesReturnTheSameRowsAsSearchIdQueriesAfterGroupMovesToAnotherCenter() throws Exception {
+        ClientBO client = customerDao.findClientBySystemId(clientToMove.getGlobalCustNum());
+        customerService.transferClientTo(TestUtils.makeUser(), otherGroup.getCustomerId(), client.getGlobalCustNum(),
+                client.getVersionNo());
+        StaticHibernateUtil.flushAndClearSession();
+
+        GroupBO groupToMove = customerDao.findGroupBySystemId(otherGroup.getGlobalCustNum());
+        groupToMove.setUserContext(TestUtils.makeUser());
+        CenterBO receivingCenter = (CenterBO) customerDao.findCustomerById(otherCenter.getCustomerId());
+        customerService.transferGroupTo(groupToMove, receivingCenter);
+        StaticHibernateUtil.flushAndClearSession();
+
+        groupToMove = customerDao.findGroupBySystemId(otherGroup.getGlobalCustNum());
+        assertThat(groupToMove.getParentCustomer().getCustomerId(), is(otherCenter.getCustomerId()));
+        assertClosureQueriesMatchSearchIdQueriesForWholeHierarchy();
+    }
+
+    private void assertClosureQueriesMatchSearchIdQueriesForWholeHierarchy() {
+        LocalDate transactionDate = new LocalDate().plusWeeks(1);
+        CustomerBO[] tops = { center, otherCenter, group, otherGroup, groupOfOtherCenter };
+        for (CustomerBO top : tops) {
+            CustomerBO customer = customerDao.findCustomerById(top.getCustomerId());
+            for (String queryName : HIERARCHY_QUERIES) {
+                assertSameRows(queryName, customer, transactionDate);
+            }
+            if (customer instanceof GroupBO) {
+                for (String queryName : GROUP_QUERIES) {
+                    assertSameRows(queryName, customer, transactionDate);
+                }
+            }
+        }
+    }
+
+    private void assertSameRows(String queryName, CustomerBO top, LocalDate transactionDate) {
+        Map<String, Object> searchIdParameters = new HashMap<String, Object>();
+        searchIdParameters.put("BRANCH_ID", top.getOffice().getOfficeId());
+        searchIdParameters.put("OFFICE_ID", top.getOffice().getOfficeId());
+        searchIdParameters.put("officeId", top.getOffice().getOfficeId());
+        searchIdParameters.put("SEARCH_ID", top.getSearchId() + ".%");
+        searchIdParameters.put("SEARCH_STRING", top.getSearchId() + ".%");
+        searchIdParameters.put("searchId", top.getSearchId() + ".%");
+        searchIdParameters.put("SEARCH_ID_NO_PERCENTAGE", top.getSearchId());
+        searchIdParameters.put("TRANSACTION_DATE", transactionDate.toString());
+        searchIdParameters.put("accountState", AccountState.LOAN_ACTIVE_IN_GOOD_STANDING.getValue());
+
+        Map<String, Object> closureParameters = new HashMap<String, Object>();
+        closureParameters.put("CUSTOMER_ID", top.getCustomerId());
+        closureParameters.put("PARENT_ID", top.getCustomerId());
+        closureParameters.put("groupId", top.getCustomerId());
+        closureParameters.put("MIN_DEPTH", Integer.valueOf(1));
+        closureParameters.put("TRANSACTION_DATE", transactionDate.toString());
+        closureParameters.put("accountState", AccountState.LOAN_ACTIVE_IN_GOOD_STANDING.getValue());
+
+        List<String> searchIdRows = runQuery(queryName, searchIdParameters);
+        List<String> closureRows = runQuery(queryName + CustomerHierarchyQueries.CLOSURE_SUFFIX, closureParameters);
+        assertThat(queryName + " under " + top.getDisplayName(), closureRows, is(searchIdRows));
+    }
+
+    private List<String> runQuery(String queryName, Map<String, Object> parameters) {
+        Query query = StaticHibernateUtil.getSessionTL().getNamedQuery(queryName);
+        query.setProperties(parameters);
+        List<String> rows = new ArrayList<String>();
+        for (Object row : query.list()) {
+            rows.add(asString(row));
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+    private String asString(Object row) {
+        if (row instanceof Object[]) {
+            StringBuilder builder = new StringBuilder("[");
+            for (Object column : (Object[]) row) {
+                builder.append(asString(column)).append(',');
+            }
+            return builder.append(']').toString();
+        }
+        if (row instanceof CustomerBO) {
+            return "customer " + ((CustomerBO) row).getCustomerId();
+        }
+        return String.valueOf(row);
+    }
+
+    private GroupBO createGroup(String name, CenterBO parent, MeetingBO meeting) {
+        GroupBO newGroup = new GroupBuilder().withMeeting(meeting).withName(name).withOffice(sampleBranchOffice())
+                .withLoanOfficer(testUser()).withParentCustomer(parent).build();
+        IntegrationTestObjectMother.createGroup(newGroup, meeting);
+        return newGroup;
+    }
+
+    private ClientBO createClient(String name, GroupBO parent, MeetingBO meeting) throws Exception {
+        ClientBO newClient = new ClientBuilder().withMeeting(meeting).withName(name).withOffice(sampleBranchOffice())
+                .withLoanOfficer(testUser()).withParentCustomer(parent).buildForIntegrationTests();
+        IntegrationTestObjectMother.createClient(newClient, meeting);
+        return newClient;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.servicefacade;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mifos.framework.util.helpers.IntegrationTestObjectMother.sampleBranchOffice;
+import static org.mifos.framework.util.helpers.IntegrationTestObjectMother.testUser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.util.helpers.YesNoFlag;
+import org.mifos.config.GeneralConfig;
+import org.mifos.config.business.MifosConfigurationManager;
+import org.mifos.customers.center.business.CenterBO;
+import org.mifos.customers.client.business.ClientBO;
+import org.mifos.customers.client.business.NameType;
+import org.mifos.customers.group.business.GroupBO;
+import org.mifos.customers.persistence.CustomerDao;
+import org.mifos.customers.util.helpers.CustomerStatus;
+import org.mifos.domain.builders.CenterBuilder;
+import org.mifos.domain.builders.GroupBuilder;
+import org.mifos.domain.builders.MeetingBuilder;
+import org.mifos.dto.domain.ApplicableAccountFeeDto;
+import org.mifos.dto.domain.ClientCreationDetail;
+import org.mifos.dto.domain.ImportedClientDetail;
+import org.mifos.dto.domain.ParsedClientsDto;
+import org.mifos.dto.screen.ClientNameDetailDto;
+import org.mifos.dto.screen.ClientPersonalDetailDto;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.framework.util.helpers.IntegrationTestObjectMother;
+import org.mifos.security.AuthenticationAuthorizationServiceFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class ImportClientsServiceFacadeWebTierIntegrationTest extends MifosIntegrationTestCase {
+
+    @Autowired
+    private ImportClientsServiceFacade importClientsServiceFacade;
+
+    @Autowired
+    private AuthenticationAuthorizationServiceFacade authenticationAuthorizationService;
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    private Object closureQueries;
+    private GroupBO group;
+
+    @Before
+    public void setUp() throws Exception {
+        authenticationAuthorizationService.reloadUserDetailsForSecurityContext("mifos");
+        closureQueries = MifosConfigurationManager.getInstance().getProperty(
+                GeneralConfig.CustomerHierarchyClosureQueries);
+
+        MeetingBO weeklyMeeting = new MeetingBuilder().customerMeeting().weekly().every(1).startingToday().build();
+        IntegrationTestObjectMother.saveMeeting(weeklyMeeting);
+        CenterBO center = new CenterBuilder().with(weeklyMeeting).withName("Import Center")
+                .with(sampleBranchOffice()).withLoanOfficer(testUser()).build();
+        IntegrationTestObjectMother.createCenter(center, weeklyMeeting);
+        group = new GroupBuilder().withMeeting(weeklyMeeting).withName("Import Group").withOffice(sampleBranchOffice())
+                .withLoanOfficer(testUser()).withParentCustomer(center).build();
+        IntegrationTestObjectMother.createGroup(group, weeklyMeeting);
+        StaticHibernateUtil.flushAndClearSession();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        MifosConfigurationManager.getInstance().setProperty(GeneralConfig.CustomerHierarchyClosureQueries,
+                closureQueries);
+        group = null;
+    }
+
+    @Test
+    public void importedClientIsFoundThroughTheHierarchyClosure() throws Exception {
+        ImportedClientDetail importedClient = new ImportedClientDetail(createClientInGroup("Imported Client"), null,
+                null);
+        importClientsServiceFacade.save(new ParsedClientsDto(new ArrayList<String>(), Arrays.asList(importedClient)));
+        StaticHibernateUtil.flushAndClearSession();
+
+        MifosConfigurationManager.getInstance().setProperty(GeneralConfig.CustomerHierarchyClosureQueries, true);
+        GroupBO savedGroup = customerDao.findGroupBySystemId(group.getGlobalCustNum());
+        List<ClientBO> clients = customerDao.findAllExceptClosedAndCancelledClientsUnderParent(
+                savedGroup.getCustomerId(), savedGroup.getSearchId(), savedGroup.getOffice().getOfficeId());
+
+        assertThat(clients.size(), is(1));
+        assertThat(clients.get(0).getDisplayName(), is("Imported Client"));
+    }
+
+    private ClientCreationDetail createClientInGroup(String clientName) {
+        ClientNameDetailDto clientNameDetailDto = new ClientNameDetailDto(NameType.CLIENT.getValue(), 1, "Imported",
+                null, "Client", null);
+        // magic numbers from default data
+        ClientPersonalDetailDto clientPersonalDetailDto = new ClientPersonalDetailDto(218, 130, 138, 225,
+                ClientPersonalDetailDto.MARRIED, 226, Short.valueOf("0"), Short.valueOf("49"), Short.valueOf("41"));
+        return new ClientCreationDetail(clientName, CustomerStatus.CLIENT_ACTIVE.getValue(), new DateTime()
+                .minusWeeks(2).toDate(), null, null, null, new LocalDate(1990, 1, 1).toDateMidnight().toDate(), "",
+                false, null, YesNoFlag.YES.getValue(), clientNameDetailDto, clientPersonalDetailDto,
+                new ArrayList<ApplicableAccountFeeDto>(), group.getGlobalCustNum(), null, null, new LocalDate());
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.servicefacade;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifos.accounts.business.AccountFeesEntity;
+import org.mifos.application.admin.servicefacade.PersonnelServiceFacade;
+import org.mifos.application.holiday.persistence.HolidayDao;
+import org.mifos.application.importexport.xls.XlsClientsImporter;
+import org.mifos.customers.client.business.ClientBO;
+import org.mifos.customers.client.util.helpers.NewClientDto;
+import org.mifos.customers.exceptions.CustomerException;
+import org.mifos.customers.office.persistence.OfficeDao;
+import org.mifos.customers.persistence.CustomerDao;
+import org.mifos.customers.personnel.persistence.PersonnelDao;
+import org.mifos.customers.util.helpers.CustomerStatus;
+import org.mifos.dto.domain.ClientCreationDetail;
+import org.mifos.dto.domain.ImportedClientDetail;
+import org.mifos.framework.hibernate.helper.HibernateTransactionHelper;
+import org.mifos.framework.util.DateTimeService;
+import org.mifos.security.util.UserContext;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ImportClientsServiceFacadeWebTierTest {
+
+    @Mock
+    private XlsClientsImporter xlsClientsImporter;
+    @Mock
+    private CustomerDao customerDao;
+    @Mock
+    private HibernateTransactionHelper hibernateTransactionHelper;
+    @Mock
+    private PersonnelDao personnelDao;
+    @Mock
+    private HolidayDao holidayDao;
+    @Mock
+    private OfficeDao officeDao;
+    @Mock
+    private PersonnelServiceFacade personnelServiceFacade;
+    @Mock
+    private ImportProgressListener listener;
+
+    private final Set<String> invalidClients = new HashSet<String>();
+    private final Set<String> clientsFailingToSave = new HashSet<String>();
+    private final List<String> savedClients = new ArrayList<String>();
+    private final InputStream input = new ByteArrayInputStream(new byte[0]);
+
+    private ImportClientsServiceFacadeWebTier importClientsServiceFacade;
+
+    @Before
+    public void setUp() {
+        when(xlsClientsImporter.getRowError(anyInt())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return "Error in row " + invocation.getArguments()[0] + ": ";
+            }
+        });
+        importClientsServiceFacade = new ImportClientsServiceFacadeWebTier(xlsClientsImporter, customerDao,
+                hibernateTransactionHelper, personnelDao, holidayDao, officeDao, personnelServiceFacade) {
+            @Override
+            UserContext getUserContext() {
+                return new UserContext();
+            }
+
+            @Override
+            NewClientDto createClient(ImportedClientDetail importedClient, UserContext userContext) {
+                String clientName = importedClient.getClientCreationDetail().getClientName();
+                ClientBO client = mock(ClientBO.class);
+                when(client.getDisplayName()).thenReturn(clientName);
+                return new NewClientDto(client, CustomerStatus.CLIENT_ACTIVE);
+            }
+
+            @Override
+            void validateClient(ClientBO client) throws CustomerException {
+                if (invalidClients.contains(client.getDisplayName())) {
+                    throw new CustomerException("duplicate");
+                }
+            }
+
+            @Override
+            void saveClient(NewClientDto newClient, List<AccountFeesEntity> accountFees,
+                    DateTimeService dateTimeService) {
+                String name = newClient.getClientBO().getDisplayName();
+                if (clientsFailingToSave.contains(name)) {
+                    throw new IllegalStateException("not saved");
+                }
+                savedClients.add(name);
+            }
+        };
+    }
+
+    @Test
+    public void savesEachChunkInItsOwnTransaction() {
+        parseChunks(new Chunk(3, asList("Error in row 7"), "Jane", "John"), new Chunk(4, new ArrayList<String>(),
+                "Mary"));
+
+        int imported = importClientsServiceFacade.importClients(input, listener);
+
+        assertThat(imported, is(3));
+        assertThat(savedClients, is(asList("Jane", "John", "Mary")));
+        verify(hibernateTransactionHelper, times(2)).startTransaction();
+        verify(hibernateTransactionHelper, times(2)).commitTransaction();
+        verify(hibernateTransactionHelper, times(2)).flushAndClearSession();
+        verify(hibernateTransactionHelper, never()).rollbackTransaction();
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).chunkProcessed(3, 2, asList("Error in row 7"));
+        inOrder.verify(listener).chunkProcessed(4, 3, Collections.<String>emptyList());
+    }
+
+    @Test
+    public void reportsClientsThatFailValidationAndSavesTheOthers() {
+        invalidClients.add("John");
+        parseChunks(new Chunk(2, new ArrayList<String>(), "Jane", "John"));
+
+        int imported = importClientsServiceFacade.importClients(input, listener);
+
+        assertThat(imported, is(1));
+        assertThat(savedClients, is(asList("Jane")));
+        verify(listener).chunkProcessed(2, 1, asList("Error in row 6: John: duplicate"));
+    }
+
+    @Test
+    public void doesNotStartATransactionForAChunkWithoutValidClients() {
+        parseChunks(new Chunk(2, asList("Error in row 6", "Error in row 7")));
+
+        int imported = importClientsServiceFacade.importClients(input, listener);
+
+        assertThat(imported, is(0));
+        verify(hibernateTransactionHelper, never()).startTransaction();
+        verify(listener).chunkProcessed(2, 0, asList("Error in row 6", "Error in row 7"));
+    }
+
+    @Test
+    public void savesTheRowsOfAChunkThatFailsToSaveOneByOneAndRejectsOnlyTheFailingRow() {
+        clientsFailingToSave.add("John");
+        parseChunks(new Chunk(3, new ArrayList<String>(), "Jane", "John", "Mary"), new Chunk(4,
+                new ArrayList<String>(), "Anne"));
+
+        int imported = importClientsServiceFacade.importClients(input, listener);
+
+        assertThat(imported, is(3));
+        assertThat(savedClients, is(asList("Jane", "Jane", "Mary", "Anne")));
+        verify(hibernateTransactionHelper, times(5)).startTransaction();
+        verify(hibernateTransactionHelper, times(2)).rollbackTransaction();
+        verify(hibernateTransactionHelper, times(3)).commitTransaction();
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).chunkProcessed(3, 2, asList("Error in row 6: John: not saved"));
+        inOrder.verify(listener).chunkProcessed(4, 3, Collections.<String>emptyList());
+    }
+
+    @Test
+    public void closesTheSessionWithoutFlushingItAfterARollback() {
+        clientsFailingToSave.add("John");
+        parseChunks(new Chunk(1, new ArrayList<String>(), "John"));
+
+        importClientsServiceFacade.importClients(input, listener);
+
+        InOrder inOrder = inOrder(hibernateTransactionHelper);
+        inOrder.verify(hibernateTransactionHelper).rollbackTransaction();
+        inOrder.verify(hibernateTransactionHelper).closeSession();
+        inOrder.verify(hibernateTransactionHelper).rollbackTransaction();
+        inOrder.verify(hibernateTransactionHelper).closeSession();
+        verify(hibernateTransactionHelper, never()).flushAndClearSession();
+        verify(hibernateTransactionHelper, never()).flushSession();
+    }
+
+    private void parseChunks(final Chunk... chunks) {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                XlsClientsImporter.ChunkHandler handler = (XlsClientsImporter.ChunkHandler) invocation
+                        .getArguments()[2];
+                for (Chunk chunk : chunks) {
+                    handler.handleChunk(chunk.parsedRows, chunk.errors, chunk.rowsRead);
+                }
+                return null;
+            }
+        }).when(xlsClientsImporter).parse(any(InputStream.class), anyInt(), any(XlsClientsImporter.ChunkHandler.class));
+    }
+
+    private static class Chunk {
+        private final int rowsRead;
+        private final List<String> errors;
+        private final List<ImportedClientDetail> parsedRows = new ArrayList<ImportedClientDetail>();
+
+        Chunk(int rowsRead, List<String> errors, String... clientNames) {
+            this.rowsRead = rowsRead;
+            this.errors = errors;
+            // data rows start at the fifth row of the sheet, the rows of the chunk that failed to parse come last
+            int rowNumber = 5 + rowsRead - clientNames.length - errors.size();
+            for (String clientName : clientNames) {
+                ClientCreationDetail clientCreationDetail = mock(ClientCreationDetail.class);
+                when(clientCreationDetail.getClientName()).thenReturn(clientName);
+                parsedRows.add(new ImportedClientDetail(clientCreationDetail, null, null, rowNumber++));
+            }
+        }
+    }
+}
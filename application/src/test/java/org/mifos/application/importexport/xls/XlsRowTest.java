@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.xls;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.apache.poi.hssf.usermodel.HSSFDateUtil;
+import org.apache.poi.hssf.usermodel.HSSFRichTextString;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+public class XlsRowTest {
+
+    @Test
+    public void copiesTheCellsOfAUserModelRow() {
+        HSSFRow row = new HSSFWorkbook().createSheet().createRow(4);
+        row.createCell(0).setCellValue(new HSSFRichTextString("Jane"));
+        row.createCell(2).setCellValue(3.7);
+        row.createCell(3).setCellValue(true);
+        row.createCell(5);
+
+        XlsRow xlsRow = XlsRow.of(row);
+
+        assertThat(xlsRow.getRowNum(), is(4));
+        assertThat(xlsRow.isEmpty(), is(false));
+        assertThat(xlsRow.getString(0), is("Jane"));
+        assertThat(xlsRow.getNumber(2), is(3.7));
+        assertThat(xlsRow.getString(3), is(""));
+        assertThat(xlsRow.getString(5), is(""));
+        assertThat(xlsRow.getNumber(5), is(nullValue()));
+    }
+
+    @Test
+    public void rowWithOnlyBlankCellsIsEmpty() {
+        HSSFRow row = new HSSFWorkbook().createSheet().createRow(0);
+        row.createCell(1);
+
+        assertThat(XlsRow.of(row).isEmpty(), is(true));
+    }
+
+    @Test
+    public void numericCellReadAsStringGivesItsIntegerPart() {
+        XlsRow row = new XlsRow(0);
+        row.setNumber(0, 1234.9);
+
+        assertThat(row.getString(0), is("1234"));
+    }
+
+    @Test
+    public void formulaCellGivesItsCachedValue() {
+        XlsRow row = new XlsRow(0);
+        row.setFormula(0, 42);
+
+        assertThat(row.getNumber(0), is(42.0));
+        assertThat(row.getString(0), is(""));
+    }
+
+    @Test
+    public void numericCellReadAsDateGivesTheDate() {
+        LocalDate date = new LocalDate(2011, 3, 14);
+        XlsRow row = new XlsRow(0);
+        row.setNumber(0, HSSFDateUtil.getExcelDate(date.toDateMidnight().toDate()));
+
+        assertThat(new LocalDate(row.getDate(0)), is(date));
+        assertThat(row.getDate(1), is(nullValue()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void stringCellCannotBeReadAsNumber() {
+        XlsRow row = new XlsRow(0);
+        row.setString(0, "abc");
+
+        row.getNumber(0);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.xls;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFRichTextString;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XlsSheetReaderTest {
+
+    private final List<XlsRow> rows = new ArrayList<XlsRow>();
+    private XlsSheetReader reader;
+
+    @Before
+    public void setUp() {
+        reader = new XlsSheetReader(new XlsSheetReader.RowHandler() {
+            @Override
+            public void handleRow(XlsRow row) {
+                rows.add(row);
+            }
+        });
+    }
+
+    @Test
+    public void handsOnTheRowsOfTheFirstSheetInOrder() throws Exception {
+        HSSFWorkbook workbook = new HSSFWorkbook();
+        HSSFSheet sheet = workbook.createSheet("clients");
+        HSSFRow header = sheet.createRow(0);
+        header.createCell(0).setCellValue(new HSSFRichTextString("Name"));
+        header.createCell(1).setCellValue(new HSSFRichTextString("Children"));
+        HSSFRow first = sheet.createRow(1);
+        first.createCell(0).setCellValue(new HSSFRichTextString("Jane"));
+        first.createCell(1).setCellValue(2);
+        HSSFRow second = sheet.createRow(3);
+        second.createCell(0).setCellValue(new HSSFRichTextString("Name"));
+        second.createCell(2).setCellValue(1234.5);
+
+        read(workbook);
+
+        assertThat(rows.size(), is(3));
+        assertThat(rows.get(0).getRowNum(), is(0));
+        assertThat(rows.get(0).getString(1), is("Children"));
+        assertThat(rows.get(1).getRowNum(), is(1));
+        assertThat(rows.get(1).getString(0), is("Jane"));
+        assertThat(rows.get(1).getNumber(1), is(2.0));
+        assertThat(rows.get(2).getRowNum(), is(3));
+        assertThat(rows.get(2).getString(0), is("Name"));
+        assertThat(rows.get(2).getNumber(2), is(1234.5));
+    }
+
+    @Test
+    public void skipsRowsOfBlankCellsAndOtherSheets() throws Exception {
+        HSSFWorkbook workbook = new HSSFWorkbook();
+        HSSFSheet sheet = workbook.createSheet("clients");
+        sheet.createRow(0).createCell(0).setCellValue(new HSSFRichTextString("Jane"));
+        sheet.createRow(1).createCell(0);
+        sheet.createRow(2).createCell(0).setCellValue(new HSSFRichTextString("John"));
+        workbook.createSheet("lists").createRow(0).createCell(0).setCellValue(new HSSFRichTextString("Other"));
+
+        read(workbook);
+
+        assertThat(rows.size(), is(2));
+        assertThat(rows.get(0).getString(0), is("Jane"));
+        assertThat(rows.get(1).getRowNum(), is(2));
+        assertThat(rows.get(1).getString(0), is("John"));
+    }
+
+    @Test
+    public void readsTheCachedValueOfFormulas() throws Exception {
+        HSSFWorkbook workbook = new HSSFWorkbook();
+        HSSFRow row = workbook.createSheet("clients").createRow(0);
+        row.createCell(0).setCellValue(20);
+        HSSFCell formula = row.createCell(1);
+        formula.setCellFormula("A1*2");
+        new HSSFFormulaEvaluator(workbook).evaluateFormulaCell(formula);
+
+        read(workbook);
+
+        assertThat(rows.size(), is(1));
+        assertThat(rows.get(0).getNumber(1), is(40.0));
+    }
+
+    private void read(HSSFWorkbook workbook) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        workbook.write(output);
+        InputStream input = new ByteArrayInputStream(output.toByteArray());
+        reader.read(input);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+
+package org.mifos.application.servicefacade;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mifos.dto.domain.MisProcessingTransactionsDto;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+
+public class AccountingServiceFacadeWebTierIntegrationTest extends MifosIntegrationTestCase {
+
+    private static final String LEGACY_OFFICE = "MISTEST0001";
+    private static final String BATCHED_OFFICE = "MISTEST0002";
+    private static final Short CREATED_BY = Short.valueOf((short) 1);
+
+    private final AccountingServiceFacadeWebTier accountingServiceFacade = new AccountingServiceFacadeWebTier();
+
+    @Test
+    public void batchedMisPostingsWriteTheSameLedgerAsOnePostingAtATime() {
+        Assert.assertNotNull("An active financial year is needed", accountingServiceFacade.getFinancialYear());
+
+        accountingServiceFacade.processListOfTransactions(getMisPostings(LEGACY_OFFICE), CREATED_BY);
+        accountingServiceFacade.processListOfTransactionsInBatch(getMisPostings(BATCHED_OFFICE), CREATED_BY);
+        StaticHibernateUtil.flushSession();
+
+        List<String> legacyTransactions = getGlTransactions(LEGACY_OFFICE);
+        Assert.assertEquals(4, legacyTransactions.size());
+        Assert.assertEquals(legacyTransactions, getGlTransactions(BATCHED_OFFICE));
+
+        List<String> legacyBalances = getGlBalances(LEGACY_OFFICE);
+        Assert.assertEquals(3, legacyBalances.size());
+        Assert.assertEquals(legacyBalances, getGlBalances(BATCHED_OFFICE));
+    }
+
+    /**
+     * Two postings share both gl codes so that the balances they update are accumulated.
+     */
+    private List<MisProcessingTransactionsDto> getMisPostings(String globalOfficeNum) {
+        List<MisProcessingTransactionsDto> postings = new ArrayList<MisProcessingTransactionsDto>();
+        postings.add(getMisPosting(globalOfficeNum, "11201", "11101", "100.5"));
+        postings.add(getMisPosting(globalOfficeNum, "11201", "11101", "20"));
+        postings.add(getMisPosting(globalOfficeNum, "11101", "22101", "7.25"));
+        postings.add(getMisPosting(globalOfficeNum, "22101", "11201", "13"));
+        return postings;
+    }
+
+    private MisProcessingTransactionsDto getMisPosting(String globalOfficeNum, String glDebit, String glCredit,
+            String amount) {
+        Date today = new java.sql.Date(new Date().getTime());
+        MisProcessingTransactionsDto posting = new MisProcessingTransactionsDto();
+        posting.setOfficeLevel(5);
+        posting.setGlobalOfficeNum(globalOfficeNum);
+        posting.setVoucherType("JV");
+        posting.setPostedDate(today);
+        posting.setVoucherDate(today);
+        posting.setGlDebit(glDebit);
+        posting.setGlCredit(glCredit);
+        posting.setAmount(new BigDecimal(amount));
+        posting.setTransactionNotes("notes");
+        return posting;
+    }
+
+    private List<String> getGlTransactions(String officeId) {
+        return getRows("select m.transaction_date, m.transaction_type, m.from_office_level, m.main_account, "
+                + "m.transaction_amount, m.amount_action, m.transaction_narration, m.to_office_level, "
+                + "m.transaction_by, m.status, m.created_by, m.created_date, d.sub_account, d.transaction_amount, "
+                + "d.amount_action from acc_glmaster m join acc_gldetail d "
+                + "on d.transaction_master_id = m.transaction_master_id "
+                + "where m.from_office_id = :OFFICE_ID and m.to_office_id = :OFFICE_ID "
+                + "order by m.main_account, d.sub_account, m.transaction_amount", officeId);
+    }
+
+    private List<String> getGlBalances(String officeId) {
+        return getRows("select financialyear_id, office_level, glcode_value, openning_bal, transaction_dr_sum, "
+                + "transaction_cr_sum, closing_bal from acc_glbalances where office_id = :OFFICE_ID "
+                + "order by glcode_value", officeId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getRows(String sql, String officeId) {
+        List<Object[]> rows = StaticHibernateUtil.getSessionTL().createSQLQuery(sql).setString("OFFICE_ID",
+                officeId).list();
+        List<String> result = new ArrayList<String>();
+        for (Object[] row : rows) {
+            result.add(Arrays.toString(row));
+        }
+        return result;
+    }
+}
@@ -23,7 +23,10 @@ package org.mifos.application.servicefacade;
 import static org.hamcrest.CoreMatchers.is;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -32,6 +35,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mifos.config.GeneralConfig;
+import org.mifos.config.business.MifosConfigurationManager;
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.customers.center.business.CenterBO;
 import org.mifos.framework.MifosIntegrationTestCase;
@@ -273,6 +278,61 @@ public class CollectionSheetServiceImplIntegrationTest extends MifosIntegrationT
         }
     }
 
+    @Test
+    public void testBatchedAccountingEntriesAreTheSameAsCascadedOnes() throws Exception {
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        Boolean configuredValue = GeneralConfig.getBatchedAccountingEntries();
+        TestSaveCollectionSheetUtils batchedSaveCollectionSheetUtils = new TestSaveCollectionSheetUtils();
+        try {
+            configMgr.setProperty(GeneralConfig.BatchedAccountingEntries, false);
+            List<String> cascaded = saveAndGetFinancialTransactions(saveCollectionSheetUtils);
+
+            configMgr.setProperty(GeneralConfig.BatchedAccountingEntries, true);
+            List<String> batched = saveAndGetFinancialTransactions(batchedSaveCollectionSheetUtils);
+
+            Assert.assertFalse("The collection sheet should have posted accounting entries", cascaded.isEmpty());
+            Assert.assertEquals(cascaded, batched);
+        } finally {
+            configMgr.setProperty(GeneralConfig.BatchedAccountingEntries, configuredValue);
+            batchedSaveCollectionSheetUtils.clearObjects();
+        }
+    }
+
+    private List<String> saveAndGetFinancialTransactions(TestSaveCollectionSheetUtils utils) throws Exception {
+        SaveCollectionSheetDto saveCollectionSheet = utils.createSampleSaveCollectionSheet();
+        Integer lastTrxnId = getMaxFinancialTrxnId();
+        try {
+            collectionSheetService.saveCollectionSheet(saveCollectionSheet);
+        } catch (SaveCollectionSheetException e) {
+            throw new MifosRuntimeException(e.printInvalidSaveCollectionSheetReasons());
+        }
+        return getFinancialTransactionsAfter(lastTrxnId);
+    }
+
+    private Integer getMaxFinancialTrxnId() {
+        Number maxTrxnId = (Number) StaticHibernateUtil.getSessionTL().createSQLQuery(
+                "select max(trxn_id) from financial_trxn").uniqueResult();
+        return maxTrxnId == null ? 0 : maxTrxnId.intValue();
+    }
+
+    /**
+     * Rows are compared without their ids, which differ between two saves of the same collection sheet.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> getFinancialTransactionsAfter(Integer trxnId) {
+        List<Object[]> rows = StaticHibernateUtil.getSessionTL().createSQLQuery(
+                "select fin_action_id, glcode_id, debit_credit_flag, action_date, posted_amount_currency_id, "
+                        + "posted_amount, balance_amount_currency_id, balance_amount, accounting_updated, notes, "
+                        + "related_fin_trxn is null from financial_trxn where trxn_id > :TRXN_ID "
+                        + "order by fin_action_id, glcode_id, debit_credit_flag, posted_amount").setInteger(
+                "TRXN_ID", trxnId).list();
+        List<String> financialTransactions = new ArrayList<String>();
+        for (Object[] row : rows) {
+            financialTransactions.add(Arrays.toString(row));
+        }
+        return financialTransactions;
+    }
+
     private DateTime initializeToFixedDateTime(Date date) {
         LocalDate localDate = DateUtils.getLocalDateFromDate(date).plusDays(3);
         DateTime dateTime = new DateTime(localDate.getYear(), localDate.getMonthOfYear(), localDate.getDayOfMonth(), 0,
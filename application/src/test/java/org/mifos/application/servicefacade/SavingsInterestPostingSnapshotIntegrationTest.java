@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.servicefacade;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mifos.framework.util.helpers.IntegrationTestObjectMother.sampleBranchOffice;
+import static org.mifos.framework.util.helpers.IntegrationTestObjectMother.testUser;
+
+import java.util.Arrays;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.accounts.business.AccountPaymentEntity;
+import org.mifos.accounts.productdefinition.business.SavingsOfferingBO;
+import org.mifos.accounts.productdefinition.persistence.SavingsProductDao;
+import org.mifos.accounts.savings.business.SavingsBO;
+import org.mifos.accounts.savings.interest.InterestPostingPeriodResult;
+import org.mifos.accounts.savings.persistence.SavingsDao;
+import org.mifos.application.holiday.persistence.HolidayDao;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.customers.center.business.CenterBO;
+import org.mifos.customers.client.business.ClientBO;
+import org.mifos.customers.group.business.GroupBO;
+import org.mifos.customers.persistence.CustomerDao;
+import org.mifos.customers.personnel.persistence.PersonnelDao;
+import org.mifos.domain.builders.CenterBuilder;
+import org.mifos.domain.builders.ClientBuilder;
+import org.mifos.domain.builders.GroupBuilder;
+import org.mifos.domain.builders.MeetingBuilder;
+import org.mifos.domain.builders.SavingsAccountBuilder;
+import org.mifos.domain.builders.SavingsProductBuilder;
+import org.mifos.dto.domain.SavingsAdjustmentDto;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.TestUtils;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.framework.util.helpers.IntegrationTestObjectMother;
+import org.mifos.security.AuthenticationAuthorizationServiceFacade;
+import org.mifos.test.framework.util.DatabaseCleaner;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Checks that interest resumed from a savings balance snapshot is the interest replayed from the whole account history,
+ * also after a back dated adjustment of a transaction the snapshot covers.
+ */
+public class SavingsInterestPostingSnapshotIntegrationTest extends MifosIntegrationTestCase {
+
+    @Autowired
+    private DatabaseCleaner databaseCleaner;
+
+    @Autowired
+    private SavingsServiceFacade savingsServiceFacade;
+
+    @Autowired
+    private AuthenticationAuthorizationServiceFacade authenticationAuthorizationService;
+
+    @Autowired
+    private SavingsDao savingsDao;
+
+    @Autowired
+    private SavingsProductDao savingsProductDao;
+
+    @Autowired
+    private PersonnelDao personnelDao;
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private HolidayDao holidayDao;
+
+    private SavingsServiceFacadeWebTier interestCalculator;
+    private LocalDate firstPostingDate;
+    private LocalDate activationDate;
+    private ClientBO client;
+
+    @Before
+    public void setUp() throws Exception {
+        databaseCleaner.clean();
+        authenticationAuthorizationService.reloadUserDetailsForSecurityContext("mifos");
+        interestCalculator = new SavingsServiceFacadeWebTier(savingsDao, savingsProductDao, personnelDao, customerDao,
+                holidayDao);
+
+        firstPostingDate = new LocalDate().minusMonths(3).dayOfMonth().withMaximumValue();
+        activationDate = firstPostingDate.withDayOfMonth(1);
+        createCenterGroupClientHierarchy();
+    }
+
+    @After
+    public void tearDown() {
+        databaseCleaner.clean();
+    }
+
+    @Test
+    public void interestFromSnapshotEqualsInterestFromFullHistory() throws Exception {
+        SavingsBO savingsAccount = createSavingsAccount();
+        Long savingsId = Long.valueOf(savingsAccount.getAccountId());
+
+        assertThat(savingsServiceFacade.postInterestForLastPostingPeriod(Arrays.asList(savingsAccount.getAccountId()))
+                .isEmpty(), is(true));
+        StaticHibernateUtil.flushAndClearSession();
+        assertThat(savingsDao.findLatestBalanceSnapshotBefore(savingsId, firstPostingDate.plusDays(1)),
+                is(notNullValue()));
+
+        InterestPostingPeriodResult fromFullHistory = interestCalculator.calculateNextPostingPeriodResult(savingsId,
+                false);
+        assertSameInterest(interestCalculator.calculateNextPostingPeriodResult(savingsId, true), fromFullHistory);
+        assertThat(fromFullHistory.getPeriodInterest().isGreaterThanZero(), is(true));
+
+        // back dated: the deposit is before the posting the snapshot was taken at
+        AccountPaymentEntity firstDeposit = findPaymentOn(IntegrationTestObjectMother
+                .findSavingsAccountById(savingsId), activationDate);
+        savingsServiceFacade.adjustTransaction(new SavingsAdjustmentDto(savingsId, Double.valueOf("3000"),
+                "deposit was entered with the wrong amount", firstDeposit.getPaymentId(), activationDate));
+        StaticHibernateUtil.flushAndClearSession();
+
+        InterestPostingPeriodResult adjustedFromFullHistory = interestCalculator.calculateNextPostingPeriodResult(
+                savingsId, false);
+        assertSameInterest(interestCalculator.calculateNextPostingPeriodResult(savingsId, true),
+                adjustedFromFullHistory);
+        assertThat(adjustedFromFullHistory.getPeriodInterest().isGreaterThan(fromFullHistory.getPeriodInterest()),
+                is(true));
+    }
+
+    private void assertSameInterest(InterestPostingPeriodResult fromSnapshot,
+            InterestPostingPeriodResult fromFullHistory) {
+        assertThat(fromSnapshot.getPostingPeriod().getStartDate(), is(fromFullHistory.getPostingPeriod()
+                .getStartDate()));
+        assertThat(fromSnapshot.getPostingPeriod().getEndDate(), is(fromFullHistory.getPostingPeriod().getEndDate()));
+        assertThat(fromSnapshot.getPeriodBalance(), is(fromFullHistory.getPeriodBalance()));
+        assertThat(fromSnapshot.getPeriodInterest(), is(fromFullHistory.getPeriodInterest()));
+        assertThat(fromSnapshot.getDifferenceInInterest(), is(fromFullHistory.getDifferenceInInterest()));
+    }
+
+    private AccountPaymentEntity findPaymentOn(SavingsBO savingsAccount, LocalDate paymentDate) {
+        for (AccountPaymentEntity payment : savingsAccount.getAccountPayments()) {
+            if (new LocalDate(payment.getPaymentDate()).equals(paymentDate)) {
+                return payment;
+            }
+        }
+        throw new IllegalStateException("no payment on " + paymentDate);
+    }
+
+    private SavingsBO createSavingsAccount() {
+        SavingsOfferingBO savingsProduct = new SavingsProductBuilder().voluntary().appliesToClientsOnly()
+                .withInterestRate(Double.valueOf("12.0")).buildForIntegrationTests();
+        SavingsBO savingsAccount = new SavingsAccountBuilder().active()
+                .withActivationDate(activationDate.toDateMidnight().toDateTime())
+                .withSavingsProduct(savingsProduct)
+                .withCustomer(client)
+                .withCreatedBy(testUser())
+                .withBalanceOf(TestUtils.createMoney("0"))
+                .withDepositOn("2000", activationDate.toDateMidnight().toDateTime())
+                .withDepositOn("500", firstPostingDate.plusDays(10).toDateMidnight().toDateTime())
+                .withNextInterestPostingDateOf(firstPostingDate.toDateMidnight().toDateTime())
+                .build();
+        IntegrationTestObjectMother.saveSavingsProductAndAssociatedSavingsAccounts(savingsProduct, savingsAccount);
+        return savingsAccount;
+    }
+
+    private void createCenterGroupClientHierarchy() throws Exception {
+        DateTime startDate = activationDate.toDateMidnight().toDateTime();
+        MeetingBO weeklyMeeting = new MeetingBuilder().customerMeeting().weekly().every(1).withStartDate(startDate)
+                .build();
+        IntegrationTestObjectMother.saveMeeting(weeklyMeeting);
+
+        CenterBO center = new CenterBuilder().withName("Savings Center").with(weeklyMeeting)
+                .with(sampleBranchOffice()).withLoanOfficer(testUser()).withActivationDate(startDate).build();
+        IntegrationTestObjectMother.createCenter(center, weeklyMeeting);
+
+        GroupBO group = new GroupBuilder().withName("Group").withMeeting(weeklyMeeting)
+                .withOffice(sampleBranchOffice()).withLoanOfficer(testUser()).withParentCustomer(center).build();
+        IntegrationTestObjectMother.createGroup(group, weeklyMeeting);
+
+        client = new ClientBuilder().withName("Client 1").active().withMeeting(weeklyMeeting)
+                .withOffice(sampleBranchOffice()).withLoanOfficer(testUser()).withParentCustomer(group)
+                .buildForIntegrationTests();
+        IntegrationTestObjectMother.createClient(client, weeklyMeeting);
+    }
+}
@@ -19,12 +19,16 @@
  */
 package org.mifos.application.servicefacade;
 
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.joda.time.LocalDate;
@@ -120,6 +124,22 @@ public class SavingsServiceFacadeWebTierTest {
         // verification
         verify(savingsDao, never()).findById(anyLong());
     }
+
+    @Test
+    public void shouldPostEachAccountOfAFailedChunkSeparatelyAndReportTheFailures() {
+
+        // stubbing
+        when(savingsDao.findById(anyLong())).thenThrow(new IllegalStateException("account not found"));
+
+        // exercise test
+        List<Integer> failedSavingsIds = savingsServiceFacade.postInterestForLastPostingPeriod(Arrays.asList(1, 2));
+
+        // verification
+        assertThat(failedSavingsIds, is(Arrays.asList(1, 2)));
+        verify(savingsDao, times(3)).findById(anyLong());
+        verify(transactionHelper, times(3)).rollbackTransaction();
+        verify(transactionHelper, never()).commitTransaction();
+    }
     
     /**
      * Tests result set offset calculation used in the limit clause (limit 0, 10).
@@ -99,4 +99,168 @@ public class GeneralConfigTest extends TestCase {
 
     }
 
+    public void testGetRecordCommittingSizeForSavingsInterestPostingTask() {
+        int configuredValue = GeneralConfig.getRecordCommittingSizeForSavingsInterestPostingTask();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 250;
+        configMgr.setProperty(GeneralConfig.RecordCommittingSizeForSavingsInterestPostingTask, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getRecordCommittingSizeForSavingsInterestPostingTask());
+        configMgr.clearProperty(GeneralConfig.RecordCommittingSizeForSavingsInterestPostingTask);
+        Assert.assertEquals(100, GeneralConfig.getRecordCommittingSizeForSavingsInterestPostingTask());
+        // save it back
+        configMgr.setProperty(GeneralConfig.RecordCommittingSizeForSavingsInterestPostingTask, configuredValue);
+    }
+
+    public void testGetNumberOfThreadsForBatchJobs() {
+        int configuredValue = GeneralConfig.getNumberOfThreadsForBatchJobs();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 4;
+        configMgr.setProperty(GeneralConfig.NumberOfThreadsForBatchJobs, currentValue);
+       Assert.assertEquals(currentValue, GeneralConfig.getNumberOfThreadsForBatchJobs());
+        configMgr.clearProperty(GeneralConfig.NumberOfThreadsForBatchJobs);
+        int defaultValue = GeneralConfig.getNumberOfThreadsForBatchJobs();
+        int expectedDefaultValue = 1;
+       Assert.assertEquals(defaultValue, expectedDefaultValue);
+        // save it back
+        configMgr.setProperty(GeneralConfig.NumberOfThreadsForBatchJobs, configuredValue);
+
+    }
+
+    public void testGetIncrementalLoanArrearsAging() {
+        Boolean configuredValue = GeneralConfig.getIncrementalLoanArrearsAging();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        configMgr.setProperty(GeneralConfig.IncrementalLoanArrearsAging, true);
+        Assert.assertTrue(GeneralConfig.getIncrementalLoanArrearsAging());
+        configMgr.clearProperty(GeneralConfig.IncrementalLoanArrearsAging);
+        Assert.assertFalse(GeneralConfig.getIncrementalLoanArrearsAging());
+        // save it back
+        configMgr.setProperty(GeneralConfig.IncrementalLoanArrearsAging, configuredValue);
+
+    }
+
+    public void testGetAuditLogQueueCapacity() {
+        int configuredValue = GeneralConfig.getAuditLogQueueCapacity();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int capacity = 500;
+        configMgr.setProperty(GeneralConfig.AuditLogQueueCapacity, capacity);
+        Assert.assertEquals(capacity, GeneralConfig.getAuditLogQueueCapacity());
+        // save it back
+        configMgr.setProperty(GeneralConfig.AuditLogQueueCapacity, configuredValue);
+    }
+
+    public void testGetCustomerHierarchyClosureQueries() {
+        Boolean configuredValue = GeneralConfig.getCustomerHierarchyClosureQueries();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        configMgr.setProperty(GeneralConfig.CustomerHierarchyClosureQueries, true);
+        Assert.assertTrue(GeneralConfig.getCustomerHierarchyClosureQueries());
+        configMgr.clearProperty(GeneralConfig.CustomerHierarchyClosureQueries);
+        Assert.assertFalse(GeneralConfig.getCustomerHierarchyClosureQueries());
+        // save it back
+        configMgr.setProperty(GeneralConfig.CustomerHierarchyClosureQueries, configuredValue);
+    }
+
+    public void testGetBatchedMisPostingProcessing() {
+        Boolean configuredValue = GeneralConfig.getBatchedMisPostingProcessing();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        configMgr.setProperty(GeneralConfig.BatchedMisPostingProcessing, true);
+        Assert.assertTrue(GeneralConfig.getBatchedMisPostingProcessing());
+        configMgr.clearProperty(GeneralConfig.BatchedMisPostingProcessing);
+        Assert.assertFalse(GeneralConfig.getBatchedMisPostingProcessing());
+        // save it back
+        configMgr.setProperty(GeneralConfig.BatchedMisPostingProcessing, configuredValue);
+    }
+
+    public void testGetClientPhotoThumbnailWidth() {
+        int configuredValue = GeneralConfig.getClientPhotoThumbnailWidth();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int width = 150;
+        configMgr.setProperty(GeneralConfig.ClientPhotoThumbnailWidth, width);
+        Assert.assertEquals(width, GeneralConfig.getClientPhotoThumbnailWidth());
+        // save it back
+        configMgr.setProperty(GeneralConfig.ClientPhotoThumbnailWidth, configuredValue);
+    }
+
+    public void testGetRecordCommittingSizeForClientImport() {
+        int configuredValue = GeneralConfig.getRecordCommittingSizeForClientImport();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 250;
+        configMgr.setProperty(GeneralConfig.RecordCommittingSizeForClientImport, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getRecordCommittingSizeForClientImport());
+        configMgr.clearProperty(GeneralConfig.RecordCommittingSizeForClientImport);
+        Assert.assertEquals(500, GeneralConfig.getRecordCommittingSizeForClientImport());
+        // save it back
+        configMgr.setProperty(GeneralConfig.RecordCommittingSizeForClientImport, configuredValue);
+    }
+
+    public void testGetBatchedAccountingEntries() {
+        Boolean configuredValue = GeneralConfig.getBatchedAccountingEntries();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        configMgr.setProperty(GeneralConfig.BatchedAccountingEntries, true);
+        Assert.assertTrue(GeneralConfig.getBatchedAccountingEntries());
+        configMgr.clearProperty(GeneralConfig.BatchedAccountingEntries);
+        Assert.assertFalse(GeneralConfig.getBatchedAccountingEntries());
+        // save it back
+        configMgr.setProperty(GeneralConfig.BatchedAccountingEntries, configuredValue);
+    }
+
+    public void testGetReportQueueThreads() {
+        int configuredValue = GeneralConfig.getReportQueueThreads();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 4;
+        configMgr.setProperty(GeneralConfig.ReportQueueThreads, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getReportQueueThreads());
+        configMgr.clearProperty(GeneralConfig.ReportQueueThreads);
+        Assert.assertEquals(2, GeneralConfig.getReportQueueThreads());
+        // save it back
+        configMgr.setProperty(GeneralConfig.ReportQueueThreads, configuredValue);
+    }
+
+    public void testGetReportQueueCapacity() {
+        int configuredValue = GeneralConfig.getReportQueueCapacity();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 10;
+        configMgr.setProperty(GeneralConfig.ReportQueueCapacity, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getReportQueueCapacity());
+        configMgr.clearProperty(GeneralConfig.ReportQueueCapacity);
+        Assert.assertEquals(50, GeneralConfig.getReportQueueCapacity());
+        // save it back
+        configMgr.setProperty(GeneralConfig.ReportQueueCapacity, configuredValue);
+    }
+
+    public void testGetReportJobsPerUser() {
+        int configuredValue = GeneralConfig.getReportJobsPerUser();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 1;
+        configMgr.setProperty(GeneralConfig.ReportJobsPerUser, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getReportJobsPerUser());
+        configMgr.clearProperty(GeneralConfig.ReportJobsPerUser);
+        Assert.assertEquals(2, GeneralConfig.getReportJobsPerUser());
+        // save it back
+        configMgr.setProperty(GeneralConfig.ReportJobsPerUser, configuredValue);
+    }
+
+    public void testGetReportResultCacheSize() {
+        int configuredValue = GeneralConfig.getReportResultCacheSize();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 5;
+        configMgr.setProperty(GeneralConfig.ReportResultCacheSize, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getReportResultCacheSize());
+        configMgr.clearProperty(GeneralConfig.ReportResultCacheSize);
+        Assert.assertEquals(20, GeneralConfig.getReportResultCacheSize());
+        // save it back
+        configMgr.setProperty(GeneralConfig.ReportResultCacheSize, configuredValue);
+    }
+
+    public void testGetReportResultMemoryMegabytes() {
+        int configuredValue = GeneralConfig.getReportResultMemoryMegabytes();
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int currentValue = 16;
+        configMgr.setProperty(GeneralConfig.ReportResultMemoryMegabytes, currentValue);
+        Assert.assertEquals(currentValue, GeneralConfig.getReportResultMemoryMegabytes());
+        configMgr.clearProperty(GeneralConfig.ReportResultMemoryMegabytes);
+        Assert.assertEquals(64, GeneralConfig.getReportResultMemoryMegabytes());
+        // save it back
+        configMgr.setProperty(GeneralConfig.ReportResultMemoryMegabytes, configuredValue);
+    }
+
 }
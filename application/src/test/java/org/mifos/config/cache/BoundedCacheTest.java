@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.config.cache;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void countsHitsAndMisses() {
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 10, BoundedCache.NO_EXPIRY);
+        cache.put("one", 1);
+
+        assertThat(cache.get("one"), is(1));
+        assertThat(cache.get("two"), is(nullValue()));
+
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void evictsOldestEntriesWhenFull() {
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 2, BoundedCache.NO_EXPIRY);
+        cache.put("one", 1);
+        cache.put("two", 2);
+        cache.put("three", 3);
+
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.get("one"), is(nullValue()));
+        assertThat(cache.get("three"), is(3));
+        assertThat(cache.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void puttingAKeyAgainMakesItTheNewestEntry() {
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 2, BoundedCache.NO_EXPIRY);
+        cache.put("one", 1);
+        cache.put("two", 2);
+        cache.put("one", 11);
+        cache.put("one", 111);
+        cache.put("three", 3);
+
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.get("two"), is(nullValue()));
+        assertThat(cache.get("one"), is(111));
+        assertThat(cache.get("three"), is(3));
+        assertThat(cache.getEvictionCount(), is(1L));
+
+        cache.put("four", 4);
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.get("one"), is(nullValue()));
+        assertThat(cache.getEvictionCount(), is(2L));
+    }
+
+    @Test
+    public void evictsOldestEntriesBeyondTheMaximumWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>("test", 10, BoundedCache.NO_EXPIRY, 5,
+                new CacheWeigher<String>() {
+                    @Override
+                    public long weigh(String value) {
+                        return value.length();
+                    }
+                });
+        cache.put("one", "aa");
+        cache.put("two", "bb");
+        assertThat(cache.getWeight(), is(4L));
+
+        cache.put("three", "ccc");
+        assertThat(cache.get("one"), is(nullValue()));
+        assertThat(cache.get("two"), is("bb"));
+        assertThat(cache.getWeight(), is(5L));
+
+        cache.put("two", "b");
+        assertThat(cache.getWeight(), is(4L));
+
+        cache.put("four", "dddddddd");
+        assertThat(cache.getSize(), is(1));
+        assertThat(cache.get("four"), is("dddddddd"));
+        assertThat(cache.getWeight(), is(8L));
+
+        cache.invalidate("four");
+        assertThat(cache.getWeight(), is(0L));
+    }
+
+    @Test
+    public void keySetIsASnapshot() {
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 10, BoundedCache.NO_EXPIRY);
+        cache.put("one", 1);
+        cache.put("two", 2);
+
+        for (String key : cache.keySet()) {
+            cache.invalidate(key);
+        }
+
+        assertThat(cache.getSize(), is(0));
+    }
+
+    @Test
+    public void expiresEntriesAfterTimeToLive() {
+        final long[] now = { 1000 };
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 10, 50) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+        cache.put("one", 1);
+        now[0] = 1049;
+        assertThat(cache.get("one"), is(1));
+
+        now[0] = 1050;
+        assertThat(cache.get("one"), is(nullValue()));
+        assertThat(cache.getEvictionCount(), is(1L));
+        assertThat(cache.getSize(), is(0));
+    }
+
+    @Test
+    public void reloadsInvalidatedEntriesThroughLoader() {
+        final int[] loads = { 0 };
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 10, BoundedCache.NO_EXPIRY,
+                new CacheLoader<String, Integer>() {
+                    @Override
+                    public Integer load(String key) {
+                        loads[0]++;
+                        return key.length();
+                    }
+                });
+
+        assertThat(cache.get("abc"), is(3));
+        assertThat(cache.get("abc"), is(3));
+        assertThat(loads[0], is(1));
+
+        cache.invalidate("abc");
+        assertThat(cache.get("abc"), is(3));
+        assertThat(loads[0], is(2));
+    }
+
+    @Test
+    public void doesNotCacheAValueLoadedWhileTheCacheWasInvalidated() {
+        final int[] loads = { 0 };
+        final List<BoundedCache<String, Integer>> caches = new ArrayList<BoundedCache<String, Integer>>();
+        BoundedCache<String, Integer> cache = new BoundedCache<String, Integer>("test", 10, BoundedCache.NO_EXPIRY,
+                new CacheLoader<String, Integer>() {
+                    @Override
+                    public Integer load(String key) {
+                        loads[0]++;
+                        if (loads[0] == 1) {
+                            // the value read here is stale once the change that invalidates the cache commits
+                            caches.get(0).invalidate(key);
+                        }
+                        return loads[0];
+                    }
+                });
+        caches.add(cache);
+
+        assertThat(cache.get("abc"), is(1));
+        assertThat(cache.getSize(), is(0));
+
+        assertThat(cache.get("abc"), is(2));
+        assertThat(cache.get("abc"), is(2));
+        assertThat(loads[0], is(2));
+    }
+
+    @Test
+    public void keepsItsBoundsAndWeightWhenUsedConcurrently() throws Exception {
+        final BoundedCache<Integer, String> cache = new BoundedCache<Integer, String>("test", 50,
+                BoundedCache.NO_EXPIRY, 200, new CacheWeigher<String>() {
+                    @Override
+                    public long weigh(String value) {
+                        return value.length();
+                    }
+                });
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 5000; i++) {
+                        int key = (i * 31 + seed) % 80;
+                        if (i % 7 == 0) {
+                            cache.invalidate(key);
+                        } else {
+                            cache.put(key, "value".substring(0, 1 + i % 5));
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long heldWeight = 0;
+        for (Integer key : cache.keySet()) {
+            heldWeight += cache.get(key).length();
+        }
+        assertThat(cache.getSize() <= 50, is(true));
+        assertThat(cache.getWeight() <= 200, is(true));
+        assertThat(cache.getWeight(), is(heldWeight));
+    }
+
+    @Test
+    public void officeCacheInvalidatesOnlyTheGivenOffice() {
+        Map<Key, Object> elements = new HashMap<Key, Object>();
+        elements.put(new Key((short) 1, "a"), "head office");
+        elements.put(new Key((short) 2, "a"), "branch");
+        OfficeCache officeCache = new OfficeCache(elements);
+
+        officeCache.invalidate((short) 2);
+
+        assertThat(officeCache.getElement(new Key((short) 1, "A")), is((Object) "head office"));
+        assertThat(officeCache.getElement(new Key((short) 2, "a")), is(nullValue()));
+    }
+}
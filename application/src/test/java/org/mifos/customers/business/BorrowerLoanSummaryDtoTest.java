@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.customers.business;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.mifos.accounts.productdefinition.util.helpers.InterestType;
+import org.mifos.accounts.util.helpers.AccountState;
+import org.mifos.accounts.util.helpers.AccountTypes;
+
+public class BorrowerLoanSummaryDtoTest {
+
+    @Test
+    public void shouldOnlyTreatLoansPastDisbursementToLoanOfficerAsDisbursed() {
+        BorrowerLoanSummaryDto loan = new BorrowerLoanSummaryDto();
+
+        loan.setAccountStateId(AccountState.LOAN_DISBURSED_TO_LOAN_OFFICER.getValue());
+        assertThat(loan.isDisbursed(), is(false));
+
+        loan.setAccountStateId(AccountState.LOAN_ACTIVE_IN_BAD_STANDING.getValue());
+        assertThat(loan.isDisbursed(), is(true));
+    }
+
+    @Test
+    public void shouldRecogniseGroupLoansAndDecliningBalanceInterestRecalculation() {
+        BorrowerLoanSummaryDto loan = new BorrowerLoanSummaryDto();
+        loan.setAccountTypeId(AccountTypes.LOAN_ACCOUNT.getValue());
+        loan.setInterestTypeId(InterestType.FLAT.getValue());
+
+        assertThat(loan.isGroupLoanAccount(), is(false));
+        assertThat(loan.isDecliningBalanceInterestRecalculation(), is(false));
+
+        loan.setAccountTypeId(AccountTypes.GROUP_LOAN_ACCOUNT.getValue());
+        loan.setInterestTypeId(InterestType.DECLINING_PB.getValue());
+
+        assertThat(loan.isGroupLoanAccount(), is(true));
+        assertThat(loan.isDecliningBalanceInterestRecalculation(), is(true));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.customers.persistence;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mifos.application.meeting.util.helpers.MeetingType.CUSTOMER_MEETING;
+import static org.mifos.application.meeting.util.helpers.RecurrenceType.WEEKLY;
+import static org.mifos.framework.util.helpers.TestObjectFactory.EVERY_WEEK;
+
+import java.sql.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.accounts.business.AccountTestUtils;
+import org.mifos.accounts.loan.business.LoanBO;
+import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
+import org.mifos.accounts.util.helpers.AccountState;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.servicefacade.ApplicationContextProvider;
+import org.mifos.customers.business.CustomerBO;
+import org.mifos.customers.client.business.ClientBO;
+import org.mifos.customers.util.helpers.CustomerStatus;
+import org.mifos.dto.domain.LastRepaymentDto;
+import org.mifos.dto.domain.LoanDetailDto;
+import org.mifos.dto.domain.OverdueCustomer;
+import org.mifos.dto.domain.OverdueLoan;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.framework.util.helpers.TestObjectFactory;
+
+/**
+ * Checks the last repayments and overdue borrowers built from the Customer.getBorrowersUnderLoanOfficer and
+ * Customer.getOpenLoanSummariesOfBorrowersUnderLoanOfficer queries against the values of the loan itself.
+ */
+public class CustomerLoanOfficerBorrowersIntegrationTest extends MifosIntegrationTestCase {
+
+    private CustomerBO center;
+    private CustomerBO group;
+    private ClientBO client;
+    private LoanBO loan;
+    private CustomerDao customerDao;
+
+    @Before
+    public void setUp() throws Exception {
+        customerDao = ApplicationContextProvider.getBean(CustomerDao.class);
+        Date startDate = new Date(System.currentTimeMillis());
+        MeetingBO meeting = TestObjectFactory.createMeeting(TestObjectFactory.getNewMeetingForToday(WEEKLY,
+                EVERY_WEEK, CUSTOMER_MEETING));
+        center = TestObjectFactory.createWeeklyFeeCenter("Center", meeting);
+        group = TestObjectFactory.createWeeklyFeeGroupUnderCenter("Group", CustomerStatus.GROUP_ACTIVE, center);
+        client = TestObjectFactory.createClient("Client", CustomerStatus.CLIENT_ACTIVE, group);
+        LoanOfferingBO loanOffering = TestObjectFactory.createLoanOffering(startDate, meeting);
+        loan = TestObjectFactory.createLoanAccount("42423142341", client, AccountState.LOAN_ACTIVE_IN_GOOD_STANDING,
+                startDate, loanOffering);
+
+        AccountTestUtils.changeInstallmentDatesToPreviousDateExceptLastInstallment(loan, 2);
+        StaticHibernateUtil.flushAndClearSession();
+        loan = TestObjectFactory.getObject(LoanBO.class, loan.getAccountId());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        loan = null;
+        client = null;
+        group = null;
+        center = null;
+    }
+
+    @Test
+    public void lastRepaymentMatchesTheLoan() {
+        LastRepaymentDto lastRepayment = null;
+        for (LastRepaymentDto repayment : customerDao.findLastRepaymentsOfBorrowersUnderLoanOfficer(
+                getLoanOfficerId(), getOfficeId())) {
+            if (repayment.getCustomer().getId().equals(client.getCustomerId())) {
+                lastRepayment = repayment;
+            }
+        }
+
+        assertThat(lastRepayment, is(notNullValue()));
+        LoanDetailDto loanDetails = lastRepayment.getLoanAccount();
+        assertThat(loanDetails.getGlobalAccountNum(), is(loan.getGlobalAccountNum()));
+        assertThat(loanDetails.getAccountStateId(), is(loan.getAccountState().getId()));
+        assertThat(loanDetails.getAccountStateName(), is(loan.getAccountState().getName()));
+        assertThat(loanDetails.getAccountStateName(), is(not(AccountState.LOAN_ACTIVE_IN_GOOD_STANDING
+                .getPropertiesKey())));
+        assertThat(loanDetails.getOutstandingBalance(), is(loan.getLoanBalance().toString()));
+        assertThat(loanDetails.getTotalAmountDue(), is(loan.getTotalAmountDue().toString()));
+        assertThat(loanDetails.getTotalAmountInArrears(), is(loan.getTotalAmountInArrears().toString()));
+    }
+
+    @Test
+    public void overdueLoanMatchesTheLoan() {
+        OverdueCustomer overdueClient = null;
+        for (OverdueCustomer overdueCustomer : customerDao.findOverdueBorrowersUnderLoanOfficer(getLoanOfficerId(),
+                getOfficeId())) {
+            if (overdueCustomer.getGlobalCustNum().equals(client.getGlobalCustNum())) {
+                overdueClient = overdueCustomer;
+            }
+        }
+
+        assertThat(overdueClient, is(notNullValue()));
+        List<OverdueLoan> overdueLoans = overdueClient.getOverdueLoans();
+        assertThat(overdueLoans.size(), is(1));
+        OverdueLoan overdueLoan = overdueLoans.get(0);
+        assertThat(overdueLoan.getGlobalAccountNum(), is(loan.getGlobalAccountNum()));
+        assertThat(overdueLoan.getAccountStateName(), is(loan.getAccountState().getName()));
+        assertThat(overdueLoan.getTotalAmountInArrears(), is(loan.getTotalAmountInArrears().toString()));
+        assertThat(overdueLoan.getTotalAmountDue(), is(loan.getTotalRepayableAmount().toString()));
+        assertThat(overdueLoan.getCapitalExposure(), is(loan.getRemainingPrincipalAmount().toString()));
+        assertThat(overdueClient.getTotalCapitalOutstanding(), is(loan.getRemainingPrincipalAmount().toString()));
+    }
+
+    @Test
+    public void installmentsWithoutMiscellaneousFeesAndPenaltiesAreStillDue() {
+        String totalAmountInArrears = loan.getTotalAmountInArrears().toString();
+        String totalAmountDue = loan.getTotalRepayableAmount().toString();
+        StaticHibernateUtil.getSessionTL().createSQLQuery(
+                "update loan_schedule set misc_fees = null, misc_fees_paid = null, misc_penalty = null, "
+                        + "misc_penalty_paid = null where account_id = :accountId").setInteger("accountId",
+                loan.getAccountId()).executeUpdate();
+
+        OverdueCustomer overdueClient = null;
+        for (OverdueCustomer overdueCustomer : customerDao.findOverdueBorrowersUnderLoanOfficer(getLoanOfficerId(),
+                getOfficeId())) {
+            if (overdueCustomer.getGlobalCustNum().equals(client.getGlobalCustNum())) {
+                overdueClient = overdueCustomer;
+            }
+        }
+
+        assertThat(overdueClient, is(notNullValue()));
+        OverdueLoan overdueLoan = overdueClient.getOverdueLoans().get(0);
+        assertThat(overdueLoan.getTotalAmountInArrears(), is(totalAmountInArrears));
+        assertThat(overdueLoan.getTotalAmountDue(), is(totalAmountDue));
+    }
+
+    private Short getLoanOfficerId() {
+        return center.getPersonnel().getPersonnelId();
+    }
+
+    private Short getOfficeId() {
+        return center.getOffice().getOfficeId();
+    }
+}
@@ -54,6 +54,7 @@ import org.mifos.customers.personnel.util.helpers.PersonnelConstants;
 import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.hibernate.helper.AuditInterceptorFactory;
 import org.mifos.framework.hibernate.helper.DatabaseDependentTest;
+import org.mifos.framework.hibernate.helper.SecondLevelCache;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.util.ConfigurationLocator;
 import org.mifos.framework.util.StandardTestingService;
@@ -127,6 +128,7 @@ public class MifosIntegrationTestCase {
         diableCustomWorkingDays();
         TestUtils.dereferenceObjects(this);
         DatabaseDependentTest.after(new AuditInterceptorFactory(), sessionFactory);
+        SecondLevelCache.evictAll();
         dbVerificationTearDown();
     }
 
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.audit.persistence;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifos.framework.components.audit.business.AuditLog;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuditLogWriterTest {
+
+    @Mock
+    private LegacyAuditDao legacyAuditDao;
+
+    @Test
+    public void savesEachLogOfAFailedBatchOnItsOwn() {
+        AuditLogWriter writer = new AuditLogWriter(legacyAuditDao, true, 10, 10, 10) {
+            @Override
+            protected void insertInTransaction(List<AuditLog> batch) throws Exception {
+                throw new SQLException("batch failed");
+            }
+        };
+        AuditLog first = auditLog(1);
+        AuditLog second = auditLog(2);
+        doThrow(new RuntimeException("save failed")).when(legacyAuditDao).save(first);
+
+        writer.writeBatch(Arrays.asList(first, second));
+
+        verify(legacyAuditDao).save(first);
+        verify(legacyAuditDao).save(second);
+    }
+
+    @Test
+    public void writesQueuedLogsBeforeShutdownAndSavesLaterLogsSynchronously() throws Exception {
+        final List<AuditLog> inserted = Collections.synchronizedList(new ArrayList<AuditLog>());
+        AuditLogWriter writer = new AuditLogWriter(legacyAuditDao, true, 10, 10, 10) {
+            @Override
+            protected void insertInTransaction(List<AuditLog> batch) {
+                inserted.addAll(batch);
+            }
+        };
+        AuditLog queued = auditLog(1);
+        AuditLog afterShutdown = auditLog(2);
+
+        writer.write(queued);
+        writer.destroy();
+        writer.write(afterShutdown);
+
+        assertThat(inserted, is(Arrays.asList(queued)));
+        assertThat(writer.getQueueSize(), is(0));
+        verify(legacyAuditDao, never()).save(queued);
+        verify(legacyAuditDao).save(afterShutdown);
+    }
+
+    @Test
+    public void savesSynchronouslyWhenShutDownBeforeAnyLog() throws Exception {
+        AuditLogWriter writer = new AuditLogWriter(legacyAuditDao, true, 10, 10, 10);
+        AuditLog auditLog = auditLog(1);
+
+        writer.destroy();
+        writer.write(auditLog);
+
+        verify(legacyAuditDao).save(auditLog);
+        assertThat(writer.getQueueSize(), is(0));
+    }
+
+    private AuditLog auditLog(int entityId) {
+        return new AuditLog(entityId, Short.valueOf((short) 1), "modifier", new Date(), Short.valueOf((short) 1));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+
+package org.mifos.framework.components.audit.util.helpers;
+
+import java.util.Date;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.mifos.accounts.loan.business.LoanBO;
+import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
+import org.mifos.accounts.util.helpers.AccountState;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.customers.business.CustomerBO;
+import org.mifos.customers.util.helpers.CustomerStatus;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.TestUtils;
+import org.mifos.framework.util.helpers.TestObjectFactory;
+
+/**
+ * Snapshots the same audited entities with {@link InterceptHelper} and {@link ReflectiveInterceptHelper}, before and
+ * after updating them, and checks that both record the same change log.
+ */
+public class AuditEntityMetadataIntegrationTest extends MifosIntegrationTestCase {
+
+    @Test
+    public void loanProductUpdateIsLoggedAsByTheReflectiveWalk() throws Exception {
+        LoanOfferingBO loanOffering = createLoanOffering();
+        loanOffering.setUserContext(TestUtils.makeUser());
+
+        InterceptHelper interceptHelper = new InterceptHelper();
+        ReflectiveInterceptHelper reflectiveInterceptHelper = new ReflectiveInterceptHelper();
+        interceptHelper.hibernateMeta(loanOffering, AuditConstants.TRANSACTIONBEGIN);
+        reflectiveInterceptHelper.hibernateMeta(loanOffering, AuditConstants.TRANSACTIONBEGIN);
+
+        loanOffering.setPrdOfferingShortName("AEM2");
+        loanOffering.setDescription("Updated description");
+
+        interceptHelper.hibernateMeta(loanOffering, AuditConstants.TRANSACTIONEND);
+        reflectiveInterceptHelper.hibernateMeta(loanOffering, AuditConstants.TRANSACTIONEND);
+
+        assertSameChangeLog(reflectiveInterceptHelper, interceptHelper);
+        Assert.assertFalse(interceptHelper.getChangeValueMap().isEmpty());
+    }
+
+    @Test
+    public void loanUpdateIsLoggedAsByTheReflectiveWalk() throws Exception {
+        LoanBO loan = createLoan();
+        loan.setUserContext(TestUtils.makeUser());
+
+        InterceptHelper interceptHelper = new InterceptHelper();
+        ReflectiveInterceptHelper reflectiveInterceptHelper = new ReflectiveInterceptHelper();
+        interceptHelper.hibernateMeta(loan, AuditConstants.TRANSACTIONBEGIN);
+        reflectiveInterceptHelper.hibernateMeta(loan, AuditConstants.TRANSACTIONBEGIN);
+
+        loan.updateLoan(true, loan.getLoanAmount(), loan.getInterestRate(), loan.getNoOfInstallments(), loan
+                .getDisbursementDate(), (short) 2, TestObjectFactory.SAMPLE_BUSINESS_ACTIVITY_2, "Added note", null,
+                null, false, null, null);
+
+        interceptHelper.hibernateMeta(loan, AuditConstants.TRANSACTIONEND);
+        reflectiveInterceptHelper.hibernateMeta(loan, AuditConstants.TRANSACTIONEND);
+
+        assertSameChangeLog(reflectiveInterceptHelper, interceptHelper);
+        Assert.assertFalse(interceptHelper.getChangeValueMap().isEmpty());
+    }
+
+    private void assertSameChangeLog(ReflectiveInterceptHelper expected, InterceptHelper actual) {
+        Assert.assertEquals(expected.getEntityName(), actual.getEntityName());
+        Assert.assertEquals(expected.getEntityId(), actual.getEntityId());
+        Assert.assertEquals(expected.getPropertyNames(), actual.getPropertyNames());
+        Assert.assertEquals(expected.getInitialValueMap(), actual.getInitialValueMap());
+        Assert.assertEquals(expected.getChangeValueMap(), actual.getChangeValueMap());
+    }
+
+    private LoanOfferingBO createLoanOffering() {
+        MeetingBO meeting = TestObjectFactory.createMeeting(TestObjectFactory.getTypicalMeeting());
+        return TestObjectFactory.createLoanOffering(new Date(System.currentTimeMillis()), meeting);
+    }
+
+    private LoanBO createLoan() {
+        Date startDate = new Date(System.currentTimeMillis());
+        MeetingBO meeting = TestObjectFactory.createMeeting(TestObjectFactory.getTypicalMeeting());
+        CustomerBO center = TestObjectFactory.createWeeklyFeeCenter("Center", meeting);
+        CustomerBO group = TestObjectFactory.createWeeklyFeeGroupUnderCenter("Group", CustomerStatus.GROUP_ACTIVE,
+                center);
+        LoanOfferingBO loanOffering = TestObjectFactory.createLoanOffering(startDate, center.getCustomerMeeting()
+                .getMeeting());
+        return (LoanBO) TestObjectFactory.createLoanAccount("42423142341", group,
+                AccountState.LOAN_ACTIVE_IN_GOOD_STANDING, startDate, loanOffering);
+    }
+}
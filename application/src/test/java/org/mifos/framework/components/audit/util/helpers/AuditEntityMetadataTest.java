@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+
+package org.mifos.framework.components.audit.util.helpers;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AuditEntityMetadataTest {
+
+    @Test
+    public void bookkeepingPropertiesAreNotLoggable() {
+        assertFalse(AuditEntityMetadata.isValueLoggable("versionNo", "", null));
+        assertFalse(AuditEntityMetadata.isValueLoggable("CREATEDBY", "", null));
+        assertFalse(AuditEntityMetadata.isValueLoggable("lookUpId", " Name", null));
+    }
+
+    @Test
+    public void propertiesMarkedDoNotLogAreNotLoggable() {
+        assertFalse(AuditEntityMetadata.isValueLoggable("amount", XMLConstants.DONOTLOGTHISPROPERTY, null));
+        assertFalse(AuditEntityMetadata.isValueLoggable("amount", "", XMLConstants.DONOTLOGTHISPROPERTY));
+        assertFalse(AuditEntityMetadata.isValueLoggable("amount", XMLConstants.DONOTLOGTHISPROPERTY, " Amount"));
+    }
+
+    @Test
+    public void otherPropertiesAreLoggable() {
+        assertTrue(AuditEntityMetadata.isValueLoggable("amount", "", null));
+        assertTrue(AuditEntityMetadata.isValueLoggable("amount", " Amount", " Fee Amount"));
+    }
+}
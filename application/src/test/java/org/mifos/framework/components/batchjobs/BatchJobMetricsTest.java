@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.batchjobs;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+public class BatchJobMetricsTest {
+
+    private final long[] now = { 1000 };
+
+    private final BatchJobMetrics metrics = new BatchJobMetrics() {
+        @Override
+        protected long currentTimeMillis() {
+            return now[0];
+        }
+    };
+
+    @Test
+    public void computesChunkLatencyPercentilesByNearestRank() {
+        for (long latency = 10; latency <= 100; latency += 10) {
+            metrics.chunkCommitted(5, now[0] - latency);
+        }
+
+        assertThat(metrics.getChunkCount(), is(10));
+        assertThat(metrics.getItemsCommitted(), is(50L));
+        assertThat(metrics.getChunkLatencyPercentile(50), is(50L));
+        assertThat(metrics.getChunkLatencyPercentile(90), is(90L));
+        assertThat(metrics.getChunkLatencyPercentile(99), is(100L));
+    }
+
+    @Test
+    public void hasNoLatencyWithoutChunks() {
+        assertThat(metrics.getChunkLatencyPercentile(90), is(0L));
+    }
+
+    @Test
+    public void computesThroughputOverTheRun() {
+        metrics.itemsProcessed(300);
+        now[0] += 1500;
+        metrics.finish();
+        now[0] += 5000;
+
+        assertThat(metrics.getElapsedMillis(), is(1500L));
+        assertThat(metrics.getThroughput(), is(200.0));
+    }
+
+    @Test
+    public void savesCountersToExecutionContext() {
+        metrics.itemsRead(4);
+        metrics.itemProcessed();
+        metrics.itemProcessed();
+        metrics.itemFailed();
+        metrics.chunkCommitted(2, now[0] - 30);
+        metrics.finish();
+
+        ExecutionContext executionContext = new ExecutionContext();
+        metrics.saveTo(executionContext);
+
+        assertThat(executionContext.getLong(BatchJobMetrics.ITEMS_READ), is(4L));
+        assertThat(executionContext.getLong(BatchJobMetrics.ITEMS_PROCESSED), is(2L));
+        assertThat(executionContext.getLong(BatchJobMetrics.ITEMS_FAILED), is(1L));
+        assertThat(executionContext.getLong(BatchJobMetrics.ITEMS_COMMITTED), is(2L));
+        assertThat(executionContext.getLong(BatchJobMetrics.CHUNK_COUNT), is(1L));
+        assertThat(executionContext.getLong(BatchJobMetrics.CHUNK_LATENCY_P90), is(30L));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.batchjobs;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PartitionedTaskExecutorTest {
+
+    @Test
+    public void partitionsAreContiguousAndCoverAllItems() {
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+
+        List<List<Integer>> partitions = PartitionedTaskExecutor.partitionByRange(items, 3);
+
+        assertThat(partitions.size(), is(3));
+        assertThat(partitions.get(0), is(Arrays.asList(1, 2, 3)));
+        assertThat(partitions.get(1), is(Arrays.asList(4, 5)));
+        assertThat(partitions.get(2), is(Arrays.asList(6, 7)));
+    }
+
+    @Test
+    public void neverCreatesMorePartitionsThanItems() {
+        List<List<Integer>> partitions = PartitionedTaskExecutor.partitionByRange(Arrays.asList(1, 2), 8);
+
+        assertThat(partitions.size(), is(2));
+    }
+
+    @Test
+    public void emptyListHasNoPartitions() {
+        List<List<Integer>> partitions = PartitionedTaskExecutor.partitionByRange(new ArrayList<Integer>(), 4);
+
+        assertThat(partitions.isEmpty(), is(true));
+    }
+}
@@ -23,6 +23,7 @@ package org.mifos.framework.components.batchjobs.helpers;
 import static org.mifos.framework.util.AssertionUtils.assertNotEmpty;
 import static org.mifos.framework.util.AssertionUtils.assertSameCollections;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -33,8 +34,11 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.junit.Before;
 import org.junit.Test;
+import org.mifos.config.GeneralConfig;
+import org.mifos.config.business.MifosConfigurationManager;
 import org.mifos.customers.office.business.OfficeBO;
 import org.mifos.customers.office.business.service.OfficeBusinessService;
+import org.mifos.framework.components.batchjobs.PartitionedTaskExecutor;
 import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
 import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.exceptions.ServiceException;
@@ -75,6 +79,35 @@ public class BranchReportHelperIntegrationTest extends BranchReportIntegrationTe
         assertLoanArrearsProfile(generatedBranchReport.getLoanArrearsProfile(), branchReportService);
     }
 
+    @Test
+    public void testExecutePartitionedCreatesReportForEachBranch() throws Exception {
+        final List<List<Short>> partitions = new ArrayList<List<Short>>();
+        branchReportHelper = new BranchReportHelper() {
+            @Override
+            PartitionedTaskExecutor<Short> createPartitionedTaskExecutor(int numberOfThreads) {
+                return new InlinePartitionedTaskExecutor(numberOfThreads, partitions);
+            }
+        };
+
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int configuredThreads = GeneralConfig.getNumberOfThreadsForBatchJobs();
+        configMgr.setProperty(GeneralConfig.NumberOfThreadsForBatchJobs, 2);
+        try {
+            branchReportHelper.execute(RUN_DATE.getTime());
+        } finally {
+            configMgr.setProperty(GeneralConfig.NumberOfThreadsForBatchJobs, configuredThreads);
+        }
+
+        List<OfficeBO> branchOffices = new OfficeBusinessService().getBranchOffices();
+        assertNotEmpty(branchOffices);
+        Assert.assertEquals(branchOffices.size(), partitions.size());
+        IBranchReportService branchReportService = new BranchReportService();
+        for (OfficeBO branchOffice : branchOffices) {
+            Assert.assertNotNull(branchOffice.getOfficeName(), branchReportService.getBranchReport(branchOffice
+                    .getOfficeId(), RUN_DATE));
+        }
+    }
+
     private void assertLoanArrearsProfile(Set<BranchReportLoanArrearsProfileBO> loanArrearsProfile,
             IBranchReportService branchReportService) throws ServiceException {
         List<BranchReportLoanArrearsProfileBO> retrievedLoanArrearsProfile = branchReportService.getLoanArrearsProfile(
@@ -180,4 +213,28 @@ public class BranchReportHelperIntegrationTest extends BranchReportIntegrationTe
     public void setUp() throws Exception {
         session = StaticHibernateUtil.getSessionTL();
     }
+
+    private static class InlinePartitionedTaskExecutor extends PartitionedTaskExecutor<Short> {
+        private final List<List<Short>> partitions;
+
+        InlinePartitionedTaskExecutor(int numberOfThreads, List<List<Short>> partitions) {
+            super("BranchReportTask", numberOfThreads);
+            this.partitions = partitions;
+        }
+
+        @Override
+        public List<String> execute(List<List<Short>> partitionsToProcess, PartitionProcessor<Short> processor)
+                throws BatchJobException {
+            List<String> errors = new ArrayList<String>();
+            for (List<Short> partition : partitionsToProcess) {
+                partitions.add(partition);
+                try {
+                    errors.addAll(processor.process(partition));
+                } catch (Exception e) {
+                    throw new BatchJobException(e);
+                }
+            }
+            return errors;
+        }
+    }
 }
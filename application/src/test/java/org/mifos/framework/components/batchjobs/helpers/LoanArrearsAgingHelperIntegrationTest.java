@@ -27,6 +27,7 @@ import static org.mifos.framework.util.helpers.TestObjectFactory.EVERY_WEEK;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -53,8 +54,10 @@ import org.mifos.builders.MifosUserBuilder;
 import org.mifos.clientportfolio.loan.service.RecurringSchedule;
 import org.mifos.clientportfolio.newloan.applicationservice.CreateLoanAccount;
 import org.mifos.config.AccountingRulesConstants;
+import org.mifos.config.GeneralConfig;
 import org.mifos.config.business.Configuration;
 import org.mifos.config.business.MifosConfigurationManager;
+import org.mifos.config.persistence.ConfigurationPersistence;
 import org.mifos.customers.business.CustomerBO;
 import org.mifos.customers.util.helpers.CustomerStatus;
 import org.mifos.dto.domain.CreateAccountFeeDto;
@@ -477,6 +480,97 @@ public class LoanArrearsAgingHelperIntegrationTest extends MifosIntegrationTestC
 
     }
 
+    /**
+     * A payment with account_trxn_ids below the highest id seen by the previous run stands for a transaction that was
+     * still in flight when that run read the highest id, and committed after it. The loan and its customer were last
+     * updated before the previous run, so only the transaction ids can lead the incremental run to the loan.
+     */
+    @Test
+    public void testIncrementalRunPicksUpLateCommittedTransactionsLikeAFullRegeneration() throws Exception {
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        Object incremental = configMgr.getProperty(GeneralConfig.IncrementalLoanArrearsAging);
+        try {
+            LoanBO loan = setUpLoan(dateTime, AccountState.LOAN_ACTIVE_IN_GOOD_STANDING);
+            dateTime = dateTime.plusDays(repaymentInterval + 10);
+            new DateTimeService().setCurrentDateTimeFixed(dateTime);
+
+            configMgr.setProperty(GeneralConfig.IncrementalLoanArrearsAging, false);
+            runLoanArrearsThenLoanArrearsAging();
+            StaticHibernateUtil.flushAndClearSession();
+            List<List<Object>> beforePayment = getLoanArrearsAgingRows();
+            Integer maxTrxnIdBeforePayment = getMaxAccountTrxnId();
+
+            loan = legacyLoanDao.getAccount(loan.getAccountId());
+            PaymentData paymentData = PaymentData.createPaymentData(new Money(getCurrency(), "" + onePayment), loan
+                    .getPersonnel(), Short.valueOf("1"), dateTime.toDate());
+            IntegrationTestObjectMother.applyAccountPayment(loan, paymentData);
+            StaticHibernateUtil.flushAndClearSession();
+            Integer maxTrxnId = getMaxAccountTrxnId();
+
+            LocalDate lastRunDate = new LocalDate();
+            Date beforeLastRun = lastRunDate.minusDays(1).toDateMidnight().toDate();
+            StaticHibernateUtil.getSessionTL().createSQLQuery(
+                    "update account set updated_date = :UPDATED_DATE where account_id = :ACCOUNT_ID").setDate(
+                    "UPDATED_DATE", beforeLastRun).setInteger("ACCOUNT_ID", loan.getAccountId()).executeUpdate();
+            StaticHibernateUtil.getSessionTL().createSQLQuery(
+                    "update customer set updated_date = :UPDATED_DATE where customer_id = :CUSTOMER_ID").setDate(
+                    "UPDATED_DATE", beforeLastRun).setInteger("CUSTOMER_ID", loan.getCustomer().getCustomerId())
+                    .executeUpdate();
+            configMgr.setProperty(GeneralConfig.IncrementalLoanArrearsAging, true);
+
+            // a previous run that saw the payment committed has nothing to pick up
+            setWatermark(lastRunDate, maxTrxnId, maxTrxnId + 1);
+            loanArrearsAgingHelper.execute(dummy);
+            StaticHibernateUtil.flushAndClearSession();
+            List<List<Object>> rowsWithPaymentSeen = getLoanArrearsAgingRows();
+
+            // a previous run that saw the ids of the payment missing picks it up
+            setWatermark(lastRunDate, maxTrxnId, maxTrxnIdBeforePayment + 1);
+            loanArrearsAgingHelper.execute(dummy);
+            StaticHibernateUtil.flushAndClearSession();
+            List<List<Object>> incrementalRows = getLoanArrearsAgingRows();
+
+            configMgr.setProperty(GeneralConfig.IncrementalLoanArrearsAging, false);
+            loanArrearsAgingHelper.execute(dummy);
+            StaticHibernateUtil.flushAndClearSession();
+            List<List<Object>> regeneratedRows = getLoanArrearsAgingRows();
+
+            Assert.assertEquals(beforePayment, rowsWithPaymentSeen);
+            Assert.assertFalse(beforePayment.equals(regeneratedRows));
+            Assert.assertEquals(regeneratedRows, incrementalRows);
+        } finally {
+            configMgr.setProperty(GeneralConfig.IncrementalLoanArrearsAging, incremental);
+        }
+    }
+
+    private Integer getMaxAccountTrxnId() {
+        return (Integer) StaticHibernateUtil.getSessionTL().getNamedQuery("getMaxAccountTrxnId").uniqueResult();
+    }
+
+    private void setWatermark(LocalDate lastRunDate, int lastTrxnId, int firstUncommittedTrxnId) {
+        ConfigurationPersistence configurationPersistence = new ConfigurationPersistence();
+        configurationPersistence.createOrUpdateConfigurationKeyValueString(LoanArrearsAgingHelper.LAST_RUN_DATE_KEY,
+                lastRunDate.toString());
+        configurationPersistence.createOrUpdateConfigurationKeyValueString(LoanArrearsAgingHelper.LAST_TRXN_ID_KEY,
+                String.valueOf(lastTrxnId));
+        configurationPersistence.createOrUpdateConfigurationKeyValueString(
+                LoanArrearsAgingHelper.FIRST_UNCOMMITTED_TRXN_ID_KEY, String.valueOf(firstUncommittedTrxnId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> getLoanArrearsAgingRows() {
+        List<Object[]> rows = StaticHibernateUtil.getSessionTL().createSQLQuery(
+                "select account_id, customer_id, customer_name, parent_customer_id, office_id, days_in_arrears, "
+                        + "overdue_principal, overdue_interest, overdue_balance, "
+                        + "unpaid_principal, unpaid_interest, unpaid_balance "
+                        + "from loan_arrears_aging order by account_id").list();
+        List<List<Object>> values = new ArrayList<List<Object>>();
+        for (Object[] row : rows) {
+            values.add(Arrays.asList(row));
+        }
+        return values;
+    }
+
     private void assertForLoanArrearsAgingEntity(LoanBO loan) throws PersistenceException {
 
         LoanBO loanAccount = IntegrationTestObjectMother.findLoanBySystemId(loan.getGlobalAccountNum());
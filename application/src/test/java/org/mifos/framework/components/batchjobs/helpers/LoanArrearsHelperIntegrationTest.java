@@ -21,8 +21,10 @@
 package org.mifos.framework.components.batchjobs.helpers;
 
 import java.sql.Date;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.List;
 
 import junit.framework.Assert;
 
@@ -38,9 +40,13 @@ import org.mifos.accounts.persistence.LegacyAccountDao;
 import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
 import org.mifos.accounts.util.helpers.AccountState;
 import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.config.GeneralConfig;
+import org.mifos.config.business.MifosConfigurationManager;
 import org.mifos.customers.business.CustomerBO;
 import org.mifos.customers.util.helpers.CustomerStatus;
 import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.components.batchjobs.PartitionedTaskExecutor;
+import org.mifos.framework.components.batchjobs.exceptions.BatchJobException;
 import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
 import org.mifos.framework.util.helpers.IntegrationTestObjectMother;
 import org.mifos.framework.util.helpers.TestObjectFactory;
@@ -89,15 +95,51 @@ public class LoanArrearsHelperIntegrationTest extends MifosIntegrationTestCase {
        Assert.assertEquals(statusChangeHistorySize + 1, loanAccount.getAccountStatusChangeHistory().size());
     }
 
+    @Test
+    public void testExecutePartitioned() throws Exception {
+        CustomerBO otherGroup = TestObjectFactory.createWeeklyFeeGroupUnderCenter("Other Group",
+                CustomerStatus.GROUP_ACTIVE, center);
+        LoanBO otherLoanAccount = createLoanAccount("42423142342", otherGroup,
+                ((LoanBO) loanAccount).getLoanOffering());
+        final List<List<Integer>> partitions = new ArrayList<List<Integer>>();
+        LoanArrearsHelper partitionedHelper = new LoanArrearsHelper() {
+            @Override
+            PartitionedTaskExecutor<Integer> createPartitionedTaskExecutor(int numberOfThreads) {
+                return new InlinePartitionedTaskExecutor(numberOfThreads, partitions);
+            }
+        };
+
+        MifosConfigurationManager configMgr = MifosConfigurationManager.getInstance();
+        int configuredThreads = GeneralConfig.getNumberOfThreadsForBatchJobs();
+        configMgr.setProperty(GeneralConfig.NumberOfThreadsForBatchJobs, 2);
+        try {
+            partitionedHelper.execute(System.currentTimeMillis());
+        } finally {
+            configMgr.setProperty(GeneralConfig.NumberOfThreadsForBatchJobs, configuredThreads);
+        }
+
+        Assert.assertEquals(2, partitions.size());
+        Assert.assertEquals(AccountState.LOAN_ACTIVE_IN_BAD_STANDING,
+                legacyAccountDao.getAccount(loanAccount.getAccountId()).getState());
+        Assert.assertEquals(AccountState.LOAN_ACTIVE_IN_BAD_STANDING,
+                legacyAccountDao.getAccount(otherLoanAccount.getAccountId()).getState());
+    }
+
     private LoanBO createLoanAccount(CustomerBO customer, MeetingBO meeting) throws AccountException {
         Date currentdate = new Date(System.currentTimeMillis());
         LoanOfferingBO loanOffering = TestObjectFactory.createLoanOffering(currentdate, meeting);
-        loanAccount = TestObjectFactory.createLoanAccount("42423142341", customer,
+        return createLoanAccount("42423142341", customer, loanOffering);
+    }
+
+    private LoanBO createLoanAccount(String globalNum, CustomerBO customer, LoanOfferingBO loanOffering)
+            throws AccountException {
+        Date currentdate = new Date(System.currentTimeMillis());
+        LoanBO loan = TestObjectFactory.createLoanAccount(globalNum, customer,
                 AccountState.LOAN_ACTIVE_IN_GOOD_STANDING, currentdate, loanOffering);
-        setDisbursementDateAsOldDate(loanAccount);
-        loanAccount.update();
-        IntegrationTestObjectMother.saveLoanAccount((LoanBO)loanAccount);
-        return (LoanBO)loanAccount;
+        setDisbursementDateAsOldDate(loan);
+        loan.update();
+        IntegrationTestObjectMother.saveLoanAccount(loan);
+        return loan;
     }
 
     private void setDisbursementDateAsOldDate(AccountBO account) {
@@ -128,4 +170,31 @@ public class LoanArrearsHelperIntegrationTest extends MifosIntegrationTestCase {
         return new java.sql.Date(currentDateCalendar.getTimeInMillis());
     }
 
+    /**
+     * Processes the partitions one after the other on the test's thread. Worker threads have sessions of their own and
+     * would not see the test data, which is never committed.
+     */
+    private static class InlinePartitionedTaskExecutor extends PartitionedTaskExecutor<Integer> {
+        private final List<List<Integer>> partitions;
+
+        InlinePartitionedTaskExecutor(int numberOfThreads, List<List<Integer>> partitions) {
+            super("LoanArrearsTask", numberOfThreads);
+            this.partitions = partitions;
+        }
+
+        @Override
+        public List<String> execute(List<List<Integer>> partitionsToProcess, PartitionProcessor<Integer> processor)
+                throws BatchJobException {
+            List<String> errors = new ArrayList<String>();
+            for (List<Integer> partition : partitionsToProcess) {
+                partitions.add(partition);
+                try {
+                    errors.addAll(processor.process(partition));
+                } catch (Exception e) {
+                    throw new BatchJobException(e);
+                }
+            }
+            return errors;
+        }
+    }
 }
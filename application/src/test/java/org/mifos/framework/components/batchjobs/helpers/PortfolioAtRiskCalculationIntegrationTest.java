@@ -20,9 +20,13 @@
 
 package org.mifos.framework.components.batchjobs.helpers;
 
+import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import junit.framework.Assert;
@@ -46,8 +50,10 @@ import org.mifos.application.master.util.helpers.PaymentTypes;
 import org.mifos.application.meeting.business.MeetingBO;
 import org.mifos.customers.center.business.CenterBO;
 import org.mifos.customers.client.business.ClientBO;
+import org.mifos.customers.group.BasicGroupInfo;
 import org.mifos.customers.group.business.GroupBO;
 import org.mifos.customers.office.business.OfficeBO;
+import org.mifos.customers.persistence.CustomerPersistence;
 import org.mifos.customers.personnel.business.PersonnelBO;
 import org.mifos.customers.util.helpers.CustomerStatus;
 import org.mifos.framework.MifosIntegrationTestCase;
@@ -208,4 +214,32 @@ public class PortfolioAtRiskCalculationIntegrationTest extends MifosIntegrationT
                 .getOffice().getOfficeId(), group.getSearchId() + ".%");
 //        Assert.assertEquals(0.5, portfolioAtRisk, DELTA);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSetBasedAmountsGiveTheSamePortfolioAtRiskAsGeneratePortfolioAtRiskForTask() throws Exception {
+        createInitialObject();
+        createPayment((LoanBO) account1, new Money(account1.getCurrency(), "200"));
+        changeFirstInstallmentDate(account2, 31);
+        ((LoanBO) account2).handleArrears();
+        IntegrationTestObjectMother.saveLoanAccount((LoanBO) account2);
+        StaticHibernateUtil.flushAndClearSession();
+
+        CustomerPersistence customerPersistence = new CustomerPersistence();
+        Map<Integer, Double> setBasedPortfolioAtRisk = new HashMap<Integer, Double>();
+        for (Object[] row : customerPersistence.getPortfolioAtRiskAmountsForAllGroups()) {
+            setBasedPortfolioAtRisk.put((Integer) row[0], PortfolioAtRiskCalculation.calculatePortfolioAtRisk(
+                    (BigDecimal) row[1], (BigDecimal) row[2]));
+        }
+
+        List<BasicGroupInfo> groupInfos = customerPersistence.getAllBasicGroupInfo();
+        Assert.assertEquals(groupInfos.size(), setBasedPortfolioAtRisk.size());
+        for (BasicGroupInfo groupInfo : groupInfos) {
+            double portfolioAtRisk = PortfolioAtRiskCalculation.generatePortfolioAtRiskForTask(
+                    groupInfo.getGroupId(), groupInfo.getBranchId(), groupInfo.getSearchId() + ".%");
+            Assert.assertEquals("group " + groupInfo.getGroupId(), portfolioAtRisk, setBasedPortfolioAtRisk.get(
+                    groupInfo.getGroupId()), DELTA);
+        }
+        double groupPortfolioAtRisk = setBasedPortfolioAtRisk.get(group.getCustomerId());
+        Assert.assertTrue(groupPortfolioAtRisk > 0 && groupPortfolioAtRisk < 1);
+    }
+}
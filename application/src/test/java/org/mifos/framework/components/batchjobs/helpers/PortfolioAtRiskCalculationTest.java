@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.components.batchjobs.helpers;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+public class PortfolioAtRiskCalculationTest {
+
+    @Test
+    public void ratioUsesMoneyPrecisionAndRounding() {
+        double portfolioAtRisk = PortfolioAtRiskCalculation.calculatePortfolioAtRisk(new BigDecimal("100.000"),
+                new BigDecimal("300.000"));
+
+        double expected = new BigDecimal("100").setScale(13).divide(new BigDecimal("300").setScale(13), 13,
+                RoundingMode.HALF_UP).doubleValue();
+        assertThat(portfolioAtRisk, is(expected));
+    }
+
+    @Test
+    public void nothingOutstandingAndNothingAtRiskIsZero() {
+        assertThat(PortfolioAtRiskCalculation.calculatePortfolioAtRisk(BigDecimal.ZERO, BigDecimal.ZERO), is(0.0));
+    }
+
+    @Test
+    public void nothingOutstandingButSomethingAtRiskIsUndefined() {
+        assertThat(PortfolioAtRiskCalculation.calculatePortfolioAtRisk(BigDecimal.TEN, BigDecimal.ZERO), is(-1.0));
+    }
+}
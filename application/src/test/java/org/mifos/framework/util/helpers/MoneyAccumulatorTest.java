@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.util.helpers;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mifos.framework.TestUtils.EURO;
+import static org.mifos.framework.TestUtils.RUPEE;
+
+import org.junit.Test;
+import org.mifos.core.CurrencyMismatchException;
+
+public class MoneyAccumulatorTest {
+
+    @Test
+    public void givesTheSameTotalAsMoney() {
+        String[] amounts = { "100.0", "0.1", "33.3333333333333", "-12.5", "0.0000000000001", "4999.9999999999999" };
+        Money expected = new Money(RUPEE);
+        MoneyAccumulator accumulator = new MoneyAccumulator(RUPEE);
+        for (String amount : amounts) {
+            expected = expected.add(new Money(RUPEE, amount));
+            accumulator.add(new Money(RUPEE, amount));
+        }
+
+        assertThat(accumulator.toMoney(), is(expected));
+        assertThat(accumulator.getAmount(), is(expected.getAmount()));
+    }
+
+    @Test
+    public void subtractsAndIgnoresNull() {
+        MoneyAccumulator accumulator = new MoneyAccumulator(RUPEE);
+        accumulator.add(new Money(RUPEE, "200.0")).subtract(new Money(RUPEE, "50.25")).add(null).subtract(null);
+
+        assertThat(accumulator.toMoney(), is(new Money(RUPEE, "149.75")));
+    }
+
+    @Test
+    public void keepsTotalsInTheBillionsInLongs() {
+        Money expected = new Money(RUPEE);
+        MoneyAccumulator accumulator = new MoneyAccumulator(RUPEE);
+        String[] amounts = { "999999.9999999999999", "1500000000.5", "-0.0000000000001", "250000000.75" };
+        for (int i = 0; i < 1000; i++) {
+            for (String amount : amounts) {
+                expected = expected.add(new Money(RUPEE, amount));
+                accumulator.add(new Money(RUPEE, amount));
+            }
+        }
+        accumulator.subtract(new Money(RUPEE, "1750000000000.0"));
+        expected = expected.subtract(new Money(RUPEE, "1750000000000.0"));
+
+        assertThat(accumulator.isOverflowed(), is(false));
+        assertThat(accumulator.toMoney(), is(expected));
+        assertThat(accumulator.toMoney(), is(new Money(RUPEE, "1000001249.9999999998")));
+    }
+
+    @Test
+    public void fallsBackToBigDecimalWhenTheTotalOverflows() {
+        Money expected = new Money(RUPEE);
+        MoneyAccumulator accumulator = new MoneyAccumulator(RUPEE);
+        for (int i = 0; i < 3; i++) {
+            expected = expected.add(new Money(RUPEE, "4000000000000000000.5"));
+            accumulator.add(new Money(RUPEE, "4000000000000000000.5"));
+        }
+        assertThat(accumulator.isOverflowed(), is(true));
+
+        accumulator.subtract(new Money(RUPEE, "8000000000000000000.0"));
+        expected = expected.subtract(new Money(RUPEE, "8000000000000000000.0"));
+
+        assertThat(accumulator.toMoney(), is(expected));
+        assertThat(accumulator.toMoney(), is(new Money(RUPEE, "4000000000000000001.5")));
+    }
+
+    @Test
+    public void resetsToZero() {
+        MoneyAccumulator accumulator = new MoneyAccumulator(RUPEE);
+        accumulator.add(new Money(RUPEE, "10000000.0"));
+        accumulator.reset();
+
+        assertThat(accumulator.toMoney(), is(new Money(RUPEE)));
+    }
+
+    @Test(expected = CurrencyMismatchException.class)
+    public void rejectsOtherCurrencies() {
+        new MoneyAccumulator(RUPEE).add(new Money(EURO, "1.0"));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.branchreport.persistence;
+
+import static org.mifos.framework.util.helpers.NumberUtils.nullSafeValue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.hibernate.Query;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
+import org.mifos.accounts.productdefinition.business.SavingsOfferingBO;
+import org.mifos.accounts.productdefinition.util.helpers.RecommendedAmountUnit;
+import org.mifos.accounts.util.helpers.AccountState;
+import org.mifos.accounts.util.helpers.AccountTypes;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.customers.api.CustomerLevel;
+import org.mifos.customers.business.CustomerBO;
+import org.mifos.customers.util.helpers.CustomerStatus;
+import org.mifos.framework.MifosIntegrationTestCase;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.framework.util.helpers.TestObjectFactory;
+
+/**
+ * The grouped client summary queries must give the same counts as the per-metric queries they replaced.
+ */
+public class BranchReportSqlPersistenceIntegrationTest extends MifosIntegrationTestCase {
+
+    private static final List<String> CUSTOMER_STATUS_DESCRIPTIONS = Arrays.asList("Customer Was Active",
+            "Customer Was Hold", "Customer Was Close");
+    private static final Short REPLACEMENT_FIELD_ID = Short.valueOf("3");
+    private static final String REPLACEMENT_FIELD_VALUE = "1";
+    private static final List<Short> ACTIVE_LOAN_STATES = Arrays.asList(AccountState.LOAN_ACTIVE_IN_BAD_STANDING
+            .getValue(), AccountState.LOAN_ACTIVE_IN_GOOD_STANDING.getValue());
+    private static final List<Short> ACTIVE_SAVINGS_STATES = Arrays.asList(AccountState.SAVINGS_ACTIVE.getValue(),
+            AccountState.SAVINGS_INACTIVE.getValue());
+
+    private BranchReportSqlPersistence persistence;
+    private Short officeId;
+
+    @Before
+    public void setUp() throws Exception {
+        persistence = new BranchReportSqlPersistence();
+
+        Date startDate = new Date(System.currentTimeMillis());
+        MeetingBO meeting = TestObjectFactory.createMeeting(TestObjectFactory.getTypicalMeeting());
+        CustomerBO center = TestObjectFactory.createWeeklyFeeCenter("Center", meeting);
+        CustomerBO group = TestObjectFactory.createWeeklyFeeGroupUnderCenter("Group", CustomerStatus.GROUP_ACTIVE,
+                center);
+        CustomerBO borrower = TestObjectFactory.createClient("Borrower", CustomerStatus.CLIENT_ACTIVE, group);
+        CustomerBO saver = TestObjectFactory.createClient("Saver", CustomerStatus.CLIENT_ACTIVE, group);
+        TestObjectFactory.createClient("Held", CustomerStatus.CLIENT_HOLD, group);
+        TestObjectFactory.createClient("Closed", CustomerStatus.CLIENT_CLOSED, group);
+
+        LoanOfferingBO loanOffering = TestObjectFactory.createLoanOffering("Loan", "LN", startDate, meeting);
+        TestObjectFactory.createLoanAccount("42423142341", borrower, AccountState.LOAN_ACTIVE_IN_GOOD_STANDING,
+                startDate, loanOffering);
+        SavingsOfferingBO savingsOffering = TestObjectFactory.createSavingsProduct("Savings", "SV", startDate,
+                RecommendedAmountUnit.PER_INDIVIDUAL);
+        TestObjectFactory.createSavingsAccount("432434", saver, AccountState.SAVINGS_ACTIVE.getValue(), startDate,
+                savingsOffering);
+        StaticHibernateUtil.flushAndClearSession();
+
+        officeId = center.getOffice().getOfficeId();
+    }
+
+    @Test
+    public void testCustomerCountByLevelMatchesCountPerLevel() throws Exception {
+        Map<CustomerLevel, Integer> counts = persistence.getCustomerCountByLevel(officeId, Arrays.asList(
+                CustomerLevel.CENTER, CustomerLevel.GROUP));
+
+        for (CustomerLevel customerLevel : Arrays.asList(CustomerLevel.CENTER, CustomerLevel.GROUP)) {
+            Assert.assertEquals(customerLevel.toString(), countCustomers(customerLevel), nullSafeValue(counts
+                    .get(customerLevel)));
+        }
+        Assert.assertTrue(nullSafeValue(counts.get(CustomerLevel.GROUP)) > 0);
+    }
+
+    @Test
+    public void testCustomerAndVeryPoorCountBasedOnStatusMatchesSeparateCounts() throws Exception {
+        Map<String, BranchReportCustomerCount> counts = persistence.getCustomerAndVeryPoorCountBasedOnStatus(
+                officeId, CustomerLevel.CLIENT, CUSTOMER_STATUS_DESCRIPTIONS);
+        Map<String, Integer> customerCounts = countClientsByStatus(false);
+        Map<String, Integer> veryPoorCounts = countClientsByStatus(true);
+
+        for (String status : CUSTOMER_STATUS_DESCRIPTIONS) {
+            BranchReportCustomerCount count = nullSafeCount(counts.get(status));
+            Assert.assertEquals(status, nullSafeValue(customerCounts.get(status)), count.getCount());
+            Assert.assertEquals(status, nullSafeValue(veryPoorCounts.get(status)), count.getVeryPoorCount());
+        }
+    }
+
+    @Test
+    public void testActiveBorrowerAndSaverCountMatchesSeparateCounts() throws Exception {
+        Map<AccountTypes, BranchReportCustomerCount> counts = persistence.getActiveBorrowerAndSaverCount(officeId,
+                CustomerLevel.CLIENT);
+        BranchReportCustomerCount borrowers = nullSafeCount(counts.get(AccountTypes.LOAN_ACCOUNT));
+        BranchReportCustomerCount savers = nullSafeCount(counts.get(AccountTypes.SAVINGS_ACCOUNT));
+
+        Assert.assertEquals(countActiveAccountHolders(AccountTypes.LOAN_ACCOUNT, ACTIVE_LOAN_STATES, false),
+                borrowers.getCount());
+        Assert.assertEquals(countActiveAccountHolders(AccountTypes.LOAN_ACCOUNT, ACTIVE_LOAN_STATES, true),
+                borrowers.getVeryPoorCount());
+        Assert.assertEquals(countActiveAccountHolders(AccountTypes.SAVINGS_ACCOUNT, ACTIVE_SAVINGS_STATES, false),
+                savers.getCount());
+        Assert.assertEquals(countActiveAccountHolders(AccountTypes.SAVINGS_ACCOUNT, ACTIVE_SAVINGS_STATES, true),
+                savers.getVeryPoorCount());
+        Assert.assertTrue(borrowers.getCount() > 0);
+        Assert.assertTrue(savers.getCount() > 0);
+    }
+
+    @Test
+    public void testReplacementAndVeryPoorReplacementCountMatchesSeparateCounts() throws Exception {
+        BranchReportCustomerCount replacements = persistence.getReplacementAndVeryPoorReplacementCount(officeId,
+                CustomerLevel.CLIENT, REPLACEMENT_FIELD_ID, REPLACEMENT_FIELD_VALUE);
+
+        Assert.assertEquals(countReplacements(false), replacements.getCount());
+        Assert.assertEquals(countReplacements(true), replacements.getVeryPoorCount());
+    }
+
+    /*
+     * The counts below are the per-metric queries the branch report used before they were grouped.
+     */
+
+    private Integer countCustomers(CustomerLevel customerLevel) {
+        return count(createQuery("select count(distinct cust.customer_id) from customer cust "
+                + "where cust.customer_level_id = :customerLevelId and cust.branch_id = :officeId "
+                + "and (cust.status_id = 9 or cust.status_id = 13)", customerLevel));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> countClientsByStatus(boolean veryPoor) {
+        Query query = createQuery("select cs.description, count(distinct cust.customer_id) from customer cust "
+                + "left join customer_state cs on cs.status_id = cust.status_id "
+                + "left join customer_detail cd on cd.customer_id = cust.customer_id "
+                + "where cust.customer_level_id = :customerLevelId and cust.branch_id = :officeId "
+                + "and cs.description in (:customerStatusDescription)" + veryPoorCondition(veryPoor)
+                + " group by cs.description", CustomerLevel.CLIENT);
+        query.setParameterList("customerStatusDescription", CUSTOMER_STATUS_DESCRIPTIONS);
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            counts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
+    private Integer countActiveAccountHolders(AccountTypes accountType, List<Short> accountStateIds,
+            boolean veryPoor) {
+        Query query = createQuery("select count(distinct cust.customer_id) from customer cust "
+                + "left join account acc on acc.customer_id = cust.customer_id "
+                + "left join customer_detail cd on cd.customer_id = cust.customer_id "
+                + "where cust.customer_level_id = :customerLevelId and cust.branch_id = :officeId "
+                + "and cust.status_id = 3 and acc.account_type_id = :accountTypeId "
+                + "and acc.account_state_id in (:accountStateIds)" + veryPoorCondition(veryPoor),
+                CustomerLevel.CLIENT);
+        query.setShort("accountTypeId", accountType.getValue());
+        query.setParameterList("accountStateIds", accountStateIds);
+        return count(query);
+    }
+
+    private Integer countReplacements(boolean veryPoor) {
+        Query query = createQuery("select count(distinct cust.customer_id) from customer cust "
+                + "left join customer_custom_field ccf on ccf.customer_id = cust.customer_id "
+                + "left join customer_detail cd on cd.customer_id = cust.customer_id "
+                + "where cust.branch_id = :officeId and cust.customer_level_id = :customerLevelId "
+                + "and ccf.field_id = :fieldId and ccf.field_value = :fieldValue" + veryPoorCondition(veryPoor),
+                CustomerLevel.CLIENT);
+        query.setShort("fieldId", REPLACEMENT_FIELD_ID);
+        query.setString("fieldValue", REPLACEMENT_FIELD_VALUE);
+        return count(query);
+    }
+
+    private String veryPoorCondition(boolean veryPoor) {
+        return veryPoor ? " and cd.poverty_status = 41" : "";
+    }
+
+    private Query createQuery(String sql, CustomerLevel customerLevel) {
+        Query query = StaticHibernateUtil.getSessionTL().createSQLQuery(sql);
+        query.setShort("officeId", officeId);
+        query.setShort("customerLevelId", customerLevel.getValue());
+        return query;
+    }
+
+    private Integer count(Query query) {
+        return ((Number) query.uniqueResult()).intValue();
+    }
+
+    private BranchReportCustomerCount nullSafeCount(BranchReportCustomerCount count) {
+        return count == null ? BranchReportCustomerCount.NONE : count;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho.service;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mifos.reports.pentaho.PentahoReport;
+import org.mifos.reports.pentaho.PentahoReportJob;
+import org.mifos.reports.pentaho.PentahoReportJobStatus;
+import org.mifos.reports.pentaho.PentahoReportsServiceFacade;
+import org.mifos.reports.pentaho.PentahoValidationError;
+import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
+import org.mifos.reports.pentaho.params.PentahoInputParameter;
+import org.mifos.reports.pentaho.params.PentahoMultiSelectParameter;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PentahoReportQueueServiceImplTest {
+
+    private static final Integer REPORT_ID = 1;
+    private static final Integer CSV = 4;
+
+    @Mock
+    private PentahoReportsServiceFacade pentahoReportsService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    private TestQueueService queueService;
+
+    @Before
+    public void setUp() {
+        queueService = new TestQueueService(pentahoReportsService, 1, 1024);
+        when(pentahoReportsService.checkAccessToReport(REPORT_ID)).thenReturn(true);
+        when(pentahoReportsService.isDW(REPORT_ID)).thenReturn(true);
+        when(pentahoReportsService.getEtlLastUpdateDate(request)).thenReturn(new Date(1000));
+        when(pentahoReportsService.getReport(anyInt(), anyInt(), anyParams())).thenReturn(report());
+    }
+
+    @After
+    public void tearDown() {
+        queueService.destroy();
+    }
+
+    @Test
+    public void normalizesParametersOfTheResultKey() {
+        Map<String, AbstractPentahoParameter> params = new LinkedHashMap<String, AbstractPentahoParameter>();
+        params.put("branch", multiSelect("branch", "2", "1"));
+        params.put("officer", input("officer", " 5 "));
+        params.put("blank", input("blank", ""));
+
+        Map<String, AbstractPentahoParameter> sameParams = new LinkedHashMap<String, AbstractPentahoParameter>();
+        sameParams.put("officer", input("officer", "5"));
+        sameParams.put("branch", multiSelect("branch", "1", "2"));
+        sameParams.put("mifosLogoPath", input("mifosLogoPath", "/tmp/logo.png"));
+
+        assertThat(new ReportResultKey(REPORT_ID, CSV, params, new Date(1000)), is(new ReportResultKey(REPORT_ID, CSV,
+                sameParams, new Date(1000))));
+        assertThat(new ReportResultKey(REPORT_ID, CSV, params, new Date(1000)), is(not(new ReportResultKey(REPORT_ID,
+                CSV, sameParams, new Date(2000)))));
+    }
+
+    @Test
+    public void servesTheSameDataWarehouseReportFromTheCache() throws Exception {
+        PentahoReportJob job = queueService.submitReport(REPORT_ID, CSV, params("1", "2"), request);
+        job = waitUntilDone(job.getJobId());
+        assertThat(job.getStatus(), is(PentahoReportJobStatus.FINISHED));
+        assertThat(job.isCached(), is(false));
+
+        PentahoReportJob cachedJob = queueService.submitReport(REPORT_ID, CSV, params("2", "1"), request);
+
+        assertThat(cachedJob.getStatus(), is(PentahoReportJobStatus.FINISHED));
+        assertThat(cachedJob.isCached(), is(true));
+        assertThat(queueService.getReportJobResult(cachedJob.getJobId()).getContentSize(), is(3));
+        verify(pentahoReportsService, times(1)).getReport(anyInt(), anyInt(), anyParams());
+    }
+
+    @Test
+    public void rendersLiveDatabaseReportsEveryTime() throws Exception {
+        when(pentahoReportsService.isDW(REPORT_ID)).thenReturn(false);
+
+        waitUntilDone(queueService.submitReport(REPORT_ID, CSV, params("1"), request).getJobId());
+        PentahoReportJob job = queueService.submitReport(REPORT_ID, CSV, params("1"), request);
+
+        assertThat(job.isCached(), is(false));
+        waitUntilDone(job.getJobId());
+        verify(pentahoReportsService, times(2)).getReport(anyInt(), anyInt(), anyParams());
+    }
+
+    @Test
+    public void rejectsReportsBeyondTheLimitPerUser() throws Exception {
+        final CountDownLatch rendering = new CountDownLatch(1);
+        when(pentahoReportsService.getReport(anyInt(), anyInt(), anyParams()))
+                .thenAnswer(new Answer<PentahoReport>() {
+                    @Override
+                    public PentahoReport answer(InvocationOnMock invocation) throws Throwable {
+                        rendering.await(5, TimeUnit.SECONDS);
+                        return report();
+                    }
+                });
+
+        PentahoReportJob first = queueService.submitReport(REPORT_ID, CSV, params("1"), request);
+        PentahoReportJob second = queueService.submitReport(REPORT_ID, CSV, params("2"), request);
+
+        assertThat(first.getStatus().isDone(), is(false));
+        assertThat(second.getStatus(), is(PentahoReportJobStatus.REJECTED));
+
+        rendering.countDown();
+        assertThat(waitUntilDone(first.getJobId()).getStatus(), is(PentahoReportJobStatus.FINISHED));
+        PentahoReportJob third = queueService.submitReport(REPORT_ID, CSV, params("3"), request);
+        assertThat(third.getStatus(), is(not(PentahoReportJobStatus.REJECTED)));
+    }
+
+    @Test
+    public void failsReportsWithInvalidParameters() throws Exception {
+        PentahoReport invalid = new PentahoReport();
+        invalid.setErrors(asList(new PentahoValidationError("branch", "Branch is required")));
+        when(pentahoReportsService.getReport(anyInt(), anyInt(), anyParams())).thenReturn(invalid);
+
+        PentahoReportJob job = waitUntilDone(queueService.submitReport(REPORT_ID, CSV, params("1"), request)
+                .getJobId());
+
+        assertThat(job.getStatus(), is(PentahoReportJobStatus.FAILED));
+        assertThat(job.getMessage(), is("Branch is required"));
+        assertThat(queueService.getReportJobResult(job.getJobId()), is(nullValue()));
+    }
+
+    @Test
+    public void dropsTheOldestResultsBeyondTheMemoryLimit() throws Exception {
+        queueService.destroy();
+        // room for one three byte report
+        queueService = new TestQueueService(pentahoReportsService, 1, 5);
+
+        PentahoReportJob first = waitUntilDone(queueService.submitReport(REPORT_ID, CSV, params("1"), request)
+                .getJobId());
+        PentahoReportJob second = waitUntilDone(queueService.submitReport(REPORT_ID, CSV, params("2"), request)
+                .getJobId());
+
+        assertThat(second.getStatus(), is(PentahoReportJobStatus.FINISHED));
+        assertThat(queueService.getReportJob(first.getJobId()), is(nullValue()));
+        assertThat(queueService.getReportJobResult(second.getJobId()).getContentSize(), is(3));
+
+        PentahoReportJob again = waitUntilDone(queueService.submitReport(REPORT_ID, CSV, params("1"), request)
+                .getJobId());
+        assertThat(again.isCached(), is(false));
+        verify(pentahoReportsService, times(3)).getReport(anyInt(), anyInt(), anyParams());
+    }
+
+    @Test
+    public void showsJobsOnlyToTheirUser() throws Exception {
+        PentahoReportJob job = waitUntilDone(queueService.submitReport(REPORT_ID, CSV, params("1"), request)
+                .getJobId());
+
+        queueService.userId = 2;
+
+        assertThat(queueService.getReportJob(job.getJobId()), is(nullValue()));
+        assertThat(queueService.getReportJobResult(job.getJobId()), is(nullValue()));
+        assertThat(queueService.getReportJobs().isEmpty(), is(true));
+    }
+
+    private PentahoReportJob waitUntilDone(String jobId) throws InterruptedException {
+        long giveUpAt = System.currentTimeMillis() + 5000;
+        PentahoReportJob job = queueService.getReportJob(jobId);
+        while (!job.getStatus().isDone() && System.currentTimeMillis() < giveUpAt) {
+            Thread.sleep(10);
+            job = queueService.getReportJob(jobId);
+        }
+        return job;
+    }
+
+    private static Map<String, AbstractPentahoParameter> anyParams() {
+        return any();
+    }
+
+    private static PentahoReport report() {
+        PentahoReport report = new PentahoReport();
+        report.setErrors(new ArrayList<PentahoValidationError>());
+        report.setContent(new byte[] { 1, 2, 3 });
+        report.setContentType("text/csv");
+        report.setFileExtension(".csv");
+        return report;
+    }
+
+    private static Map<String, AbstractPentahoParameter> params(String... branchIds) {
+        Map<String, AbstractPentahoParameter> params = new HashMap<String, AbstractPentahoParameter>();
+        params.put("branch", multiSelect("branch", branchIds));
+        return params;
+    }
+
+    private static PentahoMultiSelectParameter multiSelect(String name, String... values) {
+        PentahoMultiSelectParameter param = new PentahoMultiSelectParameter();
+        param.setParamName(name);
+        param.setSelectedValues(new ArrayList<String>(asList(values)));
+        return param;
+    }
+
+    private static PentahoInputParameter input(String name, String value) {
+        PentahoInputParameter param = new PentahoInputParameter();
+        param.setParamName(name);
+        param.setValue(value);
+        return param;
+    }
+
+    private static class TestQueueService extends PentahoReportQueueServiceImpl {
+        volatile int userId = 1;
+
+        TestQueueService(PentahoReportsServiceFacade pentahoReportsService, int jobsPerUser, long resultMemoryBytes) {
+            super(pentahoReportsService, 1, 10, jobsPerUser, 10, resultMemoryBytes);
+        }
+
+        @Override
+        protected int getUserId() {
+            return userId;
+        }
+
+        @Override
+        protected void closeSession() {
+            // no Hibernate session in unit tests
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mifos.reports.pentaho.util.PentahoReportDefinitionCache.ParsedReport;
+import org.pentaho.reporting.engine.classic.core.ClassicEngineBoot;
+import org.pentaho.reporting.engine.classic.core.MasterReport;
+
+public class PentahoReportDefinitionCacheTest {
+
+    private static final String PARAMETER_NAME = "mifosLogoPath";
+
+    private URL url;
+    private TestDefinitionCache definitionCache;
+
+    @BeforeClass
+    public static void bootReportingEngine() {
+        ClassicEngineBoot.getInstance().start();
+    }
+
+    @Before
+    public void setUp() {
+        url = getClass().getResource("/pentaho/CashBalance.prpt");
+        assertThat(url, is(notNullValue()));
+        definitionCache = new TestDefinitionCache();
+    }
+
+    @Test
+    public void unchangedReportIsOnlyParsedOnce() throws Exception {
+        definitionCache.getReport(url);
+        ParsedReport parsed = cachedReport();
+
+        definitionCache.getReport(url);
+
+        assertThat(cachedReport(), is(sameInstance(parsed)));
+        assertThat(definitionCache.getCache().getSize(), is(1));
+    }
+
+    @Test
+    public void modifiedReportIsParsedAgain() throws Exception {
+        definitionCache.getReport(url);
+        ParsedReport parsed = cachedReport();
+
+        definitionCache.lastModified = 2000;
+        definitionCache.getReport(url);
+
+        assertThat(cachedReport(), is(not(sameInstance(parsed))));
+        assertThat(cachedReport().getLastModified(), is(2000L));
+    }
+
+    @Test
+    public void parameterValuesOfTheReturnedCopyAreNotShared() throws Exception {
+        MasterReport report = definitionCache.getReport(url);
+        report.getParameterValues().put(PARAMETER_NAME, "logo.png");
+
+        assertThat(report, is(not(sameInstance(cachedReport().getReport()))));
+        assertThat(cachedReport().getReport().getParameterValues().get(PARAMETER_NAME), is(nullValue()));
+        assertThat(definitionCache.getReport(url).getParameterValues().get(PARAMETER_NAME), is(nullValue()));
+    }
+
+    private ParsedReport cachedReport() {
+        return definitionCache.getCache().get(url.toExternalForm());
+    }
+
+    private static class TestDefinitionCache extends PentahoReportDefinitionCache {
+        long lastModified = 1000;
+
+        @Override
+        protected long getLastModified(URL reportUrl) {
+            return lastModified;
+        }
+    }
+}
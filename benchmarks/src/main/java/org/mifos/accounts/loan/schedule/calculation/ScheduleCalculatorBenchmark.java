@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.accounts.loan.schedule.calculation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifos.accounts.loan.schedule.domain.Installment;
+import org.mifos.accounts.loan.schedule.domain.Schedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Application of a repayment to a variable installment loan's schedule by {@link ScheduleCalculator}, for a payment
+ * of the first installment on time, a late payment of three installments, which also accrues extra interest, and a
+ * prepayment of half the loan, which is spread over the future installments.
+ * <p>
+ * Payments update the schedule in place, so each invocation pays into a fresh schedule built in an invocation level
+ * setup, which JMH keeps out of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleCalculatorBenchmark {
+
+    public enum Payment {
+        ON_TIME, LATE, PREPAYMENT
+    }
+
+    private static final LocalDate DISBURSEMENT_DATE = new LocalDate(2011, 1, 3);
+    private static final BigDecimal LOAN_AMOUNT = BigDecimal.valueOf(25000);
+    private static final double ANNUAL_INTEREST_RATE = 24.0;
+
+    @Param({ "12", "52", "104" })
+    private int installments;
+
+    /**
+     * Days between due dates: daily, weekly and monthly repayments.
+     */
+    @Param({ "1", "7", "30" })
+    private int daysBetweenInstallments;
+
+    @Param({ "ON_TIME", "LATE", "PREPAYMENT" })
+    private Payment payment;
+
+    private ScheduleCalculator scheduleCalculator;
+    private Schedule schedule;
+    private BigDecimal amount;
+    private Date transactionDate;
+
+    @Setup
+    public void setup() {
+        scheduleCalculator = new ScheduleCalculator();
+
+        List<Installment> unpaid = createInstallments();
+        Installment first = unpaid.get(0);
+        Installment third = unpaid.get(2);
+        switch (payment) {
+        case ON_TIME:
+            amount = first.getPrincipal().add(first.getInterest());
+            transactionDate = first.getDueDate();
+            break;
+        case LATE:
+            amount = BigDecimal.ZERO;
+            for (Installment installment : unpaid.subList(0, 3)) {
+                amount = amount.add(installment.getPrincipal()).add(installment.getInterest());
+            }
+            transactionDate = new LocalDate(third.getDueDate()).plusDays(10).toDateMidnight().toDate();
+            break;
+        case PREPAYMENT:
+            amount = LOAN_AMOUNT.divide(BigDecimal.valueOf(2));
+            transactionDate = first.getDueDate();
+            break;
+        default:
+            throw new IllegalArgumentException("payment not supported: " + payment);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createSchedule() {
+        double dailyInterestRate = ANNUAL_INTEREST_RATE / 365 / 100;
+        schedule = new Schedule(DISBURSEMENT_DATE.toDateMidnight().toDate(), dailyInterestRate, LOAN_AMOUNT,
+                createInstallments());
+    }
+
+    @Benchmark
+    public Schedule applyPayment() {
+        scheduleCalculator.applyPayment(schedule, amount, transactionDate, false);
+        return schedule;
+    }
+
+    /**
+     * Equal principal installments with interest accrued daily on the declining balance.
+     */
+    private List<Installment> createInstallments() {
+        BigDecimal dailyInterestRate = BigDecimal.valueOf(ANNUAL_INTEREST_RATE / 365 / 100);
+        BigDecimal principal = LOAN_AMOUNT.divide(BigDecimal.valueOf(installments), 2, RoundingMode.HALF_UP);
+        BigDecimal outstanding = LOAN_AMOUNT;
+        List<Installment> unpaid = new ArrayList<Installment>(installments);
+        for (int i = 1; i <= installments; i++) {
+            if (i == installments) {
+                principal = outstanding;
+            }
+            BigDecimal interest = outstanding.multiply(dailyInterestRate).multiply(
+                    BigDecimal.valueOf(daysBetweenInstallments)).setScale(2, RoundingMode.HALF_UP);
+            Date dueDate = DISBURSEMENT_DATE.plusDays(i * daysBetweenInstallments).toDateMidnight().toDate();
+            unpaid.add(new Installment(i, dueDate, principal, interest, BigDecimal.ZERO, BigDecimal.ZERO,
+                    BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+            outstanding = outstanding.subtract(principal);
+        }
+        return unpaid;
+    }
+}
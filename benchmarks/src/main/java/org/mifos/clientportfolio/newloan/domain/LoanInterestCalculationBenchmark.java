@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.clientportfolio.newloan.domain;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.mifos.accounts.loan.util.helpers.InstallmentPrincipalAndInterest;
+import org.mifos.application.holiday.business.Holiday;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.meeting.util.helpers.RecurrenceType;
+import org.mifos.framework.util.helpers.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Interest calculation of variable installment loans, where interest accrues daily between due dates, and the split
+ * of flat interest into equal installments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanInterestCalculationBenchmark {
+
+    @Param({ "12", "52", "104" })
+    private int installments;
+
+    @Param({ "WEEKLY", "MONTHLY", "DAILY" })
+    private RecurrenceType recurrence;
+
+    @Param({ "0.0", "0.10" })
+    private double holidayDensity;
+
+    @Param({ "12.0", "36.0" })
+    private double interestRate;
+
+    private final Money loanAmount = LoanScheduleFixture.money("25000");
+
+    private LoanInterestCalculator dailyInterestCalculator;
+    private LoanInterestCalculationDetails loanInterestCalculationDetails;
+    private LoanInterestCalculationDetails variableInstallmentCalculationDetails;
+    private Money flatLoanInterest;
+
+    @Setup
+    public void setup() {
+        dailyInterestCalculator = new DecliningBalanceWithInterestCalculatedDailyLoanInterestCalculator();
+
+        MeetingBO loanMeeting = LoanScheduleFixture.createLoanMeeting(recurrence);
+        List<Holiday> holidays = LoanScheduleFixture.createHolidays(recurrence, installments, holidayDensity);
+        List<DateTime> loanScheduleDates = LoanScheduleFixture.generateScheduleDates(loanMeeting, installments,
+                holidays);
+
+        loanInterestCalculationDetails = LoanScheduleFixture.createInterestCalculationDetails(loanMeeting,
+                loanScheduleDates, loanAmount, Double.valueOf(interestRate));
+
+        variableInstallmentCalculationDetails = LoanScheduleFixture.createInterestCalculationDetails(loanMeeting,
+                loanScheduleDates, loanAmount, Double.valueOf(interestRate));
+        variableInstallmentCalculationDetails.setTotalInstallmentAmounts(LoanScheduleFixture
+                .createTotalInstallmentAmounts(loanAmount, Double.valueOf(interestRate), installments));
+
+        flatLoanInterest = new FlatLoanInterestCalculator().calculate(loanInterestCalculationDetails);
+    }
+
+    @Benchmark
+    public Money decliningBalanceInterestCalculatedDaily() {
+        return dailyInterestCalculator.calculate(loanInterestCalculationDetails);
+    }
+
+    @Benchmark
+    public Money decliningBalanceInterestCalculatedDailyWithInstallmentAmounts() {
+        return dailyInterestCalculator.calculate(variableInstallmentCalculationDetails);
+    }
+
+    /**
+     * The generator is created per invocation, as it is for every schedule generated.
+     */
+    @Benchmark
+    public List<InstallmentPrincipalAndInterest> flatEqualInstallments() {
+        return new FlatLoanPrincipalWithInterestGenerator(flatLoanInterest)
+                .generateEqualInstallments(loanInterestCalculationDetails);
+    }
+}
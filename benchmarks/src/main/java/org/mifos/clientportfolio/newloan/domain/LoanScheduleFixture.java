@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.clientportfolio.newloan.domain;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.DateTime;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.mifos.accounts.loan.business.LoanScheduleEntity;
+import org.mifos.accounts.loan.util.helpers.InstallmentPrincipalAndInterest;
+import org.mifos.accounts.productdefinition.util.helpers.GraceType;
+import org.mifos.accounts.util.helpers.PaymentStatus;
+import org.mifos.application.holiday.business.Holiday;
+import org.mifos.application.holiday.business.HolidayBO;
+import org.mifos.application.holiday.util.helpers.RepaymentRuleTypes;
+import org.mifos.application.master.business.MifosCurrency;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.meeting.exceptions.MeetingException;
+import org.mifos.application.meeting.util.helpers.MeetingType;
+import org.mifos.application.meeting.util.helpers.RecurrenceType;
+import org.mifos.application.meeting.util.helpers.WeekDay;
+import org.mifos.calendar.DayOfWeek;
+import org.mifos.core.MifosRuntimeException;
+import org.mifos.dto.domain.HolidayDetails;
+import org.mifos.framework.util.helpers.Money;
+import org.mifos.schedule.ScheduledDateGeneration;
+import org.mifos.schedule.ScheduledEvent;
+import org.mifos.schedule.ScheduledEventFactory;
+import org.mifos.schedule.internal.HolidayAndWorkingDaysAndMoratoriaScheduledDateGeneration;
+
+/**
+ * Builds the inputs of the loan schedule benchmarks the way loan creation does, without a database: meetings, schedule
+ * dates adjusted for working days and holidays, interest calculation details and unrounded installments.
+ * <p>
+ * Holidays are single days spread over the schedule with a fixed seed, so every run of a benchmark sees the same
+ * dates for the same parameters.
+ */
+public final class LoanScheduleFixture {
+
+    /**
+     * Must be the configured default currency (AccountingRules.CurrencyCode) for rounding to work.
+     */
+    public static final MifosCurrency RUPEE = new MifosCurrency((short) 2, "RUPEE", BigDecimal.valueOf(1.0), "INR");
+
+    public static final Integer INTEREST_DAYS = Integer.valueOf(365);
+
+    /**
+     * A Monday, so weekly and monthly meetings do not need to be moved to the first meeting day.
+     */
+    public static final LocalDate DISBURSEMENT_DATE = new LocalDate(2011, 1, 3);
+
+    private static final List<Days> WORKING_DAYS = Arrays.asList(DayOfWeek.mondayAsDay(), DayOfWeek.tuesdayAsDay(),
+            DayOfWeek.wednesdayAsDay(), DayOfWeek.thursdayAsDay(), DayOfWeek.fridayAsDay());
+
+    private static final long HOLIDAY_SEED = 20110103L;
+
+    private LoanScheduleFixture() {
+    }
+
+    public static Money money(String amount) {
+        return new Money(RUPEE, amount);
+    }
+
+    public static MeetingBO createLoanMeeting(RecurrenceType recurrenceType) {
+        Date startDate = DISBURSEMENT_DATE.toDateMidnight().toDate();
+        try {
+            switch (recurrenceType) {
+            case WEEKLY:
+                return new MeetingBO(WeekDay.MONDAY, Short.valueOf("1"), startDate, MeetingType.LOAN_INSTALLMENT,
+                        "meetingPlace");
+            case MONTHLY:
+                return new MeetingBO(Short.valueOf("3"), Short.valueOf("1"), startDate, MeetingType.LOAN_INSTALLMENT,
+                        "meetingPlace");
+            case DAILY:
+                return new MeetingBO(Short.valueOf("1"), startDate, MeetingType.LOAN_INSTALLMENT, "meetingPlace");
+            default:
+                throw new MifosRuntimeException("recurrenceType not supported: " + recurrenceType);
+            }
+        } catch (MeetingException e) {
+            throw new MifosRuntimeException(e);
+        }
+    }
+
+    /**
+     * Single day holidays on roughly the given fraction of the calendar days the schedule spans.
+     */
+    public static List<Holiday> createHolidays(RecurrenceType recurrenceType, int numberOfInstallments,
+            double holidayDensity) {
+        int daysSpanned = daysPerInstallment(recurrenceType) * (numberOfInstallments + 1);
+        Random random = new Random(HOLIDAY_SEED);
+        List<Holiday> holidays = new ArrayList<Holiday>();
+        for (int day = 1; day <= daysSpanned; day++) {
+            if (random.nextDouble() < holidayDensity) {
+                Date holiday = DISBURSEMENT_DATE.plusDays(day).toDateMidnight().toDate();
+                holidays.add(new HolidayBO(new HolidayDetails("holiday" + day, holiday, holiday,
+                        RepaymentRuleTypes.NEXT_WORKING_DAY.getValue())));
+            }
+        }
+        return holidays;
+    }
+
+    /**
+     * Due dates of the installments, starting the day after disbursement as loan creation does.
+     */
+    public static List<DateTime> generateScheduleDates(MeetingBO loanMeeting, int numberOfInstallments,
+            List<Holiday> holidays) {
+        ScheduledEvent scheduledEvent = ScheduledEventFactory.createScheduledEventFrom(loanMeeting);
+        ScheduledDateGeneration dateGeneration = new HolidayAndWorkingDaysAndMoratoriaScheduledDateGeneration(
+                WORKING_DAYS, holidays);
+        DateTime startFrom = DISBURSEMENT_DATE.toDateMidnight().toDateTime().plusDays(1);
+        return dateGeneration.generateScheduledDates(numberOfInstallments, startFrom, scheduledEvent, false);
+    }
+
+    public static LoanInterestCalculationDetails createInterestCalculationDetails(MeetingBO loanMeeting,
+            List<DateTime> loanScheduleDates, Money loanAmount, Double interestRate) {
+        return createInterestCalculationDetails(loanMeeting, loanScheduleDates, loanAmount, interestRate,
+                GraceType.NONE, 0);
+    }
+
+    public static LoanInterestCalculationDetails createInterestCalculationDetails(MeetingBO loanMeeting,
+            List<DateTime> loanScheduleDates, Money loanAmount, Double interestRate, GraceType graceType,
+            int gracePeriodDuration) {
+        RecurrenceType recurrenceType = loanMeeting.getRecurrenceType();
+        int recurAfter = loanMeeting.getRecurAfter().intValue();
+        Double annualPeriod = new LoanDecliningInterestAnnualPeriodCalculatorFactory().create(recurrenceType)
+                .calculate(recurAfter, INTEREST_DAYS);
+        Double interestFractionalRatePerInstallment = interestRate / annualPeriod / 100;
+        Double durationInYears = new LoanDurationInAccountingYearsCalculatorFactory().create(recurrenceType)
+                .calculate(recurAfter, loanScheduleDates.size(), INTEREST_DAYS);
+        return new LoanInterestCalculationDetails(loanAmount, interestRate, graceType,
+                Integer.valueOf(gracePeriodDuration), loanScheduleDates.size(), durationInYears,
+                interestFractionalRatePerInstallment, DISBURSEMENT_DATE, loanScheduleDates);
+    }
+
+    /**
+     * Equal total installment amounts covering the loan amount and a rough estimate of the interest, as entered for a
+     * variable installment loan.
+     */
+    public static List<Money> createTotalInstallmentAmounts(Money loanAmount, Double interestRate,
+            int numberOfInstallments) {
+        Money total = loanAmount.multiply(Double.valueOf(1 + interestRate / 100));
+        Money installmentAmount = total.divide(Integer.valueOf(numberOfInstallments));
+        List<Money> totalInstallmentAmounts = new ArrayList<Money>(numberOfInstallments);
+        for (int i = 0; i < numberOfInstallments; i++) {
+            totalInstallmentAmounts.add(installmentAmount);
+        }
+        return totalInstallmentAmounts;
+    }
+
+    public static List<LoanScheduleEntity> createUnroundedLoanSchedules(List<DateTime> loanScheduleDates,
+            List<InstallmentPrincipalAndInterest> installments) {
+        List<LoanScheduleEntity> loanSchedules = new ArrayList<LoanScheduleEntity>(installments.size());
+        for (int i = 0; i < installments.size(); i++) {
+            InstallmentPrincipalAndInterest installment = installments.get(i);
+            loanSchedules.add(new LoanScheduleEntity(null, null, Short.valueOf((short) (i + 1)), new java.sql.Date(
+                    loanScheduleDates.get(i).toLocalDate().toDateMidnight().toDate().getTime()), PaymentStatus.UNPAID,
+                    installment.getPrincipal(), installment.getInterest()));
+        }
+        return loanSchedules;
+    }
+
+    public static int daysPerInstallment(RecurrenceType recurrenceType) {
+        switch (recurrenceType) {
+        case WEEKLY:
+            return 7;
+        case MONTHLY:
+            return 31;
+        default:
+            return 1;
+        }
+    }
+}
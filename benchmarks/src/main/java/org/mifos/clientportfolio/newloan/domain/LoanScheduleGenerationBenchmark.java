@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.clientportfolio.newloan.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.mifos.accounts.business.AccountFeesEntity;
+import org.mifos.accounts.productdefinition.business.LoanOfferingBO;
+import org.mifos.accounts.productdefinition.util.helpers.GraceType;
+import org.mifos.accounts.productdefinition.util.helpers.InterestType;
+import org.mifos.application.holiday.business.Holiday;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.meeting.util.helpers.RecurrenceType;
+import org.mifos.framework.util.helpers.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation of a new loan's repayment schedule: the due dates adjusted for working days and holidays, and the
+ * installments built by {@link IndividualLoanScheduleFactory}, which calculates the interest, splits it into equal
+ * installments and rounds them as loan creation does. The rounders are compared on their own in
+ * {@link LoanScheduleRounderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanScheduleGenerationBenchmark {
+
+    @Param({ "12", "52", "104" })
+    private int installments;
+
+    @Param({ "WEEKLY", "MONTHLY", "DAILY" })
+    private RecurrenceType recurrence;
+
+    @Param({ "0.0", "0.03", "0.10" })
+    private double holidayDensity;
+
+    @Param({ "FLAT", "DECLINING", "DECLINING_EPI" })
+    private InterestType interestType;
+
+    private final Money loanAmount = LoanScheduleFixture.money("25000");
+    private final Double interestRate = Double.valueOf(24.0);
+
+    private LoanScheduleFactory loanScheduleFactory;
+    private LoanOfferingBO loanProduct;
+    private MeetingBO loanMeeting;
+    private List<Holiday> holidays;
+    private List<DateTime> loanScheduleDates;
+
+    @Setup
+    public void setup() {
+        loanScheduleFactory = new IndividualLoanScheduleFactory(null);
+        loanProduct = createLoanProduct(interestType);
+        loanMeeting = LoanScheduleFixture.createLoanMeeting(recurrence);
+        holidays = LoanScheduleFixture.createHolidays(recurrence, installments, holidayDensity);
+        loanScheduleDates = LoanScheduleFixture.generateScheduleDates(loanMeeting, installments, holidays);
+    }
+
+    @Benchmark
+    public List<DateTime> scheduleDates() {
+        return LoanScheduleFixture.generateScheduleDates(loanMeeting, installments, holidays);
+    }
+
+    @Benchmark
+    public LoanSchedule loanSchedule() {
+        return loanScheduleFactory.create(LoanScheduleFixture.DISBURSEMENT_DATE, loanScheduleDates,
+                new ArrayList<Number>(), loanProduct, null, loanMeeting, loanAmount, interestRate,
+                LoanScheduleFixture.INTEREST_DAYS, Integer.valueOf(0), new ArrayList<AccountFeesEntity>());
+    }
+
+    /**
+     * The factory only reads these settings of the product, the rest needs a database to build.
+     */
+    @SuppressWarnings("deprecation")
+    private static LoanOfferingBO createLoanProduct(final InterestType interestType) {
+        return new LoanOfferingBO() {
+            @Override
+            public GraceType getGraceType() {
+                return GraceType.NONE;
+            }
+
+            @Override
+            public InterestType getInterestType() {
+                return interestType;
+            }
+
+            @Override
+            public boolean isPrinDueLastInst() {
+                return false;
+            }
+
+            @Override
+            public boolean isVariableInstallmentsAllowed() {
+                return false;
+            }
+
+            @Override
+            public boolean isRoundingDifferenceInFirstPayment() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.clientportfolio.newloan.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.mifos.accounts.loan.business.LoanScheduleEntity;
+import org.mifos.accounts.loan.util.helpers.InstallmentPrincipalAndInterest;
+import org.mifos.accounts.productdefinition.util.helpers.GraceType;
+import org.mifos.accounts.productdefinition.util.helpers.InterestType;
+import org.mifos.application.holiday.business.Holiday;
+import org.mifos.application.meeting.business.MeetingBO;
+import org.mifos.application.meeting.util.helpers.RecurrenceType;
+import org.mifos.framework.util.helpers.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rounding of a new loan's installments by the {@link LoanScheduleRounder} implementations.
+ * <p>
+ * Rounding updates the installments in place, so each invocation rounds a fresh copy of the unrounded schedule. The
+ * copy is made in an invocation level setup, which JMH keeps out of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanScheduleRounderBenchmark {
+
+    @Param({ "12", "52", "104" })
+    private int installments;
+
+    @Param({ "FLAT", "DECLINING", "DECLINING_EPI" })
+    private InterestType interestType;
+
+    @Param({ "NONE", "PRINCIPALONLYGRACE" })
+    private GraceType graceType;
+
+    private final Money loanAmount = LoanScheduleFixture.money("25000");
+    private final Short gracePeriodDuration = Short.valueOf("2");
+
+    private LoanScheduleRounder defaultRounder;
+    private LoanScheduleRounder firstInstallmentRounder;
+    private List<DateTime> loanScheduleDates;
+    private List<InstallmentPrincipalAndInterest> equalInstallments;
+    private List<LoanScheduleEntity> unroundedLoanSchedules;
+
+    @Setup
+    public void setup() {
+        defaultRounder = new DefaultLoanScheduleRounder(new DefaultLoanScheduleRounderHelper());
+        firstInstallmentRounder = new FirstInstallmentRoudingDifferenceLoanScheduleRounder(
+                new DefaultLoanScheduleRounderHelper());
+
+        MeetingBO loanMeeting = LoanScheduleFixture.createLoanMeeting(RecurrenceType.WEEKLY);
+        loanScheduleDates = LoanScheduleFixture.generateScheduleDates(loanMeeting, installments,
+                new ArrayList<Holiday>());
+        LoanInterestCalculationDetails loanInterestCalculationDetails = LoanScheduleFixture
+                .createInterestCalculationDetails(loanMeeting, loanScheduleDates, loanAmount, Double.valueOf(24.0),
+                        graceType, gracePeriodDuration.intValue());
+
+        Money loanInterest = new LoanInterestCalculatorFactoryImpl().create(interestType, false).calculate(
+                loanInterestCalculationDetails);
+        equalInstallments = new EqualInstallmentGeneratorFactoryImpl().create(interestType, loanInterest, false)
+                .generateEqualInstallments(loanInterestCalculationDetails);
+    }
+
+    @Setup(Level.Invocation)
+    public void createUnroundedLoanSchedules() {
+        unroundedLoanSchedules = LoanScheduleFixture.createUnroundedLoanSchedules(loanScheduleDates,
+                equalInstallments);
+    }
+
+    @Benchmark
+    public List<LoanScheduleEntity> defaultRounder() {
+        return defaultRounder.round(graceType, gracePeriodDuration, loanAmount, interestType, unroundedLoanSchedules,
+                new ArrayList<LoanScheduleEntity>());
+    }
+
+    @Benchmark
+    public List<LoanScheduleEntity> firstInstallmentRoundingDifferenceRounder() {
+        return firstInstallmentRounder.round(graceType, gracePeriodDuration, loanAmount, interestType,
+                unroundedLoanSchedules, new ArrayList<LoanScheduleEntity>());
+    }
+}
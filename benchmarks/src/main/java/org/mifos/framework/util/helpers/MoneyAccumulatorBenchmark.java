@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.util.helpers;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.mifos.application.master.business.MifosCurrency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding up installment amounts with {@link Money#add(Money)} and with a {@link MoneyAccumulator}. Run with
+ * <code>-prof gc</code> to compare the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAccumulatorBenchmark {
+
+    private static final MifosCurrency RUPEE = new MifosCurrency((short) 2, "RUPEE", BigDecimal.valueOf(1.0), "INR");
+
+    @Param({ "12", "104", "1000" })
+    private int installments;
+
+    private Money[] amounts;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        amounts = new Money[installments];
+        for (int i = 0; i < installments; i++) {
+            // unrounded schedule amounts, with all the digits of the internal precision
+            amounts[i] = new Money(RUPEE, BigDecimal.valueOf(random.nextDouble() * 5000));
+        }
+    }
+
+    @Benchmark
+    public Money money() {
+        Money total = new Money(RUPEE);
+        for (Money amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyAccumulator() {
+        MoneyAccumulator total = new MoneyAccumulator(RUPEE);
+        for (Money amount : amounts) {
+            total.add(amount);
+        }
+        return total.toMoney();
+    }
+}
@@ -23,9 +23,11 @@ package org.mifos.framework.components.batchjobs.helpers;
 import static org.mifos.framework.util.helpers.NumberUtils.nullSafeValue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.mifos.accounts.util.helpers.AccountTypes;
 import org.mifos.customers.business.service.CustomerBusinessService;
 import org.mifos.customers.office.business.OfficeBO;
 import org.mifos.customers.api.CustomerLevel;
@@ -34,6 +36,7 @@ import org.mifos.framework.exceptions.ServiceException;
 import org.mifos.framework.util.CollectionUtils;
 import org.mifos.framework.util.helpers.NumberUtils;
 import org.mifos.reports.branchreport.BranchReportClientSummaryBO;
+import org.mifos.reports.branchreport.persistence.BranchReportCustomerCount;
 import org.mifos.reports.branchreport.persistence.BranchReportSqlPersistence;
 import org.mifos.reports.business.service.BranchReportConfigService;
 import org.mifos.reports.business.service.IBranchReportService;
@@ -60,30 +63,31 @@ public class BranchReportSqlDataAggregator implements BranchReportDataAggregator
 	public List<BranchReportClientSummaryBO> fetchClientSummaries(OfficeBO branchOffice) throws ServiceException {
         List<BranchReportClientSummaryBO> clientSummaries = new ArrayList<BranchReportClientSummaryBO>();
         try {
-            clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.CENTER_COUNT, persistence
-                    .getCustomerCount(branchOffice.getOfficeId(), CustomerLevel.CENTER), null));
-            clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.GROUP_COUNT, persistence
-                    .getCustomerCount(branchOffice.getOfficeId(), CustomerLevel.GROUP), null));
+            Short officeId = branchOffice.getOfficeId();
+            Map<CustomerLevel, Integer> customerCountByLevel = persistence.getCustomerCountByLevel(officeId,
+                    Arrays.asList(CustomerLevel.CENTER, CustomerLevel.GROUP));
+            clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.CENTER_COUNT,
+                    nullSafeValue(customerCountByLevel.get(CustomerLevel.CENTER)), null));
+            clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.GROUP_COUNT,
+                    nullSafeValue(customerCountByLevel.get(CustomerLevel.GROUP)), null));
             clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.PORTFOLIO_AT_RISK,
                     branchReportService.extractPortfolioAtRiskForOffice(branchOffice, configService
                             .getGracePeriodDays()), null));
 
-            Map<String, Integer> customerCountBasedOnStatus = persistence.getCustomerCountBasedOnStatus(branchOffice
-                    .getOfficeId(), CustomerLevel.CLIENT, CollectionUtils.asList(new String[] { CUSTOMER_WAS_ACTIVE,
-                    CUSTOMER_WAS_HOLD, CUSTOMER_WAS_CLOSE }));
-            Map<String, Integer> customerCountBasedOnStatusForPoorClients = persistence
-                    .getVeryPoorCustomerCountBasedOnStatus(branchOffice.getOfficeId(), CustomerLevel.CLIENT,
-                            CollectionUtils.asList(new String[] { CUSTOMER_WAS_ACTIVE, CUSTOMER_WAS_HOLD,
-                                    CUSTOMER_WAS_CLOSE }));
-            Integer activeClientCount = nullSafeValue(customerCountBasedOnStatus.get(CUSTOMER_WAS_ACTIVE));
-            Integer activeVeryPoorClientCount = nullSafeValue(customerCountBasedOnStatusForPoorClients
+            Map<String, BranchReportCustomerCount> customerCountBasedOnStatus = persistence
+                    .getCustomerAndVeryPoorCountBasedOnStatus(officeId, CustomerLevel.CLIENT, CollectionUtils
+                            .asList(new String[] { CUSTOMER_WAS_ACTIVE, CUSTOMER_WAS_HOLD, CUSTOMER_WAS_CLOSE }));
+            BranchReportCustomerCount activeClients = nullSafeCount(customerCountBasedOnStatus
                     .get(CUSTOMER_WAS_ACTIVE));
-            Integer holdClientCount = nullSafeValue(customerCountBasedOnStatus.get(CUSTOMER_WAS_HOLD));
-            Integer holdVeryPoorClientCount = nullSafeValue(customerCountBasedOnStatusForPoorClients
-                    .get(CUSTOMER_WAS_HOLD));
-            Integer closedClientCount = nullSafeValue(customerCountBasedOnStatus.get(CUSTOMER_WAS_CLOSE));
-            Integer closedVeryPoorClientCount = nullSafeValue(customerCountBasedOnStatusForPoorClients
+            BranchReportCustomerCount holdClients = nullSafeCount(customerCountBasedOnStatus.get(CUSTOMER_WAS_HOLD));
+            BranchReportCustomerCount closedClients = nullSafeCount(customerCountBasedOnStatus
                     .get(CUSTOMER_WAS_CLOSE));
+            Integer activeClientCount = activeClients.getCount();
+            Integer activeVeryPoorClientCount = activeClients.getVeryPoorCount();
+            Integer holdClientCount = holdClients.getCount();
+            Integer holdVeryPoorClientCount = holdClients.getVeryPoorCount();
+            Integer closedClientCount = closedClients.getCount();
+            Integer closedVeryPoorClientCount = closedClients.getVeryPoorCount();
 
             clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.ACTIVE_CLIENTS_COUNT,
                     activeClientCount, activeVeryPoorClientCount));
@@ -96,19 +100,23 @@ public class BranchReportSqlDataAggregator implements BranchReportDataAggregator
                     NumberUtils.getPercentage(closedVeryPoorClientCount, closedVeryPoorClientCount
                             + activeVeryPoorClientCount + holdVeryPoorClientCount)));
 
+            Map<AccountTypes, BranchReportCustomerCount> activeBorrowersAndSavers = persistence
+                    .getActiveBorrowerAndSaverCount(officeId, CustomerLevel.CLIENT);
+            BranchReportCustomerCount activeBorrowers = nullSafeCount(activeBorrowersAndSavers
+                    .get(AccountTypes.LOAN_ACCOUNT));
+            BranchReportCustomerCount activeSavers = nullSafeCount(activeBorrowersAndSavers
+                    .get(AccountTypes.SAVINGS_ACCOUNT));
             clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.ACTIVE_BORROWERS_COUNT,
-                    persistence.getActiveBorrowersCount(branchOffice.getOfficeId(), CustomerLevel.CLIENT), persistence
-                            .getVeryPoorActiveBorrowersCount(branchOffice.getOfficeId(), CustomerLevel.CLIENT)));
+                    activeBorrowers.getCount(), activeBorrowers.getVeryPoorCount()));
             clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.ACTIVE_SAVERS_COUNT,
-                    persistence.getActiveSaversCount(branchOffice.getOfficeId(), CustomerLevel.CLIENT), persistence
-                            .getVeryPoorActiveSaversCount(branchOffice.getOfficeId(), CustomerLevel.CLIENT)));
+                    activeSavers.getCount(), activeSavers.getVeryPoorCount()));
             clientSummaries.add(createLoanAccountDormantClientsSummary(branchOffice));
             clientSummaries.add(createSavingAccountDormantClientsSummary(branchOffice));
+            BranchReportCustomerCount replacements = persistence.getReplacementAndVeryPoorReplacementCount(officeId,
+                    CustomerLevel.CLIENT, configService.getReplacementFieldId(), configService
+                            .getReplacementFieldValue());
             clientSummaries.add(new BranchReportClientSummaryBO(BranchReportClientSummaryBO.REPLACEMENTS_COUNT,
-                    persistence.getReplacementCountForOffice(branchOffice.getOfficeId(), CustomerLevel.CLIENT,
-                            configService.getReplacementFieldId(), configService.getReplacementFieldValue()),
-                    persistence.getVeryPoorReplaceCountForOffice(branchOffice.getOfficeId(), CustomerLevel.CLIENT,
-                            configService.getReplacementFieldId(), configService.getReplacementFieldValue())));
+                    replacements.getCount(), replacements.getVeryPoorCount()));
 
         } catch (PersistenceException e) {
             throw new ServiceException(e);
@@ -116,6 +124,10 @@ public class BranchReportSqlDataAggregator implements BranchReportDataAggregator
         return clientSummaries;
     }
 
+    private BranchReportCustomerCount nullSafeCount(BranchReportCustomerCount count) {
+        return count == null ? BranchReportCustomerCount.NONE : count;
+    }
+
     private BranchReportClientSummaryBO createLoanAccountDormantClientsSummary(OfficeBO branchOffice)
             throws ServiceException {
         Integer dormantLoanAccounts = customerBusinessService.getDormantClientsCountByLoanAccountForOffice(
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.branchreport.persistence;
+
+/**
+ * A customer count of a branch together with the count of the very poor customers among them, as returned by the
+ * grouped queries of {@link BranchReportSqlPersistence}.
+ */
+public class BranchReportCustomerCount {
+
+    public static final BranchReportCustomerCount NONE = new BranchReportCustomerCount(0, 0);
+
+    private final Integer count;
+    private final Integer veryPoorCount;
+
+    public BranchReportCustomerCount(Integer count, Integer veryPoorCount) {
+        this.count = count == null ? Integer.valueOf(0) : count;
+        this.veryPoorCount = veryPoorCount == null ? Integer.valueOf(0) : veryPoorCount;
+    }
+
+    public Integer getCount() {
+        return this.count;
+    }
+
+    public Integer getVeryPoorCount() {
+        return this.veryPoorCount;
+    }
+}
@@ -24,6 +24,7 @@ import static org.mifos.customers.util.helpers.QueryParamConstants.CUSTOMER_LEVE
 import static org.mifos.customers.util.helpers.QueryParamConstants.CUSTOMER_STATUS_DESCRIPTION;
 import static org.mifos.customers.util.helpers.QueryParamConstants.OFFICE_ID;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -40,74 +41,6 @@ import org.mifos.framework.persistence.LegacyGenericDao;
 
 public class BranchReportSqlPersistence extends LegacyGenericDao {
 
-    public Integer getCustomerCount(Short officeId, CustomerLevel customerLevel) throws PersistenceException {
-        HashMap<String, Object> params = populateQueryParams(officeId, customerLevel);
-        return getCountFromQueryResult(executeNamedQuery(NamedQueryConstants.GET_SQL_CUSTOMER_COUNT_FOR_OFFICE, params));
-    }
-
-    public Map<String, Integer> getCustomerCountBasedOnStatus(Short officeId, CustomerLevel customerLevel,
-            List<String> customerStatusDescriptions) {
-        Query query = createQueryForCustomerCountBasedOnStatus(
-                NamedQueryConstants.GET_SQL_CUSTOMER_COUNT_BASED_ON_STATUS_FOR_OFFICE, officeId, customerLevel,
-                customerStatusDescriptions);
-        return extractResultFromResultset(query.list());
-    }
-
-    public Integer getActiveBorrowersCount(Short officeId, CustomerLevel customerLevel) {
-        Query query = createdNamedQuery(NamedQueryConstants.GET_SQL_ACTIVE_ACCOUNT_USER_COUNT_FOR_OFFICE);
-        query.setParameterList("accountStateIds", Arrays.asList(AccountState.LOAN_ACTIVE_IN_BAD_STANDING.getValue(),
-                AccountState.LOAN_ACTIVE_IN_GOOD_STANDING.getValue()));
-
-        Map<String, Object> params = populateParamsForActiveClientAccountSummary(officeId, customerLevel,
-                AccountTypes.LOAN_ACCOUNT);
-        query.setProperties(params);
-        return getCountFromQueryResult(query.list());
-    }
-
-    private Map<String, Object> populateParamsForActiveClientAccountSummary(Short officeId,
-            CustomerLevel customerLevel, AccountTypes accountTypes) {
-        Map<String, Object> params = populateQueryParams(officeId, customerLevel);
-        params.put("accountTypeId", accountTypes.getValue());
-        return params;
-    }
-
-    public Integer getVeryPoorActiveBorrowersCount(Short officeId, CustomerLevel customerLevel) {
-        Query query = createdNamedQuery(NamedQueryConstants.GET_SQL_VERY_POOR_ACTIVE_ACCOUNT_USER_COUNT_FOR_OFFICE);
-        query.setParameterList("accountStateIds", Arrays.asList(AccountState.LOAN_ACTIVE_IN_BAD_STANDING.getValue(),
-                AccountState.LOAN_ACTIVE_IN_GOOD_STANDING.getValue()));
-
-        Map<String, Object> params = populateParamsForActiveClientAccountSummary(officeId, customerLevel,
-                AccountTypes.LOAN_ACCOUNT);
-        query.setProperties(params);
-        return getCountFromQueryResult(query.list());
-    }
-
-    public Integer getActiveSaversCount(Short officeId, CustomerLevel customerLevel) {
-        Map<String, Object> params = populateParamsForActiveClientAccountSummary(officeId, customerLevel,
-                AccountTypes.SAVINGS_ACCOUNT);
-        Query query = createdNamedQuery(NamedQueryConstants.GET_SQL_ACTIVE_ACCOUNT_USER_COUNT_FOR_OFFICE);
-        query.setParameterList("accountStateIds", Arrays.asList(AccountState.SAVINGS_ACTIVE.getValue(),
-                AccountState.SAVINGS_INACTIVE.getValue()));
-        query.setProperties(params);
-        return getCountFromQueryResult(query.list());
-    }
-
-    public Integer getVeryPoorActiveSaversCount(Short officeId, CustomerLevel customerLevel) {
-        Map<String, Object> params = populateParamsForActiveClientAccountSummary(officeId, customerLevel,
-                AccountTypes.SAVINGS_ACCOUNT);
-        Query query = createdNamedQuery(NamedQueryConstants.GET_SQL_VERY_POOR_ACTIVE_ACCOUNT_USER_COUNT_FOR_OFFICE);
-        query.setParameterList("accountStateIds", Arrays.asList(AccountState.SAVINGS_ACTIVE.getValue(),
-                AccountState.SAVINGS_INACTIVE.getValue()));
-        query.setProperties(params);
-        return getCountFromQueryResult(query.list());
-    }
-
-    public Integer getReplacementCountForOffice(Short officeId, CustomerLevel customerLevel, Short fieldId,
-            String fieldValue) throws PersistenceException {
-        return getCountFromQueryResult(executeNamedQuery(NamedQueryConstants.GET_SQL_REPLACEMENT_COUNT_FOR_OFFICE,
-                populateQueryForReplacementCount(officeId, customerLevel, fieldId, fieldValue)));
-    }
-
     private HashMap<String, Object> populateQueryForReplacementCount(Short officeId, CustomerLevel customerLevel,
             Short fieldId, String fieldValue) {
         HashMap<String, Object> params = populateQueryParams(officeId, customerLevel);
@@ -116,21 +49,6 @@ public class BranchReportSqlPersistence extends LegacyGenericDao {
         return params;
     }
 
-    public Integer getVeryPoorReplaceCountForOffice(Short officeId, CustomerLevel customerLevel, Short fieldId,
-            String fieldValue) throws PersistenceException {
-        return getCountFromQueryResult(executeNamedQuery(
-                NamedQueryConstants.GET_SQL_VERY_POOR_REPLACEMENT_COUNT_FOR_OFFICE, populateQueryForReplacementCount(
-                        officeId, customerLevel, fieldId, fieldValue)));
-    }
-
-    private Map<String, Object> populateParamsForActiveClientAccountSummary(Short officeId,
-            CustomerLevel customerLevel, AccountTypes accountTypes, AccountState accountState) {
-        Map<String, Object> params = populateQueryParams(officeId, customerLevel);
-        params.put("accountTypeId", accountTypes.getValue());
-        params.put("accountStateId", accountState.getValue());
-        return params;
-    }
-
     private HashMap<String, Object> populateQueryParams(Short officeId, CustomerLevel customerLevel) {
         HashMap<String, Object> params = new HashMap<String, Object>();
         params.put(OFFICE_ID, officeId);
@@ -146,12 +64,78 @@ public class BranchReportSqlPersistence extends LegacyGenericDao {
         return query;
     }
 
-    public Map<String, Integer> getVeryPoorCustomerCountBasedOnStatus(Short officeId, CustomerLevel customerLevel,
-            List<String> customerStatuseDescriptions) {
+    /**
+     * Counts the active centers and groups of the branch in one query, keyed by customer level.
+     */
+    public Map<CustomerLevel, Integer> getCustomerCountByLevel(Short officeId, List<CustomerLevel> customerLevels) {
+        List<Short> customerLevelIds = new ArrayList<Short>();
+        for (CustomerLevel customerLevel : customerLevels) {
+            customerLevelIds.add(customerLevel.getValue());
+        }
+        Query query = createdNamedQuery(NamedQueryConstants.GET_SQL_CUSTOMER_COUNT_BY_LEVEL_FOR_OFFICE);
+        query.setParameterList("customerLevelIds", customerLevelIds);
+        query.setShort(OFFICE_ID, officeId);
+
+        Map<CustomerLevel, Integer> counts = new HashMap<CustomerLevel, Integer>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            counts.put(CustomerLevel.getLevel((Short) row[0]), (Integer) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the customers of the branch in each of the given states, and how many of them are very poor, in one
+     * query keyed by state description.
+     */
+    public Map<String, BranchReportCustomerCount> getCustomerAndVeryPoorCountBasedOnStatus(Short officeId,
+            CustomerLevel customerLevel, List<String> customerStatusDescriptions) {
         Query query = createQueryForCustomerCountBasedOnStatus(
-                NamedQueryConstants.GET_SQL_VERY_POOR_CUSTOMER_COUNT_BASED_ON_STATUS_FOR_OFFICE, officeId,
-                customerLevel, customerStatuseDescriptions);
-        return extractResultFromResultset(query.list());
+                NamedQueryConstants.GET_SQL_CUSTOMER_AND_VERY_POOR_COUNT_BASED_ON_STATUS_FOR_OFFICE, officeId,
+                customerLevel, customerStatusDescriptions);
+        Map<String, BranchReportCustomerCount> counts = new HashMap<String, BranchReportCustomerCount>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            counts.put((String) row[0], new BranchReportCustomerCount((Integer) row[1], (Integer) row[2]));
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the active borrowers and savers of the branch, and how many of them are very poor, in one query keyed by
+     * account type.
+     */
+    public Map<AccountTypes, BranchReportCustomerCount> getActiveBorrowerAndSaverCount(Short officeId,
+            CustomerLevel customerLevel) {
+        Query query = createdNamedQuery(NamedQueryConstants.GET_SQL_ACTIVE_BORROWER_AND_SAVER_COUNT_FOR_OFFICE);
+        query.setParameterList("loanAccountStateIds", Arrays.asList(AccountState.LOAN_ACTIVE_IN_BAD_STANDING
+                .getValue(), AccountState.LOAN_ACTIVE_IN_GOOD_STANDING.getValue()));
+        query.setParameterList("savingsAccountStateIds", Arrays.asList(AccountState.SAVINGS_ACTIVE.getValue(),
+                AccountState.SAVINGS_INACTIVE.getValue()));
+        Map<String, Object> params = populateQueryParams(officeId, customerLevel);
+        params.put("loanAccountTypeId", AccountTypes.LOAN_ACCOUNT.getValue());
+        params.put("savingsAccountTypeId", AccountTypes.SAVINGS_ACCOUNT.getValue());
+        query.setProperties(params);
+
+        Map<AccountTypes, BranchReportCustomerCount> counts = new HashMap<AccountTypes, BranchReportCustomerCount>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            counts.put(AccountTypes.getAccountType((Short) row[0]), new BranchReportCustomerCount((Integer) row[1],
+                    (Integer) row[2]));
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the customers of the branch with the given replacement custom field value, and how many of them are very
+     * poor, in one query.
+     */
+    public BranchReportCustomerCount getReplacementAndVeryPoorReplacementCount(Short officeId,
+            CustomerLevel customerLevel, Short fieldId, String fieldValue) throws PersistenceException {
+        List<Object[]> rows = executeNamedQuery(
+                NamedQueryConstants.GET_SQL_REPLACEMENT_AND_VERY_POOR_REPLACEMENT_COUNT_FOR_OFFICE,
+                populateQueryForReplacementCount(officeId, customerLevel, fieldId, fieldValue));
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return BranchReportCustomerCount.NONE;
+        }
+        return new BranchReportCustomerCount((Integer) rows.get(0)[0], (Integer) rows.get(0)[1]);
     }
 
     public Map<String, Integer> extractResultFromResultset(List resultSet) {
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.mifos.config.GeneralConfig;
+import org.mifos.config.cache.BoundedCache;
+import org.mifos.config.cache.CacheWeigher;
+import org.mifos.framework.hibernate.helper.StaticHibernateUtil;
+import org.mifos.reports.pentaho.PentahoReport;
+import org.mifos.reports.pentaho.PentahoReportJob;
+import org.mifos.reports.pentaho.PentahoReportJobStatus;
+import org.mifos.reports.pentaho.PentahoReportQueueServiceFacade;
+import org.mifos.reports.pentaho.PentahoReportsServiceFacade;
+import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
+import org.mifos.security.MifosUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Renders reports on a small pool of background threads.
+ * <p>
+ * Reports wait in a bounded queue for one of GeneralConfig.ReportQueueThreads threads, and a user can have at most
+ * GeneralConfig.ReportJobsPerUser reports waiting or being rendered at once; reports beyond either limit are rejected
+ * rather than queued. Finished jobs are kept for an hour for their users to download, as long as their results fit in
+ * GeneralConfig.ReportResultMemoryMegabytes; the oldest jobs are dropped first when they do not.
+ * <p>
+ * Data warehouse reports only change when the ETL job runs, so their results are also cached, keyed by the report,
+ * output type, normalized parameters and the last time the ETL job ran. Asking for the same report again is answered
+ * from the cache until the next ETL run. The cache is bounded by GeneralConfig.ReportResultMemoryMegabytes as well.
+ * Reports on the live database are always rendered.
+ */
+public class PentahoReportQueueServiceImpl implements PentahoReportQueueServiceFacade, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PentahoReportQueueServiceImpl.class);
+
+    private static final int MAX_JOBS = 200;
+    private static final long JOB_TIME_TO_LIVE_MILLIS = 60 * 60 * 1000L;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024L;
+
+    private static final CacheWeigher<QueuedReport> JOB_WEIGHER = new CacheWeigher<QueuedReport>() {
+        @Override
+        public long weigh(QueuedReport job) {
+            return job.getResultSize();
+        }
+    };
+
+    private static final CacheWeigher<PentahoReport> REPORT_WEIGHER = new CacheWeigher<PentahoReport>() {
+        @Override
+        public long weigh(PentahoReport report) {
+            return report.getContentSize();
+        }
+    };
+
+    private final PentahoReportsServiceFacade pentahoReportsService;
+    private final ThreadPoolExecutor executor;
+    private final int jobsPerUser;
+    private final BoundedCache<String, QueuedReport> jobs;
+    private final BoundedCache<ReportResultKey, PentahoReport> results;
+    private final Map<Integer, Integer> activeJobsPerUser = new HashMap<Integer, Integer>();
+
+    @Autowired
+    public PentahoReportQueueServiceImpl(PentahoReportsServiceFacade pentahoReportsService) {
+        this(pentahoReportsService, GeneralConfig.getReportQueueThreads(), GeneralConfig.getReportQueueCapacity(),
+                GeneralConfig.getReportJobsPerUser(), GeneralConfig.getReportResultCacheSize(),
+                GeneralConfig.getReportResultMemoryMegabytes() * BYTES_PER_MEGABYTE);
+    }
+
+    PentahoReportQueueServiceImpl(PentahoReportsServiceFacade pentahoReportsService, int threads, int queueCapacity,
+            int jobsPerUser, int resultCacheSize, long resultMemoryBytes) {
+        this.pentahoReportsService = pentahoReportsService;
+        this.jobsPerUser = Math.max(1, jobsPerUser);
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)), new ReportThreadFactory());
+        long maxResultBytes = Math.max(1, resultMemoryBytes);
+        this.jobs = new BoundedCache<String, QueuedReport>("pentahoReportJobs", MAX_JOBS, JOB_TIME_TO_LIVE_MILLIS,
+                maxResultBytes, JOB_WEIGHER);
+        this.results = new BoundedCache<ReportResultKey, PentahoReport>("pentahoReportResults", Math.max(1,
+                resultCacheSize), BoundedCache.NO_EXPIRY, maxResultBytes, REPORT_WEIGHER);
+    }
+
+    @Override
+    public PentahoReportJob submitReport(Integer reportId, Integer outputTypeId,
+            Map<String, AbstractPentahoParameter> params, HttpServletRequest request) {
+        if (!pentahoReportsService.checkAccessToReport(reportId)) {
+            throw new AccessDeniedException("Access denied");
+        }
+        int userId = getUserId();
+        QueuedReport job = new QueuedReport(UUID.randomUUID().toString(), userId, reportId, outputTypeId,
+                pentahoReportsService.getReportName(reportId));
+        Map<String, AbstractPentahoParameter> jobParams = new HashMap<String, AbstractPentahoParameter>(params);
+
+        ReportResultKey key = null;
+        if (pentahoReportsService.isDW(reportId)) {
+            key = new ReportResultKey(reportId, outputTypeId, jobParams,
+                    pentahoReportsService.getEtlLastUpdateDate(request));
+            PentahoReport cached = results.get(key);
+            if (cached != null) {
+                job.finish(cached, true);
+                jobs.put(job.getJobId(), job);
+                return job.toJob();
+            }
+        }
+
+        if (!startJob(userId)) {
+            job.reject("You already have " + jobsPerUser + " reports waiting, please wait for them to finish");
+            return job.toJob();
+        }
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(new ReportTask(job, jobParams, key, SecurityContextHolder.getContext()));
+        } catch (RejectedExecutionException e) {
+            endJob(userId);
+            job.reject("Too many reports are waiting, please try again later");
+        }
+        return job.toJob();
+    }
+
+    @Override
+    public PentahoReportJob getReportJob(String jobId) {
+        QueuedReport job = getJobOfCurrentUser(jobId);
+        return job == null ? null : job.toJob();
+    }
+
+    @Override
+    public List<PentahoReportJob> getReportJobs() {
+        int userId = getUserId();
+        List<PentahoReportJob> userJobs = new ArrayList<PentahoReportJob>();
+        for (String jobId : jobs.keySet()) {
+            QueuedReport job = jobs.get(jobId);
+            if (job != null && job.getUserId() == userId) {
+                userJobs.add(job.toJob());
+            }
+        }
+        return userJobs;
+    }
+
+    @Override
+    public PentahoReport getReportJobResult(String jobId) {
+        QueuedReport job = getJobOfCurrentUser(jobId);
+        return job == null ? null : job.getResult();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    private QueuedReport getJobOfCurrentUser(String jobId) {
+        QueuedReport job = jobs.get(jobId);
+        if (job == null || job.getUserId() != getUserId()) {
+            return null;
+        }
+        return job;
+    }
+
+    private synchronized boolean startJob(int userId) {
+        Integer active = activeJobsPerUser.get(userId);
+        int count = (active == null) ? 0 : active;
+        if (count >= jobsPerUser) {
+            return false;
+        }
+        activeJobsPerUser.put(userId, count + 1);
+        return true;
+    }
+
+    private synchronized void endJob(int userId) {
+        Integer active = activeJobsPerUser.get(userId);
+        if (active == null || active <= 1) {
+            activeJobsPerUser.remove(userId);
+        } else {
+            activeJobsPerUser.put(userId, active - 1);
+        }
+    }
+
+    /**
+     * Closes the Hibernate session the report thread opened while looking up the report.
+     */
+    protected void closeSession() {
+        StaticHibernateUtil.closeSession();
+    }
+
+    protected int getUserId() {
+        MifosUser user = (MifosUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return user.getUserId();
+    }
+
+    /**
+     * Stops the report threads; reports still waiting are dropped.
+     */
+    @Override
+    public void destroy() {
+        List<Runnable> dropped = executor.shutdownNow();
+        if (!dropped.isEmpty()) {
+            logger.info("Dropped " + dropped.size() + " queued reports at shutdown");
+        }
+    }
+
+    private class ReportTask implements Runnable {
+        private final QueuedReport job;
+        private final Map<String, AbstractPentahoParameter> params;
+        private final ReportResultKey key;
+        private final SecurityContext securityContext;
+
+        ReportTask(QueuedReport job, Map<String, AbstractPentahoParameter> params, ReportResultKey key,
+                SecurityContext securityContext) {
+            this.job = job;
+            this.params = params;
+            this.key = key;
+            this.securityContext = securityContext;
+        }
+
+        @Override
+        public void run() {
+            SecurityContextHolder.setContext(securityContext);
+            PentahoReport report = null;
+            String failure = null;
+            try {
+                job.start();
+                report = pentahoReportsService.getReport(job.getReportId(), job.getOutputTypeId(), params);
+                if (!report.isInError() && key != null) {
+                    results.put(key, report);
+                }
+            } catch (Exception e) {
+                logger.error("Unable to render report " + job.getReportId() + " for user " + job.getUserId(), e);
+                failure = e.getMessage();
+            } finally {
+                closeSession();
+                SecurityContextHolder.clearContext();
+                endJob(job.getUserId());
+            }
+            if (report != null) {
+                job.finish(report, false);
+            } else {
+                job.fail(failure);
+            }
+            // refreshes the time the finished job is kept for
+            jobs.put(job.getJobId(), job);
+        }
+    }
+
+    static class QueuedReport {
+        private final String jobId;
+        private final int userId;
+        private final Integer reportId;
+        private final Integer outputTypeId;
+        private final String reportName;
+        private final Date submittedDate = new Date();
+
+        private PentahoReportJobStatus status = PentahoReportJobStatus.QUEUED;
+        private Date finishedDate;
+        private boolean cached;
+        private String message;
+        private PentahoReport result;
+
+        QueuedReport(String jobId, int userId, Integer reportId, Integer outputTypeId, String reportName) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.reportId = reportId;
+            this.outputTypeId = outputTypeId;
+            this.reportName = reportName;
+        }
+
+        String getJobId() {
+            return this.jobId;
+        }
+
+        int getUserId() {
+            return this.userId;
+        }
+
+        Integer getReportId() {
+            return this.reportId;
+        }
+
+        Integer getOutputTypeId() {
+            return this.outputTypeId;
+        }
+
+        synchronized void start() {
+            status = PentahoReportJobStatus.RUNNING;
+        }
+
+        synchronized void finish(PentahoReport report, boolean fromCache) {
+            this.result = report;
+            this.cached = fromCache;
+            this.finishedDate = new Date();
+            if (report.isInError()) {
+                this.status = PentahoReportJobStatus.FAILED;
+                this.message = report.getErrors().get(0).getErrorMessage();
+            } else {
+                this.status = PentahoReportJobStatus.FINISHED;
+            }
+        }
+
+        synchronized void fail(String failure) {
+            this.status = PentahoReportJobStatus.FAILED;
+            this.finishedDate = new Date();
+            this.message = failure;
+        }
+
+        synchronized void reject(String reason) {
+            this.status = PentahoReportJobStatus.REJECTED;
+            this.finishedDate = new Date();
+            this.message = reason;
+        }
+
+        synchronized PentahoReport getResult() {
+            return status == PentahoReportJobStatus.FINISHED ? result : null;
+        }
+
+        synchronized int getResultSize() {
+            return result == null ? 0 : result.getContentSize();
+        }
+
+        synchronized PentahoReportJob toJob() {
+            PentahoReportJob job = new PentahoReportJob();
+            job.setJobId(jobId);
+            job.setReportId(reportId);
+            job.setOutputTypeId(outputTypeId);
+            job.setReportName(reportName);
+            job.setStatus(status);
+            job.setSubmittedDate(submittedDate);
+            job.setFinishedDate(finishedDate);
+            job.setCached(cached);
+            job.setMessage(message);
+            return job;
+        }
+    }
+
+    private static class ReportThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "PentahoReportQueue-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
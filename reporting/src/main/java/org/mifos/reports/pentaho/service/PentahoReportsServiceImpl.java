@@ -42,16 +42,19 @@ import org.mifos.application.admin.servicefacade.ViewOrganizationSettingsService
 import org.mifos.core.MifosRuntimeException;
 import org.mifos.framework.exceptions.PersistenceException;
 import org.mifos.framework.util.ConfigurationLocator;
+import org.mifos.reports.admindocuments.business.AdminDocumentBO;
 import org.mifos.reports.admindocuments.persistence.LegacyAdminDocumentDao;
 import org.mifos.reports.business.ReportsBO;
 import org.mifos.reports.business.ReportsJasperMap;
 import org.mifos.reports.pentaho.PentahoReport;
+import org.mifos.reports.pentaho.PentahoReportOutput;
 import org.mifos.reports.pentaho.PentahoReportsServiceFacade;
 import org.mifos.reports.pentaho.PentahoValidationError;
 import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
 import org.mifos.reports.pentaho.params.PentahoInputParameter;
 import org.mifos.reports.pentaho.util.PentahoOutputType;
 import org.mifos.reports.pentaho.util.PentahoParamParser;
+import org.mifos.reports.pentaho.util.PentahoReportDefinitionCache;
 import org.mifos.reports.pentaho.util.PentahoReportLocator;
 import org.mifos.reports.pentaho.util.ReflectionException;
 import org.mifos.reports.persistence.ReportsPersistence;
@@ -78,8 +81,6 @@ import org.pentaho.reporting.engine.classic.core.parameters.ReportParameterValid
 import org.pentaho.reporting.engine.classic.core.parameters.ValidationMessage;
 import org.pentaho.reporting.engine.classic.core.parameters.ValidationResult;
 import org.pentaho.reporting.engine.classic.core.util.ReportParameterValues;
-import org.pentaho.reporting.libraries.resourceloader.Resource;
-import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
 
 public class PentahoReportsServiceImpl implements PentahoReportsServiceFacade {
 
@@ -90,6 +91,7 @@ public class PentahoReportsServiceImpl implements PentahoReportsServiceFacade {
     private RolesPermissionServiceFacade rolesPermissionService;
     private LegacyAdminDocumentDao legacyAdminDocumentDao;
     private ViewOrganizationSettingsServiceFacade viewOrganizationSettingsServiceFacade;
+    private PentahoReportDefinitionCache reportDefinitionCache;
     
     @Autowired
     private BatchjobsServiceFacade batchjobsServiceFacade;
@@ -105,160 +107,116 @@ public class PentahoReportsServiceImpl implements PentahoReportsServiceFacade {
 
     @Override
     public PentahoReport getReport(Integer reportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params) {
-        ByteArrayOutputStream baos = null;
+        ByteArrayReportOutput output = new ByteArrayReportOutput();
+        PentahoReport result = writeReport(reportId, outputTypeId, params, output);
+        if (!result.isInError()) {
+            result.setContent(output.toByteArray());
+        }
+        return result;
+    }
 
+    @Override
+    public PentahoReport writeReport(Integer reportId, Integer outputTypeId,
+            Map<String, AbstractPentahoParameter> params, PentahoReportOutput output) {
         if (!checkAccessToReport(reportId)) {
             throw new AccessDeniedException("Access denied");
         }
 
         try {
             String reportFileName = getReportFilename(reportId);
-            // load report definition
-            ResourceManager manager = new ResourceManager();
-            manager.registerDefaults();
-
-            URL url = PentahoReportLocator.getURLForReport(reportFileName);
-
-            Resource res = manager.createDirectly(url, MasterReport.class);
-            MasterReport report = (MasterReport) res.getResource();
-
-            PentahoReport result = new PentahoReport();
-
-            List<PentahoValidationError> errors = new ArrayList<PentahoValidationError>();
-            try {
-                addParametersToReport(report, params);
-                validate(report, errors);
-            } catch (ReflectionException ex) {
-                errors.add(new PentahoValidationError(ex.getMessage()));
-            }
-
-            result.setErrors(errors);
-
-            if (errors.isEmpty()) {
-                baos = new ByteArrayOutputStream();
-                PentahoOutputType outputType = PentahoOutputType.findById(outputTypeId);
-
-                switch (outputType) {
-                case XLS:
-                    ExcelReportUtil.createXLS(report, baos);
-                    break;
-                case RTF:
-                    RTFReportUtil.createRTF(report, baos);
-                    break;
-                case HTML:
-                    HtmlReportUtil.createStreamHTML(report, baos);
-                    break;
-                case CSV:
-                    CSVReportUtil.createCSV(report, baos, "UTF-8");
-                    break;
-                case XML:
-                    XmlTableReportUtil.createFlowXML(report, baos);
-                    break;
-                default: // PDF
-                    PdfReportUtil.createPDF(report, baos);
-                    break;
-                }
-
-                result.setContentType(outputType.getContentType());
-                result.setFileExtension(outputType.getFileExtension());
-
-                result.setName(getReportName(reportId));
-                result.setContent(baos.toByteArray());
-            }
-            return result;
+            MasterReport report = reportDefinitionCache.getReport(PentahoReportLocator.getURLForReport(reportFileName));
+            return writeReport(report, getReportName(reportId), outputTypeId, params, output);
         } catch (Exception e) {
             throw new MifosRuntimeException(e);
-        } finally {
-            closeStream(baos);
         }
     }
 
     @Override
     public PentahoReport getAdminReport(Integer adminReportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params) {
-        ByteArrayOutputStream baos = null;
-        try{
-            // load report definition
-            ResourceManager manager = new ResourceManager();
-            manager.registerDefaults();
-            
-            String reportName = legacyAdminDocumentDao.getAdminDocumentById(adminReportId.shortValue())
-                    .getAdminDocumentName();
-            String filename = legacyAdminDocumentDao.getAdminDocumentById(adminReportId.shortValue())
-                    .getAdminDocumentIdentifier();
+        ByteArrayReportOutput output = new ByteArrayReportOutput();
+        PentahoReport result = writeAdminReport(adminReportId, outputTypeId, params, output);
+        if (!result.isInError()) {
+            result.setContent(output.toByteArray());
+        }
+        return result;
+    }
+
+    @Override
+    public PentahoReport writeAdminReport(Integer adminReportId, Integer outputTypeId,
+            Map<String, AbstractPentahoParameter> params, PentahoReportOutput output) {
+        try {
+            AdminDocumentBO adminDocument = legacyAdminDocumentDao.getAdminDocumentById(adminReportId.shortValue());
+            String reportName = adminDocument.getAdminDocumentName();
+            String filename = adminDocument.getAdminDocumentIdentifier();
             File file = new File(viewOrganizationSettingsServiceFacade.getAdminDocumentStorageDirectory(), filename);
-            
+
             StringBuilder path = new StringBuilder("file:");
             path.append(file.getAbsolutePath());
-            URL url =  new URL(path.toString());
-            
-            Resource res = manager.createDirectly(url, MasterReport.class);
-            MasterReport report = (MasterReport) res.getResource();
-
-            PentahoReport result = new PentahoReport();
-            
-            List<PentahoValidationError> errors = new ArrayList<PentahoValidationError>();
-            try {
-                addParametersToReport(report, params);
-                validate(report, errors);
-            } catch (ReflectionException ex) {
-                errors.add(new PentahoValidationError(ex.getMessage()));
-            }
+            URL url = new URL(path.toString());
 
-            result.setErrors(errors);
-            
-            if (errors.isEmpty()) {
-                baos = new ByteArrayOutputStream();
-                PentahoOutputType outputType = PentahoOutputType.findById(outputTypeId);
-
-                switch (outputType) {
-                case XLS:
-                    ExcelReportUtil.createXLS(report, baos);
-                    break;
-                case RTF:
-                    RTFReportUtil.createRTF(report, baos);
-                    break;
-                case HTML:
-                    HtmlReportUtil.createStreamHTML(report, baos);
-                    break;
-                case CSV:
-                    CSVReportUtil.createCSV(report, baos, "UTF-8");
-                    break;
-                case XML:
-                    XmlTableReportUtil.createFlowXML(report, baos);
-                    break;
-                default: // PDF
-                    PdfReportUtil.createPDF(report, baos);
-                    break;
-                }
-
-                result.setContentType(outputType.getContentType());
-                result.setFileExtension(outputType.getFileExtension());
-                
-                result.setName(reportName);
-                result.setContent(baos.toByteArray());
-            }
-                
-            return result;
+            MasterReport report = reportDefinitionCache.getReport(url);
+            return writeReport(report, reportName, outputTypeId, params, output);
         } catch (Exception e) {
             throw new MifosRuntimeException(e);
-        } finally {
-            closeStream(baos);
         }
     }
 
-    @PostConstruct
-    public void init() {
-        ClassicEngineBoot.getInstance().start();
-    }
+    /**
+     * Binds the parameters to the report, validates them and, if they are valid, writes the report to the output in
+     * the requested format.
+     */
+    private PentahoReport writeReport(MasterReport report, String reportName, Integer outputTypeId,
+            Map<String, AbstractPentahoParameter> params, PentahoReportOutput output) throws ReportProcessingException,
+            IOException {
+        PentahoReport result = new PentahoReport();
 
-    private void closeStream(OutputStream stream) {
-        if (stream != null) {
-            try {
-                stream.close();
-            } catch (IOException e) {
-                logger.error("Error while closing stream", e);
+        List<PentahoValidationError> errors = new ArrayList<PentahoValidationError>();
+        try {
+            addParametersToReport(report, params);
+            validate(report, errors);
+        } catch (ReflectionException ex) {
+            errors.add(new PentahoValidationError(ex.getMessage()));
+        }
+
+        result.setErrors(errors);
+
+        if (errors.isEmpty()) {
+            PentahoOutputType outputType = PentahoOutputType.findById(outputTypeId);
+
+            result.setContentType(outputType.getContentType());
+            result.setFileExtension(outputType.getFileExtension());
+            result.setName(reportName);
+
+            OutputStream out = output.open(result);
+            switch (outputType) {
+            case XLS:
+                ExcelReportUtil.createXLS(report, out);
+                break;
+            case RTF:
+                RTFReportUtil.createRTF(report, out);
+                break;
+            case HTML:
+                HtmlReportUtil.createStreamHTML(report, out);
+                break;
+            case CSV:
+                CSVReportUtil.createCSV(report, out, "UTF-8");
+                break;
+            case XML:
+                XmlTableReportUtil.createFlowXML(report, out);
+                break;
+            default: // PDF
+                PdfReportUtil.createPDF(report, out);
+                break;
             }
+            out.flush();
         }
+        return result;
+    }
+
+    @PostConstruct
+    public void init() {
+        ClassicEngineBoot.getInstance().start();
+        reportDefinitionCache = new PentahoReportDefinitionCache();
     }
 
     @Override
@@ -304,14 +262,9 @@ public class PentahoReportsServiceImpl implements PentahoReportsServiceFacade {
     }
 
     private MasterReport loadReport(String reportName) {
-        ResourceManager manager = new ResourceManager();
-        manager.registerDefaults();
-
         URL url = PentahoReportLocator.getURLForReport(reportName);
         try {
-            Resource res = manager.createDirectly(url, MasterReport.class);
-            MasterReport report = (MasterReport) res.getResource();
-            return report;
+            return reportDefinitionCache.getReport(url);
         } catch (Exception e) {
             throw new MifosRuntimeException(e);
         }
@@ -419,4 +372,17 @@ public class PentahoReportsServiceImpl implements PentahoReportsServiceFacade {
 		ReportsBO reports = this.reportsPersistence.getReport(new Short(reportId.toString()));
 		return reports.getIsDW();
 	}
+
+    private static class ByteArrayReportOutput implements PentahoReportOutput {
+        private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream open(PentahoReport report) {
+            return stream;
+        }
+
+        byte[] toByteArray() {
+            return stream.toByteArray();
+        }
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
+import org.mifos.reports.pentaho.params.PentahoDateParameter;
+
+/**
+ * Identifies a rendered report: the report, its output type, the values of its parameters and the date the data
+ * warehouse was last updated. Parameter values are normalized so that the same choices made in a different order, or
+ * with blank values left out, give the same key.
+ */
+final class ReportResultKey {
+
+    private static final String LOGO_PARAMETER = "mifosLogoPath";
+
+    private final Integer reportId;
+    private final Integer outputTypeId;
+    private final SortedMap<String, String> params;
+    private final Date etlLastUpdateDate;
+
+    ReportResultKey(Integer reportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params,
+            Date etlLastUpdateDate) {
+        this.reportId = reportId;
+        this.outputTypeId = outputTypeId;
+        this.params = normalize(params);
+        this.etlLastUpdateDate = etlLastUpdateDate == null ? null : new Date(etlLastUpdateDate.getTime());
+    }
+
+    static SortedMap<String, String> normalize(Map<String, AbstractPentahoParameter> params) {
+        SortedMap<String, String> normalized = new TreeMap<String, String>();
+        if (params == null) {
+            return normalized;
+        }
+        for (Map.Entry<String, AbstractPentahoParameter> param : params.entrySet()) {
+            if (LOGO_PARAMETER.equals(param.getKey()) || param.getValue() == null) {
+                continue;
+            }
+            String value = normalizeValue(param.getValue());
+            if (StringUtils.isNotBlank(value)) {
+                normalized.put(param.getKey(), value);
+            }
+        }
+        return normalized;
+    }
+
+    private static String normalizeValue(AbstractPentahoParameter param) {
+        Object value = param.getParamValue();
+        if (value == null && param instanceof PentahoDateParameter) {
+            PentahoDateParameter date = (PentahoDateParameter) param;
+            if (!date.isDateEntered()) {
+                return null;
+            }
+            return StringUtils.trimToEmpty(date.getDateYY()) + "-" + StringUtils.trimToEmpty(date.getDateMM()) + "-"
+                    + StringUtils.trimToEmpty(date.getDateDD());
+        }
+        if (value instanceof Collection<?>) {
+            List<String> values = new ArrayList<String>();
+            for (Object element : (Collection<?>) value) {
+                if (element != null && StringUtils.isNotBlank(element.toString())) {
+                    values.add(element.toString().trim());
+                }
+            }
+            Collections.sort(values);
+            return StringUtils.join(values, ',');
+        }
+        return value == null ? null : value.toString().trim();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ReportResultKey)) {
+            return false;
+        }
+        ReportResultKey other = (ReportResultKey) obj;
+        return reportId.equals(other.reportId) && outputTypeId.equals(other.outputTypeId)
+                && params.equals(other.params)
+                && (etlLastUpdateDate == null ? other.etlLastUpdateDate == null : etlLastUpdateDate
+                        .equals(other.etlLastUpdateDate));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = reportId.hashCode();
+        result = 31 * result + outputTypeId.hashCode();
+        result = 31 * result + params.hashCode();
+        result = 31 * result + (etlLastUpdateDate == null ? 0 : etlLastUpdateDate.hashCode());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "report " + reportId + ", output type " + outputTypeId + ", parameters " + params
+                + ", ETL last updated " + etlLastUpdateDate;
+    }
+}
@@ -9,6 +9,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.mifos.application.servicefacade.ApplicationContextHolder;
 import org.springframework.context.ApplicationContext;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
 
 public class JNDIException extends RuntimeException {
 
@@ -42,7 +43,7 @@ public class JNDIException extends RuntimeException {
            	request.getSession().setAttribute("configureDwDatabase", "false");
            } else {
         	   try {
-        		   dsDW.getConnection();
+        		   JdbcUtils.closeConnection(dsDW.getConnection());
         		   request.getSession().setAttribute("configureDwDatabase", "true");
         	   } catch (SQLException ex) {
         		   request.getSession().setAttribute("configureDwDatabase", "false");
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho.util;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.mifos.config.cache.BoundedCache;
+import org.pentaho.reporting.engine.classic.core.MasterReport;
+import org.pentaho.reporting.libraries.resourceloader.Resource;
+import org.pentaho.reporting.libraries.resourceloader.ResourceException;
+import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
+
+/**
+ * Parsed report definitions, so a .prpt file is only parsed again when it changes.
+ * <p>
+ * Definitions are keyed by the URL of the report file and remember the modification time of the file they were parsed
+ * from, so a report uploaded again over an existing file is picked up on its next use. Reports on the classpath only
+ * change with a new deployment and are parsed once. Callers get a clone of the cached definition, which they are free
+ * to bind parameters to.
+ */
+public class PentahoReportDefinitionCache {
+
+    public static final String NAME = "pentahoReportDefinitions";
+    public static final int MAX_SIZE = 200;
+
+    private final BoundedCache<String, ParsedReport> cache;
+    private final ResourceManager manager;
+
+    public PentahoReportDefinitionCache() {
+        this(MAX_SIZE);
+    }
+
+    public PentahoReportDefinitionCache(int maxSize) {
+        this.cache = new BoundedCache<String, ParsedReport>(NAME, maxSize, BoundedCache.NO_EXPIRY);
+        this.manager = new ResourceManager();
+        this.manager.registerDefaults();
+    }
+
+    /**
+     * Returns a copy of the report definition at the given URL, parsing it only if it has not been parsed before or
+     * has been modified since.
+     */
+    public MasterReport getReport(URL url) throws ResourceException {
+        String key = url.toExternalForm();
+        long lastModified = getLastModified(url);
+        ParsedReport parsed = cache.get(key);
+        if (parsed == null || parsed.getLastModified() != lastModified) {
+            Resource res = manager.createDirectly(url, MasterReport.class);
+            parsed = new ParsedReport((MasterReport) res.getResource(), lastModified);
+            cache.put(key, parsed);
+        }
+        return (MasterReport) parsed.getReport().clone();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public BoundedCache<String, ParsedReport> getCache() {
+        return this.cache;
+    }
+
+    /**
+     * The modification time of a report file, or 0 for reports that are not files, such as those on the classpath.
+     */
+    protected long getLastModified(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return 0;
+        }
+        try {
+            return new File(url.toURI()).lastModified();
+        } catch (URISyntaxException e) {
+            return new File(url.getPath()).lastModified();
+        } catch (IllegalArgumentException e) {
+            return new File(url.getPath()).lastModified();
+        }
+    }
+
+    public static class ParsedReport {
+        private final MasterReport report;
+        private final long lastModified;
+
+        ParsedReport(MasterReport report, long lastModified) {
+            this.report = report;
+            this.lastModified = lastModified;
+        }
+
+        MasterReport getReport() {
+            return this.report;
+        }
+
+        long getLastModified() {
+            return this.lastModified;
+        }
+    }
+}
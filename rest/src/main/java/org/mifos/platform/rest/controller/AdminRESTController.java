@@ -19,12 +19,21 @@
  */
 package org.mifos.platform.rest.controller;
 
+import java.util.List;
+
 import org.mifos.application.admin.servicefacade.AdminServiceFacade;
+import org.mifos.application.admin.servicefacade.BatchjobRunDto;
+import org.mifos.application.admin.servicefacade.BatchjobsDto;
+import org.mifos.application.admin.servicefacade.BatchjobsServiceFacade;
+import org.mifos.application.admin.servicefacade.CacheStatisticsDto;
+import org.mifos.application.admin.servicefacade.ConnectionPoolStatisticsDto;
 import org.mifos.dto.domain.AcceptedPaymentTypeDto;
 import org.springframework.stereotype.Controller;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.mifos.application.admin.servicefacade.SystemInformationDto;
 import org.mifos.application.admin.servicefacade.SystemInformationServiceFacade;
@@ -34,21 +43,52 @@ import javax.servlet.http.HttpServletRequest;
 @Controller
 public class AdminRESTController {
 
+    private static final int DEFAULT_BATCH_JOB_RUN_HISTORY_SIZE = 30;
+
     @Autowired
     private SystemInformationServiceFacade systemInformationServiceFacade;
 
     @Autowired
     private AdminServiceFacade adminServiceFacade;
 
+    @Autowired
+    private BatchjobsServiceFacade batchjobsServiceFacade;
+
     @RequestMapping(value = "admin/system/id-information", method = RequestMethod.GET)
     public @ResponseBody
     SystemInformationDto getSystemInformation(HttpServletRequest request) {
       return systemInformationServiceFacade.getSystemInformation(request.getSession().getServletContext(), request.getLocale());
     }
 
+    @RequestMapping(value = "admin/system/cache-statistics", method = RequestMethod.GET)
+    public @ResponseBody
+    List<CacheStatisticsDto> getCacheStatistics(HttpServletRequest request) {
+      return systemInformationServiceFacade.getCacheStatistics();
+    }
+
+    @RequestMapping(value = "admin/system/connection-pool-statistics", method = RequestMethod.GET)
+    public @ResponseBody
+    List<ConnectionPoolStatisticsDto> getConnectionPoolStatistics(HttpServletRequest request) {
+      return systemInformationServiceFacade.getConnectionPoolStatistics();
+    }
+
     @RequestMapping(value = "admin/payment-types/state-accepted", method = RequestMethod.GET)
     public @ResponseBody
     AcceptedPaymentTypeDto getAcceptedPaymentTypes(HttpServletRequest request) {
       return adminServiceFacade.retrieveAcceptedPaymentTypes();
     }
+
+    @RequestMapping(value = "admin/batchjobs", method = RequestMethod.GET)
+    public @ResponseBody
+    List<BatchjobsDto> getBatchjobs(HttpServletRequest request) throws Exception {
+      return batchjobsServiceFacade.getBatchjobs(request.getSession().getServletContext());
+    }
+
+    @RequestMapping(value = "admin/batchjobs/{jobName}/history", method = RequestMethod.GET)
+    public @ResponseBody
+    List<BatchjobRunDto> getBatchjobRunHistory(@PathVariable String jobName,
+            @RequestParam(value = "maxRuns", required = false) Integer maxRuns, HttpServletRequest request) throws Exception {
+      int runs = maxRuns == null ? DEFAULT_BATCH_JOB_RUN_HISTORY_SIZE : maxRuns;
+      return batchjobsServiceFacade.getBatchjobRunHistory(request.getSession().getServletContext(), jobName, runs);
+    }
 }
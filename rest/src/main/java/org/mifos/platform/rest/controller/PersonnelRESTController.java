@@ -19,20 +19,13 @@
  */
 package org.mifos.platform.rest.controller;
 
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
-import org.mifos.accounts.business.AccountActionDateEntity;
-import org.mifos.accounts.loan.business.LoanBO;
 import org.mifos.application.admin.servicefacade.PersonnelServiceFacade;
-import org.mifos.application.servicefacade.LoanAccountServiceFacade;
 import org.mifos.config.ClientRules;
-import org.mifos.customers.business.CustomerBO;
 import org.mifos.customers.client.business.ClientBO;
-import org.mifos.customers.group.business.GroupBO;
 import org.mifos.customers.persistence.CustomerDao;
 import org.mifos.customers.personnel.business.PersonnelBO;
 import org.mifos.customers.personnel.persistence.PersonnelDao;
@@ -42,12 +35,8 @@ import org.mifos.dto.domain.CustomerDetailDto;
 import org.mifos.dto.domain.CustomerHierarchyDto;
 import org.mifos.dto.domain.GroupDescriptionDto;
 import org.mifos.dto.domain.LastRepaymentDto;
-import org.mifos.dto.domain.LoanDetailDto;
 import org.mifos.dto.domain.OverdueCustomer;
-import org.mifos.dto.domain.OverdueLoan;
-import org.mifos.dto.screen.LoanInformationDto;
 import org.mifos.dto.screen.PersonnelInformationDto;
-import org.mifos.framework.util.helpers.Money;
 import org.mifos.security.MifosUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -63,9 +52,6 @@ public class PersonnelRESTController {
     @Autowired
     private PersonnelServiceFacade personnelServiceFacade;
     
-    @Autowired
-    private LoanAccountServiceFacade loanAccountServiceFacade;
-
     @Autowired
     private CustomerDao customerDao;
 
@@ -105,7 +91,8 @@ public class PersonnelRESTController {
             groupDescription.setGlobalCustNum(group.getGlobalCustNum());
             groupDescription.setSearchId(group.getSearchId());
 
-            for (ClientBO client : this.customerDao.findAllExceptClosedAndCancelledClientsUnderParent(group.getSearchId(), loanOfficer.getOffice().getOfficeId())) {
+            for (ClientBO client : this.customerDao.findAllExceptClosedAndCancelledClientsUnderParent(group.getCustomerId(),
+                    group.getSearchId(), loanOfficer.getOffice().getOfficeId())) {
                 ClientDescriptionDto clientDescription = new ClientDescriptionDto();
                 clientDescription.setId(client.getCustomerId());
                 clientDescription.setDisplayName(client.getDisplayName());
@@ -137,143 +124,22 @@ public class PersonnelRESTController {
     
     @RequestMapping(value = "personnel/id-current/last-repayments", method = RequestMethod.GET)
     public @ResponseBody
-   	List<LastRepaymentDto> getLastRepayments() {
-
-    	List<LastRepaymentDto> lastRepayments = new ArrayList<LastRepaymentDto>();
-    	
-    	PersonnelBO loanOfficer = personnelDao.findPersonnelById(getCurrentPersonnel().getPersonnelId());
-    	
-    	List<CustomerBO> borrowers = new ArrayList<CustomerBO>();
-    	
-    	for (CustomerDetailDto group : this.customerDao.findGroupsUnderUser(loanOfficer)) {
-    		borrowers.add(customerDao.findGroupBySystemId(group.getGlobalCustNum()));
-    		for (ClientBO client : this.customerDao.findAllExceptClosedAndCancelledClientsUnderParent(group.getSearchId(), loanOfficer.getOffice().getOfficeId())) {
-            	borrowers.add(client);
-            }
-        }
+    List<LastRepaymentDto> getLastRepayments() {
+        PersonnelBO loanOfficer = personnelDao.findPersonnelById(getCurrentPersonnel().getPersonnelId());
 
-        for (ClientBO client : this.customerDao.findAllExceptClosedAndCancelledClientsWithoutGroupForLoanOfficer(loanOfficer.getPersonnelId(), 
-        		loanOfficer.getOffice().getOfficeId())) {
-        	borrowers.add(client);
-        }
-        
-    	for (CustomerBO borrower: borrowers) {
-    		List<LoanBO> loans = borrower.getOpenLoanAccountsAndGroupLoans();
-        	
-    		if (loans != null && loans.size() != 0) {
-    			LoanBO lastLoan = null;
-    			Date lastLoanDate = null;
-    			
-    			for (LoanBO loan: loans) {
-    				Date lastAction = null;
-    				for (AccountActionDateEntity accountAction : loan.getAccountActionDates()) {
-    					if (lastAction == null || lastAction.before(accountAction.getActionDate())) {
-    						lastAction = accountAction.getActionDate();
-    					}
-    				}
-    				
-    				if (lastLoanDate == null || lastLoanDate.before(lastAction)) {
-    					lastLoan = loan;
-    					lastLoanDate = lastAction;
-    				}
-    			}
-    			
-    			if (lastLoan == null || lastLoanDate == null) {
-    				continue;
-    			}
-    			
-    			ClientDescriptionDto clientDescription = new ClientDescriptionDto(borrower.getCustomerId(), 
-    					borrower.getDisplayName(), 
-    					borrower.getGlobalCustNum(), 
-    					borrower.getSearchId());
-    			
-    			LoanDetailDto loanDetails = new LoanDetailDto(lastLoan.getGlobalAccountNum(), 
-    					lastLoan.getLoanOffering().getPrdOfferingName(), 
-    					lastLoan.getAccountState().getId(), 
-    					lastLoan.getAccountState().getName(), 
-    					lastLoan.getLoanBalance().toString(), 
-    					lastLoan.getTotalAmountDue().toString(),
-    					lastLoan.getAccountType().getAccountTypeId(),
-    					lastLoan.getTotalAmountInArrears().toString());
-    			
-    			LastRepaymentDto lastRepayment = new LastRepaymentDto(clientDescription, loanDetails, lastLoanDate);
-    			if (borrower instanceof GroupBO) {
-    				lastRepayment.setGroup(true);
-    			}
-    			lastRepayments.add(lastRepayment);
-    		}
-    	}
-    	
-    	return lastRepayments;
+        return this.customerDao.findLastRepaymentsOfBorrowersUnderLoanOfficer(loanOfficer.getPersonnelId(),
+                loanOfficer.getOffice().getOfficeId());
     }
-    
+
     @RequestMapping(value = "personnel/id-current/overdue_borrowers", method = RequestMethod.GET)
     public @ResponseBody
     OverdueCustomer[] getOverdueBorrowersUnderPersonnel() {
-    	List<OverdueCustomer> overdueCustomers = new ArrayList<OverdueCustomer>();
-    	PersonnelBO loanOfficer = this.personnelDao.findPersonnelById(getCurrentPersonnel().getPersonnelId());
-    	
-    	for (CustomerDetailDto group : this.customerDao.findGroupsUnderUser(loanOfficer)) {
-    		addClientIfHasOverdueLoan(customerDao.findGroupBySystemId(group.getGlobalCustNum()), overdueCustomers);
-            for (ClientBO client : this.customerDao.findAllExceptClosedAndCancelledClientsUnderParent(group.getSearchId(), loanOfficer.getOffice().getOfficeId())) {
-            	addClientIfHasOverdueLoan(client, overdueCustomers);
-            }
-        }
+        PersonnelBO loanOfficer = this.personnelDao.findPersonnelById(getCurrentPersonnel().getPersonnelId());
 
-        for (ClientBO client : this.customerDao.findAllExceptClosedAndCancelledClientsWithoutGroupForLoanOfficer(loanOfficer.getPersonnelId(), 
-        		loanOfficer.getOffice().getOfficeId())) {
-        	addClientIfHasOverdueLoan(client, overdueCustomers);
-        }
-        
+        List<OverdueCustomer> overdueCustomers = this.customerDao.findOverdueBorrowersUnderLoanOfficer(
+                loanOfficer.getPersonnelId(), loanOfficer.getOffice().getOfficeId());
         return overdueCustomers.toArray(new OverdueCustomer[]{});
     }
-    
-    private void addClientIfHasOverdueLoan(CustomerBO client, List<OverdueCustomer> overdueCustomers) {
-    	OverdueCustomer customerToAdd = null;
-        Money amount = null;
-    	List<LoanBO> loans = client.isGroup() ? client.getOpenLoanAccountsAndGroupLoans() : client.getOpenLoanAccounts();
-    	for (LoanBO loan: loans) {
-    		if (loan.getTotalAmountInArrears() != null && loan.getTotalAmountInArrears().isNonZero()) {
-            	LoanInformationDto loanInfo = loanAccountServiceFacade.retrieveLoanInformation(loan.getGlobalAccountNum());
-            	if (loanInfo.isDisbursed()) {
-                	if (customerToAdd == null) {
-        				customerToAdd = createOverdueCustomer(client);
-        				overdueCustomers.add(customerToAdd);
-        				
-        			}
-
-                    Money partialAmount = loan.getRemainingPrincipalAmount();
-        			OverdueLoan overdueLoan = new OverdueLoan(loan.getTotalAmountInArrears().toString(), loan.getGlobalAccountNum(), loanInfo.getPrdOfferingName(),
-        					loan.getAccountState().getName(), new Integer(loan.getAccountState().getId()), loan.getTotalRepayableAmount().toString(), partialAmount.toString());
-
-
-                    if (amount == null) {
-                        amount = partialAmount;
-                    } else {
-                        amount = amount.add(partialAmount);
-                    }
-
-        			customerToAdd.getOverdueLoans().add(overdueLoan);
-            	}
-            }
-    	}
-        if (customerToAdd != null) {
-            customerToAdd.setTotalCapitalOutstanding(amount == null ? "0" : amount.toString());
-        }
-    }
-    
-    private OverdueCustomer createOverdueCustomer(CustomerBO client) {
-    	OverdueCustomer overdueCustomer = new OverdueCustomer();
-    	overdueCustomer.setDisplayName(client.getDisplayName());
-		overdueCustomer.setGlobalCustNum(client.getGlobalCustNum());
-		overdueCustomer.setOverdueLoans(new ArrayList<OverdueLoan>());
-		overdueCustomer.setPhoneNumber(client.getAddress().getPhoneNumber());
-		overdueCustomer.setAddress(client.getDisplayAddress());
-		if (client instanceof GroupBO) {
-			overdueCustomer.setGroup(true);
-		}
-		return overdueCustomer;
-    }
 
     @RequestMapping(value = "personnel/id-current/meetings-{day}", method = RequestMethod.GET)
     public @ResponseBody
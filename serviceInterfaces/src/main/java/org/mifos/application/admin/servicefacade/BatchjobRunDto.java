@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.admin.servicefacade;
+
+import java.util.Date;
+
+/**
+ * The status and metrics of one run of a batch job.
+ */
+@SuppressWarnings("PMD.ExcessiveParameterList")
+public class BatchjobRunDto {
+    private final String name;
+    private final long executionTime;
+    private final long startTime;
+    private final long endTime;
+    private final String status;
+    private final long itemsRead;
+    private final long itemsProcessed;
+    private final long itemsFailed;
+    private final long itemsCommitted;
+    private final long chunkCount;
+    private final long elapsedMillis;
+    private final double throughput;
+    private final long chunkLatencyP50;
+    private final long chunkLatencyP90;
+    private final long chunkLatencyP99;
+
+    public BatchjobRunDto(String name, Date executionTime, Date startTime, Date endTime, String status,
+            long itemsRead, long itemsProcessed, long itemsFailed, long itemsCommitted, long chunkCount,
+            long elapsedMillis, double throughput, long chunkLatencyP50, long chunkLatencyP90, long chunkLatencyP99) {
+        this.name = name;
+        this.executionTime = executionTime.getTime();
+        this.startTime = startTime.getTime();
+        this.endTime = endTime.getTime();
+        this.status = status;
+        this.itemsRead = itemsRead;
+        this.itemsProcessed = itemsProcessed;
+        this.itemsFailed = itemsFailed;
+        this.itemsCommitted = itemsCommitted;
+        this.chunkCount = chunkCount;
+        this.elapsedMillis = elapsedMillis;
+        this.throughput = throughput;
+        this.chunkLatencyP50 = chunkLatencyP50;
+        this.chunkLatencyP90 = chunkLatencyP90;
+        this.chunkLatencyP99 = chunkLatencyP99;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * The date the run was launched for, which differs from the start time for catch up runs.
+     */
+    public Date getExecutionTime() {
+        return new Date(this.executionTime);
+    }
+
+    public Date getStartTime() {
+        return new Date(this.startTime);
+    }
+
+    public Date getEndTime() {
+        return new Date(this.endTime);
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public long getItemsRead() {
+        return this.itemsRead;
+    }
+
+    public long getItemsProcessed() {
+        return this.itemsProcessed;
+    }
+
+    public long getItemsFailed() {
+        return this.itemsFailed;
+    }
+
+    public long getItemsCommitted() {
+        return this.itemsCommitted;
+    }
+
+    public long getChunkCount() {
+        return this.chunkCount;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * Items processed per second.
+     */
+    public double getThroughput() {
+        return this.throughput;
+    }
+
+    public long getChunkLatencyP50() {
+        return this.chunkLatencyP50;
+    }
+
+    public long getChunkLatencyP90() {
+        return this.chunkLatencyP90;
+    }
+
+    public long getChunkLatencyP99() {
+        return this.chunkLatencyP99;
+    }
+}
@@ -34,10 +34,16 @@ public class BatchjobsDto {
     private final long nextStartTime;
     private final int state;
     private final String failDescription;
-
+    private final BatchjobRunDto lastRun;
 
     public BatchjobsDto(String name, String frequency, String taskType, int priority, String lastRunStatus, Date lastStartTime,
             Date lastSuccessfulRun, Date nextStartTime, int state, String failDescription) {
+        this(name, frequency, taskType, priority, lastRunStatus, lastStartTime, lastSuccessfulRun, nextStartTime, state,
+                failDescription, null);
+    }
+
+    public BatchjobsDto(String name, String frequency, String taskType, int priority, String lastRunStatus, Date lastStartTime,
+            Date lastSuccessfulRun, Date nextStartTime, int state, String failDescription, BatchjobRunDto lastRun) {
         this.name = name;
         this.frequency = frequency;
         this.taskType = taskType;
@@ -48,6 +54,7 @@ public class BatchjobsDto {
         this.nextStartTime = nextStartTime.getTime();
         this.state = state;
         this.failDescription = failDescription;
+        this.lastRun = lastRun;
     }
 
     public String getName() {
@@ -90,4 +97,11 @@ public class BatchjobsDto {
         return this.failDescription;
     }
 
+    /**
+     * @return the status and metrics of the most recent run, or null if the job never ran
+     */
+    public BatchjobRunDto getLastRun() {
+        return this.lastRun;
+    }
+
 }
@@ -33,6 +33,12 @@ public interface BatchjobsServiceFacade {
     @PreAuthorize("isFullyAuthenticated()")
     List<BatchjobsDto> getBatchjobs(ServletContext context) throws Exception;
 
+    /**
+     * @return the most recent runs of the job, most recent first
+     */
+    @PreAuthorize("isFullyAuthenticated()")
+    List<BatchjobRunDto> getBatchjobRunHistory(ServletContext context, String jobName, int maxRuns) throws Exception;
+
     @PreAuthorize("isFullyAuthenticated()")
     BatchjobsSchedulerDto getBatchjobsScheduler(ServletContext context) throws Exception;
 
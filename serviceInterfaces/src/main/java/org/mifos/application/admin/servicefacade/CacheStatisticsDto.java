@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.admin.servicefacade;
+
+/**
+ * Hit, miss and put counts of one second level cache region.
+ */
+public class CacheStatisticsDto {
+    private final String region;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long elementCountInMemory;
+    private final double hitRatio;
+
+    public CacheStatisticsDto(String region, long hitCount, long missCount, long putCount, long elementCountInMemory,
+            double hitRatio) {
+        this.region = region;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.elementCountInMemory = elementCountInMemory;
+        this.hitRatio = hitRatio;
+    }
+
+    public String getRegion() {
+        return this.region;
+    }
+
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    public long getPutCount() {
+        return this.putCount;
+    }
+
+    public long getElementCountInMemory() {
+        return this.elementCountInMemory;
+    }
+
+    public double getHitRatio() {
+        return this.hitRatio;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.admin.servicefacade;
+
+/**
+ * Connection counts and checkout wait times of one pooled data source.
+ */
+public class ConnectionPoolStatisticsDto {
+    private final String dataSource;
+    private final int numConnections;
+    private final int numActiveConnections;
+    private final int numIdleConnections;
+    private final int numThreadsAwaitingConnection;
+    private final int numLeakedConnections;
+    private final long connectionRequests;
+    private final long averageWaitTimeMillis;
+    private final long maxWaitTimeMillis;
+
+    public ConnectionPoolStatisticsDto(String dataSource, int numConnections, int numActiveConnections,
+            int numIdleConnections, int numThreadsAwaitingConnection, int numLeakedConnections,
+            long connectionRequests, long averageWaitTimeMillis, long maxWaitTimeMillis) {
+        this.dataSource = dataSource;
+        this.numConnections = numConnections;
+        this.numActiveConnections = numActiveConnections;
+        this.numIdleConnections = numIdleConnections;
+        this.numThreadsAwaitingConnection = numThreadsAwaitingConnection;
+        this.numLeakedConnections = numLeakedConnections;
+        this.connectionRequests = connectionRequests;
+        this.averageWaitTimeMillis = averageWaitTimeMillis;
+        this.maxWaitTimeMillis = maxWaitTimeMillis;
+    }
+
+    public String getDataSource() {
+        return this.dataSource;
+    }
+
+    public int getNumConnections() {
+        return this.numConnections;
+    }
+
+    public int getNumActiveConnections() {
+        return this.numActiveConnections;
+    }
+
+    public int getNumIdleConnections() {
+        return this.numIdleConnections;
+    }
+
+    public int getNumThreadsAwaitingConnection() {
+        return this.numThreadsAwaitingConnection;
+    }
+
+    public int getNumLeakedConnections() {
+        return this.numLeakedConnections;
+    }
+
+    public long getConnectionRequests() {
+        return this.connectionRequests;
+    }
+
+    public long getAverageWaitTimeMillis() {
+        return this.averageWaitTimeMillis;
+    }
+
+    public long getMaxWaitTimeMillis() {
+        return this.maxWaitTimeMillis;
+    }
+}
@@ -20,6 +20,7 @@
 
 package org.mifos.application.admin.servicefacade;
 
+import java.util.List;
 import java.util.Locale;
 
 import javax.servlet.ServletContext;
@@ -32,4 +33,17 @@ public interface SystemInformationServiceFacade {
     SystemInformationDto getSystemInformation(ServletContext context, Locale locale);
 
 	String getServerInformation(ServletContext context, Locale locale);
+
+    /**
+     * Counts stay at zero unless hibernate statistics are enabled (database.hibernate.generate_statistics).
+     */
+    @PreAuthorize("isFullyAuthenticated() and hasRole('ROLE_VIEW_SYSTEM_INFO')")
+    List<CacheStatisticsDto> getCacheStatistics();
+
+    /**
+     * One entry per pooled Spring data source (dataSource, dataSourcePentahoDW). The hibernate connection pool is not
+     * included.
+     */
+    @PreAuthorize("isFullyAuthenticated() and hasRole('ROLE_VIEW_SYSTEM_INFO')")
+    List<ConnectionPoolStatisticsDto> getConnectionPoolStatistics();
 }
@@ -35,4 +35,14 @@ public interface ImportClientsServiceFacade {
     
     @PreAuthorize("isFullyAuthenticated() and hasRole('ROLE_CAN_IMPORT_CLIENTS')")
     ParsedClientsDto createDtoFromSingleError(String error);
+
+    /**
+     * Parses and saves the clients of the workbook a chunk of rows at a time, each chunk in its own transaction,
+     * without holding the workbook or all of its clients in memory. Rows that fail to parse or to save are reported
+     * to the listener and do not stop the import.
+     *
+     * @return the number of clients saved
+     */
+    @PreAuthorize("isFullyAuthenticated() and hasRole('ROLE_CAN_IMPORT_CLIENTS')")
+    int importClients(InputStream inputStream, ImportProgressListener listener);
 }
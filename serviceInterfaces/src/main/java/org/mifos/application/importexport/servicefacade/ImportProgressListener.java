@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.application.importexport.servicefacade;
+
+import java.util.List;
+
+/**
+ * Told about the progress of an import after each chunk of rows has been saved.
+ */
+public interface ImportProgressListener {
+
+    /**
+     * @param rowsRead the number of data rows read so far
+     * @param rowsImported the number of rows saved so far
+     * @param errors the errors of the rows of this chunk that were not saved
+     */
+    void chunkProcessed(int rowsRead, int rowsImported, List<String> errors);
+}
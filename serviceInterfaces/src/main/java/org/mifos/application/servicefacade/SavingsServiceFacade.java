@@ -92,6 +92,12 @@ public interface SavingsServiceFacade {
     @PreAuthorize("isFullyAuthenticated()")
     void postInterestForLastPostingPeriod(LocalDate dateOfBatchJob);
 
+    @PreAuthorize("isFullyAuthenticated()")
+    List<Integer> retrieveSavingsAccountsPendingInterestPostingOn(LocalDate dateOfBatchJob);
+
+    @PreAuthorize("isFullyAuthenticated()")
+    List<Integer> postInterestForLastPostingPeriod(List<Integer> savingsIds);
+
     @PreAuthorize("isFullyAuthenticated() and hasRole('ROLE_CAN_MAKE_SAVINGS_DEPOSIT_OR_WITHDRAWAL')")
     DepositWithdrawalReferenceDto retrieveDepositWithdrawalReferenceData(Long savingsId, Integer customerId);
 
@@ -28,11 +28,18 @@ public class ImportedClientDetail implements Serializable {
     private final ClientCreationDetail clientCreationDetail;
     private final String clientGlobalNum;
     private final MeetingDto meeting;
+    private final Integer rowNumber;
 
     public ImportedClientDetail(ClientCreationDetail clientCreationDetail, String clientGlobalNum, MeetingDto meeting) {
+        this(clientCreationDetail, clientGlobalNum, meeting, null);
+    }
+
+    public ImportedClientDetail(ClientCreationDetail clientCreationDetail, String clientGlobalNum, MeetingDto meeting,
+            Integer rowNumber) {
         this.clientCreationDetail = clientCreationDetail;
         this.clientGlobalNum = clientGlobalNum;
         this.meeting = meeting;
+        this.rowNumber = rowNumber;
     }
 
     public ClientCreationDetail getClientCreationDetail() {
@@ -46,4 +53,11 @@ public class ImportedClientDetail implements Serializable {
     public MeetingDto getMeeting() {
         return meeting;
     }
+
+    /**
+     * @return the number of the sheet row the client was read from, as shown to the user, or null if not known
+     */
+    public Integer getRowNumber() {
+        return rowNumber;
+    }
 }
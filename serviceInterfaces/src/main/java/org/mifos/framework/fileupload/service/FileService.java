@@ -18,5 +18,10 @@ public interface FileService {
 
     byte[] getData(UploadedFileDto clientFile);
 
+    /**
+     * @return the stored file, to be streamed rather than read into memory, or null if it is missing
+     */
+    StreamedContent getContent(UploadedFileDto uploadedFileDto);
+
     boolean checkIfFileExists(Integer entityId, String fileName);
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.fileupload.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Stored content, such as an uploaded file or a client photo, that can be written to a channel without first being
+ * read into memory.
+ */
+public interface StreamedContent {
+
+    String getContentType();
+
+    long getLength();
+
+    /**
+     * @return the time the content was last changed in milliseconds, or -1 if it is not known
+     */
+    long getLastModified();
+
+    /**
+     * @return an entity tag that changes whenever the content does, or null if there is none
+     */
+    String getETag();
+
+    /**
+     * @return the file the content is read from, or null if it is not held in the filesystem
+     */
+    File getFile();
+
+    /**
+     * Writes count bytes of the content, starting at position, to the target.
+     */
+    void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.fileupload.service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Writes {@link StreamedContent} to an HTTP response.
+ * <p>
+ * Requests carrying a matching If-None-Match or If-Modified-Since header are answered with 304 and no body. A single
+ * byte range is answered with 206, so interrupted downloads can be resumed; other Range headers are ignored and the
+ * whole content is sent. Content held in the filesystem is handed to the container's sendfile support when it
+ * offers it, otherwise it is copied through the content's channel without being read into memory.
+ */
+public final class StreamedContentWriter {
+
+    static final long[] UNSATISFIABLE = new long[] { -1, -1 };
+
+    private static final String BYTES_UNIT = "bytes=";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private StreamedContentWriter() {
+        // utility class
+    }
+
+    public static void write(StreamedContent content, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String eTag = content.getETag();
+        long lastModified = content.getLastModified();
+        if (eTag != null) {
+            response.setHeader("ETag", eTag);
+        }
+        if (lastModified >= 0) {
+            response.setDateHeader("Last-Modified", lastModified);
+        }
+        response.setHeader("Accept-Ranges", "bytes");
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = content.getLength();
+        long start = 0;
+        long end = length - 1;
+        if (isRangeApplicable(request, eTag, lastModified)) {
+            long[] range = parseRange(request.getHeader("Range"), length);
+            if (range == UNSATISFIABLE) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range != null) {
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(content.getContentType());
+        response.setHeader("Content-Length", String.valueOf(count));
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        if (content.getFile() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, content.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, Long.valueOf(start));
+            request.setAttribute(SENDFILE_END, Long.valueOf(end + 1));
+            return;
+        }
+        content.transferTo(start, count, Channels.newChannel(response.getOutputStream()));
+        response.flushBuffer();
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return eTag != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(eTag));
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        // HTTP dates have a resolution of one second
+        return lastModified >= 0 && ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean isRangeApplicable(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        long ifRangeDate = getDateHeader(request, "If-Range");
+        return lastModified >= 0 && ifRangeDate >= 0 && lastModified / 1000 == ifRangeDate / 1000;
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the first and last byte of the single range asked for, {@link #UNSATISFIABLE} if it lies outside the
+     *         content, or null if the whole content should be sent
+     */
+    static long[] parseRange(String header, long length) {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffixLength = Long.parseLong(spec.substring(1));
+                if (suffixLength <= 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0, length - suffixLength);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+                if (end < start) {
+                    return null;
+                }
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new long[] { start, Math.min(end, length - 1) };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -38,8 +38,11 @@ public class PentahoReport {
         this.contentType = contentType;
     }
 
+    /**
+     * @return the report, or null if it was streamed instead
+     */
     public byte[] getContent() {
-        return Arrays.copyOf(content, content.length);
+        return (content == null) ? null : Arrays.copyOf(content, content.length);
     }
 
     public void setContent(byte[] content) {
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Where a report is written to when it is streamed rather than returned as a byte array.
+ */
+public interface PentahoReportOutput {
+
+    /**
+     * Called once the report parameters have been validated and before anything is written, so the caller can set up
+     * the response from the name, content type and file extension of the report.
+     *
+     * @return the stream to write the report to; it is not closed by the report service
+     */
+    OutputStream open(PentahoReport report) throws IOException;
+}
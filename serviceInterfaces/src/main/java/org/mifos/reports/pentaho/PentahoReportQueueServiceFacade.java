@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.reports.pentaho;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+/**
+ * Renders reports in the background, so long running reports do not hold on to a request thread.
+ */
+public interface PentahoReportQueueServiceFacade {
+
+    /**
+     * Queues a report. The returned job is {@link PentahoReportJobStatus#REJECTED} if the user already has too many
+     * reports queued or the queue is full, and {@link PentahoReportJobStatus#FINISHED} if the report was found in the
+     * result cache.
+     */
+    @PreAuthorize("isFullyAuthenticated()")
+    PentahoReportJob submitReport(Integer reportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params,
+            HttpServletRequest request);
+
+    /**
+     * @return the job, or null if there is no such job for the current user
+     */
+    @PreAuthorize("isFullyAuthenticated()")
+    PentahoReportJob getReportJob(String jobId);
+
+    @PreAuthorize("isFullyAuthenticated()")
+    List<PentahoReportJob> getReportJobs();
+
+    /**
+     * @return the report of a finished job, or null if the job has not finished or is not one of the current user's
+     */
+    @PreAuthorize("isFullyAuthenticated()")
+    PentahoReport getReportJobResult(String jobId);
+}
@@ -33,8 +33,20 @@ public interface PentahoReportsServiceFacade {
     @PreAuthorize("isFullyAuthenticated()")
     PentahoReport getReport(Integer reportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params);
 
+    /**
+     * Like {@link #getReport(Integer, Integer, Map)}, but writes the report to the given output instead of holding
+     * it in memory. The returned report has no content; if it is in error, nothing has been written.
+     */
+    @PreAuthorize("isFullyAuthenticated()")
+    PentahoReport writeReport(Integer reportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params,
+            PentahoReportOutput output);
+
     @PreAuthorize("isFullyAuthenticated()")
     PentahoReport getAdminReport(Integer adminReportId, Integer outputTypeId, Map<String, AbstractPentahoParameter> params);
+
+    @PreAuthorize("isFullyAuthenticated()")
+    PentahoReport writeAdminReport(Integer adminReportId, Integer outputTypeId,
+            Map<String, AbstractPentahoParameter> params, PentahoReportOutput output);
     
     @PreAuthorize("isFullyAuthenticated()")
     String getReportName(Integer reportId);
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.framework.fileupload.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+public class StreamedContentWriterTest {
+
+    @Test
+    public void parsesSingleByteRanges() {
+        assertThat(StreamedContentWriter.parseRange("bytes=0-99", 1000), is(new long[] { 0, 99 }));
+        assertThat(StreamedContentWriter.parseRange("bytes=900-", 1000), is(new long[] { 900, 999 }));
+        assertThat(StreamedContentWriter.parseRange("bytes=-100", 1000), is(new long[] { 900, 999 }));
+        assertThat(StreamedContentWriter.parseRange("bytes=500-5000", 1000), is(new long[] { 500, 999 }));
+    }
+
+    @Test
+    public void ignoresMissingMultipleAndMalformedRanges() {
+        assertThat(StreamedContentWriter.parseRange(null, 1000), is(nullValue()));
+        assertThat(StreamedContentWriter.parseRange("bytes=0-1,5-6", 1000), is(nullValue()));
+        assertThat(StreamedContentWriter.parseRange("bytes=abc", 1000), is(nullValue()));
+        assertThat(StreamedContentWriter.parseRange("bytes=9-1", 1000), is(nullValue()));
+        assertThat(StreamedContentWriter.parseRange("items=0-1", 1000), is(nullValue()));
+    }
+
+    @Test
+    public void rejectsRangesBeyondTheContent() {
+        assertThat(StreamedContentWriter.parseRange("bytes=1000-", 1000) == StreamedContentWriter.UNSATISFIABLE,
+                is(true));
+        assertThat(StreamedContentWriter.parseRange("bytes=-0", 1000) == StreamedContentWriter.UNSATISFIABLE,
+                is(true));
+    }
+
+    @Test
+    public void answersMatchingETagWithNotModified() throws Exception {
+        StreamedContent content = mock(StreamedContent.class);
+        when(content.getETag()).thenReturn("\"abc\"");
+        when(content.getLastModified()).thenReturn(-1L);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("If-None-Match")).thenReturn("\"abc\"");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        StreamedContentWriter.write(content, request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
+    }
+}
@@ -21,6 +21,7 @@
 package org.mifos.ui.core.controller;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -33,6 +34,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.mifos.dto.domain.AdminDocumentDto;
 import org.mifos.reports.pentaho.PentahoReport;
+import org.mifos.reports.pentaho.PentahoReportOutput;
 import org.mifos.reports.pentaho.PentahoReportsServiceFacade;
 import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
 import org.mifos.reports.pentaho.params.PentahoInputParameter;
@@ -71,15 +73,19 @@ public class AdminDocumentController {
             entityIdParameter.setValue(entityId);
             params.put("entity_id", entityIdParameter);
             
-            PentahoReport report = pentahoReportsService.getAdminReport(adminDocumentId, outputTypeId, params);
-            
-            if (!outputTypeId.equals(PENTAHO_OUTPUT_TYPE_HTML_ID)) {
-                response.setHeader("Content-Disposition", "attachment; filename=\"" + report.getFilename() + "\"");
-            }
-            response.setContentType(report.getContentType());
-            response.setContentLength(report.getContentSize());
-
-            response.getOutputStream().write(report.getContent());
+            final boolean attachment = !outputTypeId.equals(PENTAHO_OUTPUT_TYPE_HTML_ID);
+            final HttpServletResponse reportResponse = response;
+            pentahoReportsService.writeAdminReport(adminDocumentId, outputTypeId, params, new PentahoReportOutput() {
+                @Override
+                public OutputStream open(PentahoReport report) throws IOException {
+                    if (attachment) {
+                        reportResponse.setHeader("Content-Disposition", "attachment; filename=\""
+                                + report.getFilename() + "\"");
+                    }
+                    reportResponse.setContentType(report.getContentType());
+                    return reportResponse.getOutputStream();
+                }
+            });
         }
         
         return mav;
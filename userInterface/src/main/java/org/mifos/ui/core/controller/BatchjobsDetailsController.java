@@ -28,6 +28,7 @@ import java.util.Map;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 
+import org.mifos.application.admin.servicefacade.BatchjobRunDto;
 import org.mifos.application.admin.servicefacade.BatchjobsDto;
 import org.mifos.application.admin.servicefacade.BatchjobsServiceFacade;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +42,8 @@ import org.springframework.web.servlet.ModelAndView;
 @RequestMapping("/batchjobsdetails")
 public class BatchjobsDetailsController {
 
+    private static final int RUN_HISTORY_SIZE = 30;
+
     @Autowired
     private BatchjobsServiceFacade batchjobsServiceFacade;
 
@@ -72,6 +75,20 @@ public class BatchjobsDetailsController {
             model.put("jobFailName", "");
         }
 
+        String[] jobHistoryNames = request.getParameterValues("jobHistoryName");
+        List<BatchjobRunDto> history = new ArrayList<BatchjobRunDto>();
+        if (jobHistoryNames != null && jobHistoryNames.length > 0) {
+            model.put("jobHistoryName", jobHistoryNames[0]);
+            try {
+                history = batchjobsServiceFacade.getBatchjobRunHistory(context, jobHistoryNames[0], RUN_HISTORY_SIZE);
+            } catch (Exception tse) {
+                errorMessages.add("Error when retrieving batch job history: " + tse.getMessage());
+            }
+        } else {
+            model.put("jobHistoryName", "");
+        }
+        model.put("history", history);
+
         Map<String, Object> status = new HashMap<String, Object>();
         status.put("errorMessages", errorMessages);
 
@@ -22,6 +22,7 @@ package org.mifos.ui.core.controller;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 
 import org.mifos.application.importexport.servicefacade.ImportClientsServiceFacade;
 import org.mifos.core.MifosRuntimeException;
@@ -62,6 +63,31 @@ public class ImportClientsController {
         return result;
     }
 
+    /**
+     * Imports the clients of the file a chunk of rows at a time, without the review step, so that large files do not
+     * have to be parsed into memory as a whole first.
+     */
+    public ImportClientsProgress importFile(ImportClientsFormBean importClientsFormBean) {
+        ImportClientsProgress progress = new ImportClientsProgress();
+        CommonsMultipartFile file = importClientsFormBean.getFile();
+        InputStream is = null;
+        if (file == null) {
+            throw new MifosRuntimeException("File cannot be null");
+        }
+
+        try {
+            is = file.getInputStream();
+            importClientsServiceFacade.importClients(is, progress);
+        } catch (IOException ex) {
+            progress.chunkProcessed(0, 0, Collections.singletonList(ex.getMessage()));
+        } finally {
+            closeStream(is);
+            importClientsFormBean.setFile(null);
+        }
+
+        return progress;
+    }
+
     public ParsedClientsDto save(ParsedClientsDto parsedClientsDto) {
         importClientsServiceFacade.save(parsedClientsDto);
         return parsedClientsDto;
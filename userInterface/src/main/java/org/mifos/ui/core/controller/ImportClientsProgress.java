@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2005-2011 Grameen Foundation USA
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+ * explanation of the license and how it is applied.
+ */
+
+package org.mifos.ui.core.controller;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mifos.application.importexport.servicefacade.ImportProgressListener;
+
+/**
+ * Collects the progress reported while clients are imported straight from the file, for the page shown once the
+ * import is done.
+ */
+public class ImportClientsProgress implements ImportProgressListener, Serializable {
+
+    private static final long serialVersionUID = -3016411342366474620L;
+
+    private int rowsRead;
+    private int rowsImported;
+    private final List<String> errors = new ArrayList<String>();
+
+    @Override
+    public void chunkProcessed(int rowsRead, int rowsImported, List<String> errors) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.errors.addAll(errors);
+    }
+
+    public int getRowsRead() {
+        return this.rowsRead;
+    }
+
+    public int getRowsImported() {
+        return this.rowsImported;
+    }
+
+    public int getRowsIgnored() {
+        return this.rowsRead - this.rowsImported;
+    }
+
+    public List<String> getErrors() {
+        return this.errors;
+    }
+
+    public boolean isInError() {
+        return !this.errors.isEmpty();
+    }
+}
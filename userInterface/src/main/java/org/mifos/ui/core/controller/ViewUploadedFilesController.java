@@ -14,6 +14,8 @@ import org.mifos.dto.screen.UploadedFileDto;
 import org.mifos.framework.fileupload.service.ClientFileService;
 import org.mifos.framework.fileupload.service.FileService;
 import org.mifos.framework.fileupload.service.LoanFileService;
+import org.mifos.framework.fileupload.service.StreamedContent;
+import org.mifos.framework.fileupload.service.StreamedContentWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
@@ -66,11 +68,15 @@ public class ViewUploadedFilesController {
         if (StringUtils.isNotBlank(request.getParameter("downloadFileId"))) {
             Long fileId = Long.parseLong(request.getParameter("downloadFileId"));
             UploadedFileDto uploadedFileDto = fileService.read(fileId);
-            response.setContentType(uploadedFileDto.getContentType());
-            response.setContentLength(uploadedFileDto.getSize());
-            response.setHeader("Content-Disposition", "attachment; filename=\"" + uploadedFileDto.getName() + "\"");
+            StreamedContent content = fileService.getContent(uploadedFileDto);
             try {
-                response.getOutputStream().write(fileService.getData(uploadedFileDto));
+                if (content == null) {
+                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    return null;
+                }
+                response.setHeader("Content-Disposition", "attachment; filename=\"" + uploadedFileDto.getName() + "\"");
+                StreamedContentWriter.write(content, request, response);
+                return null;
             } catch (IOException e) {
                 throw new MifosRuntimeException(e);
             }
@@ -19,7 +19,9 @@
  */
 package org.mifos.ui.pentaho.controller;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Date;
 import java.util.List;
@@ -31,6 +33,9 @@ import javax.validation.Valid;
 
 import org.apache.commons.lang.StringUtils;
 import org.mifos.reports.pentaho.PentahoReport;
+import org.mifos.reports.pentaho.PentahoReportJob;
+import org.mifos.reports.pentaho.PentahoReportOutput;
+import org.mifos.reports.pentaho.PentahoReportQueueServiceFacade;
 import org.mifos.reports.pentaho.PentahoReportsServiceFacade;
 import org.mifos.reports.pentaho.PentahoValidationError;
 import org.mifos.reports.pentaho.params.AbstractPentahoParameter;
@@ -48,6 +53,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
 @Controller
@@ -58,6 +64,7 @@ public class PentahoReportingController {
     private static final String REPORTS_MAIN_URL = "reportsAction.do?method=load";
 
     private PentahoReportsServiceFacade pentahoReportsService;
+    private PentahoReportQueueServiceFacade pentahoReportQueueService;
 
     @InitBinder
     protected void initBinder(WebDataBinder binder) {
@@ -69,6 +76,11 @@ public class PentahoReportingController {
         this.pentahoReportsService = pentahoReportsService;
     }
 
+    @Autowired
+    public void setPentahoReportQueueService(PentahoReportQueueServiceFacade pentahoReportQueueService) {
+        this.pentahoReportQueueService = pentahoReportQueueService;
+    }
+
     @RequestMapping(value = "/execPentahoReport.ftl", method = RequestMethod.GET)
     public ModelAndView redirectToReportsPage() {
         return new ModelAndView("redirect:" + REPORTS_MAIN_URL);
@@ -95,7 +107,8 @@ public class PentahoReportingController {
             Integer outputType = Integer.parseInt(pentahoReportFormBean.getOutputType());
             Map<String, AbstractPentahoParameter> reportParams = pentahoReportFormBean.getAllParameteres();
 
-            PentahoReport report = this.pentahoReportsService.getReport(reportId, outputType, reportParams);
+            ResponseReportOutput output = new ResponseReportOutput(response);
+            PentahoReport report = this.pentahoReportsService.writeReport(reportId, outputType, reportParams, output);
 
             if (report.isInError()) {
                 for (PentahoValidationError error : report.getErrors()) {
@@ -103,24 +116,50 @@ public class PentahoReportingController {
                 }
                 mav = new ModelAndView("viewPentahoReport");
                 initFormBean(pentahoReportFormBean, reportId, request);
-            } else {
-                if (report.getContentType().equalsIgnoreCase("text/html")) {
-                    HashMap<String, String> modelMap = new HashMap<String, String> ();
-                    modelMap.put("reportContent", new String(report.getContent()));
-                    mav = new ModelAndView("viewHtmlReport", modelMap);
-                }
-                else {
-                    response.setHeader("Content-Disposition", "attachment; filename=\""
-                            + report.getFilename() + "\"");
-                    response.setContentType(report.getContentType());
-                    response.setContentLength(report.getContentSize());
-                    response.getOutputStream().write(report.getContent());
-                }
+            } else if (output.isHtml()) {
+                HashMap<String, String> modelMap = new HashMap<String, String> ();
+                modelMap.put("reportContent", output.getHtml());
+                mav = new ModelAndView("viewHtmlReport", modelMap);
             }
         }
         return mav;
     }
 
+    /**
+     * Queues the report to be rendered in the background instead of waiting for it.
+     */
+    @RequestMapping(value = "/queuePentahoReport.ftl", method = RequestMethod.POST)
+    public @ResponseBody PentahoReportJob queueReport(final HttpServletRequest request,
+            @ModelAttribute("pentahoReportFormBean") PentahoReportFormBean pentahoReportFormBean) {
+        Integer outputType = Integer.parseInt(pentahoReportFormBean.getOutputType());
+        return this.pentahoReportQueueService.submitReport(pentahoReportFormBean.getReportId(), outputType,
+                pentahoReportFormBean.getAllParameteres(), request);
+    }
+
+    @RequestMapping(value = "/pentahoReportJob.ftl", method = RequestMethod.GET)
+    public @ResponseBody PentahoReportJob getReportJob(@RequestParam(value = "jobId", required = true) String jobId) {
+        return this.pentahoReportQueueService.getReportJob(jobId);
+    }
+
+    @RequestMapping(value = "/pentahoReportJobs.ftl", method = RequestMethod.GET)
+    public @ResponseBody List<PentahoReportJob> getReportJobs() {
+        return this.pentahoReportQueueService.getReportJobs();
+    }
+
+    @RequestMapping(value = "/downloadPentahoReport.ftl", method = RequestMethod.GET)
+    public void downloadReport(@RequestParam(value = "jobId", required = true) String jobId,
+            HttpServletResponse response) throws IOException {
+        PentahoReport report = this.pentahoReportQueueService.getReportJobResult(jobId);
+        if (report == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + report.getFilename() + "\"");
+        response.setContentType(report.getContentType());
+        response.setContentLength(report.getContentSize());
+        response.getOutputStream().write(report.getContent());
+    }
+
     @RequestMapping(value = "/viewPentahoReport.ftl", method=RequestMethod.GET)
     public void loadReport(@RequestParam(value = REPORT_ID_PARAM, required = true) Integer reportId,
             @ModelAttribute("pentahoReportFormBean") PentahoReportFormBean formBean, HttpServletRequest request) {
@@ -212,4 +251,35 @@ public class PentahoReportingController {
             request.getSession().setAttribute("isDW", "false");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams downloaded reports straight to the response; HTML reports are shown in a page, so they are kept.
+     */
+    private static class ResponseReportOutput implements PentahoReportOutput {
+        private final HttpServletResponse response;
+        private ByteArrayOutputStream html;
+
+        ResponseReportOutput(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public OutputStream open(PentahoReport report) throws IOException {
+            if (report.getContentType().equalsIgnoreCase("text/html")) {
+                html = new ByteArrayOutputStream();
+                return html;
+            }
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + report.getFilename() + "\"");
+            response.setContentType(report.getContentType());
+            return response.getOutputStream();
+        }
+
+        boolean isHtml() {
+            return html != null;
+        }
+
+        String getHtml() {
+            return new String(html.toByteArray());
+        }
+    }
+}
@@ -158,6 +158,19 @@
                                 [/#if]
                             </span>
                         </div>
+                        [#if batchjobs.lastRun??]
+                            <div class="span-21">
+                                <span class="span-1">&nbsp;</span>
+                                <span class="span-17">
+                                    [@spring.message "systemAdministration.batchjobs.previousRunMetrics" /]:&nbsp;
+                                    ${batchjobs.lastRun.itemsProcessed?c}&nbsp;[@spring.message "systemAdministration.batchjobs.processed" /],
+                                    ${batchjobs.lastRun.itemsFailed?c}&nbsp;[@spring.message "systemAdministration.batchjobs.failedItems" /],
+                                    ${batchjobs.lastRun.throughput?string("0.#")}&nbsp;[@spring.message "systemAdministration.batchjobs.itemsPerSecond" /],
+                                    [@spring.message "systemAdministration.batchjobs.chunkLatencyP90" /]&nbsp;${batchjobs.lastRun.chunkLatencyP90?c}&nbsp;[@spring.message "systemAdministration.batchjobs.milisec" /]
+                                    &nbsp;(<a href="batchjobsdetails.ftl?jobHistoryName=${batchjobs.name}">[@spring.message "systemAdministration.batchjobs.showHistory" /]</a>)
+                                </span>
+                            </div>
+                        [/#if]
                         [#if batchjobs.lastSuccessfulRun?datetime != batchjobs.lastStartTime?datetime]
                             <div class="span-21">
                                 <span class="span-1">&nbsp;</span>
@@ -38,6 +38,35 @@
                     <p>${batchjob.failDescription}</p>
                 [/#if]
             [/#list]
+            [#if model.jobHistoryName != ""]
+                <p class="font15"><span class="orangeheading">${model.jobHistoryName}&nbsp;[@spring.message "systemAdministration.batchjobs.batchjobsRunHistory" /]</span></p><br>
+                <table class="table_common" border="0">
+                    <tr>
+                        <th>[@spring.message "systemAdministration.batchjobs.executionTime" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.previousRunStatus" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.read" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.processed" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.failedItems" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.committed" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.elapsedTime" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.itemsPerSecond" /]</th>
+                        <th>[@spring.message "systemAdministration.batchjobs.chunkLatencyPercentiles" /]</th>
+                    </tr>
+                    [#list model.history as run]
+                    <tr>
+                        <td>${run.executionTime?datetime}</td>
+                        <td>${run.status}</td>
+                        <td>${run.itemsRead?c}</td>
+                        <td>${run.itemsProcessed?c}</td>
+                        <td>${run.itemsFailed?c}</td>
+                        <td>${run.itemsCommitted?c}</td>
+                        <td>${run.elapsedMillis?c}</td>
+                        <td>${run.throughput?string("0.#")}</td>
+                        <td>${run.chunkLatencyP50?c}/${run.chunkLatencyP90?c}/${run.chunkLatencyP99?c}</td>
+                    </tr>
+                    [/#list]
+                </table>
+            [/#if]
         </div>
         <br /><a href="batchjobs.ftl">[@spring.message "systemAdministration.batchjobs.return" /]</a>
     </div>
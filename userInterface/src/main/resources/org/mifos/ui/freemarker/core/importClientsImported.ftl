@@ -0,0 +1,42 @@
+[#ftl]
+[#--
+* Copyright (c) 2005-2011 Grameen Foundation USA
+*  All rights reserved.
+*
+*  Licensed under the Apache License, Version 2.0 (the "License");
+*  you may not use this file except in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing, software
+*  distributed under the License is distributed on an "AS IS" BASIS,
+*  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+*  implied. See the License for the specific language governing
+*  permissions and limitations under the License.
+*
+*  See also http://www.apache.org/licenses/LICENSE-2.0.html for an
+*  explanation of the license and how it is applied.
+--]
+[#include "layout.ftl"]
+[@adminLeftPaneLayout]
+<span id="page.id" title="ImportClientImported"></span>
+<span class="headingorange">[@spring.message "admin.importexport.clients.imported.success"/]</span>
+<br />
+[#assign args=[ importClientsProgress.rowsRead ] /]
+<p><span class="fontnormal">[@spring.messageArgs "admin.importexport.clients.imported.rowsRead" args/]</span><p>
+[#assign args=[ importClientsProgress.rowsImported ] /]
+<p><span class="fontnormal">[@spring.messageArgs "admin.importexport.clients.save.count" args/]</span><p>
+[#assign args=[ importClientsProgress.rowsIgnored ] /]
+<p><span class="fontnormal">[@spring.messageArgs "admin.importexport.clients.save.rowsIgnored" args /]</span><p>
+[#if importClientsProgress.inError]
+    <br />
+    <p>[@spring.message "admin.importexport.clients.imported.errors" /]</p>
+    [#list importClientsProgress.errors as error]
+        <p><font color="red">${error}</font></p>
+    [/#list]
+[/#if]
+<br />
+<p><span class="fontnormal"><a id="link.importClients" href="importClients.ftl">[@spring.message "admin.importexport.clients.importClients" /]</a></span class="fontnormal"></p>
+<!-- Main Content Ends -->
+[/@adminLeftPaneLayout]
@@ -38,6 +38,7 @@
     </fieldset>
     <div class="row webflow-controls">
         [@form.submitButton label="admin.importexport.clients.review" id="importClients.review" webflowEvent="fileSelected" /]
+        [@form.submitButton label="admin.importexport.clients.importWithoutReview" id="importClients.import" webflowEvent="importFile" /]
         [@form.cancelButton label="widget.form.buttonLabel.cancel" webflowEvent="cancel" /]
     </div>
 </form>
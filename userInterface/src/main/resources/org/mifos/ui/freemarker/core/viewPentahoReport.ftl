@@ -80,7 +80,7 @@
 	  }
 	}
 	
-	function selectAllOptions()
+	function selectAllSelectedValues()
 	{
 	    $(":regex(id, reportMultiSelectParams\\[[0-9]+\\]\\.selectedValues)").each(function() {
 	        var selLength = this.length;
@@ -90,12 +90,89 @@
 	            this.options[i].selected=true;
 	        }
 	    });
+	}
+
+	function selectAllOptions()
+	{
+	    selectAllSelectedValues();
 	    
 	    document.getElementById('input.submit').disabled = true;
 	    document.getElementById('input.submit').className = 'submit-disabled';
 	    document.getElementById('report.form').submit();
 	}
 	
+	var reportJobStatuses = {
+	    QUEUED: "[@spring.message "reports.queue.status.queued" /]",
+	    RUNNING: "[@spring.message "reports.queue.status.running" /]",
+	    FINISHED: "[@spring.message "reports.queue.status.finished" /]",
+	    FAILED: "[@spring.message "reports.queue.status.failed" /]",
+	    REJECTED: "[@spring.message "reports.queue.status.rejected" /]"
+	};
+
+	function queueReport()
+	{
+	    selectAllSelectedValues();
+	    $.ajax({
+	        type: "POST",
+	        url: "queuePentahoReport.ftl",
+	        data: $("#report\\.form").serialize(),
+	        dataType: "json",
+	        success: function(job) {
+	            showReportJob(job);
+	        },
+	        error: function() {
+	            alert("[@spring.message "reports.queue.error" /]");
+	        }
+	    });
+	}
+
+	function pollReportJob(jobId)
+	{
+	    $.getJSON("pentahoReportJob.ftl", {jobId: jobId}, function(job) {
+	        if (job) {
+	            showReportJob(job);
+	        }
+	    });
+	}
+
+	function showReportJob(job)
+	{
+	    var row = $("#reportJobs tr").filter(function() {
+	        return $(this).data("jobId") == job.jobId;
+	    });
+	    if (row.length == 0) {
+	        row = $("<tr></tr>").data("jobId", job.jobId);
+	        $("#reportJobs").append(row);
+	        $("#reportJobsSection").show();
+	    }
+	    row.empty();
+	    row.append($("<td></td>").text(job.reportName));
+	    row.append($("<td></td>").text(new Date(job.submittedDate).toLocaleString()));
+
+	    var status = $("<td></td>");
+	    if (job.status == "FINISHED") {
+	        status.append($("<a></a>").attr("href", "downloadPentahoReport.ftl?jobId=" + encodeURIComponent(job.jobId))
+	                .text("[@spring.message "reports.queue.download" /]"));
+	    } else {
+	        status.text(job.message ? reportJobStatuses[job.status] + ": " + job.message : reportJobStatuses[job.status]);
+	    }
+	    row.append(status);
+
+	    if (job.status == "QUEUED" || job.status == "RUNNING") {
+	        setTimeout(function() {
+	            pollReportJob(job.jobId);
+	        }, 3000);
+	    }
+	}
+
+	$(document).ready(function() {
+	    $.getJSON("pentahoReportJobs.ftl", function(jobs) {
+	        $.each(jobs, function(index, job) {
+	            showReportJob(job);
+	        });
+	    });
+	});
+
 	function updateDropdown(form){ 			 		
 		 form.action="viewPentahoReport.ftl"; 			
 		 form.submit(); 		
@@ -205,6 +282,7 @@ $(document).ready(function() {
 		    </br>
 		    <div class="row">
 		    	[@form.submitButton label="widget.form.buttonLabel.submit" id="input.submit" attributes="onClick='selectAllOptions();'" /]
+		    	<input id="input.queue" type="button" class="buttn2" value="[@spring.message "reports.queue.runInBackground" /]" onclick="queueReport();" />
 		    	<input id="input.cancel" type="submit" class="cancel" value="[@spring.message "widget.form.buttonLabel.cancel" /]" name="CANCEL" />
 		    </div>
 		    [#if Session.isDW == "true"]
@@ -218,6 +296,17 @@ $(document).ready(function() {
 		    </div>
 		    [/#if]
 		</form>
+		<div id="reportJobsSection" style="display: none">
+			<br />
+			<p class="fontBold">[@spring.message "reports.queue.title" /]</p>
+			<table id="reportJobs">
+				<tr>
+					<th>[@spring.message "reports.queue.reportName" /]</th>
+					<th>[@spring.message "reports.queue.submittedDate" /]</th>
+					<th>[@spring.message "reports.queue.status" /]</th>
+				</tr>
+			</table>
+		</div>
 	</div>
 	
 [/@layout.reportsLeftPaneLayout]
\ No newline at end of file